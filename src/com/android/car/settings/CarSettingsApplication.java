@@ -30,6 +30,10 @@ import android.view.Display;
 
 import androidx.annotation.GuardedBy;
 
+import com.android.car.settings.common.CarServiceHub;
+import com.android.car.settings.common.SettingsTracer;
+import com.android.car.settings.common.TopLevelMenuSnapshotStore;
+
 /**
  * Application class for CarSettings.
  */
@@ -85,10 +89,19 @@ public class CarSettingsApplication extends Application {
 
     @Override
     public void onCreate() {
-        super.onCreate();
-
-        Car.createCar(this, /* handler= */ null , Car.CAR_WAIT_TIMEOUT_WAIT_FOREVER,
-                mCarServiceLifecycleListener);
+        String traceSection = SettingsTracer.getSectionName(this, "onCreate");
+        long traceStart = SettingsTracer.begin(traceSection);
+        try {
+            super.onCreate();
+
+            // Holds a reference to the shared car connection for the lifetime of the process so
+            // that screens reuse it instead of binding to the car service themselves.
+            CarServiceHub.getInstance(this).acquire(mCarServiceLifecycleListener);
+            // Reads the top-level menu snapshots before the first activity needs them.
+            TopLevelMenuSnapshotStore.getInstance(this).preload();
+        } finally {
+            SettingsTracer.end(traceSection, traceStart);
+        }
     }
 
     /**
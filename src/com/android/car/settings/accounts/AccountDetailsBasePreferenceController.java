@@ -28,7 +28,6 @@ import com.android.car.settings.common.FragmentController;
 import com.android.car.settings.common.Logger;
 import com.android.car.settings.common.PreferenceController;
 import com.android.car.ui.preference.CarUiTwoActionIconPreference;
-import com.android.settingslib.accounts.AuthenticatorHelper;
 
 /** Base controller for preferences that shows the details of an account. */
 public abstract class AccountDetailsBasePreferenceController
@@ -95,13 +94,13 @@ public abstract class AccountDetailsBasePreferenceController
     @CallSuper
     protected void updateState(CarUiTwoActionIconPreference preference) {
         preference.setTitle(mAccount.name);
-        // Get the icon corresponding to the account's type and set it.
-        AuthenticatorHelper helper = getAuthenticatorHelper();
-        preference.setIcon(helper.getDrawableForType(getContext(), mAccount.type));
+        // Get the icon corresponding to the account's type and set it once loaded.
+        getAuthenticatorMetadataCache().loadDrawableForType(mUserHandle, mAccount.type,
+                preference::setIcon);
     }
 
     @VisibleForTesting
-    AuthenticatorHelper getAuthenticatorHelper() {
-        return new AuthenticatorHelper(getContext(), mUserHandle, null);
+    AuthenticatorMetadataCache getAuthenticatorMetadataCache() {
+        return AuthenticatorMetadataCache.getInstance(getContext());
     }
 }
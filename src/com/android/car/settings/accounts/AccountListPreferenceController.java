@@ -28,7 +28,6 @@ import android.content.Context;
 import android.content.Intent;
 import android.content.IntentFilter;
 import android.content.pm.UserInfo;
-import android.graphics.drawable.Drawable;
 import android.os.UserHandle;
 
 import androidx.collection.ArrayMap;
@@ -42,7 +41,6 @@ import com.android.car.settings.profiles.ProfileHelper;
 import com.android.car.settings.profiles.ProfileUtils;
 import com.android.car.ui.preference.CarUiPreference;
 import com.android.internal.annotations.VisibleForTesting;
-import com.android.settingslib.accounts.AuthenticatorHelper;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -50,6 +48,7 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -59,15 +58,14 @@ import java.util.Set;
  */
 public class AccountListPreferenceController extends
         PreferenceController<PreferenceCategory> implements
-        AuthenticatorHelper.OnAccountsUpdateListener {
+        AuthenticatorMetadataCache.OnMetadataChangedListener {
     private static final String NO_ACCOUNT_PREF_KEY = "no_accounts_added";
 
     private final ArrayMap<String, Preference> mPreferences = new ArrayMap<>();
+    private final AuthenticatorMetadataCache mMetadataCache;
 
     private UserInfo mUserInfo;
-    private AuthenticatorHelper mAuthenticatorHelper;
     private String[] mAuthorities;
-    private boolean mListenerRegistered = false;
     private boolean mNeedToRefreshUserInfo = false;
 
     private final BroadcastReceiver mUserUpdateReceiver = new BroadcastReceiver() {
@@ -81,7 +79,7 @@ public class AccountListPreferenceController extends
             FragmentController fragmentController, CarUxRestrictions uxRestrictions) {
         super(context, preferenceKey, fragmentController, uxRestrictions);
         mUserInfo = ProfileHelper.getInstance(context).getCurrentProcessUserInfo();
-        mAuthenticatorHelper = createAuthenticatorHelper();
+        mMetadataCache = AuthenticatorMetadataCache.getInstance(context);
     }
 
     /** Sets the account authorities that are available. */
@@ -128,9 +126,8 @@ public class AccountListPreferenceController extends
      */
     @Override
     protected void onStartInternal() {
-        mAuthenticatorHelper.listenToAccountUpdates();
+        mMetadataCache.addOnMetadataChangedListener(this);
         registerForUserEvents();
-        mListenerRegistered = true;
 
         /* refresh UserInfo only when restarting */
         if (mNeedToRefreshUserInfo) {
@@ -143,15 +140,15 @@ public class AccountListPreferenceController extends
      */
     @Override
     protected void onStopInternal() {
-        mAuthenticatorHelper.stopListeningToAccountUpdates();
+        mMetadataCache.removeOnMetadataChangedListener(this);
         unregisterForUserEvents();
-        mListenerRegistered = false;
         mNeedToRefreshUserInfo = true;
     }
 
     @Override
-    public void onAccountsUpdate(UserHandle userHandle) {
-        if (userHandle.equals(mUserInfo.getUserHandle())) {
+    public void onMetadataChanged(UserHandle userHandle) {
+        // The cache is invalidated whenever the accounts of a user change.
+        if (UserHandle.ALL.equals(userHandle) || userHandle.equals(mUserInfo.getUserHandle())) {
             forceUpdateAccountsCategory();
         }
     }
@@ -162,11 +159,6 @@ public class AccountListPreferenceController extends
         forceUpdateAccountsCategory();
     }
 
-    @VisibleForTesting
-    AuthenticatorHelper createAuthenticatorHelper() {
-        return new AuthenticatorHelper(getContext(), mUserInfo.getUserHandle(), this);
-    }
-
     private boolean onAccountPreferenceClicked(AccountPreference preference) {
         // Show the account's details when an account is clicked on.
         getFragmentController().launchFragment(AccountDetailsFragment.newInstance(
@@ -180,13 +172,6 @@ public class AccountListPreferenceController extends
         getPreference().setTitle(
                 getContext().getString(R.string.account_list_title, mUserInfo.name));
 
-        // Recreate the authentication helper to refresh the list of enabled accounts
-        mAuthenticatorHelper.stopListeningToAccountUpdates();
-        mAuthenticatorHelper = createAuthenticatorHelper();
-        if (mListenerRegistered) {
-            mAuthenticatorHelper.listenToAccountUpdates();
-        }
-
         Set<String> preferencesToRemove = new HashSet<>(mPreferences.keySet());
         List<? extends Preference> preferences = getAccountPreferences(preferencesToRemove);
         // Add all preferences that aren't already shown. Manually set the order so that existing
@@ -215,37 +200,42 @@ public class AccountListPreferenceController extends
      */
     private List<? extends Preference> getAccountPreferences(
             Set<String> preferencesToRemove) {
-        String[] accountTypes = mAuthenticatorHelper.getEnabledAccountTypes();
-        ArrayList<AccountPreference> accountPreferences =
-                new ArrayList<>(accountTypes.length);
+        // Group the accounts of the user by type, in a single query.
+        Map<String, List<Account>> accountsByType = new ArrayMap<>();
+        for (Account account : AccountManager.get(getContext())
+                .getAccountsAsUser(mUserInfo.id)) {
+            accountsByType.computeIfAbsent(account.type, k -> new ArrayList<>()).add(account);
+        }
+        ArrayList<AccountPreference> accountPreferences = new ArrayList<>();
 
-        for (int i = 0; i < accountTypes.length; i++) {
-            String accountType = accountTypes[i];
+        for (Map.Entry<String, List<Account>> entry : accountsByType.entrySet()) {
+            String accountType = entry.getKey();
             // Skip showing any account that does not have any of the requested authorities
             if (!accountTypeHasAnyRequestedAuthorities(accountType)) {
                 continue;
             }
-            CharSequence label = mAuthenticatorHelper.getLabelForType(getContext(), accountType);
+            CharSequence label = mMetadataCache.getLabelForType(mUserInfo.getUserHandle(),
+                    accountType);
             if (label == null) {
                 continue;
             }
 
-            Account[] accounts = AccountManager.get(getContext())
-                    .getAccountsByTypeAsUser(accountType, mUserInfo.getUserHandle());
-            Drawable icon = mAuthenticatorHelper.getDrawableForType(getContext(), accountType);
-
             // Add a preference row for each individual account
-            for (Account account : accounts) {
+            for (Account account : entry.getValue()) {
                 String key = AccountPreference.buildKey(account);
-                AccountPreference preference = (AccountPreference) mPreferences.getOrDefault(key,
-                        new AccountPreference(getContext(), account, label, icon));
+                AccountPreference preference = (AccountPreference) mPreferences.get(key);
+                if (preference == null) {
+                    preference = new AccountPreference(getContext(), account, label);
+                    // Icons are loaded off the main thread and shared through the metadata cache.
+                    mMetadataCache.loadDrawableForType(mUserInfo.getUserHandle(), accountType,
+                            preference::setIcon);
+                }
                 preference.setOnPreferenceClickListener(
                         (Preference pref) -> onAccountPreferenceClicked((AccountPreference) pref));
 
                 accountPreferences.add(preference);
                 preferencesToRemove.remove(key);
             }
-            mAuthenticatorHelper.preloadDrawableForType(getContext(), accountType);
         }
 
         // If there are no accounts, return the "no account added" preference.
@@ -291,8 +281,8 @@ public class AccountListPreferenceController extends
             // No authorities required
             return true;
         }
-        ArrayList<String> authoritiesForType =
-                mAuthenticatorHelper.getAuthoritiesForAccountType(accountType);
+        List<String> authoritiesForType = mMetadataCache.getAuthoritiesForAccountType(
+                mUserInfo.getUserHandle(), accountType);
         if (authoritiesForType == null) {
             return false;
         }
@@ -314,8 +304,7 @@ public class AccountListPreferenceController extends
         private final Account mAccount;
         private final CharSequence mLabel;
 
-        private AccountPreference(Context context, Account account, CharSequence label,
-                Drawable icon) {
+        private AccountPreference(Context context, Account account, CharSequence label) {
             super(context);
             mAccount = account;
             mLabel = label;
@@ -323,7 +312,6 @@ public class AccountListPreferenceController extends
             setKey(buildKey(account));
             setTitle(account.name);
             setSummary(label);
-            setIcon(icon);
             setShowChevron(false);
         }
 
@@ -16,7 +16,6 @@
 
 package com.android.car.settings.accounts;
 
-import android.accounts.AccountManager;
 import android.accounts.AuthenticatorDescription;
 import android.content.Context;
 import android.content.pm.PackageManager;
@@ -25,13 +24,12 @@ import android.os.UserHandle;
 
 import androidx.annotation.VisibleForTesting;
 
-import com.android.settingslib.accounts.AuthenticatorHelper;
-
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Utility that maintains a set of authorized account types.
@@ -44,16 +42,30 @@ public class AccountTypesHelper {
     }
 
     private final Context mContext;
+    private final AuthenticatorMetadataCache mMetadataCache;
     private UserHandle mUserHandle;
-    private AuthenticatorHelper mAuthenticatorHelper;
     private List<String> mAuthorities;
     private Set<String> mAccountTypesFilter;
     private Set<String> mAccountTypesExclusionFilter;
     private Set<String> mAuthorizedAccountTypes;
     private OnChangeListener mListener;
 
+    private final AuthenticatorMetadataCache.OnMetadataChangedListener mMetadataChangedListener =
+            userHandle -> {
+                // Only refresh if the metadata has changed for the current user.
+                if (UserHandle.ALL.equals(userHandle) || userHandle.equals(mUserHandle)) {
+                    updateAuthorizedAccountTypes(false /* isForced */);
+                }
+            };
+
     public AccountTypesHelper(Context context) {
+        this(context, AuthenticatorMetadataCache.getInstance(context));
+    }
+
+    @VisibleForTesting
+    AccountTypesHelper(Context context, AuthenticatorMetadataCache metadataCache) {
         mContext = context;
+        mMetadataCache = metadataCache;
 
         // Default to hardcoded Bluetooth account type.
         mAccountTypesExclusionFilter = new HashSet<>();
@@ -61,13 +73,6 @@ public class AccountTypesHelper {
         setAccountTypesExclusionFilter(mAccountTypesExclusionFilter);
 
         mUserHandle = UserHandle.of(UserHandle.myUserId());
-        mAuthenticatorHelper = new AuthenticatorHelper(mContext, mUserHandle,
-                userHandle -> {
-                    // Only force a refresh if accounts have changed for the current user.
-                    if (userHandle.equals(mUserHandle)) {
-                        updateAuthorizedAccountTypes(false /* isForced */);
-                    }
-                });
     }
 
     /** Sets the authorities that the user has. */
@@ -94,20 +99,20 @@ public class AccountTypesHelper {
      * Updates the set of authorized account types.
      *
      * <p>Derived from
-     * {@link com.android.settings.accounts.ChooseAccountActivity#onAuthDescriptionsUpdated}
+     * {@link com.android.settings.accounts.ChooseAccountActivity#onAuthDescriptionsUpdated}. The
+     * authenticator types are read from the shared {@link AuthenticatorMetadataCache}.
      */
     @VisibleForTesting
     void updateAuthorizedAccountTypes(boolean isForced) {
-        AccountManager accountManager = AccountManager.get(mContext);
         AuthenticatorDescription[] authenticatorDescriptions =
-                accountManager.getAuthenticatorTypesAsUser(mUserHandle.getIdentifier());
+                mMetadataCache.getAuthenticatorTypes(mUserHandle);
 
         Set<String> authorizedAccountTypes = new HashSet<>();
         for (AuthenticatorDescription authenticatorDescription : authenticatorDescriptions) {
             String accountType = authenticatorDescription.type;
 
             List<String> accountAuthorities =
-                    mAuthenticatorHelper.getAuthoritiesForAccountType(accountType);
+                    mMetadataCache.getAuthoritiesForAccountType(mUserHandle, accountType);
 
             // If there are specific authorities required, we need to check whether they are
             // included in the account type.
@@ -149,14 +154,17 @@ public class AccountTypesHelper {
         updateAuthorizedAccountTypes(true /* isForced */);
     }
 
-    /** Starts listening for account updates. */
+    /**
+     * Starts listening for account updates, which are delivered by the shared {@link
+     * AuthenticatorMetadataCache} when it is invalidated.
+     */
     public void listenToAccountUpdates() {
-        mAuthenticatorHelper.listenToAccountUpdates();
+        mMetadataCache.addOnMetadataChangedListener(mMetadataChangedListener);
     }
 
     /** Stops listening for account updates. */
     public void stopListeningToAccountUpdates() {
-        mAuthenticatorHelper.stopListeningToAccountUpdates();
+        mMetadataCache.removeOnMetadataChangedListener(mMetadataChangedListener);
     }
 
     /**
@@ -165,28 +173,18 @@ public class AccountTypesHelper {
      * @param accountType the type of account
      */
     public CharSequence getLabelForType(String accountType) {
-        return mAuthenticatorHelper.getLabelForType(mContext, accountType);
+        return mMetadataCache.getLabelForType(mUserHandle, accountType);
     }
 
     /**
-     * Gets an icon associated with a particular account type. Returns a default icon if none found.
+     * Loads the icon associated with a particular account type off the main thread and delivers
+     * it to {@code callback} on the main thread.
      *
      * @param accountType the type of account
-     * @return a drawable for the icon or a default icon returned by
+     * @param callback receives a drawable for the icon or a default icon returned by
      *     {@link PackageManager#getDefaultActivityIcon} if one cannot be found.
      */
-    public Drawable getDrawableForType(String accountType) {
-        return mAuthenticatorHelper.getDrawableForType(mContext, accountType);
-    }
-
-    /** Used for testing to trigger an account update. */
-    @VisibleForTesting
-    AuthenticatorHelper getAuthenticatorHelper() {
-        return mAuthenticatorHelper;
-    }
-
-    @VisibleForTesting
-    void setAuthenticatorHelper(AuthenticatorHelper helper) {
-        mAuthenticatorHelper = helper;
+    public void loadDrawableForType(String accountType, Consumer<Drawable> callback) {
+        mMetadataCache.loadDrawableForType(mUserHandle, accountType, callback);
     }
 }
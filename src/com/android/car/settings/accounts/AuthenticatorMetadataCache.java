@@ -0,0 +1,368 @@
+/*
+ * Copyright (C) 2023 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.car.settings.accounts;
+
+import android.accounts.AccountManager;
+import android.accounts.AuthenticatorDescription;
+import android.content.BroadcastReceiver;
+import android.content.ContentResolver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.content.SyncAdapterType;
+import android.content.pm.PackageManager;
+import android.content.res.Resources;
+import android.graphics.drawable.Drawable;
+import android.os.UserHandle;
+import android.util.SparseArray;
+
+import androidx.annotation.GuardedBy;
+import androidx.annotation.MainThread;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import androidx.collection.ArrayMap;
+import androidx.collection.ArraySet;
+
+import com.android.car.settings.common.Logger;
+import com.android.settingslib.utils.ThreadUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Process-wide cache of authenticator metadata (descriptions, sync authorities, labels and icons)
+ * scoped per user.
+ *
+ * <p>The cache is shared by all account controllers so that opening an account screen does not
+ * re-query {@link AccountManager#getAuthenticatorTypesAsUser} or re-resolve the label and icon of
+ * each account type. Entries for a user are dropped when {@link
+ * AccountManager#LOGIN_ACCOUNTS_CHANGED_ACTION} is received for that user, and entries for all
+ * users are dropped when a package is added, removed or changed, since this may add or remove an
+ * authenticator or change its resources.
+ *
+ * <p>Icons are loaded on a background thread through {@link #loadDrawableForType}.
+ *
+ * <p>The cache is the only place that listens to account changes for the controllers using it;
+ * they refresh through {@link OnMetadataChangedListener} instead of registering their own
+ * receivers.
+ */
+public class AuthenticatorMetadataCache {
+    private static final Logger LOG = new Logger(AuthenticatorMetadataCache.class);
+
+    private static AuthenticatorMetadataCache sInstance;
+
+    /** Callback invoked when the cached metadata for a user is invalidated. */
+    public interface OnMetadataChangedListener {
+        /**
+         * Called on the main thread when the cached metadata for {@code userHandle} has been
+         * invalidated. {@code userHandle} is {@link UserHandle#ALL} if all users were affected.
+         */
+        void onMetadataChanged(UserHandle userHandle);
+    }
+
+    private final Context mContext;
+    private final Object mLock = new Object();
+    @GuardedBy("mLock")
+    private final SparseArray<UserMetadata> mUserMetadata = new SparseArray<>();
+    private final ArraySet<OnMetadataChangedListener> mListeners = new ArraySet<>();
+
+    private final BroadcastReceiver mAccountsChangedReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            invalidate(UserHandle.of(getSendingUserId()));
+        }
+    };
+
+    private final BroadcastReceiver mPackageChangedReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            invalidate(UserHandle.ALL);
+        }
+    };
+
+    /** Returns the process-wide instance of {@link AuthenticatorMetadataCache}. */
+    public static AuthenticatorMetadataCache getInstance(Context context) {
+        if (sInstance == null) {
+            sInstance = new AuthenticatorMetadataCache(context.getApplicationContext());
+            sInstance.registerReceivers();
+        }
+        return sInstance;
+    }
+
+    @VisibleForTesting
+    AuthenticatorMetadataCache(Context context) {
+        mContext = context;
+    }
+
+    private void registerReceivers() {
+        mContext.registerReceiverForAllUsers(mAccountsChangedReceiver,
+                new IntentFilter(AccountManager.LOGIN_ACCOUNTS_CHANGED_ACTION),
+                /* broadcastPermission= */ null, /* scheduler= */ null);
+
+        IntentFilter packageFilter = new IntentFilter();
+        packageFilter.addAction(Intent.ACTION_PACKAGE_ADDED);
+        packageFilter.addAction(Intent.ACTION_PACKAGE_REMOVED);
+        packageFilter.addAction(Intent.ACTION_PACKAGE_CHANGED);
+        packageFilter.addDataScheme("package");
+        mContext.registerReceiverForAllUsers(mPackageChangedReceiver, packageFilter,
+                /* broadcastPermission= */ null, /* scheduler= */ null);
+    }
+
+    /** Registers a listener to be notified when the cached metadata is invalidated. */
+    @MainThread
+    public void addOnMetadataChangedListener(OnMetadataChangedListener listener) {
+        mListeners.add(listener);
+    }
+
+    /** Unregisters a listener previously added with {@link #addOnMetadataChangedListener}. */
+    @MainThread
+    public void removeOnMetadataChangedListener(OnMetadataChangedListener listener) {
+        mListeners.remove(listener);
+    }
+
+    /**
+     * Returns the authenticator descriptions available to {@code userHandle}, querying {@link
+     * AccountManager} only if they are not cached yet.
+     */
+    public AuthenticatorDescription[] getAuthenticatorTypes(UserHandle userHandle) {
+        return getUserMetadata(userHandle).mDescriptions;
+    }
+
+    /** Returns the description for {@code accountType}, or {@code null} if none exists. */
+    @Nullable
+    public AuthenticatorDescription getAccountTypeDescription(UserHandle userHandle,
+            String accountType) {
+        return getUserMetadata(userHandle).mDescriptionsByType.get(accountType);
+    }
+
+    /**
+     * Returns the authorities of the sync adapters for {@code accountType}, or {@code null} if it
+     * has none. The sync adapters are only queried if they are not cached yet.
+     */
+    @Nullable
+    public List<String> getAuthoritiesForAccountType(UserHandle userHandle, String accountType) {
+        UserMetadata metadata = getUserMetadata(userHandle);
+        synchronized (mLock) {
+            if (metadata.mAuthoritiesByType != null) {
+                return metadata.mAuthoritiesByType.get(accountType);
+            }
+        }
+        Map<String, List<String>> authoritiesByType = new ArrayMap<>();
+        for (SyncAdapterType syncAdapter
+                : ContentResolver.getSyncAdapterTypesAsUser(userHandle.getIdentifier())) {
+            authoritiesByType.computeIfAbsent(syncAdapter.accountType, k -> new ArrayList<>())
+                    .add(syncAdapter.authority);
+        }
+        synchronized (mLock) {
+            metadata.mAuthoritiesByType = authoritiesByType;
+        }
+        return authoritiesByType.get(accountType);
+    }
+
+    /**
+     * Returns the label associated with {@code accountType}, or {@code null} if none is found.
+     */
+    @Nullable
+    public CharSequence getLabelForType(UserHandle userHandle, String accountType) {
+        UserMetadata metadata = getUserMetadata(userHandle);
+        synchronized (mLock) {
+            if (metadata.mLabels.containsKey(accountType)) {
+                return metadata.mLabels.get(accountType);
+            }
+        }
+        CharSequence label = loadLabel(userHandle,
+                metadata.mDescriptionsByType.get(accountType));
+        synchronized (mLock) {
+            metadata.mLabels.put(accountType, label);
+        }
+        return label;
+    }
+
+    /**
+     * Returns the icon associated with {@code accountType} if it has already been loaded, or
+     * {@code null} otherwise.
+     */
+    @Nullable
+    public Drawable getCachedDrawableForType(UserHandle userHandle, String accountType) {
+        UserMetadata metadata = getUserMetadata(userHandle);
+        synchronized (mLock) {
+            return newDrawable(metadata.mIcons.get(accountType));
+        }
+    }
+
+    /**
+     * Loads the icon associated with {@code accountType} and delivers it to {@code callback} on
+     * the main thread. If the icon is already cached, {@code callback} is invoked immediately;
+     * otherwise the icon is loaded on a background thread. Returns a default icon returned by
+     * {@link PackageManager#getDefaultActivityIcon} if one cannot be found.
+     */
+    @MainThread
+    public void loadDrawableForType(UserHandle userHandle, String accountType,
+            Consumer<Drawable> callback) {
+        UserMetadata metadata = getUserMetadata(userHandle);
+        synchronized (mLock) {
+            Drawable cached = metadata.mIcons.get(accountType);
+            if (cached != null) {
+                callback.accept(newDrawable(cached));
+                return;
+            }
+            List<Consumer<Drawable>> pending = metadata.mPendingIconCallbacks.get(accountType);
+            if (pending != null) {
+                // A load is already in flight, piggyback on it.
+                pending.add(callback);
+                return;
+            }
+            pending = new ArrayList<>();
+            pending.add(callback);
+            metadata.mPendingIconCallbacks.put(accountType, pending);
+        }
+
+        AuthenticatorDescription description = metadata.mDescriptionsByType.get(accountType);
+        ThreadUtils.postOnBackgroundThread(() -> {
+            Drawable icon = loadDrawable(userHandle, description);
+            List<Consumer<Drawable>> callbacks;
+            synchronized (mLock) {
+                metadata.mIcons.put(accountType, icon);
+                callbacks = metadata.mPendingIconCallbacks.remove(accountType);
+            }
+            ThreadUtils.postOnMainThread(() -> {
+                if (callbacks == null) {
+                    return;
+                }
+                for (Consumer<Drawable> pendingCallback : callbacks) {
+                    pendingCallback.accept(newDrawable(icon));
+                }
+            });
+        });
+    }
+
+    /** Loads the icons for {@code accountTypes} in the background so they are cached for later. */
+    @MainThread
+    public void preloadDrawablesForTypes(UserHandle userHandle, Iterable<String> accountTypes) {
+        for (String accountType : accountTypes) {
+            loadDrawableForType(userHandle, accountType, icon -> { });
+        }
+    }
+
+    /**
+     * Drops the cached metadata for {@code userHandle}, or for all users if {@code userHandle}
+     * is {@link UserHandle#ALL}, and notifies registered listeners.
+     */
+    @MainThread
+    public void invalidate(UserHandle userHandle) {
+        LOG.d("invalidate: " + userHandle);
+        synchronized (mLock) {
+            if (UserHandle.ALL.equals(userHandle)) {
+                mUserMetadata.clear();
+            } else {
+                mUserMetadata.remove(userHandle.getIdentifier());
+            }
+        }
+        for (OnMetadataChangedListener listener : new ArrayList<>(mListeners)) {
+            listener.onMetadataChanged(userHandle);
+        }
+    }
+
+    private UserMetadata getUserMetadata(UserHandle userHandle) {
+        synchronized (mLock) {
+            UserMetadata metadata = mUserMetadata.get(userHandle.getIdentifier());
+            if (metadata != null) {
+                return metadata;
+            }
+        }
+        AuthenticatorDescription[] descriptions = AccountManager.get(mContext)
+                .getAuthenticatorTypesAsUser(userHandle.getIdentifier());
+        UserMetadata metadata = new UserMetadata(descriptions);
+        synchronized (mLock) {
+            // Another thread may have populated the entry while the lock was released.
+            UserMetadata existing = mUserMetadata.get(userHandle.getIdentifier());
+            if (existing != null) {
+                return existing;
+            }
+            mUserMetadata.put(userHandle.getIdentifier(), metadata);
+        }
+        return metadata;
+    }
+
+    @Nullable
+    private CharSequence loadLabel(UserHandle userHandle,
+            @Nullable AuthenticatorDescription description) {
+        if (description == null) {
+            return null;
+        }
+        try {
+            Context authContext = mContext.createPackageContextAsUser(description.packageName,
+                    /* flags= */ 0, userHandle);
+            return authContext.getResources().getText(description.labelId);
+        } catch (PackageManager.NameNotFoundException e) {
+            LOG.w("No label name for account type " + description.type);
+        } catch (Resources.NotFoundException e) {
+            LOG.w("No label resource for account type " + description.type);
+        }
+        return null;
+    }
+
+    private Drawable loadDrawable(UserHandle userHandle,
+            @Nullable AuthenticatorDescription description) {
+        PackageManager packageManager = mContext.getPackageManager();
+        if (description != null) {
+            try {
+                Context authContext = mContext.createPackageContextAsUser(
+                        description.packageName, /* flags= */ 0, userHandle);
+                Drawable icon = authContext.getDrawable(description.iconId);
+                if (icon != null) {
+                    return packageManager.getUserBadgedIcon(icon, userHandle);
+                }
+            } catch (PackageManager.NameNotFoundException | Resources.NotFoundException e) {
+                LOG.w("No icon for account type " + description.type);
+            }
+        }
+        return packageManager.getDefaultActivityIcon();
+    }
+
+    /**
+     * Returns a new drawable backed by the same constant state so that callers can mutate it
+     * (bounds, tint) without affecting other preferences sharing the cached icon.
+     */
+    @Nullable
+    private static Drawable newDrawable(@Nullable Drawable drawable) {
+        if (drawable == null || drawable.getConstantState() == null) {
+            return drawable;
+        }
+        return drawable.getConstantState().newDrawable();
+    }
+
+    /** Cached metadata for a single user. */
+    private static final class UserMetadata {
+        final AuthenticatorDescription[] mDescriptions;
+        final Map<String, AuthenticatorDescription> mDescriptionsByType = new ArrayMap<>();
+        final Map<String, CharSequence> mLabels = new ArrayMap<>();
+        final Map<String, Drawable> mIcons = new ArrayMap<>();
+        final Map<String, List<Consumer<Drawable>>> mPendingIconCallbacks = new ArrayMap<>();
+        @Nullable
+        Map<String, List<String>> mAuthoritiesByType;
+
+        UserMetadata(AuthenticatorDescription[] descriptions) {
+            mDescriptions = descriptions;
+            for (AuthenticatorDescription description : descriptions) {
+                mDescriptionsByType.put(description.type, description);
+            }
+        }
+    }
+}
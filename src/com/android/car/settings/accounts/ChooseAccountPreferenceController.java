@@ -19,7 +19,6 @@ package com.android.car.settings.accounts;
 import android.car.drivingstate.CarUxRestrictions;
 import android.content.Context;
 import android.content.Intent;
-import android.graphics.drawable.Drawable;
 import android.os.Handler;
 
 import androidx.annotation.Nullable;
@@ -31,7 +30,6 @@ import com.android.car.settings.common.ActivityResultCallback;
 import com.android.car.settings.common.FragmentController;
 import com.android.car.settings.common.PreferenceController;
 import com.android.car.ui.preference.CarUiPreference;
-import com.android.settingslib.accounts.AuthenticatorHelper;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -146,16 +144,20 @@ public class ChooseAccountPreferenceController extends
         Set<String> authorizedAccountTypes = mAccountTypesHelper.getAuthorizedAccountTypes();
         // Create list of account providers to show on page.
         for (String accountType : authorizedAccountTypes) {
-            CharSequence label = mAccountTypesHelper.getLabelForType(accountType);
-            Drawable icon = mAccountTypesHelper.getDrawableForType(accountType);
-
             // Add a preference for the provider to the list and remove it from preferencesToRemove.
-            AuthenticatorDescriptionPreference preference = mPreferences.getOrDefault(accountType,
-                    new AuthenticatorDescriptionPreference(getContext(), accountType, label, icon));
+            AuthenticatorDescriptionPreference preference = mPreferences.get(accountType);
+            if (preference == null) {
+                CharSequence label = mAccountTypesHelper.getLabelForType(accountType);
+                preference = new AuthenticatorDescriptionPreference(getContext(), accountType,
+                        label);
+                // Icons are loaded off the main thread and shared through the metadata cache.
+                mAccountTypesHelper.loadDrawableForType(accountType, preference::setIcon);
+            }
             preference.setOnPreferenceClickListener(
                     pref -> {
                         Intent intent = AddAccountActivity.createAddAccountActivityIntent(
-                                getContext(), preference.getAccountType());
+                                getContext(),
+                                ((AuthenticatorDescriptionPreference) pref).getAccountType());
                         getFragmentController().startActivityForResult(intent,
                                 ADD_ACCOUNT_REQUEST_CODE, /* callback= */ this);
                         return true;
@@ -175,11 +177,6 @@ public class ChooseAccountPreferenceController extends
         return mAccountTypesHelper;
     }
 
-    @VisibleForTesting
-    void setAuthenticatorHelper(AuthenticatorHelper helper) {
-        mAccountTypesHelper.setAuthenticatorHelper(helper);
-    }
-
     @Override
     public void processActivityResult(int requestCode, int resultCode, @Nullable Intent data) {
         if (requestCode == ADD_ACCOUNT_REQUEST_CODE) {
@@ -200,14 +197,13 @@ public class ChooseAccountPreferenceController extends
     private static class AuthenticatorDescriptionPreference extends CarUiPreference {
         private final String mType;
 
-        AuthenticatorDescriptionPreference(Context context, String accountType, CharSequence label,
-                Drawable icon) {
+        AuthenticatorDescriptionPreference(Context context, String accountType,
+                CharSequence label) {
             super(context);
             mType = accountType;
 
             setKey(accountType);
             setTitle(label);
-            setIcon(icon);
             setShowChevron(false);
         }
 
@@ -32,6 +32,7 @@ import android.os.IBinder;
 import android.widget.Toast;
 
 import com.android.car.settings.R;
+import com.android.car.settings.common.CarServiceHub;
 import com.android.car.settings.common.Logger;
 
 
@@ -44,9 +45,14 @@ public final class FactoryResetActivity extends Activity {
     private static final int FACTORY_RESET_NOTIFICATION_ID = 42;
     private static final Logger LOG = new Logger(FactoryResetActivity.class);
     private ICarResultReceiver mCallback;
-    private Car mCar;
+    private CarServiceHub mCarServiceHub;
     private CarDrivingStateManager mCarDrivingStateManager;
 
+    private final Car.CarServiceLifecycleListener mCarServiceLifecycleListener = (car, ready) ->
+            mCarDrivingStateManager = ready
+                    ? (CarDrivingStateManager) car.getCarManager(Car.CAR_DRIVING_STATE_SERVICE)
+                    : null;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -69,10 +75,14 @@ public final class FactoryResetActivity extends Activity {
             return;
         }
 
-        // Connect to car service
-        mCar = Car.createCar(this);
-        mCarDrivingStateManager = (CarDrivingStateManager) mCar.getCarManager(
-                Car.CAR_DRIVING_STATE_SERVICE);
+        // Use the shared car service connection
+        mCarServiceHub = CarServiceHub.getInstance(this);
+        mCarServiceHub.acquire(mCarServiceLifecycleListener);
+        if (mCarDrivingStateManager == null) {
+            LOG.w("CarDrivingStateManager is not available");
+            finish();
+            return;
+        }
         showMore();
     }
 
@@ -82,6 +92,14 @@ public final class FactoryResetActivity extends Activity {
         finish();
     }
 
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (mCarServiceHub != null) {
+            mCarServiceHub.release(mCarServiceLifecycleListener);
+        }
+    }
+
     private void showMore() {
         CarDrivingStateEvent state = mCarDrivingStateManager.getCurrentCarDrivingState();
         switch (state.eventValue) {
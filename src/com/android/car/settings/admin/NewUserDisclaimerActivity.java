@@ -26,6 +26,7 @@ import androidx.fragment.app.FragmentActivity;
 
 import com.android.car.admin.ui.ManagedDeviceTextView;
 import com.android.car.settings.R;
+import com.android.car.settings.common.CarServiceHub;
 import com.android.car.settings.common.ConfirmationDialogFragment;
 import com.android.car.settings.common.Logger;
 import com.android.internal.annotations.VisibleForTesting;
@@ -50,16 +51,26 @@ public final class NewUserDisclaimerActivity extends FragmentActivity {
     static final String DIALOG_TAG = "NewUserDisclaimerActivity.ConfirmationDialogFragment";
     private static final int LEARN_MORE_RESULT_CODE = 1;
 
-    private Car mCar;
+    private CarServiceHub mCarServiceHub;
     private CarDevicePolicyManager mCarDevicePolicyManager;
     private Button mAcceptButton;
     private ConfirmationDialogFragment mConfirmationDialog;
     private boolean mLearnMoreLaunched;
 
+    private final Car.CarServiceLifecycleListener mCarServiceLifecycleListener = (car, ready) -> {
+        if (!ready) {
+            // Managers are tied to the previous connection; look them up again when needed.
+            mCarDevicePolicyManager = null;
+        }
+    };
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         getLifecycle().addObserver(new HideNonSystemOverlayMixin(this));
+        mCarServiceHub = CarServiceHub.getInstance(this);
+        // Hold a reference to the shared car connection until this activity is destroyed.
+        mCarServiceHub.acquire(/* owner= */ this, mCarServiceLifecycleListener);
         getCarDevicePolicyManager();
         setupConfirmationDialog();
     }
@@ -133,10 +144,7 @@ public final class NewUserDisclaimerActivity extends FragmentActivity {
         if (mCarDevicePolicyManager != null) {
             return mCarDevicePolicyManager;
         }
-        if (mCar == null) {
-            mCar = Car.createCar(this);
-        }
-        mCarDevicePolicyManager = (CarDevicePolicyManager) mCar.getCarManager(
+        mCarDevicePolicyManager = (CarDevicePolicyManager) mCarServiceHub.getCarManager(
                 Car.CAR_DEVICE_POLICY_SERVICE);
         return mCarDevicePolicyManager;
     }
@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2023 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.car.settings.applications;
+
+import android.util.ArrayMap;
+import android.util.ArraySet;
+
+import androidx.annotation.Nullable;
+import androidx.preference.Preference;
+import androidx.preference.PreferenceGroup;
+
+import com.android.settingslib.applications.ApplicationsState;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the preferences of a {@link PreferenceGroup} in sync with a list of {@link
+ * ApplicationsState.AppEntry}, keyed by package name.
+ *
+ * <p>Instead of removing and recreating every preference when the list is reloaded, preferences
+ * are only created for new entries and removed for entries that are gone. Existing preferences
+ * are rebound in place, which is a no-op for the attributes that did not change. This allows
+ * {@link ApplicationListItemManager} to deliver entries progressively as their label, size and
+ * icon are loaded.
+ *
+ * <p>Only preferences created by the updater are managed, so other preferences may be added to
+ * the same group.
+ *
+ * @param <P> the type of preference displayed for each entry.
+ */
+public class AppEntryPreferenceListUpdater<P extends Preference> {
+
+    /** Creates and binds the preferences displayed for app entries. */
+    public interface PreferenceBinder<P extends Preference> {
+        /**
+         * Creates the preference for {@code appEntry}. This is called once per entry and is the
+         * place to set up click listeners.
+         */
+        P createPreference(ApplicationsState.AppEntry appEntry);
+
+        /**
+         * Updates {@code preference} with the current state of {@code appEntry}. This is called
+         * each time the list is updated.
+         */
+        void bindPreference(P preference, ApplicationsState.AppEntry appEntry);
+    }
+
+    private final PreferenceBinder<P> mBinder;
+    private final Map<String, P> mPreferences = new ArrayMap<>();
+
+    public AppEntryPreferenceListUpdater(PreferenceBinder<P> binder) {
+        mBinder = binder;
+    }
+
+    /**
+     * Updates {@code group} so that it displays a preference for each of {@code apps}, in order.
+     */
+    public void update(PreferenceGroup group, List<ApplicationsState.AppEntry> apps) {
+        Set<String> keys = new ArraySet<>(apps.size());
+        for (ApplicationsState.AppEntry appEntry : apps) {
+            keys.add(appEntry.info.packageName);
+        }
+
+        Iterator<Map.Entry<String, P>> iterator = mPreferences.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, P> entry = iterator.next();
+            if (!keys.contains(entry.getKey())) {
+                group.removePreference(entry.getValue());
+                iterator.remove();
+            }
+        }
+
+        keys.clear();
+        int order = 0;
+        for (ApplicationsState.AppEntry appEntry : apps) {
+            String key = appEntry.info.packageName;
+            if (!keys.add(key)) {
+                // Already displayed.
+                continue;
+            }
+            P preference = mPreferences.get(key);
+            if (preference == null) {
+                preference = mBinder.createPreference(appEntry);
+                preference.setKey(key);
+                mPreferences.put(key, preference);
+            }
+            preference.setOrder(order++);
+            mBinder.bindPreference(preference, appEntry);
+            if (preference.getParent() != group) {
+                group.addPreference(preference);
+            }
+        }
+    }
+
+    /** Returns the preference displayed for {@code packageName}, if any. */
+    @Nullable
+    public P getPreference(String packageName) {
+        return mPreferences.get(packageName);
+    }
+
+    /** Returns the number of preferences currently managed by the updater. */
+    public int getPreferenceCount() {
+        return mPreferences.size();
+    }
+}
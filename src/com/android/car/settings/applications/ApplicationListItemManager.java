@@ -16,6 +16,7 @@
 package com.android.car.settings.applications;
 
 import android.os.Handler;
+import android.os.SystemClock;
 import android.os.storage.VolumeInfo;
 
 import androidx.lifecycle.Lifecycle;
@@ -39,8 +40,11 @@ public class ApplicationListItemManager implements ApplicationsState.Callbacks {
      */
     public interface AppListItemListener {
         /**
-         * Called when the data is successfully loaded from {@link ApplicationsState.Callbacks} and
-         * icon, title and summary are set for all the applications.
+         * Called when the data is loaded from {@link ApplicationsState.Callbacks}. Applications
+         * are delivered as soon as their label is loaded; their size and icon may still be
+         * {@code null} and are delivered through subsequent calls once loaded. Listeners should
+         * therefore update their UI incrementally, e.g. with {@link
+         * AppEntryPreferenceListUpdater}.
          */
         void onDataLoaded(ArrayList<ApplicationsState.AppEntry> apps);
     }
@@ -74,6 +78,11 @@ public class ApplicationListItemManager implements ApplicationsState.Callbacks {
     // "ReadyToRenderUpdates" again.
     private ArrayList<ApplicationsState.AppEntry> mDeferredAppsToUpload;
 
+    // Loading metrics, in milliseconds since loading started, or -1 if not reached yet.
+    private long mLoadStartTimeMs;
+    private long mTimeToFirstRowMs = -1;
+    private long mTimeToCompleteMs = -1;
+
     public ApplicationListItemManager(VolumeInfo volumeInfo, Lifecycle lifecycle,
             ApplicationsState appState, int millisecondUpdateInterval,
             int maxWaitIntervalToFinishLoading) {
@@ -133,6 +142,7 @@ public class ApplicationListItemManager implements ApplicationsState.Callbacks {
         }
         mAppFilter = appFilter;
         mAppEntryComparator = appEntryComparator;
+        mLoadStartTimeMs = SystemClock.elapsedRealtime();
         mSession = mAppState.newSession(this, mLifecycle);
     }
 
@@ -201,6 +211,7 @@ public class ApplicationListItemManager implements ApplicationsState.Callbacks {
             for (AppListItemListener appListItemListener : mAppListItemListeners) {
                 appListItemListener.onDataLoaded(mLoadedApps);
             }
+            recordLoadingMetrics(apps);
 
             mHandler.postDelayed(() -> {
                 mReadyToRenderUpdates = true;
@@ -218,20 +229,66 @@ public class ApplicationListItemManager implements ApplicationsState.Callbacks {
         mAppsToLoad.addAll(apps);
     }
 
+    /**
+     * Returns the time in milliseconds between starting to load and displaying the first
+     * application, or {@code -1} if no application has been displayed yet.
+     */
+    public long getTimeToFirstRowMs() {
+        return mTimeToFirstRowMs;
+    }
+
+    /**
+     * Returns the time in milliseconds between starting to load and displaying all applications
+     * with their label, size and icon, or {@code -1} if loading has not completed yet.
+     */
+    public long getTimeToCompleteMs() {
+        return mTimeToCompleteMs;
+    }
+
+    private void recordLoadingMetrics(ArrayList<ApplicationsState.AppEntry> apps) {
+        long elapsedMs = SystemClock.elapsedRealtime() - mLoadStartTimeMs;
+        if (mTimeToFirstRowMs < 0 && !mLoadedApps.isEmpty()) {
+            mTimeToFirstRowMs = elapsedMs;
+            LOG.d("Time to first row: " + mTimeToFirstRowMs + "ms");
+        }
+        if (mTimeToCompleteMs < 0 && mLoadedApps.size() == apps.size()) {
+            for (ApplicationsState.AppEntry app : mLoadedApps) {
+                if (!isFullyLoaded(app)) {
+                    return;
+                }
+            }
+            mTimeToCompleteMs = elapsedMs;
+            LOG.d("Time to complete: " + mTimeToCompleteMs + "ms for " + apps.size() + " apps");
+        }
+    }
+
+    // Apps are displayed as soon as their label is known, size and icon are filled in later.
     private boolean isLoaded(ApplicationsState.AppEntry app) {
+        return app.label != null;
+    }
+
+    private boolean isFullyLoaded(ApplicationsState.AppEntry app) {
         return app.label != null && app.sizeStr != null && app.icon != null;
     }
 
     private void warnIfNotAllLoadedInTime() {
         mHandler.postDelayed(() -> {
-            if (mLoadedApps.size() < mAppsToLoad.size()) {
+            int fullyLoadedCount = 0;
+            for (ApplicationsState.AppEntry loadedApp : mLoadedApps) {
+                if (isFullyLoaded(loadedApp)) {
+                    fullyLoadedCount++;
+                }
+            }
+            if (fullyLoadedCount < mAppsToLoad.size()) {
                 LOG.w("Expected to load " + mAppsToLoad.size() + " apps but only loaded "
-                        + mLoadedApps.size());
+                        + fullyLoadedCount);
 
                 // Creating a copy to avoid state inconsistency.
                 Set<ApplicationsState.AppEntry> appsToLoadCopy = new HashSet(mAppsToLoad);
                 for (ApplicationsState.AppEntry loadedApp : mLoadedApps) {
-                    appsToLoadCopy.remove(loadedApp);
+                    if (isFullyLoaded(loadedApp)) {
+                        appsToLoadCopy.remove(loadedApp);
+                    }
                 }
 
                 for (ApplicationsState.AppEntry appEntry : appsToLoadCopy) {
@@ -18,7 +18,6 @@ package com.android.car.settings.applications;
 
 import android.car.drivingstate.CarUxRestrictions;
 import android.content.Context;
-import android.graphics.drawable.Drawable;
 
 import androidx.preference.Preference;
 import androidx.preference.PreferenceGroup;
@@ -35,6 +34,25 @@ public class ApplicationsSettingsPreferenceController extends
         PreferenceController<PreferenceGroup> implements
         ApplicationListItemManager.AppListItemListener {
 
+    private final AppEntryPreferenceListUpdater<Preference> mListUpdater =
+            new AppEntryPreferenceListUpdater<>(
+                    new AppEntryPreferenceListUpdater.PreferenceBinder<Preference>() {
+                        @Override
+                        public Preference createPreference(
+                                ApplicationsState.AppEntry appEntry) {
+                            return ApplicationsSettingsPreferenceController.this
+                                    .createPreference(appEntry.info.packageName);
+                        }
+
+                        @Override
+                        public void bindPreference(Preference preference,
+                                ApplicationsState.AppEntry appEntry) {
+                            preference.setTitle(appEntry.label);
+                            preference.setSummary(appEntry.sizeStr);
+                            preference.setIcon(appEntry.icon);
+                        }
+                    });
+
     public ApplicationsSettingsPreferenceController(Context context, String preferenceKey,
             FragmentController fragmentController, CarUxRestrictions uxRestrictions) {
         super(context, preferenceKey, fragmentController, uxRestrictions);
@@ -47,21 +65,11 @@ public class ApplicationsSettingsPreferenceController extends
 
     @Override
     public void onDataLoaded(ArrayList<ApplicationsState.AppEntry> apps) {
-        getPreference().removeAll();
-        for (ApplicationsState.AppEntry appEntry : apps) {
-            getPreference().addPreference(
-                    createPreference(appEntry.label, appEntry.sizeStr, appEntry.icon,
-                            appEntry.info.packageName));
-        }
+        mListUpdater.update(getPreference(), apps);
     }
 
-    private Preference createPreference(String title, String summary, Drawable icon,
-            String packageName) {
+    private Preference createPreference(String packageName) {
         CarUiPreference preference = new CarUiPreference(getContext());
-        preference.setTitle(title);
-        preference.setSummary(summary);
-        preference.setIcon(icon);
-        preference.setKey(packageName);
         preference.setOnPreferenceClickListener(p -> {
             getFragmentController().launchFragment(
                     ApplicationDetailsFragment.getInstance(packageName));
@@ -17,11 +17,6 @@
 package com.android.car.settings.applications;
 
 import android.content.Context;
-import android.content.Intent;
-import android.content.pm.ApplicationInfo;
-import android.content.pm.PackageManager;
-import android.content.pm.ResolveInfo;
-import android.os.UserHandle;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.VisibleForTesting;
@@ -38,10 +33,17 @@ import java.util.List;
 public class InstalledAppCountItemManager {
 
     private Context mContext;
+    private final InstalledPackageIndex mInstalledPackageIndex;
     private final List<InstalledAppCountListener> mInstalledAppCountListeners;
 
     public InstalledAppCountItemManager(Context context) {
+        this(context, InstalledPackageIndex.getInstance(context));
+    }
+
+    @VisibleForTesting
+    InstalledAppCountItemManager(Context context, InstalledPackageIndex installedPackageIndex) {
         mContext = context;
+        mInstalledPackageIndex = installedPackageIndex;
         mInstalledAppCountListeners = new ArrayList<>();
     }
 
@@ -53,49 +55,18 @@ public class InstalledAppCountItemManager {
     }
 
     /**
-     * Starts fetching installed apps and counting the non-system apps
+     * Starts counting the non-system apps from the {@link InstalledPackageIndex}
      */
     public void startLoading() {
         ThreadUtils.postOnBackgroundThread(() -> {
-            List<ApplicationInfo> appList = mContext.getPackageManager()
-                    .getInstalledApplications(PackageManager.MATCH_DISABLED_COMPONENTS
-                            | PackageManager.MATCH_DISABLED_UNTIL_USED_COMPONENTS);
-
-            int appCount = 0;
-            for (ApplicationInfo applicationInfo : appList) {
-                if (shouldCountApp(applicationInfo)) {
-                    appCount++;
-                }
-            }
-            int finalAppCount = appCount;
+            int appCount = mInstalledPackageIndex.getInstalledAppCount(mContext.getUserId());
             for (InstalledAppCountListener listener : mInstalledAppCountListeners) {
                 ThreadUtils.postOnMainThread(() -> listener
-                        .onInstalledAppCountLoaded(finalAppCount));
+                        .onInstalledAppCountLoaded(appCount));
             }
         });
     }
 
-    @VisibleForTesting
-    boolean shouldCountApp(ApplicationInfo applicationInfo) {
-        if ((applicationInfo.flags & ApplicationInfo.FLAG_UPDATED_SYSTEM_APP) != 0) {
-            return true;
-        }
-        if ((applicationInfo.flags & ApplicationInfo.FLAG_SYSTEM) == 0) {
-            return true;
-        }
-        int userId = UserHandle.getUserId(applicationInfo.uid);
-        Intent launchIntent = new Intent(Intent.ACTION_MAIN, null)
-                .addCategory(Intent.CATEGORY_LAUNCHER)
-                .setPackage(applicationInfo.packageName);
-        List<ResolveInfo> intents = mContext.getPackageManager().queryIntentActivitiesAsUser(
-                launchIntent,
-                PackageManager.MATCH_DISABLED_COMPONENTS
-                        | PackageManager.MATCH_DIRECT_BOOT_AWARE
-                        | PackageManager.MATCH_DIRECT_BOOT_UNAWARE,
-                userId);
-        return intents != null && !intents.isEmpty();
-    }
-
     /**
      * Callback that is called once the number of installed applications is counted.
      */
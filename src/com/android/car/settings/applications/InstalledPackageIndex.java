@@ -0,0 +1,297 @@
+/*
+ * Copyright (C) 2023 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.car.settings.applications;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.content.pm.ApplicationInfo;
+import android.content.pm.PackageManager;
+import android.content.pm.ResolveInfo;
+import android.net.Uri;
+import android.util.ArrayMap;
+import android.util.ArraySet;
+import android.util.SparseArray;
+import android.util.SparseIntArray;
+
+import androidx.annotation.GuardedBy;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import androidx.annotation.WorkerThread;
+
+import com.android.car.settings.common.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Process-wide index of the applications installed for each user.
+ *
+ * <p>The index of a user is built the first time it is requested, with a single enumeration of
+ * the installed applications and of the launcher activities. It is then kept up to date
+ * incrementally: when a package is added, removed or changed, only that package is re-queried on
+ * the next request. The counts of the indexed views are updated along with the packages, so
+ * reading them doesn't require iterating the packages.
+ */
+public class InstalledPackageIndex {
+    private static final Logger LOG = new Logger(InstalledPackageIndex.class);
+
+    @VisibleForTesting
+    static final int APPLICATION_FLAGS = PackageManager.MATCH_DISABLED_COMPONENTS
+            | PackageManager.MATCH_DISABLED_UNTIL_USED_COMPONENTS;
+    @VisibleForTesting
+    static final int LAUNCHER_FLAGS = PackageManager.MATCH_DISABLED_COMPONENTS
+            | PackageManager.MATCH_DIRECT_BOOT_AWARE
+            | PackageManager.MATCH_DIRECT_BOOT_UNAWARE;
+
+    private static InstalledPackageIndex sInstance;
+
+    private final Context mContext;
+    private final PackageManager mPackageManager;
+
+    private final Object mLock = new Object();
+    @GuardedBy("mLock")
+    private final SparseArray<UserIndex> mIndexes = new SparseArray<>();
+    @GuardedBy("mLock")
+    private int mBuildCount;
+
+    // Separate from mLock, which is held while querying the package manager, so that the
+    // broadcast receiver never waits for an index to be built.
+    private final Object mPendingLock = new Object();
+    @GuardedBy("mPendingLock")
+    private final SparseArray<Set<String>> mPendingPackages = new SparseArray<>();
+
+    private final BroadcastReceiver mPackageChangedReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            Uri data = intent.getData();
+            if (data != null) {
+                onPackageChanged(getSendingUserId(), data.getSchemeSpecificPart());
+            }
+        }
+    };
+
+    /** Returns the process-wide instance of {@link InstalledPackageIndex}. */
+    public static InstalledPackageIndex getInstance(Context context) {
+        if (sInstance == null) {
+            Context appContext = context.getApplicationContext();
+            sInstance = new InstalledPackageIndex(appContext, appContext.getPackageManager());
+            sInstance.registerReceivers();
+        }
+        return sInstance;
+    }
+
+    @VisibleForTesting
+    InstalledPackageIndex(Context context, PackageManager packageManager) {
+        mContext = context;
+        mPackageManager = packageManager;
+    }
+
+    private void registerReceivers() {
+        IntentFilter packageFilter = new IntentFilter();
+        packageFilter.addAction(Intent.ACTION_PACKAGE_ADDED);
+        packageFilter.addAction(Intent.ACTION_PACKAGE_REMOVED);
+        packageFilter.addAction(Intent.ACTION_PACKAGE_CHANGED);
+        packageFilter.addDataScheme("package");
+        mContext.registerReceiverForAllUsers(mPackageChangedReceiver, packageFilter,
+                /* broadcastPermission= */ null, /* scheduler= */ null);
+    }
+
+    /**
+     * Returns the enabled applications of {@code userId}, excluding the ones disabled until used.
+     */
+    @WorkerThread
+    public List<ApplicationInfo> getEnabledApplications(int userId) {
+        synchronized (mLock) {
+            UserIndex index = getUserIndexLocked(userId);
+            List<ApplicationInfo> applications = new ArrayList<>(index.mApps.size());
+            for (int i = 0; i < index.mApps.size(); i++) {
+                ApplicationInfo info = index.mApps.valueAt(i).mInfo;
+                if (info.enabled && info.enabledSetting
+                        != PackageManager.COMPONENT_ENABLED_STATE_DISABLED_UNTIL_USED) {
+                    applications.add(info);
+                }
+            }
+            return applications;
+        }
+    }
+
+    /**
+     * Returns the number of applications of {@code userId} which are not system applications,
+     * are updated system applications or have a launcher activity.
+     */
+    @WorkerThread
+    public int getInstalledAppCount(int userId) {
+        synchronized (mLock) {
+            return getUserIndexLocked(userId).mInstalledAppCount;
+        }
+    }
+
+    /** Returns the number of applications of {@code userId} with a launcher activity. */
+    @WorkerThread
+    public int getLauncherAppCount(int userId) {
+        synchronized (mLock) {
+            return getUserIndexLocked(userId).mLauncherAppCount;
+        }
+    }
+
+    /**
+     * Returns the number of applications of {@code userId} in {@code category}, one of the
+     * {@code ApplicationInfo.CATEGORY_*} constants.
+     */
+    @WorkerThread
+    public int getCategoryCount(int userId, int category) {
+        synchronized (mLock) {
+            return getUserIndexLocked(userId).mCategoryCounts.get(category);
+        }
+    }
+
+    /** Returns the number of times indexes were built by enumerating packages. */
+    @VisibleForTesting
+    int getBuildCount() {
+        synchronized (mLock) {
+            return mBuildCount;
+        }
+    }
+
+    /** Marks {@code packageName} of {@code userId} to be re-queried on the next request. */
+    @VisibleForTesting
+    void onPackageChanged(int userId, String packageName) {
+        synchronized (mPendingLock) {
+            Set<String> packages = mPendingPackages.get(userId);
+            if (packages == null) {
+                packages = new ArraySet<>();
+                mPendingPackages.put(userId, packages);
+            }
+            packages.add(packageName);
+        }
+    }
+
+    /** Whether the application is counted by {@link #getInstalledAppCount}. */
+    private static boolean isInstalledApp(ApplicationInfo info, boolean hasLauncherActivity) {
+        if ((info.flags & ApplicationInfo.FLAG_UPDATED_SYSTEM_APP) != 0) {
+            return true;
+        }
+        if ((info.flags & ApplicationInfo.FLAG_SYSTEM) == 0) {
+            return true;
+        }
+        return hasLauncherActivity;
+    }
+
+    @GuardedBy("mLock")
+    private UserIndex getUserIndexLocked(int userId) {
+        Set<String> pendingPackages;
+        synchronized (mPendingLock) {
+            pendingPackages = mPendingPackages.get(userId);
+            mPendingPackages.remove(userId);
+        }
+        UserIndex index = mIndexes.get(userId);
+        if (index == null) {
+            // The packages changed so far are enumerated along with the others.
+            index = buildUserIndex(userId);
+            mIndexes.put(userId, index);
+            mBuildCount++;
+        } else if (pendingPackages != null) {
+            for (String packageName : pendingPackages) {
+                updatePackage(index, userId, packageName);
+            }
+        }
+        return index;
+    }
+
+    private UserIndex buildUserIndex(int userId) {
+        Set<String> launcherPackages = new ArraySet<>();
+        for (ResolveInfo resolveInfo : queryLauncherActivities(/* packageName= */ null, userId)) {
+            if (resolveInfo.activityInfo != null) {
+                launcherPackages.add(resolveInfo.activityInfo.packageName);
+            }
+        }
+        UserIndex index = new UserIndex();
+        for (ApplicationInfo info : mPackageManager.getInstalledApplicationsAsUser(
+                APPLICATION_FLAGS, userId)) {
+            index.put(info.packageName,
+                    new IndexedApp(info, launcherPackages.contains(info.packageName)));
+        }
+        return index;
+    }
+
+    private void updatePackage(UserIndex index, int userId, String packageName) {
+        ApplicationInfo info;
+        try {
+            info = mPackageManager.getApplicationInfoAsUser(packageName, APPLICATION_FLAGS,
+                    userId);
+        } catch (PackageManager.NameNotFoundException e) {
+            LOG.d("Package removed: " + packageName);
+            index.put(packageName, /* app= */ null);
+            return;
+        }
+        index.put(packageName, new IndexedApp(info,
+                !queryLauncherActivities(packageName, userId).isEmpty()));
+    }
+
+    private List<ResolveInfo> queryLauncherActivities(@Nullable String packageName, int userId) {
+        Intent launchIntent = new Intent(Intent.ACTION_MAIN, /* uri= */ null)
+                .addCategory(Intent.CATEGORY_LAUNCHER)
+                .setPackage(packageName);
+        List<ResolveInfo> activities = mPackageManager.queryIntentActivitiesAsUser(launchIntent,
+                LAUNCHER_FLAGS, userId);
+        return activities != null ? activities : new ArrayList<>(0);
+    }
+
+    /** Indexed applications of a user and the counts of their views. */
+    private static final class UserIndex {
+        final ArrayMap<String, IndexedApp> mApps = new ArrayMap<>();
+        final SparseIntArray mCategoryCounts = new SparseIntArray();
+        int mInstalledAppCount;
+        int mLauncherAppCount;
+
+        /** Replaces the application of {@code packageName}, or removes it if {@code null}. */
+        void put(String packageName, @Nullable IndexedApp app) {
+            IndexedApp previous = app != null ? mApps.put(packageName, app)
+                    : mApps.remove(packageName);
+            if (previous != null) {
+                count(previous, /* delta= */ -1);
+            }
+            if (app != null) {
+                count(app, /* delta= */ 1);
+            }
+        }
+
+        private void count(IndexedApp app, int delta) {
+            if (isInstalledApp(app.mInfo, app.mHasLauncherActivity)) {
+                mInstalledAppCount += delta;
+            }
+            if (app.mHasLauncherActivity) {
+                mLauncherAppCount += delta;
+            }
+            int category = app.mInfo.category;
+            mCategoryCounts.put(category, mCategoryCounts.get(category) + delta);
+        }
+    }
+
+    private static final class IndexedApp {
+        final ApplicationInfo mInfo;
+        final boolean mHasLauncherActivity;
+
+        IndexedApp(ApplicationInfo info, boolean hasLauncherActivity) {
+            mInfo = info;
+            mHasLauncherActivity = hasLauncherActivity;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2023 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.car.settings.applications;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.content.pm.PackageManager;
+import android.content.pm.ResolveInfo;
+import android.os.UserHandle;
+import android.util.ArrayMap;
+
+import androidx.annotation.GuardedBy;
+import androidx.annotation.VisibleForTesting;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Process-wide cache of the components resolved for intents.
+ *
+ * <p>Resolving an intent with its metadata is a binder call which parses the manifests of every
+ * matching package, and the default app screens resolve the same few intents on each refresh.
+ * The results are cached per intent, flags and user until any package is added, removed or
+ * changed, so that only the first resolution after a package change queries the package manager.
+ * The returned lists are shared and must not be modified.
+ */
+public class ResolvedComponentCache {
+
+    private static ResolvedComponentCache sInstance;
+
+    private final PackageManager mPackageManager;
+    private final Object mLock = new Object();
+    @GuardedBy("mLock")
+    private final Map<String, List<ResolveInfo>> mResolved = new ArrayMap<>();
+    // Incremented on each invalidation, so that a query started before a package change is not
+    // cached after it.
+    @GuardedBy("mLock")
+    private int mGeneration;
+    @GuardedBy("mLock")
+    private int mQueryCount;
+
+    private final BroadcastReceiver mPackageChangedReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            invalidate();
+        }
+    };
+
+    /** Returns the process-wide instance of {@link ResolvedComponentCache}. */
+    public static ResolvedComponentCache getInstance(Context context) {
+        if (sInstance == null) {
+            Context appContext = context.getApplicationContext();
+            sInstance = new ResolvedComponentCache(appContext.getPackageManager());
+            sInstance.registerReceivers(appContext);
+        }
+        return sInstance;
+    }
+
+    @VisibleForTesting
+    ResolvedComponentCache(PackageManager packageManager) {
+        mPackageManager = packageManager;
+    }
+
+    private void registerReceivers(Context context) {
+        IntentFilter packageFilter = new IntentFilter();
+        packageFilter.addAction(Intent.ACTION_PACKAGE_ADDED);
+        packageFilter.addAction(Intent.ACTION_PACKAGE_REMOVED);
+        packageFilter.addAction(Intent.ACTION_PACKAGE_CHANGED);
+        packageFilter.addDataScheme("package");
+        context.registerReceiverForAllUsers(mPackageChangedReceiver, packageFilter,
+                /* broadcastPermission= */ null, /* scheduler= */ null);
+    }
+
+    /** Cached equivalent of {@link PackageManager#queryIntentServices(Intent, int)}. */
+    public List<ResolveInfo> queryIntentServices(Intent intent, int flags) {
+        String key = getKey("service", intent, flags, UserHandle.myUserId());
+        List<ResolveInfo> cached = getCached(key);
+        if (cached != null) {
+            return cached;
+        }
+        int generation = getGeneration();
+        return put(key, generation, mPackageManager.queryIntentServices(intent, flags));
+    }
+
+    /**
+     * Cached equivalent of {@link PackageManager#queryIntentActivitiesAsUser(Intent, int, int)}.
+     */
+    public List<ResolveInfo> queryIntentActivitiesAsUser(Intent intent, int flags, int userId) {
+        String key = getKey("activity", intent, flags, userId);
+        List<ResolveInfo> cached = getCached(key);
+        if (cached != null) {
+            return cached;
+        }
+        int generation = getGeneration();
+        return put(key, generation,
+                mPackageManager.queryIntentActivitiesAsUser(intent, flags, userId));
+    }
+
+    /** Drops all the cached resolutions. */
+    @VisibleForTesting
+    void invalidate() {
+        synchronized (mLock) {
+            mResolved.clear();
+            mGeneration++;
+        }
+    }
+
+    /** Returns the number of times the package manager was queried. */
+    @VisibleForTesting
+    int getQueryCount() {
+        synchronized (mLock) {
+            return mQueryCount;
+        }
+    }
+
+    private List<ResolveInfo> getCached(String key) {
+        synchronized (mLock) {
+            return mResolved.get(key);
+        }
+    }
+
+    private int getGeneration() {
+        synchronized (mLock) {
+            return mGeneration;
+        }
+    }
+
+    private List<ResolveInfo> put(String key, int generation, List<ResolveInfo> resolved) {
+        List<ResolveInfo> result = Collections.unmodifiableList(
+                resolved != null ? resolved : new ArrayList<>(0));
+        synchronized (mLock) {
+            mQueryCount++;
+            if (generation == mGeneration) {
+                mResolved.put(key, result);
+            }
+        }
+        return result;
+    }
+
+    private static String getKey(String type, Intent intent, int flags, int userId) {
+        return type + "|" + intent.toUri(/* flags= */ 0) + "|" + flags + "|" + userId;
+    }
+}
@@ -36,6 +36,7 @@ import androidx.annotation.VisibleForTesting;
 import androidx.collection.ArrayMap;
 import androidx.collection.ArraySet;
 
+import com.android.car.settings.applications.ResolvedComponentCache;
 import com.android.car.settings.common.Logger;
 
 import org.xmlpull.v1.XmlPullParser;
@@ -63,13 +64,20 @@ public class VoiceInputInfoProvider {
             RecognitionService.SERVICE_INTERFACE);
 
     private final Context mContext;
+    private final ResolvedComponentCache mResolvedComponentCache;
     private final Map<ComponentName, VoiceInputInfo> mComponentToInfoMap = new ArrayMap<>();
     private final List<VoiceInteractionInfo> mVoiceInteractionInfoList = new ArrayList<>();
     private final List<VoiceRecognitionInfo> mVoiceRecognitionInfoList = new ArrayList<>();
     private final Set<ComponentName> mRecognitionServiceNames = new ArraySet<>();
 
     public VoiceInputInfoProvider(Context context) {
+        this(context, ResolvedComponentCache.getInstance(context));
+    }
+
+    @VisibleForTesting
+    VoiceInputInfoProvider(Context context, ResolvedComponentCache resolvedComponentCache) {
         mContext = context;
+        mResolvedComponentCache = resolvedComponentCache;
 
         loadVoiceInteractionServices();
         loadVoiceRecognitionServices();
@@ -104,7 +112,7 @@ public class VoiceInputInfoProvider {
 
     private void loadVoiceInteractionServices() {
         List<ResolveInfo> mAvailableVoiceInteractionServices =
-                mContext.getPackageManager().queryIntentServices(VOICE_INTERACTION_SERVICE_TAG,
+                mResolvedComponentCache.queryIntentServices(VOICE_INTERACTION_SERVICE_TAG,
                         PackageManager.GET_META_DATA);
 
         for (ResolveInfo resolveInfo : mAvailableVoiceInteractionServices) {
@@ -131,7 +139,7 @@ public class VoiceInputInfoProvider {
 
     private void loadVoiceRecognitionServices() {
         List<ResolveInfo> mAvailableRecognitionServices =
-                mContext.getPackageManager().queryIntentServices(VOICE_RECOGNITION_SERVICE_TAG,
+                mResolvedComponentCache.queryIntentServices(VOICE_RECOGNITION_SERVICE_TAG,
                         PackageManager.GET_META_DATA);
         for (ResolveInfo resolveInfo : mAvailableRecognitionServices) {
             ComponentName componentName = new ComponentName(resolveInfo.serviceInfo.packageName,
@@ -51,11 +51,16 @@ public abstract class DefaultAppEntryBasePreferenceController<V extends Preferen
 
     @Override
     protected void updateState(V preference) {
-        CharSequence defaultAppLabel = getDefaultAppLabel();
+        DefaultAppInfo app = getCurrentDefaultAppInfo();
+        bindDefaultApp(preference, getDefaultAppLabel(app), getDefaultAppIcon(app));
+    }
+
+    /** Displays the default app with {@code label} and {@code icon}, or none if no label. */
+    protected void bindDefaultApp(V preference, @Nullable CharSequence defaultAppLabel,
+            @Nullable Drawable defaultAppIcon) {
         if (!TextUtils.isEmpty(defaultAppLabel)) {
             preference.setSummary(defaultAppLabel);
-            preference.setIcon(DefaultAppUtils.getSafeIcon(getDefaultAppIcon(),
-                    getContext().getResources().getInteger(R.integer.default_app_safe_icon_size)));
+            preference.setIcon(defaultAppIcon);
         } else {
             LOG.d("No default app");
             preference.setSummary(R.string.app_list_preference_none);
@@ -75,16 +80,19 @@ public abstract class DefaultAppEntryBasePreferenceController<V extends Preferen
         return UserHandle.myUserId();
     }
 
-    private Drawable getDefaultAppIcon() {
-        DefaultAppInfo app = getCurrentDefaultAppInfo();
+    /** Returns the size-limited icon of {@code app}, or {@code null} if there is none. */
+    @Nullable
+    protected Drawable getDefaultAppIcon(@Nullable DefaultAppInfo app) {
         if (app != null) {
-            return app.loadIcon();
+            return DefaultAppUtils.getSafeIcon(app.loadIcon(),
+                    getContext().getResources().getInteger(R.integer.default_app_safe_icon_size));
         }
         return null;
     }
 
-    private CharSequence getDefaultAppLabel() {
-        DefaultAppInfo app = getCurrentDefaultAppInfo();
+    /** Returns the label of {@code app}, or {@code null} if there is none. */
+    @Nullable
+    protected CharSequence getDefaultAppLabel(@Nullable DefaultAppInfo app) {
         if (app != null) {
             return app.loadLabel();
         }
@@ -19,12 +19,15 @@ package com.android.car.settings.applications.defaultapps;
 import android.car.drivingstate.CarUxRestrictions;
 import android.content.Context;
 import android.content.Intent;
+import android.graphics.drawable.Drawable;
 
 import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
 
 import com.android.car.settings.common.FragmentController;
 import com.android.car.ui.preference.CarUiTwoActionIconPreference;
 import com.android.settingslib.applications.DefaultAppInfo;
+import com.android.settingslib.utils.ThreadUtils;
 
 /**
  * Base preference which handles the logic to display the currently selected default app as well as
@@ -33,6 +36,8 @@ import com.android.settingslib.applications.DefaultAppInfo;
 public abstract class DefaultAppsPickerEntryBasePreferenceController extends
         DefaultAppEntryBasePreferenceController<CarUiTwoActionIconPreference> {
 
+    private int mUpdateGeneration;
+
     public DefaultAppsPickerEntryBasePreferenceController(Context context, String preferenceKey,
             FragmentController fragmentController, CarUxRestrictions uxRestrictions) {
         super(context, preferenceKey, fragmentController, uxRestrictions);
@@ -45,12 +50,29 @@ public abstract class DefaultAppsPickerEntryBasePreferenceController extends
 
     @Override
     protected void updateState(CarUiTwoActionIconPreference preference) {
-        super.updateState(preference);
+        // Loading the default app and resolving its settings activity query the package manager,
+        // so they are done in the background and the preference is bound when they complete.
+        int generation = ++mUpdateGeneration;
+        executeBackgroundTask(() -> {
+            DefaultAppInfo app = getCurrentDefaultAppInfo();
+            CharSequence label = getDefaultAppLabel(app);
+            Drawable icon = getDefaultAppIcon(app);
+            Intent intent = getSettingIntent(app);
+            boolean resolved = intent != null && intent.resolveActivityInfo(
+                    getContext().getPackageManager(), intent.getFlags()) != null;
+            executeUiTask(() -> {
+                if (generation == mUpdateGeneration) {
+                    bindDefaultApp(preference, label, icon);
+                    bindSecondaryAction(preference, resolved ? intent : null);
+                }
+            });
+        });
+    }
 
+    private void bindSecondaryAction(CarUiTwoActionIconPreference preference,
+            @Nullable Intent intent) {
         // If activity does not exist, return. Otherwise allow intenting to the activity.
-        Intent intent = getSettingIntent(getCurrentDefaultAppInfo());
-        if (intent == null || intent.resolveActivityInfo(
-                getContext().getPackageManager(), intent.getFlags()) == null) {
+        if (intent == null) {
             preference.setSecondaryActionVisible(false);
             return;
         }
@@ -73,4 +95,14 @@ public abstract class DefaultAppsPickerEntryBasePreferenceController extends
     protected Intent getSettingIntent(@Nullable DefaultAppInfo info) {
         return null;
     }
+
+    @VisibleForTesting
+    void executeBackgroundTask(Runnable r) {
+        ThreadUtils.postOnBackgroundThread(r);
+    }
+
+    @VisibleForTesting
+    void executeUiTask(Runnable r) {
+        ThreadUtils.postOnMainThread(r);
+    }
 }
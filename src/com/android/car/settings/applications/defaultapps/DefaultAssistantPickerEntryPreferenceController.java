@@ -29,6 +29,7 @@ import android.service.voice.VoiceInteractionServiceInfo;
 import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 
+import com.android.car.settings.applications.ResolvedComponentCache;
 import com.android.car.settings.common.FragmentController;
 import com.android.car.ui.preference.CarUiTwoActionIconPreference;
 import com.android.internal.util.CollectionUtils;
@@ -47,11 +48,21 @@ public class DefaultAssistantPickerEntryPreferenceController extends
             VoiceInteractionService.SERVICE_INTERFACE);
 
     private final RoleManager mRoleManager;
+    private final ResolvedComponentCache mResolvedComponentCache;
 
     public DefaultAssistantPickerEntryPreferenceController(Context context, String preferenceKey,
             FragmentController fragmentController, CarUxRestrictions uxRestrictions) {
+        this(context, preferenceKey, fragmentController, uxRestrictions,
+                ResolvedComponentCache.getInstance(context));
+    }
+
+    @VisibleForTesting
+    DefaultAssistantPickerEntryPreferenceController(Context context, String preferenceKey,
+            FragmentController fragmentController, CarUxRestrictions uxRestrictions,
+            ResolvedComponentCache resolvedComponentCache) {
         super(context, preferenceKey, fragmentController, uxRestrictions);
         mRoleManager = getContext().getSystemService(RoleManager.class);
+        mResolvedComponentCache = resolvedComponentCache;
     }
 
     @Nullable
@@ -97,10 +108,12 @@ public class DefaultAssistantPickerEntryPreferenceController extends
             return null;
         }
 
-        Intent probe = ASSISTANT_SERVICE.setPackage(assistantPkgName);
+        // The settings intent is resolved in the background, so the shared intent is not modified.
+        Intent probe = new Intent(ASSISTANT_SERVICE).setPackage(assistantPkgName);
         PackageManager pm = getContext().getPackageManager();
-        List<ResolveInfo> services = pm.queryIntentServices(probe, PackageManager.GET_META_DATA);
-        if (services == null || services.isEmpty()) {
+        List<ResolveInfo> services = mResolvedComponentCache.queryIntentServices(probe,
+                PackageManager.GET_META_DATA);
+        if (services.isEmpty()) {
             return null;
         }
 
@@ -31,6 +31,7 @@ import android.view.autofill.AutofillManager;
 
 import androidx.annotation.Nullable;
 
+import com.android.car.settings.applications.ResolvedComponentCache;
 import com.android.car.settings.common.FragmentController;
 import com.android.car.settings.common.Logger;
 import com.android.settingslib.applications.DefaultAppInfo;
@@ -44,11 +45,13 @@ public class DefaultAutofillPickerEntryPreferenceController extends
     private static final Logger LOG = new Logger(
             DefaultAutofillPickerEntryPreferenceController.class);
     private final AutofillManager mAutofillManager;
+    private final ResolvedComponentCache mResolvedComponentCache;
 
     public DefaultAutofillPickerEntryPreferenceController(Context context, String preferenceKey,
             FragmentController fragmentController, CarUxRestrictions uxRestrictions) {
         super(context, preferenceKey, fragmentController, uxRestrictions);
         mAutofillManager = context.getSystemService(AutofillManager.class);
+        mResolvedComponentCache = ResolvedComponentCache.getInstance(context);
     }
 
     @Override
@@ -81,8 +84,8 @@ public class DefaultAutofillPickerEntryPreferenceController extends
         }
 
         Intent intent = new Intent(AutofillService.SERVICE_INTERFACE);
-        List<ResolveInfo> resolveInfos = getContext().getPackageManager().queryIntentServices(
-                intent, PackageManager.GET_META_DATA);
+        List<ResolveInfo> resolveInfos = mResolvedComponentCache.queryIntentServices(intent,
+                PackageManager.GET_META_DATA);
 
         for (ResolveInfo resolveInfo : resolveInfos) {
             ServiceInfo serviceInfo = resolveInfo.serviceInfo;
@@ -31,6 +31,7 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import com.android.car.settings.R;
+import com.android.car.settings.applications.ResolvedComponentCache;
 import com.android.car.settings.common.FragmentController;
 import com.android.settingslib.applications.DefaultAppInfo;
 
@@ -41,16 +42,19 @@ import java.util.List;
 public class DefaultAutofillPickerPreferenceController extends
         DefaultAppsPickerBasePreferenceController {
 
+    private final ResolvedComponentCache mResolvedComponentCache;
+
     public DefaultAutofillPickerPreferenceController(Context context, String preferenceKey,
             FragmentController fragmentController, CarUxRestrictions uxRestrictions) {
         super(context, preferenceKey, fragmentController, uxRestrictions);
+        mResolvedComponentCache = ResolvedComponentCache.getInstance(context);
     }
 
     @NonNull
     @Override
     protected List<DefaultAppInfo> getCandidates() {
         List<DefaultAppInfo> candidates = new ArrayList<>();
-        List<ResolveInfo> resolveInfos = getContext().getPackageManager().queryIntentServices(
+        List<ResolveInfo> resolveInfos = mResolvedComponentCache.queryIntentServices(
                 new Intent(AutofillService.SERVICE_INTERFACE), PackageManager.GET_META_DATA);
         for (ResolveInfo info : resolveInfos) {
             String permission = info.serviceInfo.permission;
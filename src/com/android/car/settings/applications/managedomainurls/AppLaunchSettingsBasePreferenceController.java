@@ -27,6 +27,7 @@ import android.os.UserHandle;
 import androidx.annotation.VisibleForTesting;
 import androidx.preference.Preference;
 
+import com.android.car.settings.applications.ResolvedComponentCache;
 import com.android.car.settings.common.FragmentController;
 import com.android.car.settings.common.PreferenceController;
 import com.android.settingslib.applications.ApplicationsState;
@@ -49,20 +50,22 @@ public abstract class AppLaunchSettingsBasePreferenceController<V extends Prefer
             .setData(Uri.parse("http:"));
 
     protected final PackageManager mPm;
+    private final ResolvedComponentCache mResolvedComponentCache;
     private ApplicationsState.AppEntry mAppEntry;
 
     public AppLaunchSettingsBasePreferenceController(Context context, String preferenceKey,
             FragmentController fragmentController, CarUxRestrictions uxRestrictions) {
         this(context, preferenceKey, fragmentController, uxRestrictions,
-                context.getPackageManager());
+                context.getPackageManager(), ResolvedComponentCache.getInstance(context));
     }
 
     @VisibleForTesting
     AppLaunchSettingsBasePreferenceController(Context context, String preferenceKey,
             FragmentController fragmentController, CarUxRestrictions uxRestrictions,
-            PackageManager packageManager) {
+            PackageManager packageManager, ResolvedComponentCache resolvedComponentCache) {
         super(context, preferenceKey, fragmentController, uxRestrictions);
         mPm = packageManager;
+        mResolvedComponentCache = resolvedComponentCache;
     }
 
     /** Sets the app entry associated with this settings screen. */
@@ -88,8 +91,8 @@ public abstract class AppLaunchSettingsBasePreferenceController<V extends Prefer
     /** Returns {@code true} if the current package is a browser app. */
     protected boolean isBrowserApp() {
         sBrowserIntent.setPackage(getPackageName());
-        List<ResolveInfo> list = mPm.queryIntentActivitiesAsUser(sBrowserIntent,
-                PackageManager.MATCH_ALL, getCurrentUserId());
+        List<ResolveInfo> list = mResolvedComponentCache.queryIntentActivitiesAsUser(
+                sBrowserIntent, PackageManager.MATCH_ALL, getCurrentUserId());
         for (ResolveInfo info : list) {
             if (info.activityInfo != null && info.handleAllWebDataURI) {
                 return true;
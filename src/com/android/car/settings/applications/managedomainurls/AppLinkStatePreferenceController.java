@@ -29,6 +29,7 @@ import androidx.annotation.VisibleForTesting;
 import androidx.preference.ListPreference;
 
 import com.android.car.settings.R;
+import com.android.car.settings.applications.ResolvedComponentCache;
 import com.android.car.settings.common.FragmentController;
 import com.android.car.settings.common.Logger;
 
@@ -51,8 +52,9 @@ public class AppLinkStatePreferenceController extends
     @VisibleForTesting
     AppLinkStatePreferenceController(Context context, String preferenceKey,
             FragmentController fragmentController, CarUxRestrictions uxRestrictions,
-            PackageManager packageManager) {
-        super(context, preferenceKey, fragmentController, uxRestrictions, packageManager);
+            PackageManager packageManager, ResolvedComponentCache resolvedComponentCache) {
+        super(context, preferenceKey, fragmentController, uxRestrictions, packageManager,
+                resolvedComponentCache);
     }
 
     @Override
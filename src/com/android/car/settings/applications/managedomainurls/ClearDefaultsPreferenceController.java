@@ -28,6 +28,7 @@ import androidx.annotation.VisibleForTesting;
 import androidx.preference.Preference;
 
 import com.android.car.settings.R;
+import com.android.car.settings.applications.ResolvedComponentCache;
 import com.android.car.settings.common.FragmentController;
 import com.android.car.settings.common.Logger;
 import com.android.settingslib.applications.AppUtils;
@@ -56,8 +57,10 @@ public class ClearDefaultsPreferenceController extends
     @VisibleForTesting
     ClearDefaultsPreferenceController(Context context, String preferenceKey,
             FragmentController fragmentController, CarUxRestrictions uxRestrictions,
-            PackageManager packageManager, IUsbManager iUsbManager) {
-        super(context, preferenceKey, fragmentController, uxRestrictions, packageManager);
+            PackageManager packageManager, ResolvedComponentCache resolvedComponentCache,
+            IUsbManager iUsbManager) {
+        super(context, preferenceKey, fragmentController, uxRestrictions, packageManager,
+                resolvedComponentCache);
         mUsbManager = iUsbManager;
     }
 
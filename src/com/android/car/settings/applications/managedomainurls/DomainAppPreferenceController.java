@@ -19,7 +19,7 @@ package com.android.car.settings.applications.managedomainurls;
 import android.app.Application;
 import android.car.drivingstate.CarUxRestrictions;
 import android.content.Context;
-import android.content.pm.PackageManager;
+import android.content.pm.ApplicationInfo;
 import android.os.UserHandle;
 import android.util.IconDrawableFactory;
 
@@ -32,14 +32,19 @@ import com.android.car.settings.common.FragmentController;
 import com.android.car.settings.common.PreferenceController;
 import com.android.car.ui.preference.CarUiPreference;
 import com.android.settingslib.applications.ApplicationsState;
+import com.android.settingslib.utils.ThreadUtils;
 
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 /** Business logic to populate the list of apps that deal with domain urls. */
 public class DomainAppPreferenceController extends PreferenceController<PreferenceGroup> {
 
     private final ApplicationsState mApplicationsState;
-    private final PackageManager mPm;
+    private final DomainUrlsCache mDomainUrlsCache;
+    // Incremented on each rebuild so that summaries loaded for a previous list are dropped.
+    private int mRebuildGeneration;
 
     @VisibleForTesting
     final ApplicationsState.Callbacks mApplicationStateCallbacks =
@@ -86,16 +91,16 @@ public class DomainAppPreferenceController extends PreferenceController<Preferen
             FragmentController fragmentController, CarUxRestrictions uxRestrictions) {
         this(context, preferenceKey, fragmentController, uxRestrictions,
                 ApplicationsState.getInstance((Application) context.getApplicationContext()),
-                context.getPackageManager());
+                DomainUrlsCache.getInstance(context));
     }
 
     @VisibleForTesting
     DomainAppPreferenceController(Context context, String preferenceKey,
             FragmentController fragmentController, CarUxRestrictions uxRestrictions,
-            ApplicationsState applicationsState, PackageManager packageManager) {
+            ApplicationsState applicationsState, DomainUrlsCache domainUrlsCache) {
         super(context, preferenceKey, fragmentController, uxRestrictions);
         mApplicationsState = applicationsState;
-        mPm = packageManager;
+        mDomainUrlsCache = domainUrlsCache;
     }
 
     @Override
@@ -131,22 +136,58 @@ public class DomainAppPreferenceController extends PreferenceController<Preferen
     private void rebuildAppList(ArrayList<ApplicationsState.AppEntry> apps) {
         PreferenceGroup preferenceGroup = getPreference();
         preferenceGroup.removeAll();
+        List<ApplicationInfo> infos = new ArrayList<>(apps.size());
         for (int i = 0; i < apps.size(); i++) {
             ApplicationsState.AppEntry entry = apps.get(i);
             preferenceGroup.addPreference(createPreference(entry));
+            infos.add(entry.info);
         }
+
+        // Resolving the domains requires several binder calls per app, so they are loaded in a
+        // single batch in the background and the summaries are bound when it completes.
+        int generation = ++mRebuildGeneration;
+        executeBackgroundTask(() -> {
+            Map<String, DomainUrlsCache.DomainUrls> domainUrls = mDomainUrlsCache.load(infos,
+                    UserHandle.myUserId());
+            executeUiTask(() -> {
+                if (generation == mRebuildGeneration) {
+                    bindSummaries(apps, domainUrls);
+                }
+            });
+        });
+    }
+
+    private void bindSummaries(List<ApplicationsState.AppEntry> apps,
+            Map<String, DomainUrlsCache.DomainUrls> domainUrls) {
+        for (int i = 0; i < apps.size(); i++) {
+            ApplicationsState.AppEntry entry = apps.get(i);
+            Preference preference = getPreference().findPreference(getKey(entry));
+            DomainUrlsCache.DomainUrls urls = domainUrls.get(entry.info.packageName);
+            if (preference != null && urls != null) {
+                preference.setSummary(getSummary(urls));
+            }
+        }
+    }
+
+    private CharSequence getSummary(DomainUrlsCache.DomainUrls urls) {
+        return DomainUrlsUtils.getDomainsSummary(getContext(), urls.getVerificationStatus(),
+                urls.getDomains());
+    }
+
+    private static String getKey(ApplicationsState.AppEntry entry) {
+        return entry.info.packageName + "|" + entry.info.uid;
     }
 
     private Preference createPreference(ApplicationsState.AppEntry entry) {
-        String key = entry.info.packageName + "|" + entry.info.uid;
         IconDrawableFactory iconDrawableFactory = IconDrawableFactory.newInstance(getContext());
         CarUiPreference preference = new CarUiPreference(getContext());
-        preference.setKey(key);
+        preference.setKey(getKey(entry));
         preference.setTitle(entry.label);
-        preference.setSummary(
-                DomainUrlsUtils.getDomainsSummary(getContext(), entry.info.packageName,
-                        UserHandle.myUserId(),
-                        DomainUrlsUtils.getHandledDomains(mPm, entry.info.packageName)));
+        // Show the last known summary until the domains are loaded.
+        DomainUrlsCache.DomainUrls cached = mDomainUrlsCache.getCached(entry.info);
+        if (cached != null) {
+            preference.setSummary(getSummary(cached));
+        }
         preference.setIcon(iconDrawableFactory.getBadgedIcon(entry.info));
         preference.setOnPreferenceClickListener(pref -> {
             getFragmentController().launchFragment(
@@ -155,4 +196,14 @@ public class DomainAppPreferenceController extends PreferenceController<Preferen
         });
         return preference;
     }
+
+    @VisibleForTesting
+    void executeBackgroundTask(Runnable r) {
+        ThreadUtils.postOnBackgroundThread(r);
+    }
+
+    @VisibleForTesting
+    void executeUiTask(Runnable r) {
+        ThreadUtils.postOnMainThread(r);
+    }
 }
@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2023 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.car.settings.applications.managedomainurls;
+
+import android.content.Context;
+import android.content.pm.ApplicationInfo;
+import android.content.pm.PackageManager;
+import android.util.ArrayMap;
+import android.util.ArraySet;
+
+import androidx.annotation.GuardedBy;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import androidx.annotation.WorkerThread;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Process-wide cache of the domain urls handled by applications.
+ *
+ * <p>The handled domains are derived from the intent filters of a package, which only change
+ * when the package is updated, so they are cached per package and version code. The domain
+ * verification status can be changed by the user at any time, so it is re-read on each
+ * {@link #load} and only cached to show the last known value until then.
+ */
+public class DomainUrlsCache {
+
+    private static DomainUrlsCache sInstance;
+
+    private final PackageManager mPackageManager;
+    private final Object mLock = new Object();
+    @GuardedBy("mLock")
+    private final Map<String, DomainUrls> mDomainUrls = new ArrayMap<>();
+    @GuardedBy("mLock")
+    private int mDomainsQueryCount;
+
+    /** Returns the process-wide instance of {@link DomainUrlsCache}. */
+    public static DomainUrlsCache getInstance(Context context) {
+        if (sInstance == null) {
+            sInstance = new DomainUrlsCache(context.getApplicationContext().getPackageManager());
+        }
+        return sInstance;
+    }
+
+    @VisibleForTesting
+    DomainUrlsCache(PackageManager packageManager) {
+        mPackageManager = packageManager;
+    }
+
+    /**
+     * Returns the last loaded domain urls of {@code app}, or {@code null} if they were never
+     * loaded or the package was updated since.
+     */
+    @Nullable
+    public DomainUrls getCached(ApplicationInfo app) {
+        synchronized (mLock) {
+            DomainUrls domainUrls = mDomainUrls.get(app.packageName);
+            return domainUrls != null && domainUrls.mVersionCode == app.longVersionCode
+                    ? domainUrls : null;
+        }
+    }
+
+    /**
+     * Loads the domain urls of each of {@code apps} for {@code userId} in a single pass, keyed by
+     * package name. The handled domains are only queried for packages which are not cached for
+     * their current version.
+     */
+    @WorkerThread
+    public Map<String, DomainUrls> load(List<ApplicationInfo> apps, int userId) {
+        Map<String, DomainUrls> result = new ArrayMap<>(apps.size());
+        for (ApplicationInfo app : apps) {
+            DomainUrls cached = getCached(app);
+            ArraySet<String> domains;
+            if (cached != null) {
+                domains = cached.mDomains;
+            } else {
+                domains = DomainUrlsUtils.getHandledDomains(mPackageManager, app.packageName);
+                synchronized (mLock) {
+                    mDomainsQueryCount++;
+                }
+            }
+            DomainUrls domainUrls = new DomainUrls(app.longVersionCode, domains,
+                    mPackageManager.getIntentVerificationStatusAsUser(app.packageName, userId));
+            result.put(app.packageName, domainUrls);
+        }
+        synchronized (mLock) {
+            mDomainUrls.putAll(result);
+        }
+        return result;
+    }
+
+    /** Returns the number of packages whose handled domains were queried. */
+    @VisibleForTesting
+    int getDomainsQueryCount() {
+        synchronized (mLock) {
+            return mDomainsQueryCount;
+        }
+    }
+
+    /** The domain urls handled by an application and their verification status. */
+    public static final class DomainUrls {
+        private final long mVersionCode;
+        private final ArraySet<String> mDomains;
+        private final int mVerificationStatus;
+
+        DomainUrls(long versionCode, ArraySet<String> domains, int verificationStatus) {
+            mVersionCode = versionCode;
+            mDomains = domains;
+            mVerificationStatus = verificationStatus;
+        }
+
+        /** Returns the handled domains, which must not be modified. */
+        public ArraySet<String> getDomains() {
+            return mDomains;
+        }
+
+        /**
+         * Returns the {@code PackageManager.INTENT_FILTER_DOMAIN_VERIFICATION_STATUS_*} of the
+         * application.
+         */
+        public int getVerificationStatus() {
+            return mVerificationStatus;
+        }
+    }
+}
@@ -36,9 +36,17 @@ public final class DomainUrlsUtils {
     public static CharSequence getDomainsSummary(Context context, String packageName, int userId,
             ArraySet<String> domains) {
         PackageManager pm = context.getPackageManager();
+        return getDomainsSummary(context,
+                pm.getIntentVerificationStatusAsUser(packageName, userId), domains);
+    }
 
+    /**
+     * Get a summary text based on the domain verification status and the number of handled
+     * domains.
+     */
+    public static CharSequence getDomainsSummary(Context context, int domainStatus,
+            ArraySet<String> domains) {
         // If the user has explicitly said "no" for this package, that's the string we should show.
-        int domainStatus = pm.getIntentVerificationStatusAsUser(packageName, userId);
         if (domainStatus == PackageManager.INTENT_FILTER_DOMAIN_VERIFICATION_STATUS_NEVER) {
             return context.getText(R.string.domain_urls_summary_none);
         }
@@ -19,6 +19,7 @@ package com.android.car.settings.applications.performance;
 import android.content.Context;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
 
 import com.android.settingslib.utils.ThreadUtils;
 
@@ -30,11 +31,16 @@ import java.util.List;
  */
 public class PerfImpactingAppsItemManager {
 
-    private Context mContext;
+    private final ResourceOveruseDisabledAppsTracker mDisabledAppsTracker;
     private final List<PerfImpactingAppsListener> mPerfImpactingAppsListeners;
 
     public PerfImpactingAppsItemManager(Context context) {
-        mContext = context;
+        this(ResourceOveruseDisabledAppsTracker.getInstance(context));
+    }
+
+    @VisibleForTesting
+    PerfImpactingAppsItemManager(ResourceOveruseDisabledAppsTracker disabledAppsTracker) {
+        mDisabledAppsTracker = disabledAppsTracker;
         mPerfImpactingAppsListeners = new ArrayList<>();
     }
 
@@ -50,7 +56,7 @@ public class PerfImpactingAppsItemManager {
      */
     public void startLoading() {
         ThreadUtils.postOnBackgroundThread(() -> {
-            int disabledPackagesCount = PerfImpactingAppsUtils.getDisabledPackages(mContext).size();
+            int disabledPackagesCount = mDisabledAppsTracker.getDisabledPackageCount();
             for (PerfImpactingAppsListener listener : mPerfImpactingAppsListeners) {
                 ThreadUtils.postOnMainThread(() -> listener
                         .onPerfImpactingAppsLoaded(disabledPackagesCount));
@@ -55,7 +55,8 @@ import java.util.List;
  * the app, meaning the app can run in the background once again.
  */
 public final class PerfImpactingAppsPreferenceController extends
-        PreferenceController<PreferenceGroup> {
+        PreferenceController<PreferenceGroup> implements
+        ResourceOveruseDisabledAppsTracker.DisabledAppsListener {
     private static final Logger LOG = new Logger(PerfImpactingAppsPreferenceController.class);
 
     @VisibleForTesting
@@ -68,10 +69,20 @@ public final class PerfImpactingAppsPreferenceController extends
     private CarWatchdogManager mCarWatchdogManager;
     @Nullable
     private List<ApplicationInfo> mEntries;
+    private final ResourceOveruseDisabledAppsTracker mDisabledAppsTracker;
 
     public PerfImpactingAppsPreferenceController(Context context, String preferenceKey,
             FragmentController fragmentController, CarUxRestrictions uxRestrictions) {
+        this(context, preferenceKey, fragmentController, uxRestrictions,
+                ResourceOveruseDisabledAppsTracker.getInstance(context));
+    }
+
+    @VisibleForTesting
+    PerfImpactingAppsPreferenceController(Context context, String preferenceKey,
+            FragmentController fragmentController, CarUxRestrictions uxRestrictions,
+            ResourceOveruseDisabledAppsTracker disabledAppsTracker) {
         super(context, preferenceKey, fragmentController, uxRestrictions);
+        mDisabledAppsTracker = disabledAppsTracker;
     }
 
     @Override
@@ -82,11 +93,13 @@ public final class PerfImpactingAppsPreferenceController extends
     @Override
     protected void onCreateInternal() {
         connectToCar();
+        mDisabledAppsTracker.acquire(this);
         updateEntries();
     }
 
     @Override
     protected void onDestroyInternal() {
+        mDisabledAppsTracker.release(this);
         if (mCar != null) {
             mCar.disconnect();
             mCar = null;
@@ -150,8 +163,13 @@ public final class PerfImpactingAppsPreferenceController extends
         updateEntries();
     }
 
+    @Override
+    public void onDisabledAppsChanged() {
+        updateEntries();
+    }
+
     private void updateEntries() {
-        mEntries = PerfImpactingAppsUtils.getDisabledAppInfos(getContext());
+        mEntries = mDisabledAppsTracker.getDisabledAppInfos();
         refreshUi();
     }
 
@@ -22,10 +22,6 @@ import android.car.watchdog.CarWatchdogManager;
 import android.car.watchdog.PackageKillableState;
 import android.content.ContentResolver;
 import android.content.Context;
-import android.content.Intent;
-import android.content.pm.ApplicationInfo;
-import android.content.pm.PackageManager;
-import android.content.pm.ResolveInfo;
 import android.os.Process;
 import android.os.UserHandle;
 import android.provider.Settings;
@@ -36,9 +32,8 @@ import com.android.car.settings.R;
 import com.android.car.settings.common.ConfirmationDialogFragment;
 import com.android.car.settings.common.FragmentController;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
+import java.util.LinkedHashSet;
 import java.util.Objects;
 import java.util.Set;
 
@@ -83,7 +78,8 @@ public final class PerfImpactingAppsUtils {
     }
 
     /**
-     * Returns the set of package names disabled due to resource overuse.
+     * Returns the set of package names disabled due to resource overuse, in the order of the
+     * setting.
      */
     public static Set<String> getDisabledPackages(Context context) {
         ContentResolver contentResolverForUser = context.createContextAsUser(
@@ -93,35 +89,9 @@ public final class PerfImpactingAppsUtils {
                         KEY_PACKAGES_DISABLED_ON_RESOURCE_OVERUSE));
     }
 
-    /**
-     * Returns a list of application infos disabled due to resource overuse.
-     */
-    public static List<ApplicationInfo> getDisabledAppInfos(Context context) {
-        Set<String> disabledPackageNames = getDisabledPackages(context);
-        if (disabledPackageNames.isEmpty()) {
-            return new ArrayList<>(0);
-        }
-        PackageManager packageManager = context.getPackageManager();
-        List<ResolveInfo> allPackages = packageManager.queryIntentActivities(
-                new Intent(Intent.ACTION_MAIN).addCategory(Intent.CATEGORY_LAUNCHER),
-                PackageManager.ResolveInfoFlags.of(PackageManager.GET_RESOLVED_FILTER
-                        | PackageManager.MATCH_DISABLED_UNTIL_USED_COMPONENTS));
-        List<ApplicationInfo> disabledAppInfos = new ArrayList<>(allPackages.size());
-        for (int idx = 0; idx < allPackages.size(); idx++) {
-            ApplicationInfo applicationInfo = allPackages.get(idx).activityInfo.applicationInfo;
-            if (disabledPackageNames.contains(applicationInfo.packageName)) {
-                disabledAppInfos.add(applicationInfo);
-                // Match only the first occurrence of a package.
-                // |PackageManager#queryIntentActivities| can return duplicate packages.
-                disabledPackageNames.remove(applicationInfo.packageName);
-            }
-        }
-        return disabledAppInfos;
-    }
-
-    private static ArraySet<String> extractPackages(String settingsString) {
+    private static Set<String> extractPackages(String settingsString) {
         return TextUtils.isEmpty(settingsString) ? new ArraySet<>()
-                : new ArraySet<>(Arrays.asList(settingsString.split(
+                : new LinkedHashSet<>(Arrays.asList(settingsString.split(
                         PACKAGES_DISABLED_ON_RESOURCE_OVERUSE_SEPARATOR)));
     }
 }
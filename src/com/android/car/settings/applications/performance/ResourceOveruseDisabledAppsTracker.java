@@ -0,0 +1,220 @@
+/*
+ * Copyright (C) 2023 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.car.settings.applications.performance;
+
+import static android.car.settings.CarSettings.Secure.KEY_PACKAGES_DISABLED_ON_RESOURCE_OVERUSE;
+
+import android.content.Context;
+import android.content.Intent;
+import android.content.pm.ApplicationInfo;
+import android.content.pm.PackageManager;
+import android.content.pm.ResolveInfo;
+import android.database.ContentObserver;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.os.UserHandle;
+import android.provider.Settings;
+import android.util.ArrayMap;
+
+import androidx.annotation.GuardedBy;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Process-wide tracker of the applications disabled due to resource overuse.
+ *
+ * <p>While there are listeners, the disabled packages setting is observed and only re-read after
+ * it changes. The application info of each disabled package is then resolved once, when the
+ * package is first seen in the setting, and dropped when it leaves the setting.
+ */
+public class ResourceOveruseDisabledAppsTracker {
+
+    private static ResourceOveruseDisabledAppsTracker sInstance;
+
+    private final Context mContext;
+    private final ContentObserver mSettingObserver =
+            new ContentObserver(new Handler(Looper.getMainLooper())) {
+                @Override
+                public void onChange(boolean selfChange) {
+                    onSettingChanged();
+                }
+            };
+
+    private final Object mLock = new Object();
+    @GuardedBy("mLock")
+    private final List<DisabledAppsListener> mListeners = new ArrayList<>();
+    // Null when the setting must be re-read.
+    @GuardedBy("mLock")
+    @Nullable
+    private Set<String> mDisabledPackages;
+    // Resolved application infos by package name, null for packages without a launcher activity.
+    @GuardedBy("mLock")
+    private final ArrayMap<String, ApplicationInfo> mAppInfos = new ArrayMap<>();
+    @GuardedBy("mLock")
+    private int mResolveCount;
+
+    /** Returns the process-wide instance of {@link ResourceOveruseDisabledAppsTracker}. */
+    public static ResourceOveruseDisabledAppsTracker getInstance(Context context) {
+        if (sInstance == null) {
+            sInstance = new ResourceOveruseDisabledAppsTracker(context.getApplicationContext());
+        }
+        return sInstance;
+    }
+
+    @VisibleForTesting
+    ResourceOveruseDisabledAppsTracker(Context context) {
+        mContext = context;
+    }
+
+    /**
+     * Registers {@code listener} to be notified on the main thread when the disabled packages
+     * change, and starts observing them if it is the first listener.
+     */
+    public void acquire(@NonNull DisabledAppsListener listener) {
+        boolean first;
+        synchronized (mLock) {
+            first = mListeners.isEmpty();
+            mListeners.add(listener);
+            if (first) {
+                // Packages may have changed while they were not tracked.
+                mDisabledPackages = null;
+                mAppInfos.clear();
+            }
+        }
+        if (first) {
+            // Settings.Secure#getUriFor is equivalent, but is not available when the settings are
+            // mocked in tests.
+            Uri uri = Uri.withAppendedPath(Settings.Secure.CONTENT_URI,
+                    KEY_PACKAGES_DISABLED_ON_RESOURCE_OVERUSE);
+            getContextForUser().getContentResolver().registerContentObserver(uri,
+                    /* notifyForDescendants= */ false, mSettingObserver);
+        }
+    }
+
+    /**
+     * Unregisters {@code listener}, and stops observing the disabled packages if it is the last
+     * listener.
+     */
+    public void release(@NonNull DisabledAppsListener listener) {
+        boolean last;
+        synchronized (mLock) {
+            last = mListeners.remove(listener) && mListeners.isEmpty();
+        }
+        if (last) {
+            getContextForUser().getContentResolver().unregisterContentObserver(mSettingObserver);
+        }
+    }
+
+    /** Returns the number of packages disabled due to resource overuse. */
+    public int getDisabledPackageCount() {
+        synchronized (mLock) {
+            return getDisabledPackagesLocked().size();
+        }
+    }
+
+    /**
+     * Returns the application infos of the packages disabled due to resource overuse which have a
+     * launcher activity, in the order of the setting.
+     */
+    public List<ApplicationInfo> getDisabledAppInfos() {
+        synchronized (mLock) {
+            Set<String> disabledPackages = getDisabledPackagesLocked();
+            mAppInfos.retainAll(disabledPackages);
+            List<ApplicationInfo> appInfos = new ArrayList<>(disabledPackages.size());
+            for (String packageName : disabledPackages) {
+                if (!mAppInfos.containsKey(packageName)) {
+                    mAppInfos.put(packageName, resolveAppInfo(packageName));
+                    mResolveCount++;
+                }
+                ApplicationInfo appInfo = mAppInfos.get(packageName);
+                if (appInfo != null) {
+                    appInfos.add(appInfo);
+                }
+            }
+            return appInfos;
+        }
+    }
+
+    /** Re-reads the setting on the next request and notifies the listeners. */
+    @VisibleForTesting
+    void onSettingChanged() {
+        List<DisabledAppsListener> listeners;
+        synchronized (mLock) {
+            mDisabledPackages = null;
+            listeners = new ArrayList<>(mListeners);
+        }
+        for (DisabledAppsListener listener : listeners) {
+            listener.onDisabledAppsChanged();
+        }
+    }
+
+    /** Returns the number of packages whose application info was resolved. */
+    @VisibleForTesting
+    int getResolveCount() {
+        synchronized (mLock) {
+            return mResolveCount;
+        }
+    }
+
+    @GuardedBy("mLock")
+    private Set<String> getDisabledPackagesLocked() {
+        // The setting is only cached while it is observed.
+        if (mDisabledPackages == null || mListeners.isEmpty()) {
+            mDisabledPackages = PerfImpactingAppsUtils.getDisabledPackages(mContext);
+        }
+        return mDisabledPackages;
+    }
+
+    @Nullable
+    private ApplicationInfo resolveAppInfo(String packageName) {
+        Intent launchIntent = new Intent(Intent.ACTION_MAIN)
+                .addCategory(Intent.CATEGORY_LAUNCHER)
+                .setPackage(packageName);
+        List<ResolveInfo> activities = mContext.getPackageManager().queryIntentActivities(
+                launchIntent,
+                PackageManager.ResolveInfoFlags.of(PackageManager.GET_RESOLVED_FILTER
+                        | PackageManager.MATCH_DISABLED_UNTIL_USED_COMPONENTS));
+        if (activities == null) {
+            return null;
+        }
+        for (int i = 0; i < activities.size(); i++) {
+            ApplicationInfo applicationInfo = activities.get(i).activityInfo.applicationInfo;
+            if (packageName.equals(applicationInfo.packageName)) {
+                return applicationInfo;
+            }
+        }
+        return null;
+    }
+
+    private Context getContextForUser() {
+        return mContext.createContextAsUser(UserHandle.getUserHandleForUid(Process.myUid()),
+                /* flags= */ 0);
+    }
+
+    /** Callback that is called when the packages disabled due to resource overuse change. */
+    public interface DisabledAppsListener {
+        /** Called on the main thread when the disabled packages setting changes. */
+        void onDisabledAppsChanged();
+    }
+}
@@ -74,6 +74,9 @@ public class AppOpsPreferenceController extends PreferenceController<PreferenceG
                                 entry.info.packageName,
                                 allowOp ? AppOpsManager.MODE_ALLOWED : mNegativeOpMode);
                         // Update the extra info of this entry so that it reflects the new mode.
+                        if (mExtraInfoBridge != null) {
+                            mExtraInfoBridge.invalidate(entry);
+                        }
                         mAppEntryListManager.forceUpdate(entry);
                         return true;
                     }
@@ -95,6 +98,7 @@ public class AppOpsPreferenceController extends PreferenceController<PreferenceG
 
     @VisibleForTesting
     AppEntryListManager mAppEntryListManager;
+    private AppStateAppOpsBridge mExtraInfoBridge;
     private List<AppEntry> mEntries;
 
     private boolean mShowSystem;
@@ -161,9 +165,8 @@ public class AppOpsPreferenceController extends PreferenceController<PreferenceG
 
     @Override
     protected void onCreateInternal() {
-        AppStateAppOpsBridge extraInfoBridge = new AppStateAppOpsBridge(getContext(), mAppOpsOpCode,
-                mPermission);
-        mAppEntryListManager.init(extraInfoBridge, this::getAppFilter, mCallback);
+        mExtraInfoBridge = new AppStateAppOpsBridge(getContext(), mAppOpsOpCode, mPermission);
+        mAppEntryListManager.init(mExtraInfoBridge, this::getAppFilter, mCallback);
     }
 
     @Override
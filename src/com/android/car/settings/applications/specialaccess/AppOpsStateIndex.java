@@ -0,0 +1,379 @@
+/*
+ * Copyright (C) 2023 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.car.settings.applications.specialaccess;
+
+import android.app.AppGlobals;
+import android.app.AppOpsManager;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.content.pm.IPackageManager;
+import android.content.pm.PackageInfo;
+import android.content.pm.PackageManager;
+import android.os.RemoteException;
+import android.os.UserHandle;
+import android.util.ArrayMap;
+import android.util.ArraySet;
+import android.util.SparseArray;
+
+import androidx.annotation.GuardedBy;
+import androidx.annotation.VisibleForTesting;
+import androidx.annotation.WorkerThread;
+
+import com.android.car.settings.applications.specialaccess.AppStateAppOpsBridge.PermissionState;
+import com.android.car.settings.common.Logger;
+import com.android.internal.util.ArrayUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Process-wide index of the {@link PermissionState} of the packages requesting a permission
+ * controlled by an app op, keyed by (op, permission, user).
+ *
+ * <p>The index of a user is built the first time it is requested, by enumerating the packages
+ * holding the permission and their app op modes. It is then kept up to date incrementally: when
+ * the mode of the op changes for a package, only the mode of that package is re-queried. When a
+ * package is added, removed or changed, the indexes of its user are rebuilt on their next
+ * request. This lets every special access screen share the same state instead of re-enumerating
+ * packages each time its list is loaded.
+ */
+public class AppOpsStateIndex {
+    private static final Logger LOG = new Logger(AppOpsStateIndex.class);
+
+    private static AppOpsStateIndex sInstance;
+
+    private final Context mContext;
+    private final IPackageManager mIPackageManager;
+    private final AppOpsManager mAppOpsManager;
+    private final boolean mWatchChanges;
+
+    private final Object mLock = new Object();
+    @GuardedBy("mLock")
+    private final ArrayMap<String, UserIndex> mIndexes = new ArrayMap<>();
+    @GuardedBy("mLock")
+    private final SparseArray<AppOpsManager.OnOpChangedListener> mOpChangedListeners =
+            new SparseArray<>();
+    // Incremented whenever an index is invalidated, so that an index built concurrently with
+    // the invalidation is rebuilt on its next request.
+    @GuardedBy("mLock")
+    private int mGeneration;
+    @GuardedBy("mLock")
+    private int mBuildCount;
+
+    private final BroadcastReceiver mPackageChangedReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            invalidateUser(getSendingUserId());
+        }
+    };
+
+    /** Returns the process-wide instance of {@link AppOpsStateIndex}. */
+    public static AppOpsStateIndex getInstance(Context context) {
+        if (sInstance == null) {
+            Context appContext = context.getApplicationContext();
+            sInstance = new AppOpsStateIndex(appContext, AppGlobals.getPackageManager(),
+                    appContext.getSystemService(AppOpsManager.class), /* watchChanges= */ true);
+            sInstance.registerReceivers();
+        }
+        return sInstance;
+    }
+
+    @VisibleForTesting
+    AppOpsStateIndex(Context context, IPackageManager packageManager,
+            AppOpsManager appOpsManager, boolean watchChanges) {
+        mContext = context;
+        mIPackageManager = packageManager;
+        mAppOpsManager = appOpsManager;
+        mWatchChanges = watchChanges;
+    }
+
+    private void registerReceivers() {
+        IntentFilter packageFilter = new IntentFilter();
+        packageFilter.addAction(Intent.ACTION_PACKAGE_ADDED);
+        packageFilter.addAction(Intent.ACTION_PACKAGE_REMOVED);
+        packageFilter.addAction(Intent.ACTION_PACKAGE_CHANGED);
+        packageFilter.addDataScheme("package");
+        mContext.registerReceiverForAllUsers(mPackageChangedReceiver, packageFilter,
+                /* broadcastPermission= */ null, /* scheduler= */ null);
+    }
+
+    /**
+     * Returns the {@link PermissionState} of the packages of each of {@code profiles} requesting
+     * {@code permission}, keyed by user id and then package name. Indexes are built or updated
+     * as needed, which requires binder calls, so this must not be called on the main thread.
+     */
+    @WorkerThread
+    public SparseArray<Map<String, PermissionState>> getPermissionStates(int appOpsOpCode,
+            String permission, List<UserHandle> profiles) {
+        List<Integer> usersToBuild = new ArrayList<>();
+        SparseArray<Set<String>> dirtyPackagesByUser = new SparseArray<>();
+        int generation;
+        synchronized (mLock) {
+            generation = mGeneration;
+            for (UserHandle profile : profiles) {
+                int userId = profile.getIdentifier();
+                UserIndex index = mIndexes.get(getKey(appOpsOpCode, permission, userId));
+                if (index == null || index.mStale) {
+                    usersToBuild.add(userId);
+                } else if (!index.mDirtyPackages.isEmpty()) {
+                    dirtyPackagesByUser.put(userId, new ArraySet<>(index.mDirtyPackages));
+                    index.mDirtyPackages.clear();
+                }
+            }
+        }
+
+        if (!usersToBuild.isEmpty()) {
+            watchOp(appOpsOpCode);
+            SparseArray<UserIndex> built = buildIndexes(appOpsOpCode, permission, usersToBuild);
+            synchronized (mLock) {
+                mBuildCount++;
+                for (int i = 0; i < built.size(); i++) {
+                    UserIndex index = built.valueAt(i);
+                    // Invalidated while building, rebuild on the next request.
+                    index.mStale = generation != mGeneration;
+                    mIndexes.put(getKey(appOpsOpCode, permission, built.keyAt(i)), index);
+                }
+            }
+        }
+        for (int i = 0; i < dirtyPackagesByUser.size(); i++) {
+            refreshAppOpModes(appOpsOpCode, permission, dirtyPackagesByUser.keyAt(i),
+                    dirtyPackagesByUser.valueAt(i));
+        }
+
+        SparseArray<Map<String, PermissionState>> states = new SparseArray<>();
+        synchronized (mLock) {
+            for (UserHandle profile : profiles) {
+                int userId = profile.getIdentifier();
+                UserIndex index = mIndexes.get(getKey(appOpsOpCode, permission, userId));
+                Map<String, PermissionState> statesForUser = new ArrayMap<>();
+                if (index != null) {
+                    for (int i = 0; i < index.mPackages.size(); i++) {
+                        statesForUser.put(index.mPackages.keyAt(i),
+                                index.mPackages.valueAt(i).mState);
+                    }
+                }
+                states.put(userId, statesForUser);
+            }
+        }
+        return states;
+    }
+
+    /**
+     * Marks the app op mode of {@code packageName} as changed, so that it is re-queried on the
+     * next request. This is used when the mode is changed by the caller, since the corresponding
+     * op changed callback is delivered asynchronously.
+     */
+    public void invalidatePackage(int appOpsOpCode, String permission, int userId,
+            String packageName) {
+        synchronized (mLock) {
+            UserIndex index = mIndexes.get(getKey(appOpsOpCode, permission, userId));
+            if (index != null && index.mPackages.containsKey(packageName)) {
+                index.mDirtyPackages.add(packageName);
+            }
+        }
+    }
+
+    /** Returns the number of times indexes were built by enumerating packages. */
+    @VisibleForTesting
+    int getBuildCount() {
+        synchronized (mLock) {
+            return mBuildCount;
+        }
+    }
+
+    private void invalidateUser(int userId) {
+        synchronized (mLock) {
+            mGeneration++;
+            for (int i = 0; i < mIndexes.size(); i++) {
+                UserIndex index = mIndexes.valueAt(i);
+                if (userId == UserHandle.USER_ALL || index.mUserId == userId) {
+                    index.mStale = true;
+                }
+            }
+        }
+    }
+
+    private void onOpChanged(int appOpsOpCode, String packageName) {
+        synchronized (mLock) {
+            // An index being built may have read the previous mode.
+            mGeneration++;
+            for (int i = 0; i < mIndexes.size(); i++) {
+                UserIndex index = mIndexes.valueAt(i);
+                if (index.mAppOpsOpCode == appOpsOpCode
+                        && index.mPackages.containsKey(packageName)) {
+                    index.mDirtyPackages.add(packageName);
+                }
+            }
+        }
+    }
+
+    private void watchOp(int appOpsOpCode) {
+        if (!mWatchChanges) {
+            return;
+        }
+        AppOpsManager.OnOpChangedListener listener;
+        synchronized (mLock) {
+            if (mOpChangedListeners.get(appOpsOpCode) != null) {
+                return;
+            }
+            listener = (op, packageName) -> onOpChanged(appOpsOpCode, packageName);
+            mOpChangedListeners.put(appOpsOpCode, listener);
+        }
+        mAppOpsManager.startWatchingMode(appOpsOpCode, /* packageName= */ null, listener);
+    }
+
+    private SparseArray<UserIndex> buildIndexes(int appOpsOpCode, String permission,
+            List<Integer> userIds) {
+        SparseArray<UserIndex> indexes = new SparseArray<>();
+        try {
+            for (int userId : userIds) {
+                UserIndex index = new UserIndex(appOpsOpCode, userId);
+                indexes.put(userId, index);
+                for (PackageInfo packageInfo : getPackageInfos(permission, userId)) {
+                    boolean isAvailable = mIPackageManager.isPackageAvailable(
+                            packageInfo.packageName, userId);
+                    if (shouldIgnorePackage(packageInfo, permission) || !isAvailable) {
+                        LOG.d("Ignoring " + packageInfo.packageName + " isAvailable="
+                                + isAvailable);
+                        continue;
+                    }
+                    int uid = packageInfo.applicationInfo != null
+                            ? packageInfo.applicationInfo.uid : -1;
+                    index.mPackages.put(packageInfo.packageName, new IndexedPackage(uid,
+                            new PermissionState(packageInfo.requestedPermissions,
+                                    AppOpsManager.MODE_DEFAULT)));
+                }
+            }
+        } catch (RemoteException e) {
+            LOG.w("PackageManager is dead. Can't get list of packages requesting "
+                    + permission, e);
+        }
+        loadAppOpModes(appOpsOpCode, permission, indexes);
+        return indexes;
+    }
+
+    @SuppressWarnings("unchecked") // safe by specification.
+    private List<PackageInfo> getPackageInfos(String permission, int userId)
+            throws RemoteException {
+        return mIPackageManager.getPackagesHoldingPermissions(new String[]{permission},
+                PackageManager.GET_PERMISSIONS, userId).getList();
+    }
+
+    private boolean shouldIgnorePackage(PackageInfo packageInfo, String permission) {
+        return packageInfo.packageName.equals("android")
+                || packageInfo.packageName.equals(mContext.getPackageName())
+                || !ArrayUtils.contains(packageInfo.requestedPermissions, permission);
+    }
+
+    /** Sets the app op mode of the indexed packages. */
+    private void loadAppOpModes(int appOpsOpCode, String permission,
+            SparseArray<UserIndex> indexes) {
+        // Find out which packages have been granted permission from AppOps.
+        List<AppOpsManager.PackageOps> packageOps = mAppOpsManager.getPackagesForOps(
+                new int[]{appOpsOpCode});
+        if (packageOps == null) {
+            return;
+        }
+        for (AppOpsManager.PackageOps packageOp : packageOps) {
+            int userId = UserHandle.getUserId(packageOp.getUid());
+            UserIndex index = indexes.get(userId);
+            if (index == null) {
+                // Profile is not for the current user.
+                continue;
+            }
+            IndexedPackage indexedPackage = index.mPackages.get(packageOp.getPackageName());
+            if (indexedPackage == null) {
+                LOG.w("AppOp permission exists for package " + packageOp.getPackageName()
+                        + " of user " + userId + " but package doesn't exist or did not request "
+                        + permission + " access");
+                continue;
+            }
+            if (packageOp.getOps().size() < 1) {
+                LOG.w("No AppOps permission exists for package " + packageOp.getPackageName());
+                continue;
+            }
+            indexedPackage.mState = indexedPackage.mState.withAppOpMode(
+                    packageOp.getOps().get(0).getMode());
+        }
+    }
+
+    /** Re-queries the app op mode of {@code packageNames} only. */
+    private void refreshAppOpModes(int appOpsOpCode, String permission, int userId,
+            Set<String> packageNames) {
+        String key = getKey(appOpsOpCode, permission, userId);
+        for (String packageName : packageNames) {
+            int uid;
+            synchronized (mLock) {
+                UserIndex index = mIndexes.get(key);
+                IndexedPackage indexedPackage =
+                        index == null ? null : index.mPackages.get(packageName);
+                if (indexedPackage == null) {
+                    continue;
+                }
+                uid = indexedPackage.mUid;
+            }
+            int mode = AppOpsManager.MODE_DEFAULT;
+            List<AppOpsManager.PackageOps> packageOps = mAppOpsManager.getOpsForPackage(uid,
+                    packageName, new int[]{appOpsOpCode});
+            if (packageOps != null && !packageOps.isEmpty()
+                    && !packageOps.get(0).getOps().isEmpty()) {
+                mode = packageOps.get(0).getOps().get(0).getMode();
+            }
+            synchronized (mLock) {
+                UserIndex index = mIndexes.get(key);
+                IndexedPackage indexedPackage =
+                        index == null ? null : index.mPackages.get(packageName);
+                if (indexedPackage != null) {
+                    indexedPackage.mState = indexedPackage.mState.withAppOpMode(mode);
+                }
+            }
+        }
+    }
+
+    private static String getKey(int appOpsOpCode, String permission, int userId) {
+        return appOpsOpCode + "|" + permission + "|" + userId;
+    }
+
+    /** Indexed state of the packages of a user for a given op and permission. */
+    private static final class UserIndex {
+        final int mAppOpsOpCode;
+        final int mUserId;
+        final ArrayMap<String, IndexedPackage> mPackages = new ArrayMap<>();
+        final Set<String> mDirtyPackages = new ArraySet<>();
+        boolean mStale;
+
+        UserIndex(int appOpsOpCode, int userId) {
+            mAppOpsOpCode = appOpsOpCode;
+            mUserId = userId;
+        }
+    }
+
+    private static final class IndexedPackage {
+        final int mUid;
+        // Replaced rather than mutated since it is shared with AppEntry#extraInfo.
+        PermissionState mState;
+
+        IndexedPackage(int uid, PermissionState state) {
+            mUid = uid;
+            mState = state;
+        }
+    }
+}
@@ -16,22 +16,15 @@
 
 package com.android.car.settings.applications.specialaccess;
 
-import android.app.AppGlobals;
 import android.app.AppOpsManager;
 import android.content.Context;
 import android.content.pm.IPackageManager;
-import android.content.pm.PackageInfo;
-import android.content.pm.PackageManager;
-import android.os.RemoteException;
 import android.os.UserHandle;
 import android.os.UserManager;
-import android.util.ArrayMap;
 import android.util.SparseArray;
 
 import androidx.annotation.VisibleForTesting;
 
-import com.android.car.settings.common.Logger;
-import com.android.internal.util.ArrayUtils;
 import com.android.settingslib.applications.ApplicationsState.AppEntry;
 
 import java.util.List;
@@ -40,15 +33,13 @@ import java.util.Map;
 /**
  * Bridges {@link AppOpsManager} app operation permission information into {@link
  * AppEntry#extraInfo} as {@link PermissionState} objects.
+ *
+ * <p>The information is served from the shared {@link AppOpsStateIndex}.
  */
 public class AppStateAppOpsBridge implements AppEntryListManager.ExtraInfoBridge {
 
-    private static final Logger LOG = new Logger(AppStateAppOpsBridge.class);
-
-    private final Context mContext;
-    private final IPackageManager mIPackageManager;
+    private final AppOpsStateIndex mAppOpsStateIndex;
     private final List<UserHandle> mProfiles;
-    private final AppOpsManager mAppOpsManager;
     private final int mAppOpsOpCode;
     private final String mPermission;
 
@@ -60,19 +51,23 @@ public class AppStateAppOpsBridge implements AppEntryListManager.ExtraInfoBridge
      *                     operation.
      */
     public AppStateAppOpsBridge(Context context, int appOpsOpCode, String permission) {
-        this(context, appOpsOpCode, permission, AppGlobals.getPackageManager(),
-                UserManager.get(context).getUserProfiles(),
-                context.getSystemService(AppOpsManager.class));
+        this(AppOpsStateIndex.getInstance(context), appOpsOpCode, permission,
+                UserManager.get(context).getUserProfiles());
     }
 
     @VisibleForTesting
     AppStateAppOpsBridge(Context context, int appOpsOpCode, String permission,
             IPackageManager packageManager, List<UserHandle> profiles,
             AppOpsManager appOpsManager) {
-        mContext = context;
-        mIPackageManager = packageManager;
+        this(new AppOpsStateIndex(context, packageManager, appOpsManager,
+                /* watchChanges= */ false), appOpsOpCode, permission, profiles);
+    }
+
+    @VisibleForTesting
+    AppStateAppOpsBridge(AppOpsStateIndex appOpsStateIndex, int appOpsOpCode, String permission,
+            List<UserHandle> profiles) {
+        mAppOpsStateIndex = appOpsStateIndex;
         mProfiles = profiles;
-        mAppOpsManager = appOpsManager;
         mAppOpsOpCode = appOpsOpCode;
         mPermission = permission;
     }
@@ -80,8 +75,7 @@ public class AppStateAppOpsBridge implements AppEntryListManager.ExtraInfoBridge
     @Override
     public void loadExtraInfo(List<AppEntry> entries) {
         SparseArray<Map<String, PermissionState>> packageToStatesMapByProfileId =
-                getPackageToStateMapsByProfileId();
-        loadAppOpModes(packageToStatesMapByProfileId);
+                mAppOpsStateIndex.getPermissionStates(mAppOpsOpCode, mPermission, mProfiles);
 
         for (AppEntry entry : entries) {
             Map<String, PermissionState> packageStatesMap = packageToStatesMapByProfileId.get(
@@ -91,77 +85,13 @@ public class AppStateAppOpsBridge implements AppEntryListManager.ExtraInfoBridge
         }
     }
 
-    private SparseArray<Map<String, PermissionState>> getPackageToStateMapsByProfileId() {
-        SparseArray<Map<String, PermissionState>> entries = new SparseArray<>();
-        try {
-            for (UserHandle profile : mProfiles) {
-                int profileId = profile.getIdentifier();
-                List<PackageInfo> packageInfos = getPackageInfos(profileId);
-                Map<String, PermissionState> entriesForProfile = new ArrayMap<>();
-                entries.put(profileId, entriesForProfile);
-                for (PackageInfo packageInfo : packageInfos) {
-                    boolean isAvailable = mIPackageManager.isPackageAvailable(
-                            packageInfo.packageName,
-                            profileId);
-                    if (shouldIgnorePackage(packageInfo) || !isAvailable) {
-                        LOG.d("Ignoring " + packageInfo.packageName + " isAvailable="
-                                + isAvailable);
-                        continue;
-                    }
-                    PermissionState newEntry = new PermissionState();
-                    newEntry.mRequestedPermissions = packageInfo.requestedPermissions;
-                    entriesForProfile.put(packageInfo.packageName, newEntry);
-                }
-            }
-        } catch (RemoteException e) {
-            LOG.w("PackageManager is dead. Can't get list of packages requesting "
-                    + mPermission, e);
-        }
-        return entries;
-    }
-
-    @SuppressWarnings("unchecked") // safe by specification.
-    private List<PackageInfo> getPackageInfos(int profileId) throws RemoteException {
-        return mIPackageManager.getPackagesHoldingPermissions(new String[]{mPermission},
-                PackageManager.GET_PERMISSIONS, profileId).getList();
-    }
-
-    private boolean shouldIgnorePackage(PackageInfo packageInfo) {
-        return packageInfo.packageName.equals("android")
-                || packageInfo.packageName.equals(mContext.getPackageName())
-                || !ArrayUtils.contains(packageInfo.requestedPermissions, mPermission);
-    }
-
-    /** Sets the {@link PermissionState#mAppOpMode} field. */
-    private void loadAppOpModes(
-            SparseArray<Map<String, PermissionState>> packageToStateMapsByProfileId) {
-        // Find out which packages have been granted permission from AppOps.
-        List<AppOpsManager.PackageOps> packageOps = mAppOpsManager.getPackagesForOps(
-                new int[]{mAppOpsOpCode});
-        if (packageOps == null) {
-            return;
-        }
-        for (AppOpsManager.PackageOps packageOp : packageOps) {
-            int userId = UserHandle.getUserId(packageOp.getUid());
-            Map<String, PermissionState> packageStateMap = packageToStateMapsByProfileId.get(
-                    userId);
-            if (packageStateMap == null) {
-                // Profile is not for the current user.
-                continue;
-            }
-            PermissionState permissionState = packageStateMap.get(packageOp.getPackageName());
-            if (permissionState == null) {
-                LOG.w("AppOp permission exists for package " + packageOp.getPackageName()
-                        + " of user " + userId + " but package doesn't exist or did not request "
-                        + mPermission + " access");
-                continue;
-            }
-            if (packageOp.getOps().size() < 1) {
-                LOG.w("No AppOps permission exists for package " + packageOp.getPackageName());
-                continue;
-            }
-            permissionState.mAppOpMode = packageOp.getOps().get(0).getMode();
-        }
+    /**
+     * Marks the app op mode of {@code entry} as changed so that it is reloaded by the next call
+     * to {@link #loadExtraInfo}.
+     */
+    public void invalidate(AppEntry entry) {
+        mAppOpsStateIndex.invalidatePackage(mAppOpsOpCode, mPermission,
+                UserHandle.getUserId(entry.info.uid), entry.info.packageName);
     }
 
     /**
@@ -170,8 +100,18 @@ public class AppStateAppOpsBridge implements AppEntryListManager.ExtraInfoBridge
      * application.
      */
     public static class PermissionState {
-        private String[] mRequestedPermissions;
-        private int mAppOpMode = AppOpsManager.MODE_DEFAULT;
+        private final String[] mRequestedPermissions;
+        private final int mAppOpMode;
+
+        PermissionState(String[] requestedPermissions, int appOpMode) {
+            mRequestedPermissions = requestedPermissions;
+            mAppOpMode = appOpMode;
+        }
+
+        /** Returns a copy of this state with the given app op mode. */
+        PermissionState withAppOpMode(int appOpMode) {
+            return new PermissionState(mRequestedPermissions, appOpMode);
+        }
 
         /** Returns {@code true} if the entry's application is allowed to perform the operation. */
         public boolean isPermissible() {
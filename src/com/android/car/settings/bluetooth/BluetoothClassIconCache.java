@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2023 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.car.settings.bluetooth;
+
+import android.content.Context;
+import android.content.res.Configuration;
+import android.graphics.drawable.Drawable;
+import android.util.ArrayMap;
+import android.util.Pair;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import com.android.car.settings.R;
+import com.android.settingslib.bluetooth.CachedBluetoothDevice;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shared cache of the class icons of bluetooth devices.
+ *
+ * <p>The class icon of a device only depends on its bluetooth class and profiles, so devices of
+ * the same kind share the loaded icon state and only get their own tinted copy of it. Icons are
+ * cached per configuration, since the loaded resources depend on the night mode, density and
+ * locales.
+ */
+public final class BluetoothClassIconCache {
+
+    private static final Map<List<Object>, Pair<Drawable.ConstantState, String>> sIcons =
+            new ArrayMap<>();
+
+    private BluetoothClassIconCache() {}
+
+    /**
+     * Returns the key of the class icon of {@code device}. Devices with equal keys have the same
+     * class icon.
+     */
+    public static List<Object> getIconKey(CachedBluetoothDevice device) {
+        return Arrays.asList(device.getBtClass(), new ArrayList<>(device.getProfiles()));
+    }
+
+    /**
+     * Returns the class icon of {@code device} tinted with the default icon color, and its
+     * description.
+     *
+     * @see com.android.settingslib.bluetooth.BluetoothUtils#getBtClassDrawableWithDescription
+     */
+    public static Pair<Drawable, String> getBtClassDrawableWithDescription(Context context,
+            CachedBluetoothDevice device) {
+        List<Object> key = getCacheKey(context, device);
+        Pair<Drawable.ConstantState, String> cached;
+        synchronized (sIcons) {
+            cached = sIcons.get(key);
+        }
+        Drawable drawable;
+        String description;
+        if (cached != null) {
+            drawable = cached.first != null
+                    ? cached.first.newDrawable(context.getResources()) : null;
+            description = cached.second;
+        } else {
+            Pair<Drawable, String> pair = com.android.settingslib.bluetooth.BluetoothUtils
+                    .getBtClassDrawableWithDescription(context, device);
+            drawable = pair.first;
+            description = pair.second;
+            Drawable.ConstantState state = drawable != null ? drawable.getConstantState() : null;
+            // Drawables which can't be shared are loaded again on the next request.
+            if (drawable == null || state != null) {
+                synchronized (sIcons) {
+                    sIcons.put(key, new Pair<>(state, description));
+                }
+            }
+        }
+        if (drawable != null) {
+            drawable = drawable.mutate();
+            drawable.setTintList(context.getColorStateList(R.color.icon_color_default));
+        }
+        return new Pair<>(drawable, description);
+    }
+
+    private static List<Object> getCacheKey(Context context, CachedBluetoothDevice device) {
+        Configuration configuration = context.getResources().getConfiguration();
+        return Arrays.asList(getIconKey(device),
+                configuration.uiMode & Configuration.UI_MODE_NIGHT_MASK,
+                configuration.densityDpi, configuration.getLocales());
+    }
+
+    @VisibleForTesting
+    static void clear() {
+        synchronized (sIcons) {
+            sIcons.clear();
+        }
+    }
+
+    @VisibleForTesting
+    @Nullable
+    static Pair<Drawable.ConstantState, String> getCached(Context context,
+            CachedBluetoothDevice device) {
+        synchronized (sIcons) {
+            return sIcons.get(getCacheKey(context, device));
+        }
+    }
+}
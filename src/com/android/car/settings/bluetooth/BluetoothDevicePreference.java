@@ -19,6 +19,7 @@ package com.android.car.settings.bluetooth;
 import android.content.Context;
 import android.graphics.drawable.Drawable;
 import android.os.SystemProperties;
+import android.text.TextUtils;
 import android.util.AttributeSet;
 import android.util.Pair;
 
@@ -26,11 +27,13 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.preference.Preference;
 
-import com.android.car.settings.R;
 import com.android.car.settings.common.MultiActionPreference;
 import com.android.car.settings.common.ToggleButtonActionItem;
 import com.android.settingslib.bluetooth.CachedBluetoothDevice;
 
+import java.util.List;
+import java.util.Objects;
+
 /**
  * Preference which represents a specific {@link CachedBluetoothDevice}. The title, icon, and
  * summary are kept in sync with the device when the preference is shown. When the device is busy,
@@ -47,6 +50,10 @@ public class BluetoothDevicePreference extends MultiActionPreference {
     private final CachedBluetoothDevice.Callback mDeviceCallback = this::refreshUi;
 
     private UpdateToggleButtonListener mUpdateToggleButtonListener;
+    @Nullable
+    private List<Object> mRenderedIconKey;
+    @Nullable
+    private SortKey mRenderedSortKey;
 
     public BluetoothDevicePreference(Context context, CachedBluetoothDevice cachedDevice) {
         this(context, cachedDevice, /* showDisconnectedStateSubtitle= */ true);
@@ -100,18 +107,23 @@ public class BluetoothDevicePreference extends MultiActionPreference {
     public void onDetached() {
         super.onDetached();
         mCachedDevice.unregisterCallback(mDeviceCallback);
+        mRenderedSortKey = null;
     }
 
     private void refreshUi() {
+        // The setters only notify a change when the value differs.
         setTitle(mCachedDevice.getName());
         setSummary(mCachedDevice.getCarConnectionSummary(/* shortSummary= */ true,
                 mShowDisconnectedStateSubtitle));
 
-        Pair<Drawable, String> pair = com.android.settingslib.bluetooth.BluetoothUtils
-                .getBtClassDrawableWithDescription(getContext(), mCachedDevice);
-        if (pair.first != null) {
-            setIcon(pair.first);
-            getIcon().setTintList(getContext().getColorStateList(R.color.icon_color_default));
+        List<Object> iconKey = BluetoothClassIconCache.getIconKey(mCachedDevice);
+        if (!iconKey.equals(mRenderedIconKey)) {
+            mRenderedIconKey = iconKey;
+            Pair<Drawable, String> pair = BluetoothClassIconCache
+                    .getBtClassDrawableWithDescription(getContext(), mCachedDevice);
+            if (pair.first != null) {
+                setIcon(pair.first);
+            }
         }
 
         setEnabled(!mCachedDevice.isBusy());
@@ -120,8 +132,14 @@ public class BluetoothDevicePreference extends MultiActionPreference {
         if (mUpdateToggleButtonListener != null) {
             mUpdateToggleButtonListener.updateToggleButtonState(this);
         }
-        // Notify since the ordering may have changed.
-        notifyHierarchyChanged();
+
+        // Most callbacks, such as battery level updates, don't change the ordering, so the group
+        // is only re-sorted when the fields compared by the device change.
+        SortKey sortKey = new SortKey(mCachedDevice);
+        if (!sortKey.equals(mRenderedSortKey)) {
+            mRenderedSortKey = sortKey;
+            notifyHierarchyChanged();
+        }
     }
 
     private CharSequence getConnectionSummary() {
@@ -190,4 +208,35 @@ public class BluetoothDevicePreference extends MultiActionPreference {
          */
         void updateToggleButtonState(BluetoothDevicePreference preference);
     }
+
+    /**
+     * The fields of a device which are compared by {@link CachedBluetoothDevice#compareTo}, apart
+     * from the signal strength, which is not exposed and only orders unbonded devices.
+     */
+    private static final class SortKey {
+        private final boolean mConnected;
+        private final int mBondState;
+        private final String mName;
+
+        SortKey(CachedBluetoothDevice device) {
+            mConnected = device.isConnected();
+            mBondState = device.getBondState();
+            mName = device.getName();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof SortKey)) {
+                return false;
+            }
+            SortKey other = (SortKey) o;
+            return mConnected == other.mConnected && mBondState == other.mBondState
+                    && TextUtils.equals(mName, other.mName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(mConnected, mBondState, mName);
+        }
+    }
 }
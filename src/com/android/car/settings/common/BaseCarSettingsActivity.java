@@ -55,6 +55,8 @@ import com.android.car.ui.toolbar.NavButtonMode;
 import com.android.car.ui.toolbar.ToolbarController;
 import com.android.settingslib.core.lifecycle.HideNonSystemOverlayMixin;
 
+import java.io.FileDescriptor;
+import java.io.PrintWriter;
 import java.util.Collections;
 import java.util.List;
 
@@ -132,39 +134,53 @@ public abstract class BaseCarSettingsActivity extends FragmentActivity implement
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
-        super.onCreate(savedInstanceState);
-        getLifecycle().addObserver(new HideNonSystemOverlayMixin(this));
-        if (savedInstanceState != null) {
-            mHasNewIntent = savedInstanceState.getBoolean(KEY_HAS_NEW_INTENT, mHasNewIntent);
-        }
-        populateMetaData();
-        setContentView(R.layout.car_setting_activity);
-        mFragmentContainer = findViewById(R.id.fragment_container);
-
-        // We do this so that the insets are not automatically sent to the fragments.
-        // The fragments have their own insets handled by the installBaseLayoutAround() method.
-        CarUi.replaceInsetsChangedListenerWith(this, this);
-
-        setUpToolbars();
-        getSupportFragmentManager().addOnBackStackChangedListener(this);
-        mRestrictedMessage = findViewById(R.id.restricted_message);
-
-        if (mHasNewIntent) {
-            launchIfDifferent(getInitialFragment());
-            mHasNewIntent = false;
-        } else if (!mIsSinglePane) {
-            updateMiniToolbarState();
-        }
-        mUxRestrictionsHelper = new CarUxRestrictionsHelper(/* context= */ this, /* listener= */
-                this);
+        String traceSection = SettingsTracer.getSectionName(this, "onCreate");
+        long traceStart = SettingsTracer.begin(traceSection);
+        try {
+            super.onCreate(savedInstanceState);
+            getLifecycle().addObserver(new HideNonSystemOverlayMixin(this));
+            if (savedInstanceState != null) {
+                mHasNewIntent = savedInstanceState.getBoolean(KEY_HAS_NEW_INTENT, mHasNewIntent);
+            }
+            populateMetaData();
+            setContentView(R.layout.car_setting_activity);
+            mFragmentContainer = findViewById(R.id.fragment_container);
+
+            // We do this so that the insets are not automatically sent to the fragments.
+            // The fragments have their own insets handled by the installBaseLayoutAround() method.
+            CarUi.replaceInsetsChangedListenerWith(this, this);
+
+            setUpToolbars();
+            getSupportFragmentManager().addOnBackStackChangedListener(this);
+            mRestrictedMessage = findViewById(R.id.restricted_message);
+
+            if (mHasNewIntent) {
+                launchIfDifferent(getInitialFragment());
+                mHasNewIntent = false;
+            } else if (!mIsSinglePane) {
+                updateMiniToolbarState();
+            }
+            mUxRestrictionsHelper = new CarUxRestrictionsHelper(/* context= */ this, /* listener= */
+                    this);
 
-        if (shouldFocusContentOnLaunch()) {
-            requestContentPaneFocus();
-            mHasInitialFocus = true;
-        } else {
-            requestTopLevelMenuFocus();
+            if (shouldFocusContentOnLaunch()) {
+                requestContentPaneFocus();
+                mHasInitialFocus = true;
+            } else {
+                requestTopLevelMenuFocus();
+            }
+            setUpFocusChangeListener(true);
+        } finally {
+            SettingsTracer.end(traceSection, traceStart);
         }
-        setUpFocusChangeListener(true);
+    }
+
+    @Override
+    public void dump(@NonNull String prefix, @Nullable FileDescriptor fd,
+            @NonNull PrintWriter writer, @Nullable String[] args) {
+        super.dump(prefix, fd, writer, args);
+        CarServiceHub.getInstance(this).dump(writer);
+        SettingsTracer.dump(writer);
     }
 
     @Override
@@ -0,0 +1,323 @@
+/*
+ * Copyright (C) 2023 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.car.settings.common;
+
+import android.car.Car;
+import android.car.Car.CarServiceLifecycleListener;
+import android.car.CarOccupantZoneManager;
+import android.car.drivingstate.CarUxRestrictions;
+import android.car.drivingstate.CarUxRestrictionsManager;
+import android.car.drivingstate.CarUxRestrictionsManager.OnUxRestrictionsChangedListener;
+import android.car.hardware.power.CarPowerManager;
+import android.car.media.CarAudioManager;
+import android.car.user.CarUserManager;
+import android.content.Context;
+import android.os.SystemClock;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import androidx.collection.ArraySet;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+
+/**
+ * Application-scoped, reference-counted connection to the car service.
+ *
+ * <p>Every component that needs a car manager acquires the shared connection with {@link
+ * #acquire(CarServiceLifecycleListener)} and releases it with {@link
+ * #release(CarServiceLifecycleListener)} instead of binding to the car service through its own
+ * {@link Car#createCar} call. The connection is made when the first reference is acquired and
+ * dropped when the last one is released. Since {@link com.android.car.settings
+ * .CarSettingsApplication} holds a reference for the lifetime of the process, the binder bind and
+ * service lookup happen once per process rather than once per screen.
+ *
+ * <p>{@link CarUxRestrictionsManager} only supports a single listener per manager, so UX
+ * restriction listeners are multiplexed through {@link #registerUxRestrictionsListener}.
+ *
+ * <p>All methods must be called on the main thread.
+ */
+public class CarServiceHub {
+    private static final Logger LOG = new Logger(CarServiceHub.class);
+
+    private static CarServiceHub sInstance;
+
+    private final Context mContext;
+    private final ArraySet<CarServiceLifecycleListener> mLifecycleListeners = new ArraySet<>();
+    private final ArraySet<OnUxRestrictionsChangedListener> mUxRestrictionsListeners =
+            new ArraySet<>();
+
+    @Nullable
+    private Car mCar;
+    private boolean mReady;
+    @Nullable
+    private CarUxRestrictionsManager mCarUxRestrictionsManager;
+    @Nullable
+    private CarUxRestrictions mCurrentUxRestrictions;
+
+    // Startup metrics.
+    private long mConnectRequestedTimeMs;
+    private long mLastConnectLatencyMs = -1;
+    private int mConnectCount;
+    private int mReusedAcquireCount;
+
+    private final CarServiceLifecycleListener mCarServiceLifecycleListener = (car, ready) -> {
+        mCar = car;
+        mReady = ready;
+        if (ready) {
+            mLastConnectLatencyMs = SystemClock.elapsedRealtime() - mConnectRequestedTimeMs;
+            LOG.d("Connected to the Car Service in " + mLastConnectLatencyMs + "ms");
+            registerUxRestrictionsManagerListener();
+        } else {
+            LOG.d("Disconnected from the Car Service");
+            mCarUxRestrictionsManager = null;
+            // The car service reconnects on its own; measure the time until it is ready again.
+            mConnectRequestedTimeMs = SystemClock.elapsedRealtime();
+        }
+        for (CarServiceLifecycleListener listener : new ArrayList<>(mLifecycleListeners)) {
+            listener.onLifecycleChanged(car, ready);
+        }
+    };
+
+    private final OnUxRestrictionsChangedListener mUxRestrictionsChangedListener =
+            restrictions -> {
+                mCurrentUxRestrictions = restrictions;
+                for (OnUxRestrictionsChangedListener listener :
+                        new ArrayList<>(mUxRestrictionsListeners)) {
+                    listener.onUxRestrictionsChanged(restrictions);
+                }
+            };
+
+    /** Returns the process-wide instance of {@link CarServiceHub}. */
+    public static CarServiceHub getInstance(Context context) {
+        if (sInstance == null) {
+            sInstance = new CarServiceHub(context.getApplicationContext());
+        }
+        return sInstance;
+    }
+
+    @VisibleForTesting
+    CarServiceHub(Context context) {
+        mContext = context;
+    }
+
+    /**
+     * Acquires a reference to the shared car connection, connecting to the car service if this
+     * is the first reference. If the car service is already connected, {@code listener} is
+     * invoked immediately; it is otherwise invoked once the connection is ready. {@code listener}
+     * also receives subsequent disconnections and reconnections until it is released.
+     */
+    @MainThread
+    public void acquire(CarServiceLifecycleListener listener) {
+        if (!mLifecycleListeners.add(listener)) {
+            return;
+        }
+        if (mCar == null) {
+            connect();
+        } else {
+            mReusedAcquireCount++;
+            if (mReady) {
+                listener.onLifecycleChanged(mCar, /* ready= */ true);
+            }
+        }
+    }
+
+    /**
+     * Acquires a reference to the shared car connection that is automatically released when
+     * {@code owner} is destroyed.
+     */
+    @MainThread
+    public void acquire(LifecycleOwner owner, CarServiceLifecycleListener listener) {
+        acquire(listener);
+        owner.getLifecycle().addObserver(new DefaultLifecycleObserver() {
+            @Override
+            public void onDestroy(@NonNull LifecycleOwner owner) {
+                release(listener);
+            }
+        });
+    }
+
+    /**
+     * Releases a reference previously acquired with {@link #acquire}. The car service is
+     * disconnected once no references remain.
+     */
+    @MainThread
+    public void release(CarServiceLifecycleListener listener) {
+        if (!mLifecycleListeners.remove(listener)) {
+            return;
+        }
+        maybeDisconnect();
+    }
+
+    /**
+     * Registers a listener for {@link CarUxRestrictions} changes. The listener is invoked
+     * immediately with the current restrictions if they are known. Registering a listener holds a
+     * reference to the car connection until the listener is unregistered.
+     */
+    @MainThread
+    public void registerUxRestrictionsListener(OnUxRestrictionsChangedListener listener) {
+        if (!mUxRestrictionsListeners.add(listener)) {
+            return;
+        }
+        if (mCar == null) {
+            connect();
+        } else if (mCarUxRestrictionsManager == null) {
+            // First UX restrictions listener on an existing connection.
+            if (mReady) {
+                registerUxRestrictionsManagerListener();
+            }
+        } else if (mCurrentUxRestrictions != null) {
+            listener.onUxRestrictionsChanged(mCurrentUxRestrictions);
+        }
+    }
+
+    /** Unregisters a listener added with {@link #registerUxRestrictionsListener}. */
+    @MainThread
+    public void unregisterUxRestrictionsListener(OnUxRestrictionsChangedListener listener) {
+        if (!mUxRestrictionsListeners.remove(listener)) {
+            return;
+        }
+        if (mUxRestrictionsListeners.isEmpty() && mCarUxRestrictionsManager != null) {
+            mCarUxRestrictionsManager.unregisterListener();
+            mCarUxRestrictionsManager = null;
+            mCurrentUxRestrictions = null;
+        }
+        maybeDisconnect();
+    }
+
+    /** Returns whether the car service is currently connected. */
+    public boolean isConnected() {
+        return mCar != null && mReady;
+    }
+
+    /**
+     * Returns the car manager for {@code serviceName}, or {@code null} if the car service is not
+     * connected or the service is not available.
+     */
+    @Nullable
+    public Object getCarManager(String serviceName) {
+        if (!isConnected()) {
+            LOG.w("getCarManager(" + serviceName + "): car service is not connected");
+            return null;
+        }
+        return mCar.getCarManager(serviceName);
+    }
+
+    /** Returns the {@link CarUxRestrictionsManager}, or {@code null} if not connected. */
+    @Nullable
+    public CarUxRestrictionsManager getCarUxRestrictionsManager() {
+        return (CarUxRestrictionsManager) getCarManager(Car.CAR_UX_RESTRICTION_SERVICE);
+    }
+
+    /** Returns the {@link CarPowerManager}, or {@code null} if not connected. */
+    @Nullable
+    public CarPowerManager getCarPowerManager() {
+        return (CarPowerManager) getCarManager(Car.POWER_SERVICE);
+    }
+
+    /** Returns the {@link CarUserManager}, or {@code null} if not connected. */
+    @Nullable
+    public CarUserManager getCarUserManager() {
+        return (CarUserManager) getCarManager(Car.CAR_USER_SERVICE);
+    }
+
+    /** Returns the {@link CarAudioManager}, or {@code null} if not connected. */
+    @Nullable
+    public CarAudioManager getCarAudioManager() {
+        return (CarAudioManager) getCarManager(Car.AUDIO_SERVICE);
+    }
+
+    /** Returns the {@link CarOccupantZoneManager}, or {@code null} if not connected. */
+    @Nullable
+    public CarOccupantZoneManager getCarOccupantZoneManager() {
+        return (CarOccupantZoneManager) getCarManager(Car.CAR_OCCUPANT_ZONE_SERVICE);
+    }
+
+    /**
+     * Returns the time in milliseconds between requesting the last connection and the car
+     * service becoming ready, or {@code -1} if it has not been ready yet.
+     */
+    public long getLastConnectLatencyMs() {
+        return mLastConnectLatencyMs;
+    }
+
+    /** Returns the number of times a new car connection was requested. */
+    public int getConnectCount() {
+        return mConnectCount;
+    }
+
+    /** Returns the number of references served from an existing car connection. */
+    public int getReusedAcquireCount() {
+        return mReusedAcquireCount;
+    }
+
+    /** Dumps the state and startup metrics of the hub. */
+    public void dump(PrintWriter writer) {
+        writer.println("CarServiceHub:");
+        writer.println("  connected: " + isConnected());
+        writer.println("  lifecycle references: " + mLifecycleListeners.size());
+        writer.println("  ux restrictions listeners: " + mUxRestrictionsListeners.size());
+        writer.println("  connect count: " + mConnectCount);
+        writer.println("  reused references: " + mReusedAcquireCount);
+        writer.println("  last connect latency (ms): " + mLastConnectLatencyMs);
+    }
+
+    private void connect() {
+        mConnectCount++;
+        mConnectRequestedTimeMs = SystemClock.elapsedRealtime();
+        // Waiting forever blocks until the car service is ready and invokes the listener before
+        // returning, matching the behavior of the synchronous Car.createCar(Context).
+        mCar = Car.createCar(mContext, /* handler= */ null, Car.CAR_WAIT_TIMEOUT_WAIT_FOREVER,
+                mCarServiceLifecycleListener);
+    }
+
+    private void maybeDisconnect() {
+        if (!mLifecycleListeners.isEmpty() || !mUxRestrictionsListeners.isEmpty()
+                || mCar == null) {
+            return;
+        }
+        try {
+            if (mCar.isConnected()) {
+                mCar.disconnect();
+            }
+        } catch (IllegalStateException e) {
+            // Do nothing.
+            LOG.w("maybeDisconnect(): cannot disconnect from Car");
+        }
+        mCar = null;
+        mReady = false;
+        mCarUxRestrictionsManager = null;
+        mCurrentUxRestrictions = null;
+    }
+
+    private void registerUxRestrictionsManagerListener() {
+        if (mUxRestrictionsListeners.isEmpty()) {
+            return;
+        }
+        mCarUxRestrictionsManager = getCarUxRestrictionsManager();
+        if (mCarUxRestrictionsManager == null) {
+            return;
+        }
+        mCarUxRestrictionsManager.registerListener(mUxRestrictionsChangedListener);
+        mUxRestrictionsChangedListener.onUxRestrictionsChanged(
+                mCarUxRestrictionsManager.getCurrentCarUxRestrictions());
+    }
+}
@@ -16,25 +16,16 @@
 package com.android.car.settings.common;
 
 import android.app.Activity;
-import android.car.Car;
 import android.car.drivingstate.CarUxRestrictions;
 import android.car.drivingstate.CarUxRestrictionsManager;
 import android.content.Context;
 
-import androidx.annotation.Nullable;
-
 /**
- * Class that helps registering {@link CarUxRestrictionsManager.OnUxRestrictionsChangedListener} and
- * managing car connection.
+ * Class that helps registering {@link CarUxRestrictionsManager.OnUxRestrictionsChangedListener}
+ * through the shared {@link CarServiceHub} connection.
  */
 public class CarUxRestrictionsHelper {
-    private static final Logger LOG = new Logger(CarUxRestrictionsHelper.class);
-
-    // mCar is created in the constructor, but can be null if connection to the car is not
-    // successful.
-    @Nullable private final Car mCar;
-    @Nullable private CarUxRestrictionsManager mCarUxRestrictionsManager;
-
+    private final CarServiceHub mCarServiceHub;
     private final CarUxRestrictionsManager.OnUxRestrictionsChangedListener mListener;
 
     public CarUxRestrictionsHelper(Context context,
@@ -43,14 +34,8 @@ public class CarUxRestrictionsHelper {
             throw new IllegalArgumentException("Listener cannot be null.");
         }
         mListener = listener;
-        mCar = Car.createCar(context);
-        mCarUxRestrictionsManager = (CarUxRestrictionsManager)
-                mCar.getCarManager(Car.CAR_UX_RESTRICTION_SERVICE);
-        if (mCarUxRestrictionsManager != null) {
-            mCarUxRestrictionsManager.registerListener(mListener);
-            mListener.onUxRestrictionsChanged(
-                    mCarUxRestrictionsManager.getCurrentCarUxRestrictions());
-        }
+        mCarServiceHub = CarServiceHub.getInstance(context);
+        mCarServiceHub.registerUxRestrictionsListener(mListener);
     }
 
     /**
@@ -60,18 +45,7 @@ public class CarUxRestrictionsHelper {
      * the time of this adapter being discarded.
      */
     public void destroy() {
-        try {
-            if (mCar != null && mCar.isConnected()) {
-                mCar.disconnect();
-            }
-        } catch (IllegalStateException e) {
-            // Do nothing.
-            LOG.w("destroy(); cannot disconnect from Car");
-        }
-        if (mCarUxRestrictionsManager != null) {
-            mCarUxRestrictionsManager.unregisterListener();
-            mCarUxRestrictionsManager = null;
-        }
+        mCarServiceHub.unregisterUxRestrictionsListener(mListener);
     }
 
     /**
@@ -31,6 +31,7 @@ import android.content.Context;
 import android.content.IContentProvider;
 import android.content.Intent;
 import android.database.ContentObserver;
+import android.graphics.drawable.BitmapDrawable;
 import android.graphics.drawable.Drawable;
 import android.net.Uri;
 import android.os.Bundle;
@@ -38,8 +39,10 @@ import android.os.Handler;
 import android.os.Looper;
 import android.text.TextUtils;
 import android.util.ArrayMap;
+import android.util.ArraySet;
 import android.util.Pair;
 
+import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 import androidx.preference.Preference;
 import androidx.preference.PreferenceGroup;
@@ -48,9 +51,11 @@ import com.android.car.settings.R;
 import com.android.settingslib.drawer.TileUtils;
 import com.android.settingslib.utils.ThreadUtils;
 
+import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Injects preferences from other system applications at a placeholder location. The placeholder
@@ -83,13 +88,28 @@ public class ExtraSettingsPreferenceController extends PreferenceController<Pref
 
     @VisibleForTesting
     static final String META_DATA_DISTRACTION_OPTIMIZED = "distractionOptimized";
+    // Window in which changes notified by the same provider are coalesced into one refresh.
+    @VisibleForTesting
+    static final long DYNAMIC_DATA_REFRESH_DELAY_MS = 200;
 
     private Context mContext;
     private ContentResolver mContentResolver;
     private ExtraSettingsLoader mExtraSettingsLoader;
     private boolean mSettingsLoaded;
+    @Nullable
+    private List<TopLevelMenuSnapshotStore.Entry> mCachedSettings;
+    private boolean mLoadingSettings;
+    // Cached preferences being replaced by the loaded ones, by key.
+    @Nullable
+    private Map<String, Preference> mCachedPreferences;
     @VisibleForTesting
     List<DynamicDataObserver> mObservers = new ArrayList<>();
+    // Observers whose data must be fetched again, by provider authority.
+    private final Map<String, Set<DynamicDataObserver>> mPendingRefreshes = new ArrayMap<>();
+    // Delayed refreshes posted by onDynamicDataChanged, by provider authority.
+    private final Map<String, Runnable> mScheduledRefreshes = new ArrayMap<>();
+    // Whether the dynamic data may have changed while the observers were unregistered.
+    private boolean mRefreshOnStart;
 
     public ExtraSettingsPreferenceController(Context context, String preferenceKey,
             FragmentController fragmentController, CarUxRestrictions restrictionInfo) {
@@ -104,6 +124,14 @@ public class ExtraSettingsPreferenceController extends PreferenceController<Pref
         mExtraSettingsLoader = extraSettingsLoader;
     }
 
+    /**
+     * Shows {@code cachedSettings} until the injected settings are loaded, and loads them in the
+     * background instead of on the main thread. Must be called before the controller is created.
+     */
+    public void setCachedExtraSettings(List<TopLevelMenuSnapshotStore.Entry> cachedSettings) {
+        mCachedSettings = cachedSettings;
+    }
+
     @Override
     protected Class<PreferenceGroup> getPreferenceType() {
         return PreferenceGroup.class;
@@ -131,6 +159,10 @@ public class ExtraSettingsPreferenceController extends PreferenceController<Pref
 
     @Override
     protected void updateState(PreferenceGroup preference) {
+        if (mCachedSettings != null) {
+            updateStateFromCache(preference);
+            return;
+        }
         Map<Preference, Bundle> preferenceBundleMap = mExtraSettingsLoader.loadPreferences(
                 preference.getIntent());
         if (!mSettingsLoaded) {
@@ -145,6 +177,12 @@ public class ExtraSettingsPreferenceController extends PreferenceController<Pref
         mObservers.forEach(observer -> {
             observer.register(mContentResolver, /* register= */ true);
         });
+        if (mRefreshOnStart) {
+            mRefreshOnStart = false;
+            // Changes pending when stopping, or notified while stopped, were not applied.
+            mObservers.forEach(this::addPendingRefresh);
+            refreshPendingDynamicData();
+        }
     }
 
     @Override
@@ -152,6 +190,73 @@ public class ExtraSettingsPreferenceController extends PreferenceController<Pref
         mObservers.forEach(observer -> {
             observer.register(mContentResolver, /* register= */ false);
         });
+        cancelPendingRefreshes();
+        mRefreshOnStart = !mObservers.isEmpty();
+    }
+
+    @Override
+    protected void onDestroyInternal() {
+        cancelPendingRefreshes();
+    }
+
+    private void updateStateFromCache(PreferenceGroup preference) {
+        if (!mSettingsLoaded && !mLoadingSettings) {
+            mLoadingSettings = true;
+            addCachedSettings();
+            Intent intent = new Intent(preference.getIntent());
+            executeBackgroundTask(() -> {
+                Map<Preference, Bundle> preferenceBundleMap =
+                        mExtraSettingsLoader.loadPreferences(intent);
+                executeUiTask(() -> {
+                    mLoadingSettings = false;
+                    mSettingsLoaded = true;
+                    mCachedPreferences = new ArrayMap<>();
+                    for (int i = 0; i < getPreference().getPreferenceCount(); i++) {
+                        Preference cached = getPreference().getPreference(i);
+                        if (cached.getKey() != null) {
+                            mCachedPreferences.put(cached.getKey(), cached);
+                        }
+                    }
+                    getPreference().removeAll();
+                    int observerCount = mObservers.size();
+                    addExtraSettings(preferenceBundleMap);
+                    mCachedPreferences = null;
+                    if (isStarted()) {
+                        // onStartInternal already registered the observers that existed then.
+                        mObservers.subList(observerCount, mObservers.size()).forEach(observer ->
+                                observer.register(mContentResolver, /* register= */ true));
+                    }
+                    refreshUi();
+                });
+            });
+        }
+        preference.setVisible(preference.getPreferenceCount() > 0);
+    }
+
+    private void addCachedSettings() {
+        for (TopLevelMenuSnapshotStore.Entry entry : mCachedSettings) {
+            if (entry.getIntentUri() == null) {
+                continue;
+            }
+            Intent intent;
+            try {
+                intent = Intent.parseUri(entry.getIntentUri(), Intent.URI_INTENT_SCHEME);
+            } catch (URISyntaxException e) {
+                LOG.w("Invalid cached intent " + entry.getIntentUri(), e);
+                continue;
+            }
+            Preference setting = new TopLevelPreference(getContext());
+            setting.setKey(entry.getKey());
+            setting.setTitle(entry.getTitle());
+            setting.setSummary(entry.getSummary());
+            if (entry.getIcon() != null) {
+                setting.setIcon(new BitmapDrawable(getContext().getResources(), entry.getIcon()));
+            }
+            setting.setIntent(intent);
+            setting.getExtras().putBoolean(META_DATA_DISTRACTION_OPTIMIZED,
+                    entry.isDistractionOptimized());
+            getPreference().addPreference(setting);
+        }
     }
 
     /**
@@ -173,104 +278,143 @@ public class ExtraSettingsPreferenceController extends PreferenceController<Pref
             getDynamicData(setting, metaData);
             getPreference().addPreference(setting);
         }
+        // Fetch the initial dynamic data of all the settings, one batch per provider.
+        refreshPendingDynamicData();
     }
 
     /**
-     * Retrieve dynamic injected preference data and create observers for updates.
+     * Create observers for dynamic injected preference data, and queue their initial retrieval.
      */
     protected void getDynamicData(Preference preference, Bundle metaData) {
+        // Keep showing the cached data, if any, until the real data is fetched.
+        Preference cached = mCachedPreferences == null ? null
+                : mCachedPreferences.get(preference.getKey());
         if (metaData.containsKey(META_DATA_PREFERENCE_TITLE_URI)) {
             // Set a placeholder title before starting to fetch real title to prevent vertical
             // preference shift.
-            preference.setTitle(R.string.empty_placeholder);
+            if (cached != null && cached.getTitle() != null) {
+                preference.setTitle(cached.getTitle());
+            } else {
+                preference.setTitle(R.string.empty_placeholder);
+            }
             Uri uri = ExtraSettingsUtil.getCompleteUri(metaData, META_DATA_PREFERENCE_TITLE_URI,
                     METHOD_GET_DYNAMIC_TITLE);
-            refreshTitle(uri, preference);
-            mObservers.add(
-                    new DynamicDataObserver(METHOD_GET_DYNAMIC_TITLE, uri, metaData, preference));
+            addObserver(new DynamicDataObserver(METHOD_GET_DYNAMIC_TITLE, uri, metaData,
+                    preference));
         }
         if (metaData.containsKey(META_DATA_PREFERENCE_SUMMARY_URI)) {
             // Set a placeholder summary before starting to fetch real summary to prevent vertical
             // preference shift.
-            preference.setSummary(R.string.empty_placeholder);
+            if (cached != null && cached.getSummary() != null) {
+                preference.setSummary(cached.getSummary());
+            } else {
+                preference.setSummary(R.string.empty_placeholder);
+            }
             Uri uri = ExtraSettingsUtil.getCompleteUri(metaData, META_DATA_PREFERENCE_SUMMARY_URI,
                     METHOD_GET_DYNAMIC_SUMMARY);
-            refreshSummary(uri, preference);
-            mObservers.add(
-                    new DynamicDataObserver(METHOD_GET_DYNAMIC_SUMMARY, uri, metaData, preference));
+            addObserver(new DynamicDataObserver(METHOD_GET_DYNAMIC_SUMMARY, uri, metaData,
+                    preference));
         }
         if (metaData.containsKey(META_DATA_PREFERENCE_ICON_URI)) {
             // Set a placeholder icon before starting to fetch real icon to prevent horizontal
             // preference shift.
-            preference.setIcon(R.drawable.ic_placeholder);
+            if (cached != null && cached.getIcon() != null) {
+                preference.setIcon(cached.getIcon());
+            } else {
+                preference.setIcon(R.drawable.ic_placeholder);
+            }
             Uri uri = ExtraSettingsUtil.getCompleteUri(metaData, META_DATA_PREFERENCE_ICON_URI,
                     METHOD_GET_PROVIDER_ICON);
-            refreshIcon(uri, metaData, preference);
-            mObservers.add(
-                    new DynamicDataObserver(METHOD_GET_PROVIDER_ICON, uri, metaData, preference));
+            addObserver(new DynamicDataObserver(METHOD_GET_PROVIDER_ICON, uri, metaData,
+                    preference));
         }
     }
 
-    @VisibleForTesting
-    void executeBackgroundTask(Runnable r) {
-        ThreadUtils.postOnBackgroundThread(r);
+    private void addObserver(DynamicDataObserver observer) {
+        mObservers.add(observer);
+        addPendingRefresh(observer);
     }
 
-    @VisibleForTesting
-    void executeUiTask(Runnable r) {
-        ThreadUtils.postOnMainThread(r);
+    /** Returns {@code true} if {@code observer} is the first pending one of its provider. */
+    private boolean addPendingRefresh(DynamicDataObserver observer) {
+        String authority = observer.mUri.getAuthority();
+        Set<DynamicDataObserver> pending = mPendingRefreshes.get(authority);
+        boolean first = pending == null;
+        if (first) {
+            pending = new ArraySet<>();
+            mPendingRefreshes.put(authority, pending);
+        }
+        pending.add(observer);
+        return first;
     }
 
-    private void refreshTitle(Uri uri, Preference preference) {
-        executeBackgroundTask(() -> {
-            Map<String, IContentProvider> providerMap = new ArrayMap<>();
-            String titleFromUri = TileUtils.getTextFromUri(
-                    mContext, uri, providerMap, META_DATA_PREFERENCE_TITLE);
-            if (!TextUtils.equals(titleFromUri, preference.getTitle())) {
-                executeUiTask(() -> preference.setTitle(titleFromUri));
-            }
-        });
+    private void onDynamicDataChanged(DynamicDataObserver observer) {
+        if (addPendingRefresh(observer)) {
+            String authority = observer.mUri.getAuthority();
+            Runnable refresh = () -> refreshDynamicData(authority);
+            mScheduledRefreshes.put(authority, refresh);
+            executeDelayedUiTask(refresh, DYNAMIC_DATA_REFRESH_DELAY_MS);
+        }
     }
 
-    private void refreshSummary(Uri uri, Preference preference) {
-        executeBackgroundTask(() -> {
-            Map<String, IContentProvider> providerMap = new ArrayMap<>();
-            String summaryFromUri = TileUtils.getTextFromUri(
-                    mContext, uri, providerMap, META_DATA_PREFERENCE_SUMMARY);
-            if (!TextUtils.equals(summaryFromUri, preference.getSummary())) {
-                executeUiTask(() -> preference.setSummary(summaryFromUri));
-            }
-        });
+    private void cancelPendingRefreshes() {
+        mScheduledRefreshes.values().forEach(this::removeDelayedUiTask);
+        mScheduledRefreshes.clear();
+        mPendingRefreshes.clear();
     }
 
-    private void refreshIcon(Uri uri, Bundle metaData, Preference preference) {
+    private void refreshPendingDynamicData() {
+        for (String authority : new ArrayList<>(mPendingRefreshes.keySet())) {
+            refreshDynamicData(authority);
+        }
+    }
+
+    /**
+     * Fetches the data of all the pending observers of {@code authority} in the background, and
+     * applies it to the preferences in a single UI task.
+     */
+    private void refreshDynamicData(String authority) {
+        mScheduledRefreshes.remove(authority);
+        Set<DynamicDataObserver> pending = mPendingRefreshes.remove(authority);
+        if (pending == null) {
+            return;
+        }
+        List<DynamicDataObserver> observers = new ArrayList<>(pending);
         executeBackgroundTask(() -> {
-            Intent intent = preference.getIntent();
-            String packageName = null;
-            if (!TextUtils.isEmpty(intent.getPackage())) {
-                packageName = intent.getPackage();
-            } else if (intent.getComponent() != null) {
-                packageName = intent.getComponent().getPackageName();
-            }
+            // Shared so that the provider is only acquired once for the batch.
             Map<String, IContentProvider> providerMap = new ArrayMap<>();
-            Pair<String, Integer> iconInfo = TileUtils.getIconFromUri(
-                    mContext, packageName, uri, providerMap);
-            Drawable icon;
-            if (iconInfo != null) {
-                icon = ExtraSettingsUtil.createIcon(mContext, metaData, iconInfo.first,
-                        iconInfo.second);
-            } else {
-                LOG.w("Failed to get icon from uri " + uri);
-                icon = ExtraSettingsUtil.createIcon(mContext, metaData, packageName, 0);
-            }
-            if (icon != null) {
-                executeUiTask(() -> {
-                    preference.setIcon(icon);
-                });
+            List<Object> values = new ArrayList<>(observers.size());
+            for (DynamicDataObserver observer : observers) {
+                values.add(observer.load(providerMap));
             }
+            executeUiTask(() -> {
+                for (int i = 0; i < observers.size(); i++) {
+                    observers.get(i).apply(values.get(i));
+                }
+            });
         });
     }
 
+    @VisibleForTesting
+    void executeBackgroundTask(Runnable r) {
+        ThreadUtils.postOnBackgroundThread(r);
+    }
+
+    @VisibleForTesting
+    void executeUiTask(Runnable r) {
+        ThreadUtils.postOnMainThread(r);
+    }
+
+    @VisibleForTesting
+    void executeDelayedUiTask(Runnable r, long delayMillis) {
+        ThreadUtils.getUiThreadHandler().postDelayed(r, delayMillis);
+    }
+
+    @VisibleForTesting
+    void removeDelayedUiTask(Runnable r) {
+        ThreadUtils.getUiThreadHandler().removeCallbacks(r);
+    }
+
     /**
      * Observer for updating injected dynamic data.
      */
@@ -300,17 +444,59 @@ public class ExtraSettingsPreferenceController extends PreferenceController<Pref
 
         @Override
         public void onChange(boolean selfChange) {
+            onDynamicDataChanged(this);
+        }
+
+        /** Fetches the current data from the provider, on a background thread. */
+        @Nullable
+        Object load(Map<String, IContentProvider> providerMap) {
+            switch (mMethod) {
+                case METHOD_GET_DYNAMIC_TITLE:
+                    return TileUtils.getTextFromUri(mContext, mUri, providerMap,
+                            META_DATA_PREFERENCE_TITLE);
+                case METHOD_GET_DYNAMIC_SUMMARY:
+                    return TileUtils.getTextFromUri(mContext, mUri, providerMap,
+                            META_DATA_PREFERENCE_SUMMARY);
+                case METHOD_GET_PROVIDER_ICON:
+                    return loadIcon(providerMap);
+                default:
+                    return null;
+            }
+        }
+
+        /** Applies data returned by {@link #load} to the preference, on the main thread. */
+        void apply(@Nullable Object value) {
             switch (mMethod) {
                 case METHOD_GET_DYNAMIC_TITLE:
-                    refreshTitle(mUri, mPreference);
+                    mPreference.setTitle((String) value);
                     break;
                 case METHOD_GET_DYNAMIC_SUMMARY:
-                    refreshSummary(mUri, mPreference);
+                    mPreference.setSummary((String) value);
                     break;
                 case METHOD_GET_PROVIDER_ICON:
-                    refreshIcon(mUri, mMetaData, mPreference);
+                    if (value != null) {
+                        mPreference.setIcon((Drawable) value);
+                    }
                     break;
             }
         }
+
+        private Drawable loadIcon(Map<String, IContentProvider> providerMap) {
+            Intent intent = mPreference.getIntent();
+            String packageName = null;
+            if (!TextUtils.isEmpty(intent.getPackage())) {
+                packageName = intent.getPackage();
+            } else if (intent.getComponent() != null) {
+                packageName = intent.getComponent().getPackageName();
+            }
+            Pair<String, Integer> iconInfo = TileUtils.getIconFromUri(
+                    mContext, packageName, mUri, providerMap);
+            if (iconInfo != null) {
+                return ExtraSettingsUtil.createIcon(mContext, mMetaData, iconInfo.first,
+                        iconInfo.second);
+            }
+            LOG.w("Failed to get icon from uri " + mUri);
+            return ExtraSettingsUtil.createIcon(mContext, mMetaData, packageName, 0);
+        }
     }
 }
@@ -30,9 +30,9 @@ import java.util.concurrent.Executor;
 /**
  * Listens to power policy change and executes the registered handler.
  *
- * <p>{@link android.car.Car} instance and {@link android.car.hardware.power.CarPowerManager}
- * instances are managed internally, so the callers doesn't have to care about creating/destroying
- * them.
+ * <p>The {@link android.car.hardware.power.CarPowerManager} instance is obtained from the shared
+ * {@link CarServiceHub} connection and managed internally, so the callers doesn't have to care
+ * about creating/destroying it.
  */
 public final class PowerPolicyListener {
 
@@ -47,7 +47,8 @@ public final class PowerPolicyListener {
             mPolicyChangeHandler.handlePolicyChange(policy.isComponentEnabled(mComponent));
         }
     };
-    @Nullable private Car mCar;
+    private final CarServiceHub mCarServiceHub;
+    private final Car.CarServiceLifecycleListener mCarServiceLifecycleListener;
     @Nullable private CarPowerManager mCarPowerManager;
     private int mComponent;
 
@@ -63,42 +64,35 @@ public final class PowerPolicyListener {
         mComponent = component;
         mPolicyChangeHandler = handler;
         mExecutor = context.getMainExecutor();
-        Car.createCar(context, null, Car.CAR_WAIT_TIMEOUT_WAIT_FOREVER,
-                (car, ready) -> {
-                    if (ready) {
-                        LOG.d("Connected to the Car Service");
-                        mCar = car;
-                        CarPowerPolicyFilter filter = new CarPowerPolicyFilter.Builder()
-                                .setComponents(component).build();
-                        mCarPowerManager = (CarPowerManager) mCar.getCarManager(Car.POWER_SERVICE);
-                        if (mCarPowerManager != null) {
-                            mCarPowerManager.addPowerPolicyListener(mExecutor, filter,
-                                    mPolicyListener);
-                        }
-                    } else {
-                        LOG.d("Disconnected from the Car Service");
-                        mCar = null;
-                        mCarPowerManager = null;
-                    }
-                });
+        mCarServiceLifecycleListener = (car, ready) -> {
+            if (ready) {
+                LOG.d("Connected to the Car Service");
+                CarPowerPolicyFilter filter = new CarPowerPolicyFilter.Builder()
+                        .setComponents(component).build();
+                mCarPowerManager = (CarPowerManager) car.getCarManager(Car.POWER_SERVICE);
+                if (mCarPowerManager != null) {
+                    mCarPowerManager.addPowerPolicyListener(mExecutor, filter,
+                            mPolicyListener);
+                }
+            } else {
+                LOG.d("Disconnected from the Car Service");
+                mCarPowerManager = null;
+            }
+        };
+        mCarServiceHub = CarServiceHub.getInstance(context);
+        mCarServiceHub.acquire(mCarServiceLifecycleListener);
     }
 
     /**
      * Unregisters a power policy listener from {@link android.car.hardware.power.CarPowerManager}
-     * and disconnects from {@link android.car.Car}.
+     * and releases the shared car connection.
      */
     public void release() {
         if (mCarPowerManager != null) {
             mCarPowerManager.removePowerPolicyListener(mPolicyListener);
+            mCarPowerManager = null;
         }
-        try {
-            if (mCar != null) {
-                mCar.disconnect();
-            }
-        } catch (IllegalStateException e) {
-            // Do nothing.
-            LOG.w("release(): cannot disconnect from Car");
-        }
+        mCarServiceHub.release(mCarServiceLifecycleListener);
     }
 
     /**
@@ -189,6 +189,14 @@ public abstract class PreferenceController<V extends Preference> implements
     private long mDebounceStartTimeMs;
     private int mAvailabilityStatusForZone;
 
+    // Memoized result of getDefaultAvailabilityStatus() for the current availability pass. A pass
+    // spans a single lifecycle dispatch or refreshUi() call, including nested calls.
+    @AvailabilityStatus
+    private int mCachedDefaultAvailabilityStatus;
+    private boolean mHasCachedDefaultAvailabilityStatus;
+    private int mAvailabilityPassDepth;
+    private int mAvoidedAvailabilityEvaluationCount;
+
     /**
      * Controllers should be instantiated from XML. To pass additional arguments see
      * {@link SettingsFragment#use(Class, int)}.
@@ -226,6 +234,7 @@ public abstract class PreferenceController<V extends Preference> implements
         } else {
             mAvailabilityStatusForZone = AVAILABLE_FOR_ZONE;
         }
+        invalidateAvailabilityStatus();
     }
 
     /**
@@ -303,10 +312,19 @@ public abstract class PreferenceController<V extends Preference> implements
      */
     @Override
     public final void onUxRestrictionsChanged(CarUxRestrictions uxRestrictions) {
-        mUxRestrictions = uxRestrictions;
+        setUxRestrictions(uxRestrictions);
         refreshUi();
     }
 
+    /**
+     * Updates the applied ux restrictions without refreshing the UI. Used by {@link
+     * SettingsFragment} to batch the resulting {@link #refreshUi()} calls.
+     */
+    final void setUxRestrictions(CarUxRestrictions uxRestrictions) {
+        mUxRestrictions = uxRestrictions;
+        invalidateAvailabilityStatus();
+    }
+
     /**
      * Updates the preference presentation based on its {@link #getAvailabilityStatus()} status. If
      * the controller is available, the associated preference is shown and a call to {@link
@@ -320,13 +338,18 @@ public abstract class PreferenceController<V extends Preference> implements
             return;
         }
 
-        if (isAvailable()) {
-            mPreference.setVisible(true);
-            mPreference.setEnabled(getAvailabilityStatus() != AVAILABLE_FOR_VIEWING);
-            updateState(mPreference);
-            onApplyUxRestrictions(mUxRestrictions);
-        } else {
-            mPreference.setVisible(false);
+        beginAvailabilityPass();
+        try {
+            if (isAvailable()) {
+                mPreference.setVisible(true);
+                mPreference.setEnabled(getAvailabilityStatus() != AVAILABLE_FOR_VIEWING);
+                updateState(mPreference);
+                onApplyUxRestrictions(mUxRestrictions);
+            } else {
+                mPreference.setVisible(false);
+            }
+        } finally {
+            endAvailabilityPass();
         }
     }
 
@@ -344,17 +367,27 @@ public abstract class PreferenceController<V extends Preference> implements
      */
     @Override
     public final void onCreate(@NonNull LifecycleOwner owner) {
-        if (getAvailabilityStatus() == UNSUPPORTED_ON_DEVICE) {
-            mPreference.setVisible(false);
-            return;
-        }
-        onCreateInternal();
-        if (isPreferenceDisabledForZone()) {
-            setClickableWhileDisabledInternal(getPreference(), /* clickable= */ true,
-                    getZoneDisabledPreferenceOnClick());
+        String traceSection = SettingsTracer.getSectionName(this, "onCreate");
+        long traceStart = SettingsTracer.begin(traceSection);
+        beginAvailabilityPass();
+        try {
+            if (getAvailabilityStatus() == UNSUPPORTED_ON_DEVICE) {
+                mPreference.setVisible(false);
+                return;
+            }
+            onCreateInternal();
+            // onCreateInternal() may have loaded state that the availability depends on.
+            invalidateAvailabilityStatus();
+            if (isPreferenceDisabledForZone()) {
+                setClickableWhileDisabledInternal(getPreference(), /* clickable= */ true,
+                        getZoneDisabledPreferenceOnClick());
+            }
+            mIsCreated = true;
+            refreshUi();
+        } finally {
+            endAvailabilityPass();
+            SettingsTracer.end(traceSection, traceStart);
         }
-        mIsCreated = true;
-        refreshUi();
     }
 
     /**
@@ -364,12 +397,22 @@ public abstract class PreferenceController<V extends Preference> implements
      */
     @Override
     public final void onStart(@NonNull LifecycleOwner owner) {
-        if (getAvailabilityStatus() == UNSUPPORTED_ON_DEVICE) {
-            return;
+        String traceSection = SettingsTracer.getSectionName(this, "onStart");
+        long traceStart = SettingsTracer.begin(traceSection);
+        beginAvailabilityPass();
+        try {
+            if (getAvailabilityStatus() == UNSUPPORTED_ON_DEVICE) {
+                return;
+            }
+            onStartInternal();
+            // onStartInternal() may have loaded state that the availability depends on.
+            invalidateAvailabilityStatus();
+            mIsStarted = true;
+            refreshUi();
+        } finally {
+            endAvailabilityPass();
+            SettingsTracer.end(traceSection, traceStart);
         }
-        onStartInternal();
-        mIsStarted = true;
-        refreshUi();
     }
 
     /**
@@ -381,7 +424,13 @@ public abstract class PreferenceController<V extends Preference> implements
         if (getAvailabilityStatus() == UNSUPPORTED_ON_DEVICE) {
             return;
         }
-        onResumeInternal();
+        String traceSection = SettingsTracer.getSectionName(this, "onResume");
+        long traceStart = SettingsTracer.begin(traceSection);
+        try {
+            onResumeInternal();
+        } finally {
+            SettingsTracer.end(traceSection, traceStart);
+        }
     }
 
     /**
@@ -393,7 +442,13 @@ public abstract class PreferenceController<V extends Preference> implements
         if (getAvailabilityStatus() == UNSUPPORTED_ON_DEVICE) {
             return;
         }
-        onPauseInternal();
+        String traceSection = SettingsTracer.getSectionName(this, "onPause");
+        long traceStart = SettingsTracer.begin(traceSection);
+        try {
+            onPauseInternal();
+        } finally {
+            SettingsTracer.end(traceSection, traceStart);
+        }
     }
 
     /**
@@ -406,7 +461,13 @@ public abstract class PreferenceController<V extends Preference> implements
             return;
         }
         mIsStarted = false;
-        onStopInternal();
+        String traceSection = SettingsTracer.getSectionName(this, "onStop");
+        long traceStart = SettingsTracer.begin(traceSection);
+        try {
+            onStopInternal();
+        } finally {
+            SettingsTracer.end(traceSection, traceStart);
+        }
     }
 
     /**
@@ -420,7 +481,13 @@ public abstract class PreferenceController<V extends Preference> implements
             return;
         }
         mIsCreated = false;
-        onDestroyInternal();
+        String traceSection = SettingsTracer.getSectionName(this, "onDestroy");
+        long traceStart = SettingsTracer.begin(traceSection);
+        try {
+            onDestroyInternal();
+        } finally {
+            SettingsTracer.end(traceSection, traceStart);
+        }
     }
 
     // Methods for override ========================================================================
@@ -450,7 +517,7 @@ public abstract class PreferenceController<V extends Preference> implements
     @AvailabilityStatus
     @VisibleForTesting(otherwise = VisibleForTesting.PROTECTED)
     public final int getAvailabilityStatus() {
-        int defaultStatus = getDefaultAvailabilityStatus();
+        int defaultStatus = getMemoizedDefaultAvailabilityStatus();
         switch (defaultStatus) {
             case CONDITIONALLY_UNAVAILABLE: // fall through
             case UNSUPPORTED_ON_DEVICE: // fall through
@@ -479,11 +546,36 @@ public abstract class PreferenceController<V extends Preference> implements
         }
     }
 
+    /**
+     * Drops the memoized {@link #getDefaultAvailabilityStatus()} so that it is evaluated again the
+     * next time the availability is queried.
+     *
+     * <p>The status is only memoized for the duration of a single lifecycle dispatch or {@link
+     * #refreshUi()} pass and is dropped automatically when UX restrictions or the zone availability
+     * change. Subclasses only need to call this if the state their availability depends on (e.g.
+     * the current user's restrictions) changes while such a pass is in progress, for instance from
+     * within {@link #updateState(Preference)}.
+     */
+    protected final void invalidateAvailabilityStatus() {
+        mHasCachedDefaultAvailabilityStatus = false;
+    }
+
+    /**
+     * Returns the number of {@link #getDefaultAvailabilityStatus()} evaluations that were served
+     * from the memoized status since the controller was created.
+     */
+    final int getAvoidedAvailabilityEvaluationCount() {
+        return mAvoidedAvailabilityEvaluationCount;
+    }
+
     /**
      * Returns the {@link AvailabilityStatus} for the setting. This status is used
      * with the availabilityStatus for zone within {@link #getAvailabilityStatus()} to determine
      * if the setting should be shown, hidden, or disabled according to menu settings.
      * Defaults to {@link #AVAILABLE}.
+     *
+     * <p>The result is memoized for the duration of a lifecycle dispatch or {@link #refreshUi()}
+     * pass. See {@link #invalidateAvailabilityStatus()}.
      */
     @AvailabilityStatus
     protected int getDefaultAvailabilityStatus() {
@@ -693,8 +785,37 @@ public abstract class PreferenceController<V extends Preference> implements
     }
 
     private boolean isPreferenceDisabledForZone() {
-        return mAvailabilityStatusForZone == AVAILABLE_FOR_VIEWING_FOR_ZONE
-                && (getDefaultAvailabilityStatus() == AVAILABLE_FOR_VIEWING
-                || getDefaultAvailabilityStatus() == AVAILABLE);
+        if (mAvailabilityStatusForZone != AVAILABLE_FOR_VIEWING_FOR_ZONE) {
+            return false;
+        }
+        int defaultStatus = getMemoizedDefaultAvailabilityStatus();
+        return defaultStatus == AVAILABLE_FOR_VIEWING || defaultStatus == AVAILABLE;
+    }
+
+    private void beginAvailabilityPass() {
+        if (mAvailabilityPassDepth++ == 0) {
+            invalidateAvailabilityStatus();
+        }
+    }
+
+    private void endAvailabilityPass() {
+        if (--mAvailabilityPassDepth == 0) {
+            // Outside of a pass the status is always evaluated, as it may change at any time.
+            invalidateAvailabilityStatus();
+        }
+    }
+
+    @AvailabilityStatus
+    private int getMemoizedDefaultAvailabilityStatus() {
+        if (mAvailabilityPassDepth == 0) {
+            return getDefaultAvailabilityStatus();
+        }
+        if (mHasCachedDefaultAvailabilityStatus) {
+            mAvoidedAvailabilityEvaluationCount++;
+            return mCachedDefaultAvailabilityStatus;
+        }
+        mCachedDefaultAvailabilityStatus = getDefaultAvailabilityStatus();
+        mHasCachedDefaultAvailabilityStatus = true;
+        return mCachedDefaultAvailabilityStatus;
     }
 }
@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2023 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.car.settings.common;
+
+import android.util.ArrayMap;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+import androidx.preference.Preference;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Pool of the preferences displayed by a dynamic list, keyed by type and by a key which is stable
+ * across rebuilds of the list.
+ *
+ * <p>Rebuilding a list typically removes all of its preferences and creates new ones. Instead, the
+ * controller releases all of the preferences of the pool before the rebuild and acquires one for
+ * each item. A preference released with the same type and key is reused, and a new one is only
+ * created for new items. Released preferences which are not acquired again before the next
+ * {@link #releaseAll()} are dropped.
+ *
+ * <p>A reused preference keeps its title, summary, icon and key, which the caller rebinds, while
+ * its listeners, intent, order, enabled, visible and selectable states are reset to their defaults.
+ * Any other state of the preference type must be rebound by the caller. The pool is meant to be
+ * used on the main thread.
+ */
+public class PreferencePool {
+
+    private Map<Class<?>, Map<String, Preference>> mAcquired = new ArrayMap<>();
+    private Map<Class<?>, Map<String, Preference>> mReleased = new ArrayMap<>();
+    private int mCreatedCount;
+
+    /**
+     * Returns the released preference of {@code type} with {@code key}, reset for reuse, or a new
+     * preference created by {@code factory} if there is none.
+     */
+    @NonNull
+    public <P extends Preference> P acquire(Class<P> type, String key, Supplier<P> factory) {
+        Map<String, Preference> released = mReleased.get(type);
+        P preference = released != null ? type.cast(released.remove(key)) : null;
+        if (preference != null) {
+            reset(preference);
+        } else {
+            preference = factory.get();
+            mCreatedCount++;
+        }
+        Map<String, Preference> acquired = mAcquired.get(type);
+        if (acquired == null) {
+            acquired = new ArrayMap<>();
+            mAcquired.put(type, acquired);
+        }
+        acquired.put(key, preference);
+        return preference;
+    }
+
+    /** Returns the preference of {@code type} with {@code key} to the pool. */
+    public void release(Class<? extends Preference> type, String key) {
+        Map<String, Preference> acquired = mAcquired.get(type);
+        Preference preference = acquired != null ? acquired.remove(key) : null;
+        if (preference == null) {
+            return;
+        }
+        Map<String, Preference> released = mReleased.get(type);
+        if (released == null) {
+            released = new ArrayMap<>();
+            mReleased.put(type, released);
+        }
+        released.put(key, preference);
+    }
+
+    /**
+     * Returns all acquired preferences to the pool, and drops the preferences which were not
+     * acquired again since the previous call. This is called before rebuilding the list.
+     */
+    public void releaseAll() {
+        Map<Class<?>, Map<String, Preference>> dropped = mReleased;
+        for (Map<String, Preference> preferences : dropped.values()) {
+            preferences.clear();
+        }
+        mReleased = mAcquired;
+        mAcquired = dropped;
+    }
+
+    /** Drops all the preferences of the pool. */
+    public void clear() {
+        mAcquired.clear();
+        mReleased.clear();
+    }
+
+    /** Returns the number of preferences created by the pool. */
+    @VisibleForTesting
+    int getCreatedCount() {
+        return mCreatedCount;
+    }
+
+    private static void reset(Preference preference) {
+        preference.setOnPreferenceClickListener(null);
+        preference.setOnPreferenceChangeListener(null);
+        preference.setIntent(null);
+        preference.setOrder(Preference.DEFAULT_ORDER);
+        preference.setEnabled(true);
+        preference.setVisible(true);
+        preference.setSelectable(true);
+    }
+}
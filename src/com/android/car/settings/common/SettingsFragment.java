@@ -27,6 +27,7 @@ import android.os.Bundle;
 import android.util.ArrayMap;
 import android.util.SparseArray;
 import android.util.TypedValue;
+import android.view.Choreographer;
 import android.view.ContextThemeWrapper;
 import android.view.LayoutInflater;
 import android.view.ViewGroup;
@@ -36,6 +37,7 @@ import androidx.annotation.Nullable;
 import androidx.annotation.StringRes;
 import androidx.annotation.VisibleForTesting;
 import androidx.annotation.XmlRes;
+import androidx.collection.ArraySet;
 import androidx.fragment.app.DialogFragment;
 import androidx.fragment.app.Fragment;
 import androidx.lifecycle.Lifecycle;
@@ -56,6 +58,7 @@ import com.android.settingslib.search.Indexable;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Base fragment for all settings. Subclasses must provide a resource id via
@@ -72,6 +75,7 @@ import java.util.Map;
  */
 public abstract class SettingsFragment extends PreferenceFragment implements
         CarUxRestrictionsManager.OnUxRestrictionsChangedListener, FragmentController, Indexable {
+    private static final Logger LOG = new Logger(SettingsFragment.class);
 
     @VisibleForTesting
     static final String DIALOG_FRAGMENT_TAG =
@@ -83,10 +87,20 @@ public abstract class SettingsFragment extends PreferenceFragment implements
     private final List<PreferenceController> mPreferenceControllers = new ArrayList<>();
     private final SparseArray<ActivityResultCallback> mActivityResultCallbackMap =
             new SparseArray<>();
+    private final Set<PreferenceController> mPendingRefreshControllers = new ArraySet<>();
+    private final Choreographer.FrameCallback mRefreshFrameCallback = frameTimeNanos -> {
+        mRefreshFramePending = false;
+        flushPendingRefreshes();
+    };
 
     private CarUxRestrictions mUxRestrictions;
     private HighlightablePreferenceGroupAdapter mAdapter;
     private int mCurrentRequestIndex = 0;
+    private boolean mRefreshFramePending;
+    private boolean mIsStarted;
+    // Whether controllers need a refresh that was skipped or dropped while stopped.
+    private boolean mRefreshOnStart;
+    private int mCollapsedRefreshCount;
 
     /**
      * Returns the resource id for the preference XML of this fragment.
@@ -144,36 +158,48 @@ public abstract class SettingsFragment extends PreferenceFragment implements
 
     @Override
     public void onAttach(Context context) {
-        super.onAttach(context);
-        if (!(getActivity() instanceof UxRestrictionsProvider)) {
-            throw new IllegalStateException("Must attach to a UxRestrictionsProvider");
-        }
-        if (!(getActivity() instanceof FragmentHost)) {
-            throw new IllegalStateException("Must attach to a FragmentHost");
-        }
-
-        TypedValue tv = new TypedValue();
-        getActivity().getTheme().resolveAttribute(androidx.preference.R.attr.preferenceTheme, tv,
-                true);
-        int theme = tv.resourceId;
-        if (theme == 0) {
-            throw new IllegalStateException("Must specify preferenceTheme in theme");
-        }
-        // Construct a context with the theme as controllers may create new preferences.
-        Context styledContext = new ContextThemeWrapper(getActivity(), theme);
+        String traceSection = SettingsTracer.getSectionName(this, "onAttach");
+        long traceStart = SettingsTracer.begin(traceSection);
+        try {
+            super.onAttach(context);
+            if (!(getActivity() instanceof UxRestrictionsProvider)) {
+                throw new IllegalStateException("Must attach to a UxRestrictionsProvider");
+            }
+            if (!(getActivity() instanceof FragmentHost)) {
+                throw new IllegalStateException("Must attach to a FragmentHost");
+            }
 
-        mUxRestrictions = ((UxRestrictionsProvider) requireActivity()).getCarUxRestrictions();
-        mPreferenceControllers.clear();
-        mPreferenceControllers.addAll(
-                PreferenceControllerListHelper.getPreferenceControllersFromXml(styledContext,
-                        getPreferenceScreenResId(), /* fragmentController= */ this,
-                        mUxRestrictions));
+            TypedValue tv = new TypedValue();
+            getActivity().getTheme().resolveAttribute(androidx.preference.R.attr.preferenceTheme,
+                    tv, true);
+            int theme = tv.resourceId;
+            if (theme == 0) {
+                throw new IllegalStateException("Must specify preferenceTheme in theme");
+            }
+            // Construct a context with the theme as controllers may create new preferences.
+            Context styledContext = new ContextThemeWrapper(getActivity(), theme);
+
+            mUxRestrictions = ((UxRestrictionsProvider) requireActivity()).getCarUxRestrictions();
+            mPreferenceControllers.clear();
+            String createSection = SettingsTracer.getSectionName(this, "createControllers");
+            long createStart = SettingsTracer.begin(createSection);
+            try {
+                mPreferenceControllers.addAll(
+                        PreferenceControllerListHelper.getPreferenceControllersFromXml(
+                                styledContext, getPreferenceScreenResId(),
+                                /* fragmentController= */ this, mUxRestrictions));
+            } finally {
+                SettingsTracer.end(createSection, createStart);
+            }
 
-        Lifecycle lifecycle = getLifecycle();
-        mPreferenceControllers.forEach(controller -> {
-            lifecycle.addObserver(controller);
-            mPreferenceControllersLookup.put(controller.getPreferenceKey(), controller);
-        });
+            Lifecycle lifecycle = getLifecycle();
+            mPreferenceControllers.forEach(controller -> {
+                lifecycle.addObserver(controller);
+                mPreferenceControllersLookup.put(controller.getPreferenceKey(), controller);
+            });
+        } finally {
+            SettingsTracer.end(traceSection, traceStart);
+        }
     }
 
     /**
@@ -182,17 +208,23 @@ public abstract class SettingsFragment extends PreferenceFragment implements
      */
     @Override
     public void onCreatePreferences(Bundle savedInstanceState, String rootKey) {
-        @XmlRes int resId = getPreferenceScreenResId();
-        if (resId <= 0) {
-            throw new IllegalStateException(
-                    "Fragment must specify a preference screen resource ID");
-        }
-        addPreferencesFromResource(resId);
-        PreferenceScreen screen = getPreferenceScreen();
-        for (PreferenceController controller : mPreferenceControllers) {
-            Preference pref = screen.findPreference(controller.getPreferenceKey());
+        String traceSection = SettingsTracer.getSectionName(this, "onCreatePreferences");
+        long traceStart = SettingsTracer.begin(traceSection);
+        try {
+            @XmlRes int resId = getPreferenceScreenResId();
+            if (resId <= 0) {
+                throw new IllegalStateException(
+                        "Fragment must specify a preference screen resource ID");
+            }
+            addPreferencesFromResource(resId);
+            PreferenceScreen screen = getPreferenceScreen();
+            for (PreferenceController controller : mPreferenceControllers) {
+                Preference pref = screen.findPreference(controller.getPreferenceKey());
 
-            controller.setPreference(pref);
+                controller.setPreference(pref);
+            }
+        } finally {
+            SettingsTracer.end(traceSection, traceStart);
         }
     }
 
@@ -222,9 +254,32 @@ public abstract class SettingsFragment extends PreferenceFragment implements
         }
     }
 
+    @Override
+    public void onStart() {
+        super.onStart();
+        mIsStarted = true;
+        if (mRefreshOnStart) {
+            mRefreshOnStart = false;
+            mPendingRefreshControllers.addAll(mPreferenceControllers);
+            flushPendingRefreshes();
+        }
+    }
+
+    @Override
+    public void onStop() {
+        super.onStop();
+        mIsStarted = false;
+        mRefreshOnStart = !mPendingRefreshControllers.isEmpty();
+        cancelPendingRefreshes();
+    }
+
     @Override
     public void onDetach() {
         super.onDetach();
+        LOG.d(getClass().getSimpleName() + ": avoided "
+                + getAvoidedAvailabilityEvaluationCount() + " availability evaluations, collapsed "
+                + mCollapsedRefreshCount + " refreshes");
+        cancelPendingRefreshes();
         Lifecycle lifecycle = getLifecycle();
         mPreferenceControllers.forEach(lifecycle::removeObserver);
         mActivityResultCallbackMap.clear();
@@ -258,17 +313,81 @@ public abstract class SettingsFragment extends PreferenceFragment implements
         }
     }
 
+    /**
+     * Returns the number of availability evaluations avoided by the memoized availability status
+     * of the controllers on this screen.
+     */
+    @VisibleForTesting
+    int getAvoidedAvailabilityEvaluationCount() {
+        int count = 0;
+        for (PreferenceController controller : mPreferenceControllers) {
+            count += controller.getAvoidedAvailabilityEvaluationCount();
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of controller refreshes that were collapsed into an already pending
+     * refresh.
+     */
+    @VisibleForTesting
+    int getCollapsedRefreshCount() {
+        return mCollapsedRefreshCount;
+    }
+
     /**
      * Notifies {@link PreferenceController} instances of changes to {@link CarUxRestrictions}.
+     *
+     * <p>The first change is applied immediately so that new restrictions take effect without
+     * delay. Further changes received before the next frame only update the restrictions held by
+     * the controllers; the resulting {@link PreferenceController#refreshUi()} calls are
+     * deduplicated per controller and run once on the next frame. This avoids re-rendering the
+     * screen several times when the driving state flaps. While the fragment is stopped, the
+     * controllers are only refreshed once it is started again.
      */
     @Override
     public void onUxRestrictionsChanged(CarUxRestrictions uxRestrictions) {
-        if (!uxRestrictions.isSameRestrictions(mUxRestrictions)) {
-            mUxRestrictions = uxRestrictions;
-            for (PreferenceController controller : mPreferenceControllers) {
-                controller.onUxRestrictionsChanged(uxRestrictions);
+        if (uxRestrictions.isSameRestrictions(mUxRestrictions)) {
+            return;
+        }
+        mUxRestrictions = uxRestrictions;
+        for (PreferenceController controller : mPreferenceControllers) {
+            controller.setUxRestrictions(uxRestrictions);
+            if (mIsStarted && !mPendingRefreshControllers.add(controller)) {
+                mCollapsedRefreshCount++;
             }
         }
+        if (!mIsStarted) {
+            mRefreshOnStart = true;
+            return;
+        }
+        if (mRefreshFramePending) {
+            return;
+        }
+        flushPendingRefreshes();
+        mRefreshFramePending = true;
+        Choreographer.getInstance().postFrameCallback(mRefreshFrameCallback);
+    }
+
+    /** Refreshes the controllers with a pending refresh, in screen order. */
+    @VisibleForTesting
+    void flushPendingRefreshes() {
+        if (mPendingRefreshControllers.isEmpty()) {
+            return;
+        }
+        for (PreferenceController controller : mPreferenceControllers) {
+            if (mPendingRefreshControllers.remove(controller)) {
+                controller.refreshUi();
+            }
+        }
+    }
+
+    private void cancelPendingRefreshes() {
+        if (mRefreshFramePending) {
+            Choreographer.getInstance().removeFrameCallback(mRefreshFrameCallback);
+            mRefreshFramePending = false;
+        }
+        mPendingRefreshControllers.clear();
     }
 
     /**
@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2023 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.car.settings.common;
+
+import android.os.SystemClock;
+import android.os.Trace;
+
+import androidx.annotation.GuardedBy;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Emits {@link Trace} sections for the startup path of the app, such as activity creation,
+ * controller creation and controller lifecycle methods, and aggregates their durations in
+ * histograms which are printed by {@code dumpsys activity} for the settings activities.
+ *
+ * <p>Usage:
+ * <pre>{@code
+ * long start = SettingsTracer.begin(section);
+ * try {
+ *     ...
+ * } finally {
+ *     SettingsTracer.end(section, start);
+ * }
+ * }</pre>
+ */
+public final class SettingsTracer {
+
+    // Trace section names are limited to 127 characters.
+    private static final int MAX_SECTION_NAME_LENGTH = 127;
+
+    private static final Map<String, Histogram> HISTOGRAMS = new ConcurrentHashMap<>();
+    // Section names by class and then method, so lifecycle calls do not build them every time.
+    private static final Map<Class<?>, Map<String, String>> SECTION_NAMES =
+            new ConcurrentHashMap<>();
+
+    private SettingsTracer() {
+    }
+
+    /** Begins {@code section} and returns its start time, to be passed to {@link #end}. */
+    public static long begin(String section) {
+        Trace.beginSection(section.length() > MAX_SECTION_NAME_LENGTH
+                ? section.substring(0, MAX_SECTION_NAME_LENGTH) : section);
+        return SystemClock.elapsedRealtimeNanos();
+    }
+
+    /** Ends {@code section}, which was begun at {@code startNanos}, and records its duration. */
+    public static void end(String section, long startNanos) {
+        long durationNanos = SystemClock.elapsedRealtimeNanos() - startNanos;
+        Trace.endSection();
+        HISTOGRAMS.computeIfAbsent(section, key -> new Histogram()).record(durationNanos);
+    }
+
+    /** Returns the name of {@code method} of {@code object} to be used as a section name. */
+    public static String getSectionName(Object object, String method) {
+        Class<?> clazz = object.getClass();
+        Map<String, String> names = SECTION_NAMES.get(clazz);
+        if (names == null) {
+            names = SECTION_NAMES.computeIfAbsent(clazz, key -> new ConcurrentHashMap<>());
+        }
+        String sectionName = names.get(method);
+        if (sectionName == null) {
+            String name = clazz.getSimpleName();
+            if (name.isEmpty()) {
+                name = clazz.getName();
+            }
+            sectionName = name + "#" + method;
+            names.put(method, sectionName);
+        }
+        return sectionName;
+    }
+
+    /** Prints the recorded durations, with the sections that took the most time first. */
+    public static void dump(PrintWriter writer) {
+        List<Map.Entry<String, Histogram>> entries = new ArrayList<>(HISTOGRAMS.entrySet());
+        entries.sort((e1, e2) -> Long.compare(e2.getValue().getTotalNanos(),
+                e1.getValue().getTotalNanos()));
+        writer.println("SettingsTracer:");
+        for (Map.Entry<String, Histogram> entry : entries) {
+            writer.println("  " + entry.getKey() + ": " + entry.getValue());
+        }
+    }
+
+    @Nullable
+    @VisibleForTesting
+    static Histogram getHistogram(String section) {
+        return HISTOGRAMS.get(section);
+    }
+
+    @VisibleForTesting
+    static void reset() {
+        HISTOGRAMS.clear();
+    }
+
+    /** Durations of a section, bucketed by powers of two milliseconds. */
+    @VisibleForTesting
+    static final class Histogram {
+        @VisibleForTesting
+        static final long[] BUCKET_UPPER_BOUNDS_MS = {1, 2, 4, 8, 16, 32, 64, 128, 256, 512};
+
+        @GuardedBy("this")
+        private final int[] mBuckets = new int[BUCKET_UPPER_BOUNDS_MS.length + 1];
+        @GuardedBy("this")
+        private int mCount;
+        @GuardedBy("this")
+        private long mTotalNanos;
+        @GuardedBy("this")
+        private long mMaxNanos;
+
+        synchronized void record(long durationNanos) {
+            mCount++;
+            mTotalNanos += durationNanos;
+            mMaxNanos = Math.max(mMaxNanos, durationNanos);
+            int bucket = 0;
+            while (bucket < BUCKET_UPPER_BOUNDS_MS.length
+                    && durationNanos >= BUCKET_UPPER_BOUNDS_MS[bucket] * 1_000_000) {
+                bucket++;
+            }
+            mBuckets[bucket]++;
+        }
+
+        synchronized int getCount() {
+            return mCount;
+        }
+
+        synchronized long getTotalNanos() {
+            return mTotalNanos;
+        }
+
+        synchronized long getMaxNanos() {
+            return mMaxNanos;
+        }
+
+        synchronized int getBucketCount(int bucket) {
+            return mBuckets[bucket];
+        }
+
+        @Override
+        public synchronized String toString() {
+            StringBuilder builder = new StringBuilder()
+                    .append("count=").append(mCount)
+                    .append(", total=").append(toMillis(mTotalNanos)).append("ms")
+                    .append(", avg=").append(toMillis(mTotalNanos / Math.max(mCount, 1)))
+                    .append("ms")
+                    .append(", max=").append(toMillis(mMaxNanos)).append("ms")
+                    .append(", buckets=[");
+            boolean first = true;
+            for (int i = 0; i < mBuckets.length; i++) {
+                if (mBuckets[i] == 0) {
+                    continue;
+                }
+                if (!first) {
+                    builder.append(", ");
+                }
+                first = false;
+                builder.append(i < BUCKET_UPPER_BOUNDS_MS.length
+                        ? "<" + BUCKET_UPPER_BOUNDS_MS[i]
+                        : ">=" + BUCKET_UPPER_BOUNDS_MS[BUCKET_UPPER_BOUNDS_MS.length - 1])
+                        .append("ms:").append(mBuckets[i]);
+            }
+            return builder.append("]").toString();
+        }
+
+        private static String toMillis(long nanos) {
+            return String.format(Locale.US, "%.2f", nanos / 1_000_000f);
+        }
+    }
+}
@@ -16,8 +16,16 @@
 
 package com.android.car.settings.common;
 
+import android.content.Intent;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Rect;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.Drawable;
 import android.os.Bundle;
 import android.text.TextUtils;
+import android.util.ArrayMap;
+import android.util.Pair;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -31,15 +39,23 @@ import androidx.fragment.app.Fragment;
 import androidx.fragment.app.FragmentActivity;
 import androidx.fragment.app.FragmentManager;
 import androidx.preference.Preference;
+import androidx.preference.PreferenceGroup;
 import androidx.preference.PreferenceScreen;
 
+import com.android.car.settings.CarSettingsApplication;
 import com.android.car.settings.R;
 import com.android.car.ui.recyclerview.CarUiRecyclerView;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Top level settings menu.
+ *
+ * <p>The menu is first rendered from the {@link TopLevelMenuSnapshotStore snapshot} taken when it
+ * was last shown, and then reconciled with the live state computed by the controllers. Settings
+ * injected by other apps are loaded in the background in the meantime.
  */
 public class TopLevelMenuFragment extends SettingsFragment {
 
@@ -51,8 +67,12 @@ public class TopLevelMenuFragment extends SettingsFragment {
     public static final String FRAGMENT_MENU_PREFERENCE_KEY = "fragment_menu_preference_key";
 
     private static final String KEY_SAVED_SELECTED_PREFERENCE_KEY = "saved_selected_preference_key";
+    // How long the first menu waits for the snapshots to be preloaded.
+    private static final long SNAPSHOT_PRELOAD_TIMEOUT_MS = 100;
 
     private String mSelectedPreferenceKey;
+    // Icons of injected settings and their bitmaps by intent, so unchanged icons are not redrawn.
+    private final Map<String, Pair<Drawable, Bitmap>> mInjectedIcons = new ArrayMap<>();
 
     @Override
     @XmlRes
@@ -60,6 +80,12 @@ public class TopLevelMenuFragment extends SettingsFragment {
         return R.xml.homepage_fragment;
     }
 
+    @Override
+    public void onCreatePreferences(Bundle savedInstanceState, String rootKey) {
+        super.onCreatePreferences(savedInstanceState, rootKey);
+        applyMenuSnapshot();
+    }
+
     @Override
     public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
         super.onViewCreated(view, savedInstanceState);
@@ -73,6 +99,12 @@ public class TopLevelMenuFragment extends SettingsFragment {
         }
     }
 
+    @Override
+    public void onStop() {
+        super.onStop();
+        saveMenuSnapshot();
+    }
+
     @Override
     public void onSaveInstanceState(@NonNull Bundle outState) {
         super.onSaveInstanceState(outState);
@@ -138,6 +170,125 @@ public class TopLevelMenuFragment extends SettingsFragment {
         }
     }
 
+    private void applyMenuSnapshot() {
+        // Only use the snapshot preloaded by the application, to avoid reading it from disk on
+        // the main thread. The first menu briefly waits for the preload to finish.
+        List<TopLevelMenuSnapshotStore.Entry> snapshot = getSnapshotStore().peek(
+                getPreferenceScreenResId(), getZoneType(), SNAPSHOT_PRELOAD_TIMEOUT_MS);
+        if (snapshot == null) {
+            return;
+        }
+        Map<String, List<TopLevelMenuSnapshotStore.Entry>> injectedEntries = new ArrayMap<>();
+        for (TopLevelMenuSnapshotStore.Entry entry : snapshot) {
+            if (entry.getParentKey() != null) {
+                injectedEntries.computeIfAbsent(entry.getParentKey(), k -> new ArrayList<>())
+                        .add(entry);
+                continue;
+            }
+            Preference preference = findPreference(entry.getKey());
+            if (preference == null) {
+                continue;
+            }
+            if (preference instanceof PreferenceGroup) {
+                // Groups without injected settings still load them in the background.
+                injectedEntries.computeIfAbsent(entry.getKey(), k -> new ArrayList<>());
+            }
+            preference.setVisible(entry.isVisible());
+            if (entry.getTitle() != null) {
+                preference.setTitle(entry.getTitle());
+            }
+            preference.setSummary(entry.getSummary());
+        }
+        for (Map.Entry<String, List<TopLevelMenuSnapshotStore.Entry>> group
+                : injectedEntries.entrySet()) {
+            PreferenceController controller = use(PreferenceController.class, group.getKey());
+            if (controller instanceof ExtraSettingsPreferenceController) {
+                ((ExtraSettingsPreferenceController) controller)
+                        .setCachedExtraSettings(group.getValue());
+            }
+        }
+    }
+
+    private void saveMenuSnapshot() {
+        PreferenceScreen screen = getPreferenceScreen();
+        if (screen == null) {
+            return;
+        }
+        List<TopLevelMenuSnapshotStore.Entry> snapshot = new ArrayList<>();
+        for (int i = 0; i < screen.getPreferenceCount(); i++) {
+            Preference preference = screen.getPreference(i);
+            if (preference.getKey() == null) {
+                continue;
+            }
+            snapshot.add(new TopLevelMenuSnapshotStore.Entry(preference.getKey(),
+                    preference.getTitle(), preference.getSummary(), preference.isVisible()));
+            if (preference instanceof PreferenceGroup && use(PreferenceController.class,
+                    preference.getKey()) instanceof ExtraSettingsPreferenceController) {
+                addInjectedEntries((PreferenceGroup) preference, snapshot);
+            }
+        }
+        getSnapshotStore().save(getPreferenceScreenResId(), getZoneType(), snapshot);
+    }
+
+    private void addInjectedEntries(PreferenceGroup group,
+            List<TopLevelMenuSnapshotStore.Entry> snapshot) {
+        for (int i = 0; i < group.getPreferenceCount(); i++) {
+            Preference preference = group.getPreference(i);
+            Intent intent = preference.getIntent();
+            if (intent == null) {
+                continue;
+            }
+            String intentUri = intent.toUri(Intent.URI_INTENT_SCHEME);
+            snapshot.add(new TopLevelMenuSnapshotStore.Entry(preference.getKey(), group.getKey(),
+                    preference.getTitle(), preference.getSummary(), preference.isVisible(),
+                    intentUri, getIconBitmap(intentUri, preference.getIcon()),
+                    preference.getExtras().getBoolean(
+                            ExtraSettingsPreferenceController.META_DATA_DISTRACTION_OPTIMIZED)));
+        }
+    }
+
+    @Nullable
+    private Bitmap getIconBitmap(String intentUri, @Nullable Drawable icon) {
+        Pair<Drawable, Bitmap> cached = mInjectedIcons.get(intentUri);
+        if (cached != null && cached.first == icon) {
+            // Reusing the bitmap also lets the store compare the icons by identity.
+            return cached.second;
+        }
+        Bitmap bitmap = toBitmap(icon);
+        mInjectedIcons.put(intentUri, new Pair<>(icon, bitmap));
+        return bitmap;
+    }
+
+    @Nullable
+    private static Bitmap toBitmap(@Nullable Drawable icon) {
+        if (icon == null) {
+            return null;
+        }
+        if (icon instanceof BitmapDrawable) {
+            return ((BitmapDrawable) icon).getBitmap();
+        }
+        int width = icon.getIntrinsicWidth();
+        int height = icon.getIntrinsicHeight();
+        if (width <= 0 || height <= 0) {
+            return null;
+        }
+        Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        Rect bounds = icon.copyBounds();
+        icon.setBounds(0, 0, width, height);
+        icon.draw(new Canvas(bitmap));
+        icon.setBounds(bounds);
+        return bitmap;
+    }
+
+    private TopLevelMenuSnapshotStore getSnapshotStore() {
+        return TopLevelMenuSnapshotStore.getInstance(requireContext());
+    }
+
+    private int getZoneType() {
+        return ((CarSettingsApplication) requireContext().getApplicationContext())
+                .getMyOccupantZoneType();
+    }
+
     @VisibleForTesting
     String getSelectedPreferenceKey() {
         return mSelectedPreferenceKey;
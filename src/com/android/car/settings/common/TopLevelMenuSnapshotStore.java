@@ -0,0 +1,497 @@
+/*
+ * Copyright (C) 2023 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.car.settings.common;
+
+import android.content.Context;
+import android.content.pm.PackageManager;
+import android.content.res.Configuration;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.os.UserHandle;
+import android.util.ArrayMap;
+import android.util.AtomicFile;
+import android.util.Base64;
+
+import androidx.annotation.GuardedBy;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import androidx.annotation.XmlRes;
+
+import com.android.settingslib.utils.ThreadUtils;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Persists the last rendered state of a top-level menu, so that it can be rendered from disk on
+ * cold start while the live state is computed.
+ *
+ * <p>Snapshots are kept per user, occupant zone type and preference screen. A snapshot is only
+ * returned if it was taken with the same locales, night mode and app version, since titles and
+ * icons depend on them.
+ */
+public class TopLevelMenuSnapshotStore {
+    private static final Logger LOG = new Logger(TopLevelMenuSnapshotStore.class);
+
+    private static final String SNAPSHOT_DIRECTORY = "top_level_menu";
+    private static final String SNAPSHOT_SUFFIX = ".json";
+    private static final String KEY_STAMP = "stamp";
+    private static final String KEY_ENTRIES = "entries";
+    private static final String KEY_KEY = "key";
+    private static final String KEY_PARENT_KEY = "parentKey";
+    private static final String KEY_TITLE = "title";
+    private static final String KEY_SUMMARY = "summary";
+    private static final String KEY_VISIBLE = "visible";
+    private static final String KEY_INTENT_URI = "intentUri";
+    private static final String KEY_ICON = "icon";
+    private static final String KEY_DISTRACTION_OPTIMIZED = "distractionOptimized";
+    private static final String AWAIT_PRELOAD_SECTION = "TopLevelMenuSnapshotStore#awaitPreload";
+
+    private static TopLevelMenuSnapshotStore sInstance;
+
+    private final Context mContext;
+    private final File mDirectory;
+    private final Object mLock = new Object();
+    private final Object mWriteLock = new Object();
+    @GuardedBy("mLock")
+    private final Map<String, List<Entry>> mSnapshots = new ArrayMap<>();
+    // Snapshots passed to save() which are yet to be compared and stored in the background.
+    @GuardedBy("mLock")
+    private final Map<String, List<Entry>> mPendingSaves = new ArrayMap<>();
+    @GuardedBy("mLock")
+    private long mVersionCode = -1;
+    // Counted down once preload() finished, or null if it was not called.
+    @Nullable
+    private volatile CountDownLatch mPreloadLatch;
+    private final AtomicInteger mLookupCount = new AtomicInteger();
+    private final AtomicInteger mMissCount = new AtomicInteger();
+
+    /** Returns the process wide instance. */
+    public static TopLevelMenuSnapshotStore getInstance(Context context) {
+        if (sInstance == null) {
+            Context appContext = context.getApplicationContext();
+            sInstance = new TopLevelMenuSnapshotStore(appContext,
+                    new File(appContext.getFilesDir(), SNAPSHOT_DIRECTORY));
+        }
+        return sInstance;
+    }
+
+    @VisibleForTesting
+    TopLevelMenuSnapshotStore(Context context, File directory) {
+        mContext = context;
+        mDirectory = directory;
+    }
+
+    /**
+     * Returns the snapshot of {@code xmlResId} for {@code zoneType}, or {@code null} if there is
+     * none or if it is stale. Reads the snapshot from disk the first time it is requested.
+     */
+    @Nullable
+    public List<Entry> load(@XmlRes int xmlResId, int zoneType) {
+        String name = getName(xmlResId, zoneType);
+        String stamp = getStamp();
+        synchronized (mLock) {
+            if (!mSnapshots.containsKey(name)) {
+                mSnapshots.put(name, read(getFile(name), stamp));
+            }
+            return mSnapshots.get(name);
+        }
+    }
+
+    /**
+     * Reads the snapshots of the current user in the background, so that {@link #peek} can return
+     * them without reading from disk on the main thread.
+     */
+    public void preload() {
+        CountDownLatch latch = new CountDownLatch(1);
+        mPreloadLatch = latch;
+        executeBackgroundTask(() -> {
+            try {
+                preloadInternal();
+            } finally {
+                latch.countDown();
+            }
+        });
+    }
+
+    private void preloadInternal() {
+        String prefix = getNamePrefix();
+        File[] files = mDirectory.listFiles(
+                (dir, name) -> name.startsWith(prefix) && name.endsWith(SNAPSHOT_SUFFIX));
+        if (files == null) {
+            return;
+        }
+        String stamp = getStamp();
+        for (File file : files) {
+            List<Entry> snapshot = read(file, stamp);
+            synchronized (mLock) {
+                // A snapshot saved in the meantime is newer than the one on disk.
+                mSnapshots.putIfAbsent(file.getName(), snapshot);
+            }
+        }
+    }
+
+    /**
+     * Returns the snapshot of {@code xmlResId} for {@code zoneType} if it is already in memory,
+     * or {@code null} otherwise. Never reads from disk.
+     */
+    @Nullable
+    public List<Entry> peek(@XmlRes int xmlResId, int zoneType) {
+        synchronized (mLock) {
+            return mSnapshots.get(getName(xmlResId, zoneType));
+        }
+    }
+
+    /**
+     * Like {@link #peek}, but first waits up to {@code timeoutMs} for a running {@link #preload}
+     * to finish, so that the first menu can still be rendered from the snapshot. Lookups without
+     * a snapshot are logged and counted.
+     */
+    @Nullable
+    public List<Entry> peek(@XmlRes int xmlResId, int zoneType, long timeoutMs) {
+        boolean preloaded;
+        long start = SettingsTracer.begin(AWAIT_PRELOAD_SECTION);
+        try {
+            preloaded = awaitPreload(timeoutMs);
+        } finally {
+            SettingsTracer.end(AWAIT_PRELOAD_SECTION, start);
+        }
+        List<Entry> snapshot = peek(xmlResId, zoneType);
+        int lookupCount = mLookupCount.incrementAndGet();
+        if (snapshot == null) {
+            int missCount = mMissCount.incrementAndGet();
+            LOG.d("Snapshot miss for " + getName(xmlResId, zoneType)
+                    + (preloaded ? "" : ", preload not finished after " + timeoutMs + "ms")
+                    + " (" + missCount + "/" + lookupCount + " lookups missed)");
+        }
+        return snapshot;
+    }
+
+    /**
+     * Replaces the snapshot of {@code xmlResId} for {@code zoneType}. The snapshot is compared to
+     * the previous one and written to disk in the background, since comparing icons is costly.
+     */
+    public void save(@XmlRes int xmlResId, int zoneType, List<Entry> entries) {
+        String name = getName(xmlResId, zoneType);
+        List<Entry> snapshot = Collections.unmodifiableList(new ArrayList<>(entries));
+        synchronized (mLock) {
+            mPendingSaves.put(name, snapshot);
+        }
+        String stamp = getStamp();
+        executeBackgroundTask(() -> {
+            synchronized (mLock) {
+                if (mPendingSaves.get(name) != snapshot) {
+                    // A newer snapshot was saved in the meantime and will be stored instead.
+                    return;
+                }
+                mPendingSaves.remove(name);
+                if (snapshot.equals(mSnapshots.get(name))) {
+                    return;
+                }
+                mSnapshots.put(name, snapshot);
+            }
+            write(name, stamp, snapshot);
+        });
+    }
+
+    /** Returns how many lookups with {@link #peek(int, int, long)} found no snapshot. */
+    @VisibleForTesting
+    int getMissCount() {
+        return mMissCount.get();
+    }
+
+    private boolean awaitPreload(long timeoutMs) {
+        CountDownLatch latch = mPreloadLatch;
+        if (latch == null) {
+            return false;
+        }
+        try {
+            return latch.await(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @VisibleForTesting
+    void executeBackgroundTask(Runnable runnable) {
+        ThreadUtils.postOnBackgroundThread(runnable);
+    }
+
+    @VisibleForTesting
+    void clearMemoryCache() {
+        synchronized (mLock) {
+            mSnapshots.clear();
+        }
+    }
+
+    @VisibleForTesting
+    String getStamp() {
+        Configuration configuration = mContext.getResources().getConfiguration();
+        return configuration.getLocales().toLanguageTags() + "|"
+                + (configuration.uiMode & Configuration.UI_MODE_NIGHT_MASK) + "|"
+                + getVersionCode();
+    }
+
+    private long getVersionCode() {
+        synchronized (mLock) {
+            if (mVersionCode < 0) {
+                try {
+                    mVersionCode = mContext.getPackageManager()
+                            .getPackageInfo(mContext.getPackageName(), /* flags= */ 0)
+                            .getLongVersionCode();
+                } catch (PackageManager.NameNotFoundException e) {
+                    mVersionCode = 0;
+                }
+            }
+            return mVersionCode;
+        }
+    }
+
+    private static String getName(@XmlRes int xmlResId, int zoneType) {
+        return getNamePrefix() + zoneType + "_" + xmlResId + SNAPSHOT_SUFFIX;
+    }
+
+    private static String getNamePrefix() {
+        return "snapshot_" + UserHandle.myUserId() + "_";
+    }
+
+    private File getFile(String name) {
+        return new File(mDirectory, name);
+    }
+
+    @Nullable
+    private static List<Entry> read(File file, String stamp) {
+        AtomicFile atomicFile = new AtomicFile(file);
+        if (!atomicFile.exists()) {
+            return null;
+        }
+        try {
+            JSONObject json = new JSONObject(
+                    new String(atomicFile.readFully(), StandardCharsets.UTF_8));
+            if (!stamp.equals(json.getString(KEY_STAMP))) {
+                LOG.d("Dropping stale snapshot " + file.getName());
+                return null;
+            }
+            JSONArray array = json.getJSONArray(KEY_ENTRIES);
+            List<Entry> entries = new ArrayList<>(array.length());
+            for (int i = 0; i < array.length(); i++) {
+                entries.add(Entry.fromJson(array.getJSONObject(i)));
+            }
+            return Collections.unmodifiableList(entries);
+        } catch (IOException | JSONException e) {
+            LOG.w("Unable to read snapshot " + file.getName(), e);
+            return null;
+        }
+    }
+
+    private void write(String name, String stamp, List<Entry> entries) {
+        synchronized (mWriteLock) {
+            synchronized (mLock) {
+                if (mSnapshots.get(name) != entries) {
+                    // A newer snapshot was saved in the meantime and will be written instead.
+                    return;
+                }
+            }
+            if (!mDirectory.exists() && !mDirectory.mkdirs()) {
+                LOG.w("Unable to create " + mDirectory);
+                return;
+            }
+            AtomicFile atomicFile = new AtomicFile(getFile(name));
+            FileOutputStream out = null;
+            try {
+                JSONArray array = new JSONArray();
+                for (Entry entry : entries) {
+                    array.put(entry.toJson());
+                }
+                JSONObject json = new JSONObject()
+                        .put(KEY_STAMP, stamp)
+                        .put(KEY_ENTRIES, array);
+                out = atomicFile.startWrite();
+                out.write(json.toString().getBytes(StandardCharsets.UTF_8));
+                atomicFile.finishWrite(out);
+            } catch (IOException | JSONException e) {
+                LOG.w("Unable to write snapshot " + name, e);
+                if (out != null) {
+                    atomicFile.failWrite(out);
+                }
+            }
+        }
+    }
+
+    /**
+     * State of one menu item. Items injected by other apps have a parent key, an intent and an
+     * icon, and may have no key; the others are inflated from xml and are found by their key.
+     */
+    public static final class Entry {
+        @Nullable
+        private final String mKey;
+        @Nullable
+        private final String mParentKey;
+        @Nullable
+        private final CharSequence mTitle;
+        @Nullable
+        private final CharSequence mSummary;
+        private final boolean mVisible;
+        @Nullable
+        private final String mIntentUri;
+        @Nullable
+        private final Bitmap mIcon;
+        private final boolean mDistractionOptimized;
+
+        public Entry(String key, @Nullable CharSequence title, @Nullable CharSequence summary,
+                boolean visible) {
+            this(key, /* parentKey= */ null, title, summary, visible, /* intentUri= */ null,
+                    /* icon= */ null, /* distractionOptimized= */ false);
+        }
+
+        public Entry(@Nullable String key, @Nullable String parentKey, @Nullable CharSequence title,
+                @Nullable CharSequence summary, boolean visible, @Nullable String intentUri,
+                @Nullable Bitmap icon, boolean distractionOptimized) {
+            mKey = key;
+            mParentKey = parentKey;
+            mTitle = title == null ? null : title.toString();
+            mSummary = summary == null ? null : summary.toString();
+            mVisible = visible;
+            mIntentUri = intentUri;
+            mIcon = icon;
+            mDistractionOptimized = distractionOptimized;
+        }
+
+        @Nullable
+        public String getKey() {
+            return mKey;
+        }
+
+        /** Returns the key of the group the item was injected into, if any. */
+        @Nullable
+        public String getParentKey() {
+            return mParentKey;
+        }
+
+        @Nullable
+        public CharSequence getTitle() {
+            return mTitle;
+        }
+
+        @Nullable
+        public CharSequence getSummary() {
+            return mSummary;
+        }
+
+        public boolean isVisible() {
+            return mVisible;
+        }
+
+        @Nullable
+        public String getIntentUri() {
+            return mIntentUri;
+        }
+
+        @Nullable
+        public Bitmap getIcon() {
+            return mIcon;
+        }
+
+        public boolean isDistractionOptimized() {
+            return mDistractionOptimized;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry entry = (Entry) o;
+            return Objects.equals(mKey, entry.mKey)
+                    && Objects.equals(mParentKey, entry.mParentKey)
+                    && Objects.equals(mTitle, entry.mTitle)
+                    && Objects.equals(mSummary, entry.mSummary)
+                    && mVisible == entry.mVisible
+                    && Objects.equals(mIntentUri, entry.mIntentUri)
+                    && (mIcon == entry.mIcon || (mIcon != null && entry.mIcon != null
+                            && mIcon.sameAs(entry.mIcon)))
+                    && mDistractionOptimized == entry.mDistractionOptimized;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(mKey, mParentKey, mTitle, mSummary, mVisible,
+                    mIntentUri);
+        }
+
+        private JSONObject toJson() throws JSONException {
+            JSONObject json = new JSONObject()
+                    .put(KEY_VISIBLE, mVisible)
+                    .put(KEY_DISTRACTION_OPTIMIZED, mDistractionOptimized);
+            putOpt(json, KEY_KEY, mKey);
+            putOpt(json, KEY_PARENT_KEY, mParentKey);
+            putOpt(json, KEY_TITLE, mTitle);
+            putOpt(json, KEY_SUMMARY, mSummary);
+            putOpt(json, KEY_INTENT_URI, mIntentUri);
+            if (mIcon != null) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                mIcon.compress(Bitmap.CompressFormat.PNG, /* quality= */ 100, out);
+                json.put(KEY_ICON, Base64.encodeToString(out.toByteArray(), Base64.NO_WRAP));
+            }
+            return json;
+        }
+
+        private static Entry fromJson(JSONObject json) throws JSONException {
+            Bitmap icon = null;
+            String encodedIcon = getOpt(json, KEY_ICON);
+            if (encodedIcon != null) {
+                byte[] bytes = Base64.decode(encodedIcon, Base64.NO_WRAP);
+                icon = BitmapFactory.decodeByteArray(bytes, /* offset= */ 0, bytes.length);
+            }
+            return new Entry(getOpt(json, KEY_KEY), getOpt(json, KEY_PARENT_KEY),
+                    getOpt(json, KEY_TITLE), getOpt(json, KEY_SUMMARY),
+                    json.getBoolean(KEY_VISIBLE), getOpt(json, KEY_INTENT_URI), icon,
+                    json.optBoolean(KEY_DISTRACTION_OPTIMIZED));
+        }
+
+        private static void putOpt(JSONObject json, String name, @Nullable CharSequence value)
+                throws JSONException {
+            if (value != null) {
+                json.put(name, value.toString());
+            }
+        }
+
+        @Nullable
+        private static String getOpt(JSONObject json, String name) {
+            return json.has(name) ? json.optString(name) : null;
+        }
+    }
+}
@@ -34,6 +34,7 @@ import androidx.preference.PreferenceGroup;
 import com.android.car.settings.R;
 import com.android.car.settings.common.FragmentController;
 import com.android.car.settings.common.PreferenceController;
+import com.android.car.settings.common.PreferencePool;
 import com.android.car.settings.common.ProgressBarPreference;
 import com.android.car.settings.profiles.ProfileHelper;
 import com.android.settingslib.AppItem;
@@ -57,6 +58,7 @@ public class AppDataUsagePreferenceController extends
         PreferenceController<PreferenceGroup> implements AppsNetworkStatsManager.Callback {
 
     private final UidDetailProvider mUidDetailProvider;
+    private final PreferencePool mPreferencePool = new PreferencePool();
     private NetworkTemplate mNetworkTemplate;
 
     public AppDataUsagePreferenceController(Context context, String preferenceKey,
@@ -210,11 +212,15 @@ public class AppDataUsagePreferenceController extends
 
     private void sortAndAddPreferences(List<AppItem> items, long largest) {
         getPreference().removeAll();
+        mPreferencePool.releaseAll();
         Collections.sort(items);
         for (int i = 0; i < items.size(); i++) {
-            int percentTotal = largest != 0 ? (int) (items.get(i).total * 100 / largest) : 0;
-            AppDataUsagePreference preference = new AppDataUsagePreference(getContext(),
-                    items.get(i), percentTotal, mUidDetailProvider);
+            AppItem item = items.get(i);
+            int percentTotal = largest != 0 ? (int) (item.total * 100 / largest) : 0;
+            AppDataUsagePreference preference = mPreferencePool.acquire(
+                    AppDataUsagePreference.class, String.valueOf(item.key),
+                    () -> new AppDataUsagePreference(getContext()));
+            preference.bind(item, percentTotal, mUidDetailProvider);
             getPreference().addPreference(preference);
         }
     }
@@ -245,31 +251,43 @@ public class AppDataUsagePreferenceController extends
 
     private class AppDataUsagePreference extends ProgressBarPreference {
 
-        private final AppItem mItem;
-        private final int mPercent;
+        private AppItem mItem;
+        private int mPercent;
         private UidDetail mDetail;
+        private boolean mLoadingDetail;
 
-        AppDataUsagePreference(Context context, AppItem item, int percent,
-                UidDetailProvider provider) {
+        AppDataUsagePreference(Context context) {
             super(context);
+            setLayoutResource(R.layout.progress_bar_preference);
+        }
+
+        /**
+         * Binds the preference to {@code item}. A preference is only bound again to items with the
+         * same key, which share the same uid details.
+         */
+        void bind(AppItem item, int percent, UidDetailProvider provider) {
             mItem = item;
             mPercent = percent;
-            setLayoutResource(R.layout.progress_bar_preference);
             setKey(String.valueOf(item.key));
             if (item.restricted && item.total <= 0) {
                 setSummary(R.string.data_usage_app_restricted);
             } else {
-                CharSequence s = DataUsageUtils.bytesToIecUnits(context, item.total);
+                CharSequence s = DataUsageUtils.bytesToIecUnits(getContext(), item.total);
                 setSummary(s);
             }
-            mDetail = provider.getUidDetail(item.key, /* blocking= */ false);
+            if (mDetail == null) {
+                mDetail = provider.getUidDetail(item.key, /* blocking= */ false);
+            }
             if (mDetail != null) {
                 setAppInfo();
                 setOnClickListener();
-            } else {
+            } else if (!mLoadingDetail) {
+                mLoadingDetail = true;
                 ThreadUtils.postOnBackgroundThread(() -> {
-                    mDetail = provider.getUidDetail(mItem.key, /* blocking= */ true);
+                    UidDetail detail = provider.getUidDetail(item.key, /* blocking= */ true);
                     ThreadUtils.postOnMainThread(() -> {
+                        mLoadingDetail = false;
+                        mDetail = detail;
                         setAppInfo();
                         setOnClickListener();
                     });
@@ -41,13 +41,11 @@ public class ChildLocalePickerPreferenceController extends LanguageBasePreferenc
 
     @Override
     protected LocalePreferenceProvider defineLocaleProvider() {
-        Set<LocaleStore.LocaleInfo> mLocaleInfoSet = LocaleStore.getLevelLocales(
-                getContext(),
-                getExclusionSet(),
-                mParentLocaleInfo,
-                /* translatedOnly= */ true);
-
-        return LocalePreferenceProvider.newInstance(getContext(), mLocaleInfoSet,
+        LocaleHierarchyIndex index = LocaleHierarchyIndex.getInstance(getContext());
+        Set<LocaleStore.LocaleInfo> localeInfoSet = index.getLocales(getExclusionSet(),
                 mParentLocaleInfo);
+
+        return LocalePreferenceProvider.newInstance(getContext(), index, getExclusionSet(),
+                localeInfoSet, mParentLocaleInfo);
     }
 }
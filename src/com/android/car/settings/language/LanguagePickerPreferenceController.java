@@ -36,15 +36,13 @@ public class LanguagePickerPreferenceController extends LanguageBasePreferenceCo
 
     @Override
     protected LocalePreferenceProvider defineLocaleProvider() {
-        Set<LocaleStore.LocaleInfo> localeInfoSet = LocaleStore.getLevelLocales(
-                getContext(),
-                getExclusionSet(),
-                /* parent= */ null,
-                /* translatedOnly= */ true);
+        LocaleHierarchyIndex index = LocaleHierarchyIndex.getInstance(getContext());
+        Set<LocaleStore.LocaleInfo> localeInfoSet = index.getLocales(getExclusionSet(),
+                /* parent= */ null);
         maybeAddPseudoLocale(localeInfoSet);
 
-        return LocalePreferenceProvider.newInstance(getContext(), localeInfoSet,
-                /* parentLocale= */ null);
+        return LocalePreferenceProvider.newInstance(getContext(), index, getExclusionSet(),
+                localeInfoSet, /* parentLocale= */ null);
     }
 
     @Override
@@ -32,6 +32,7 @@ import com.android.car.settings.common.FragmentController;
 import com.android.car.settings.common.PreferenceController;
 import com.android.internal.app.LocaleHelper;
 
+import java.util.Collections;
 import java.util.Locale;
 
 /** Updates the language settings entry summary with the currently configured locale. */
@@ -42,6 +43,12 @@ public class LanguageSettingsEntryPreferenceController extends PreferenceControl
         super(context, preferenceKey, fragmentController, uxRestrictions);
     }
 
+    @Override
+    protected void onCreateInternal() {
+        // Warms up the index used by the language picker, which is likely to be opened next.
+        LocaleHierarchyIndex.getInstance(getContext()).prefetch(Collections.emptySet());
+    }
+
     @Override
     protected void updateState(Preference preference) {
         Locale locale = getConfiguredLocale();
@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2023 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.car.settings.language;
+
+import android.content.Context;
+import android.util.ArrayMap;
+
+import androidx.annotation.GuardedBy;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import com.android.internal.app.LocaleHelper;
+import com.android.internal.app.LocaleStore;
+import com.android.settingslib.utils.ThreadUtils;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index of the locale hierarchy shown by the language pickers: the top level locales and the
+ * child locales of each of them, already sorted the way the pickers display them.
+ *
+ * <p>Building the hierarchy with {@link LocaleStore#getLevelLocales} is linear in the number of
+ * locales for each parent, and sorting it creates a collator for each display locale. The index
+ * does this once per default locale, ideally in the background with {@link #prefetch}, instead of
+ * every time a picker is shown.
+ */
+public class LocaleHierarchyIndex {
+
+    private static LocaleHierarchyIndex sInstance;
+
+    private final Context mContext;
+    private final Object mLock = new Object();
+    @GuardedBy("mLock")
+    @Nullable
+    private Snapshot mSnapshot;
+    @GuardedBy("mLock")
+    private int mBuildCount;
+
+    /** Returns the process wide instance. */
+    public static synchronized LocaleHierarchyIndex getInstance(Context context) {
+        if (sInstance == null) {
+            sInstance = new LocaleHierarchyIndex(context.getApplicationContext());
+        }
+        return sInstance;
+    }
+
+    @VisibleForTesting
+    LocaleHierarchyIndex(Context context) {
+        mContext = context;
+    }
+
+    /** Builds the index in the background unless it is already built for the default locale. */
+    public void prefetch(Set<String> ignorables) {
+        executeBackgroundTask(() -> {
+            synchronized (mLock) {
+                getSnapshotLocked(ignorables);
+            }
+        });
+    }
+
+    /**
+     * Returns the children of {@code parent}, or the top level locales if it is {@code null},
+     * sorted for display. The returned set may be modified by the caller.
+     */
+    public Set<LocaleStore.LocaleInfo> getLocales(Set<String> ignorables,
+            @Nullable LocaleStore.LocaleInfo parent) {
+        synchronized (mLock) {
+            return new LinkedHashSet<>(getSnapshotLocked(ignorables).getLevel(parent).mLocales);
+        }
+    }
+
+    /** Returns the number of children of {@code parent}. */
+    public int getChildCount(Set<String> ignorables, LocaleStore.LocaleInfo parent) {
+        synchronized (mLock) {
+            return getSnapshotLocked(ignorables).getLevel(parent).mLocales.size();
+        }
+    }
+
+    /**
+     * Returns the comparator which sorts the children of {@code parent}, or the top level locales
+     * if it is {@code null}.
+     */
+    public LocaleHelper.LocaleInfoComparator getComparator(Set<String> ignorables,
+            @Nullable LocaleStore.LocaleInfo parent) {
+        synchronized (mLock) {
+            return getSnapshotLocked(ignorables).getLevel(parent).mComparator;
+        }
+    }
+
+    @VisibleForTesting
+    int getBuildCount() {
+        synchronized (mLock) {
+            return mBuildCount;
+        }
+    }
+
+    @VisibleForTesting
+    void executeBackgroundTask(Runnable runnable) {
+        ThreadUtils.postOnBackgroundThread(runnable);
+    }
+
+    @GuardedBy("mLock")
+    private Snapshot getSnapshotLocked(Set<String> ignorables) {
+        Locale displayLocale = Locale.getDefault();
+        if (mSnapshot == null || !mSnapshot.mDisplayLocale.equals(displayLocale)
+                || !mSnapshot.mIgnorables.equals(ignorables)) {
+            mBuildCount++;
+            mSnapshot = new Snapshot(mContext, displayLocale, new HashSet<>(ignorables));
+        }
+        return mSnapshot;
+    }
+
+    /** The hierarchy for one default locale. Levels are only accessed while holding mLock. */
+    private static final class Snapshot {
+        private final Context mContext;
+        private final Locale mDisplayLocale;
+        private final Set<String> mIgnorables;
+        private final Level mTopLevel;
+        private final Map<String, Level> mChildLevels = new ArrayMap<>();
+
+        Snapshot(Context context, Locale displayLocale, Set<String> ignorables) {
+            mContext = context;
+            mDisplayLocale = displayLocale;
+            mIgnorables = ignorables;
+            mTopLevel = createLevel(/* parent= */ null);
+            for (LocaleStore.LocaleInfo parent : mTopLevel.mLocales) {
+                mChildLevels.put(parent.getId(), createLevel(parent));
+            }
+        }
+
+        Level getLevel(@Nullable LocaleStore.LocaleInfo parent) {
+            if (parent == null) {
+                return mTopLevel;
+            }
+            // Locales added by the pickers, such as pseudo locales, are indexed on first use.
+            return mChildLevels.computeIfAbsent(parent.getId(), id -> createLevel(parent));
+        }
+
+        private Level createLevel(@Nullable LocaleStore.LocaleInfo parent) {
+            boolean countryMode = parent != null;
+            LocaleHelper.LocaleInfoComparator comparator = new LocaleHelper.LocaleInfoComparator(
+                    countryMode ? parent.getLocale() : mDisplayLocale, countryMode);
+            List<LocaleStore.LocaleInfo> locales = new ArrayList<>(LocaleStore.getLevelLocales(
+                    mContext, mIgnorables, parent, /* translatedOnly= */ true));
+            locales.sort(comparator);
+            return new Level(locales, comparator);
+        }
+    }
+
+    private static final class Level {
+        private final List<LocaleStore.LocaleInfo> mLocales;
+        private final LocaleHelper.LocaleInfoComparator mComparator;
+
+        Level(List<LocaleStore.LocaleInfo> locales,
+                LocaleHelper.LocaleInfoComparator comparator) {
+            mLocales = locales;
+            mComparator = comparator;
+        }
+    }
+}
@@ -43,13 +43,17 @@ public class LocalePreferenceProvider {
 
     private static final Logger LOG = new Logger(LanguagePickerPreferenceController.class);
 
-    /** Creates a new instance of the preference provider. */
+    /**
+     * Creates a new instance of the preference provider which takes the sort order and the
+     * number of child locales from {@code index}.
+     */
     public static LocalePreferenceProvider newInstance(Context context,
+            LocaleHierarchyIndex index, Set<String> ignorables,
             Set<LocaleStore.LocaleInfo> localeInfoSet,
             @Nullable LocaleStore.LocaleInfo parentLocale) {
         SuggestedLocaleAdapter adapter = createSuggestedLocaleAdapter(context, localeInfoSet,
-                parentLocale);
-        return new LocalePreferenceProvider(context, adapter);
+                parentLocale, index.getComparator(ignorables, parentLocale));
+        return new LocalePreferenceProvider(context, adapter, index);
     }
 
     /**
@@ -65,11 +69,19 @@ public class LocalePreferenceProvider {
 
     private final Context mContext;
     private SuggestedLocaleAdapter mSuggestedLocaleAdapter;
+    @Nullable
+    private final LocaleHierarchyIndex mIndex;
 
     @VisibleForTesting
     LocalePreferenceProvider(Context context, SuggestedLocaleAdapter localeAdapter) {
+        this(context, localeAdapter, /* index= */ null);
+    }
+
+    private LocalePreferenceProvider(Context context, SuggestedLocaleAdapter localeAdapter,
+            @Nullable LocaleHierarchyIndex index) {
         mContext = context;
         mSuggestedLocaleAdapter = localeAdapter;
+        mIndex = index;
     }
 
     /**
@@ -131,12 +143,7 @@ public class LocalePreferenceProvider {
                 preference.setTitle(info.getFullNameNative());
                 // Only locales with multiple sublocales needs to show the chevron, since in those
                 // cases, the user needs to navigate to the child fragment to select the sublocale.
-                Set<LocaleStore.LocaleInfo> subLocales = LocaleStore.getLevelLocales(
-                        mContext,
-                        ignorables,
-                        info,
-                        /* translatedOnly */ true);
-                preference.setShowChevron(subLocales.size() > 1);
+                preference.setShowChevron(getChildCount(info, ignorables) > 1);
                 LocaleUtil.setLocaleArgument(preference, info);
                 return preference;
             default:
@@ -145,18 +152,25 @@ public class LocalePreferenceProvider {
         }
     }
 
+    private int getChildCount(LocaleStore.LocaleInfo info, Set<String> ignorables) {
+        if (mIndex != null) {
+            return mIndex.getChildCount(ignorables, info);
+        }
+        return LocaleStore.getLevelLocales(mContext, ignorables, info,
+                /* translatedOnly */ true).size();
+    }
+
     /**
      * Creates an instance of {@link SuggestedLocaleAdapter} with a locale
      * {@link LocaleStore.LocaleInfo} that is scoped to a parent locale if a parent locale is
-     * provided.
+     * provided. Sorting is cheap if {@code localeInfoSet} is already sorted by {@code comp}.
      */
     private static SuggestedLocaleAdapter createSuggestedLocaleAdapter(Context context,
-            Set<LocaleStore.LocaleInfo> localeInfoSet, @Nullable LocaleStore.LocaleInfo parent) {
+            Set<LocaleStore.LocaleInfo> localeInfoSet, @Nullable LocaleStore.LocaleInfo parent,
+            LocaleHelper.LocaleInfoComparator comp) {
         boolean countryMode = (parent != null);
         Locale displayLocale = countryMode ? parent.getLocale() : Locale.getDefault();
         SuggestedLocaleAdapter adapter = new SuggestedLocaleAdapter(localeInfoSet, countryMode);
-        LocaleHelper.LocaleInfoComparator comp =
-                new LocaleHelper.LocaleInfoComparator(displayLocale, countryMode);
         adapter.sort(comp);
         adapter.setDisplayLocale(context, displayLocale);
         return adapter;
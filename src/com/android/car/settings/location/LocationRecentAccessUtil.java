@@ -37,6 +37,16 @@ public final class LocationRecentAccessUtil {
     public static CarUiPreference createAppPreference(
             Context prefContext, RecentAppOpsAccess.Access access) {
         CarUiPreference pref = new CarUiPreference(prefContext);
+        bindAppPreference(prefContext, pref, access);
+        return pref;
+    }
+
+    /**
+     * Binds {@code pref} to an app with it's last access time and a link to its location
+     * permission settings.
+     */
+    public static void bindAppPreference(
+            Context prefContext, CarUiPreference pref, RecentAppOpsAccess.Access access) {
         pref.setIcon(access.icon);
         pref.setTitle(access.label);
         String summary =
@@ -67,6 +77,5 @@ public final class LocationRecentAccessUtil {
                     prefContext.startActivity(intent);
                     return true;
                 });
-        return pref;
     }
 }
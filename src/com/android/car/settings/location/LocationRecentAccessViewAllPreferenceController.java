@@ -23,6 +23,7 @@ import com.android.car.settings.R;
 import com.android.car.settings.common.FragmentController;
 import com.android.car.settings.common.LogicalPreferenceGroup;
 import com.android.car.settings.common.PreferenceController;
+import com.android.car.settings.common.PreferencePool;
 import com.android.car.ui.preference.CarUiPreference;
 import com.android.internal.annotations.VisibleForTesting;
 import com.android.settingslib.applications.RecentAppOpsAccess;
@@ -36,7 +37,10 @@ import java.util.List;
 public class LocationRecentAccessViewAllPreferenceController
         extends PreferenceController<LogicalPreferenceGroup> {
 
+    private static final String NO_RECENT_ACCESS_KEY = "no_recent_access";
+
     private final RecentAppOpsAccess mRecentLocationAccesses;
+    private final PreferencePool mPreferencePool = new PreferencePool();
     private boolean mShowSystem = false;
 
     public LocationRecentAccessViewAllPreferenceController(
@@ -92,19 +96,23 @@ public class LocationRecentAccessViewAllPreferenceController
 
     private void updateUi(List<RecentAppOpsAccess.Access> recentLocationAccesses) {
         getPreference().removeAll();
+        mPreferencePool.releaseAll();
         if (recentLocationAccesses.isEmpty()) {
-            getPreference().addPreference(createNoRecentAccessPreference());
+            getPreference().addPreference(acquireNoRecentAccessPreference());
         } else {
             for (RecentAppOpsAccess.Access access : recentLocationAccesses) {
-                CarUiPreference appPreference =
-                        LocationRecentAccessUtil.createAppPreference(getContext(), access);
+                CarUiPreference appPreference = mPreferencePool.acquire(CarUiPreference.class,
+                        access.packageName + "|" + access.userHandle,
+                        () -> new CarUiPreference(getContext()));
+                LocationRecentAccessUtil.bindAppPreference(getContext(), appPreference, access);
                 getPreference().addPreference(appPreference);
             }
         }
     }
 
-    private CarUiPreference createNoRecentAccessPreference() {
-        CarUiPreference preference = new CarUiPreference(getContext());
+    private CarUiPreference acquireNoRecentAccessPreference() {
+        CarUiPreference preference = mPreferencePool.acquire(CarUiPreference.class,
+                NO_RECENT_ACCESS_KEY, () -> new CarUiPreference(getContext()));
         preference.setTitle(R.string.location_no_recent_access);
         preference.setSelectable(false);
         return preference;
@@ -46,8 +46,7 @@ public class MobileNetworkEntryPreferenceController extends
         SubscriptionsChangeListener.SubscriptionsChangeAction {
 
     private final UserManager mUserManager;
-    private final SubscriptionsChangeListener mChangeListener;
-    private final SubscriptionManager mSubscriptionManager;
+    private final SubscriptionSnapshotService mSubscriptionSnapshotService;
     private final ConnectivityManager mConnectivityManager;
     private final TelephonyManager mTelephonyManager;
     private final int mSubscriptionId;
@@ -62,10 +61,17 @@ public class MobileNetworkEntryPreferenceController extends
 
     public MobileNetworkEntryPreferenceController(Context context, String preferenceKey,
             FragmentController fragmentController, CarUxRestrictions uxRestrictions) {
+        this(context, preferenceKey, fragmentController, uxRestrictions,
+                SubscriptionSnapshotService.getInstance(context));
+    }
+
+    @VisibleForTesting
+    MobileNetworkEntryPreferenceController(Context context, String preferenceKey,
+            FragmentController fragmentController, CarUxRestrictions uxRestrictions,
+            SubscriptionSnapshotService subscriptionSnapshotService) {
         super(context, preferenceKey, fragmentController, uxRestrictions);
         mUserManager = UserManager.get(context);
-        mChangeListener = new SubscriptionsChangeListener(context, /* action= */ this);
-        mSubscriptionManager = context.getSystemService(SubscriptionManager.class);
+        mSubscriptionSnapshotService = subscriptionSnapshotService;
         mConnectivityManager = context.getSystemService(ConnectivityManager.class);
         mTelephonyManager = context.getSystemService(TelephonyManager.class);
         mSubscriptionId = SubscriptionManager.getDefaultDataSubscriptionId();
@@ -84,8 +90,8 @@ public class MobileNetworkEntryPreferenceController extends
 
     @Override
     protected void updateState(CarUiTwoActionSwitchPreference preference) {
-        List<SubscriptionInfo> subs = SubscriptionUtils.getAvailableSubscriptions(
-                mSubscriptionManager, mTelephonyManager);
+        List<SubscriptionInfo> subs =
+                mSubscriptionSnapshotService.getSnapshot().getAvailableSubscriptions();
         preference.setEnabled(!subs.isEmpty() && getAvailabilityStatus() == AVAILABLE);
         preference.setSummary(getSummary(subs));
         getPreference().setSecondaryActionChecked(mTelephonyManager.isDataEnabled());
@@ -93,7 +99,7 @@ public class MobileNetworkEntryPreferenceController extends
 
     @Override
     protected void onStartInternal() {
-        mChangeListener.start();
+        mSubscriptionSnapshotService.acquire(/* listener= */ this);
         if (mSubscriptionId != SubscriptionManager.INVALID_SUBSCRIPTION_ID) {
             getContext().getContentResolver().registerContentObserver(getObservableUri(
                     mSubscriptionId), /* notifyForDescendants= */ false, mMobileDataChangeObserver);
@@ -102,7 +108,7 @@ public class MobileNetworkEntryPreferenceController extends
 
     @Override
     protected void onStopInternal() {
-        mChangeListener.stop();
+        mSubscriptionSnapshotService.release(/* listener= */ this);
         if (mSubscriptionId != SubscriptionManager.INVALID_SUBSCRIPTION_ID) {
             getContext().getContentResolver().unregisterContentObserver(mMobileDataChangeObserver);
         }
@@ -126,8 +132,8 @@ public class MobileNetworkEntryPreferenceController extends
 
     @Override
     protected boolean handlePreferenceClicked(CarUiTwoActionSwitchPreference preference) {
-        List<SubscriptionInfo> subs = SubscriptionUtils.getAvailableSubscriptions(
-                mSubscriptionManager, mTelephonyManager);
+        List<SubscriptionInfo> subs =
+                mSubscriptionSnapshotService.getSnapshot().getAvailableSubscriptions();
         if (subs.isEmpty()) {
             return true;
         }
@@ -19,9 +19,8 @@ package com.android.car.settings.network;
 import android.car.drivingstate.CarUxRestrictions;
 import android.content.Context;
 import android.telephony.SubscriptionInfo;
-import android.telephony.SubscriptionManager;
-import android.telephony.TelephonyManager;
 
+import androidx.annotation.VisibleForTesting;
 import androidx.preference.Preference;
 import androidx.preference.PreferenceGroup;
 
@@ -29,24 +28,25 @@ import com.android.car.settings.R;
 import com.android.car.settings.common.FragmentController;
 import com.android.car.settings.common.PreferenceController;
 
-import java.util.List;
-
 /** Business logic to populate the list of available mobile networks. */
 public class MobileNetworkListPreferenceController extends
         PreferenceController<PreferenceGroup> implements
         SubscriptionsChangeListener.SubscriptionsChangeAction {
 
-    private final SubscriptionsChangeListener mSubscriptionsChangeListener;
-    private final SubscriptionManager mSubscriptionManager;
-    private final TelephonyManager mTelephonyManager;
+    private final SubscriptionSnapshotService mSubscriptionSnapshotService;
 
     public MobileNetworkListPreferenceController(Context context, String preferenceKey,
             FragmentController fragmentController, CarUxRestrictions uxRestrictions) {
-        super(context, preferenceKey, fragmentController, uxRestrictions);
+        this(context, preferenceKey, fragmentController, uxRestrictions,
+                SubscriptionSnapshotService.getInstance(context));
+    }
 
-        mSubscriptionsChangeListener = new SubscriptionsChangeListener(context, /* action= */ this);
-        mSubscriptionManager = context.getSystemService(SubscriptionManager.class);
-        mTelephonyManager = context.getSystemService(TelephonyManager.class);
+    @VisibleForTesting
+    MobileNetworkListPreferenceController(Context context, String preferenceKey,
+            FragmentController fragmentController, CarUxRestrictions uxRestrictions,
+            SubscriptionSnapshotService subscriptionSnapshotService) {
+        super(context, preferenceKey, fragmentController, uxRestrictions);
+        mSubscriptionSnapshotService = subscriptionSnapshotService;
     }
 
     @Override
@@ -56,22 +56,22 @@ public class MobileNetworkListPreferenceController extends
 
     @Override
     protected void onStartInternal() {
-        mSubscriptionsChangeListener.start();
+        mSubscriptionSnapshotService.acquire(/* listener= */ this);
     }
 
     @Override
     protected void onStopInternal() {
-        mSubscriptionsChangeListener.stop();
+        mSubscriptionSnapshotService.release(/* listener= */ this);
     }
 
     @Override
     protected void updateState(PreferenceGroup preferenceGroup) {
         preferenceGroup.removeAll();
 
-        List<SubscriptionInfo> subscriptions = SubscriptionUtils.getAvailableSubscriptions(
-                mSubscriptionManager, mTelephonyManager);
-        for (SubscriptionInfo info : subscriptions) {
-            preferenceGroup.addPreference(createPreference(info));
+        SubscriptionSnapshotService.SubscriptionSnapshot snapshot =
+                mSubscriptionSnapshotService.getSnapshot();
+        for (SubscriptionInfo info : snapshot.getAvailableSubscriptions()) {
+            preferenceGroup.addPreference(createPreference(snapshot, info));
         }
     }
 
@@ -80,13 +80,14 @@ public class MobileNetworkListPreferenceController extends
         refreshUi();
     }
 
-    private Preference createPreference(SubscriptionInfo info) {
+    private Preference createPreference(SubscriptionSnapshotService.SubscriptionSnapshot snapshot,
+            SubscriptionInfo info) {
         Preference preference = new Preference(getContext());
         preference.setTitle(info.getDisplayName());
         preference.setKey(Integer.toString(info.getSubscriptionId()));
 
         boolean isEsim = info.isEmbedded();
-        if (mSubscriptionManager.isActiveSubscriptionId(info.getSubscriptionId())) {
+        if (snapshot.isActiveSubscriptionId(info.getSubscriptionId())) {
             preference.setSummary(isEsim ? R.string.mobile_network_active_esim
                     : R.string.mobile_network_active_sim);
         } else {
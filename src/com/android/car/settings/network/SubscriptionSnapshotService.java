@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2023 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.car.settings.network;
+
+import static com.android.internal.util.CollectionUtils.emptyIfNull;
+
+import android.content.Context;
+import android.telephony.SubscriptionInfo;
+import android.telephony.SubscriptionManager;
+import android.telephony.TelephonyManager;
+import android.util.ArraySet;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Process-wide snapshot of the telephony subscriptions shared by the mobile network screens.
+ *
+ * <p>While at least one listener is registered, a single {@link SubscriptionsChangeListener}
+ * tracks subscription and radio technology changes and the snapshot is rebuilt once per change,
+ * before the listeners are notified. Without listeners, changes are not tracked and
+ * {@link #getSnapshot} queries the subscriptions on every call.
+ *
+ * <p>All methods must be called on the main thread.
+ */
+public class SubscriptionSnapshotService {
+
+    private static SubscriptionSnapshotService sInstance;
+
+    private final SubscriptionManager mSubscriptionManager;
+    private final TelephonyManager mTelephonyManager;
+    private final SubscriptionsChangeListener mChangeListener;
+    private final ArraySet<SubscriptionsChangeListener.SubscriptionsChangeAction> mListeners =
+            new ArraySet<>();
+
+    @Nullable
+    private SubscriptionSnapshot mSnapshot;
+    private int mBuildCount;
+
+    /** Returns the process-wide instance of {@link SubscriptionSnapshotService}. */
+    public static SubscriptionSnapshotService getInstance(Context context) {
+        if (sInstance == null) {
+            sInstance = new SubscriptionSnapshotService(context.getApplicationContext());
+        }
+        return sInstance;
+    }
+
+    @VisibleForTesting
+    SubscriptionSnapshotService(Context context) {
+        mSubscriptionManager = context.getSystemService(SubscriptionManager.class);
+        mTelephonyManager = context.getSystemService(TelephonyManager.class);
+        mChangeListener = new SubscriptionsChangeListener(context, this::onSubscriptionsChanged);
+    }
+
+    /**
+     * Registers {@code listener} to be notified after the snapshot is rebuilt, and starts tracking
+     * changes if this is the first listener.
+     */
+    @MainThread
+    public void acquire(SubscriptionsChangeListener.SubscriptionsChangeAction listener) {
+        if (!mListeners.add(listener) || mListeners.size() > 1) {
+            return;
+        }
+        // Changes were not tracked, so the snapshot may be stale.
+        mSnapshot = null;
+        mChangeListener.start();
+    }
+
+    /** Unregisters {@code listener} and stops tracking changes if this was the last listener. */
+    @MainThread
+    public void release(SubscriptionsChangeListener.SubscriptionsChangeAction listener) {
+        if (!mListeners.remove(listener) || !mListeners.isEmpty()) {
+            return;
+        }
+        mChangeListener.stop();
+        mSnapshot = null;
+    }
+
+    /** Returns the current subscriptions. */
+    @MainThread
+    public SubscriptionSnapshot getSnapshot() {
+        if (mSnapshot != null) {
+            return mSnapshot;
+        }
+        SubscriptionSnapshot snapshot = buildSnapshot();
+        if (!mListeners.isEmpty()) {
+            mSnapshot = snapshot;
+        }
+        return snapshot;
+    }
+
+    /** Returns the number of times the subscriptions were queried. */
+    @VisibleForTesting
+    int getBuildCount() {
+        return mBuildCount;
+    }
+
+    private void onSubscriptionsChanged() {
+        mSnapshot = buildSnapshot();
+        for (SubscriptionsChangeListener.SubscriptionsChangeAction listener :
+                new ArrayList<>(mListeners)) {
+            listener.onSubscriptionsChanged();
+        }
+    }
+
+    private SubscriptionSnapshot buildSnapshot() {
+        mBuildCount++;
+        List<SubscriptionInfo> available = SubscriptionUtils.getAvailableSubscriptions(
+                mSubscriptionManager, mTelephonyManager,
+                emptyIfNull(mSubscriptionManager.getSelectableSubscriptionInfoList()));
+        Set<Integer> activeIds = new ArraySet<>();
+        for (SubscriptionInfo info :
+                emptyIfNull(mSubscriptionManager.getActiveSubscriptionInfoList())) {
+            activeIds.add(info.getSubscriptionId());
+        }
+        return new SubscriptionSnapshot(available, activeIds);
+    }
+
+    /** Immutable view of the subscriptions at the time of the last change. */
+    public static final class SubscriptionSnapshot {
+        private final List<SubscriptionInfo> mAvailableSubscriptions;
+        private final Set<Integer> mActiveSubscriptionIds;
+
+        SubscriptionSnapshot(List<SubscriptionInfo> availableSubscriptions,
+                Set<Integer> activeSubscriptionIds) {
+            mAvailableSubscriptions = Collections.unmodifiableList(availableSubscriptions);
+            mActiveSubscriptionIds = Collections.unmodifiableSet(activeSubscriptionIds);
+        }
+
+        /**
+         * Returns the available subscriptions, as returned by
+         * {@link SubscriptionUtils#getAvailableSubscriptions}.
+         */
+        public List<SubscriptionInfo> getAvailableSubscriptions() {
+            return mAvailableSubscriptions;
+        }
+
+        /** Returns whether {@code subId} belongs to an active subscription. */
+        public boolean isActiveSubscriptionId(int subId) {
+            return mActiveSubscriptionIds.contains(subId);
+        }
+    }
+}
@@ -26,10 +26,12 @@ import android.telephony.TelephonyManager;
 import android.telephony.UiccPortInfo;
 import android.telephony.UiccSlotInfo;
 import android.text.TextUtils;
+import android.util.ArraySet;
 
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 
 /** Shared logic related to dealing with multiple subscriptions. */
 public final class SubscriptionUtils {
@@ -43,39 +45,44 @@ public final class SubscriptionUtils {
      */
     public static List<SubscriptionInfo> getAvailableSubscriptions(
             SubscriptionManager subscriptionManager, TelephonyManager telephonyManager) {
-        List<SubscriptionInfo> subscriptions = new ArrayList<>(
+        return getAvailableSubscriptions(subscriptionManager, telephonyManager,
                 emptyIfNull(subscriptionManager.getSelectableSubscriptionInfoList()));
+    }
+
+    /**
+     * Same as {@link #getAvailableSubscriptions(SubscriptionManager, TelephonyManager)}, for
+     * callers which already queried the {@code selectable} subscriptions.
+     */
+    static List<SubscriptionInfo> getAvailableSubscriptions(
+            SubscriptionManager subscriptionManager, TelephonyManager telephonyManager,
+            List<SubscriptionInfo> selectable) {
+        List<SubscriptionInfo> subscriptions = new ArrayList<>(selectable);
+        Set<String> selectableSlots = new ArraySet<>(subscriptions.size());
+        for (SubscriptionInfo info : subscriptions) {
+            selectableSlots.add(getSlotKey(info.getSimSlotIndex(), info.getCardString()));
+        }
 
         // Look for inactive but present physical SIMs that are missing from the selectable list.
-        List<UiccSlotInfo> missing = new ArrayList<>();
+        Set<String> missingSlots = new ArraySet<>();
         UiccSlotInfo[] slotsInfo = telephonyManager.getUiccSlotsInfo();
         for (int i = 0; slotsInfo != null && i < slotsInfo.length; i++) {
             UiccSlotInfo slotInfo = slotsInfo[i];
             if (isInactiveInsertedPSim(slotInfo)) {
                 // With MEP support each slot will have multiple ports.
                 for (UiccPortInfo portInfo : slotInfo.getPorts()) {
-                    int index = portInfo.getLogicalSlotIndex();
-                    String cardId = slotInfo.getCardId();
-
-                    boolean found = subscriptions.stream().anyMatch(
-                            info -> index == info.getSimSlotIndex() && cardId.equals(
-                                    info.getCardString()));
-                    if (!found) {
-                        missing.add(slotInfo);
+                    String slotKey = getSlotKey(portInfo.getLogicalSlotIndex(),
+                            slotInfo.getCardId());
+                    if (!selectableSlots.contains(slotKey)) {
+                        missingSlots.add(slotKey);
                     }
                 }
             }
         }
-        if (!missing.isEmpty()) {
+        if (!missingSlots.isEmpty()) {
             for (SubscriptionInfo info : subscriptionManager.getAllSubscriptionInfoList()) {
-                for (UiccSlotInfo slotInfo : missing) {
-                    for (UiccPortInfo portInfo : slotInfo.getPorts()) {
-                        if (info.getSimSlotIndex() == portInfo.getLogicalSlotIndex()
-                                && info.getCardString().equals(slotInfo.getCardId())) {
-                            subscriptions.add(info);
-                            break;
-                        }
-                    }
+                if (missingSlots.contains(
+                        getSlotKey(info.getSimSlotIndex(), info.getCardString()))) {
+                    subscriptions.add(info);
                 }
             }
         }
@@ -92,6 +99,10 @@ public final class SubscriptionUtils {
         return subscriptions;
     }
 
+    private static String getSlotKey(int logicalSlotIndex, String cardId) {
+        return logicalSlotIndex + "|" + cardId;
+    }
+
     private static boolean isInactiveInsertedPSim(UiccSlotInfo slotInfo) {
         return slotInfo != null && !slotInfo.getIsEuicc()
                 && slotInfo.getCardStateInfo() == CARD_STATE_INFO_PRESENT
@@ -23,24 +23,45 @@ import android.Manifest;
 import android.app.INotificationManager;
 import android.app.NotificationChannel;
 import android.car.drivingstate.CarUxRestrictions;
+import android.content.BroadcastReceiver;
 import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
 import android.content.pm.ApplicationInfo;
 import android.content.pm.PackageInfo;
 import android.content.pm.PackageManager;
+import android.net.Uri;
 import android.os.Build;
 import android.os.ServiceManager;
 import android.os.UserHandle;
+import android.util.ArrayMap;
+import android.util.ArraySet;
+import android.util.SparseArray;
 
+import androidx.annotation.MainThread;
+import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 import androidx.preference.Preference;
 
 import com.android.car.settings.common.FragmentController;
 import com.android.car.settings.common.Logger;
 import com.android.car.settings.common.PreferenceController;
+import com.android.settingslib.utils.ThreadUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Base notifications class that handles checking and changing notification availability
  *
+ * <p>Notification state can be resolved for a batch of apps on a background thread with {@link
+ * #prefetchNotificationStates}. Results are cached per (uid, package) until the package changes
+ * or its permissions change, and are read back with {@link #getCachedNotificationState}. The
+ * listeners invalidating the cache are only registered once a controller prefetches state.
+ *
  * @param <T> The upper bound on the type of {@link Preference} on which the controller
  *            expects to operate.
  */
@@ -49,15 +70,218 @@ public abstract class BaseNotificationsPreferenceController<T extends Preference
 
     private static final Logger LOG = new Logger(BaseNotificationsPreferenceController.class);
 
+    // Number of apps whose notification state is resolved before it is posted to the main thread.
+    @VisibleForTesting
+    static final int PREFETCH_BATCH_SIZE = 10;
+
     @VisibleForTesting
     public INotificationManager mNotificationManager = INotificationManager.Stub.asInterface(
             ServiceManager.getService(Context.NOTIFICATION_SERVICE));
 
+    /** Notification state of an app, as resolved by {@link #prefetchNotificationStates}. */
+    public static final class NotificationState {
+        private final boolean mEnabled;
+        private final boolean mChangeable;
+
+        NotificationState(boolean enabled, boolean changeable) {
+            mEnabled = enabled;
+            mChangeable = changeable;
+        }
+
+        /** Returns whether notifications are enabled for the app. */
+        public boolean isEnabled() {
+            return mEnabled;
+        }
+
+        /** Returns whether the notification permission of the app can be changed. */
+        public boolean isChangeable() {
+            return mChangeable;
+        }
+    }
+
+    // Cached notification state, keyed by uid and then package name. Only accessed on the main
+    // thread.
+    private final SparseArray<Map<String, NotificationState>> mNotificationStates =
+            new SparseArray<>();
+    // Apps whose state is being resolved by a running prefetch, keyed by uid and then package
+    // name. Only accessed on the main thread.
+    private final SparseArray<Set<String>> mPendingNotificationStates = new SparseArray<>();
+    // Incremented whenever cached state is invalidated, so that results of a prefetch started
+    // before the invalidation are not cached.
+    private int mNotificationStatesGeneration;
+    private boolean mCacheListenersRegistered;
+
+    private final BroadcastReceiver mPackageChangedReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            Uri data = intent.getData();
+            int uid = intent.getIntExtra(Intent.EXTRA_UID, /* defaultValue= */ -1);
+            if (data == null || uid < 0) {
+                invalidateNotificationStates();
+                return;
+            }
+            Map<String, NotificationState> states = mNotificationStates.get(uid);
+            if (states != null) {
+                states.remove(data.getSchemeSpecificPart());
+            }
+            cancelPendingNotificationStates();
+            onNotificationStatesInvalidated();
+        }
+    };
+
+    private final PackageManager.OnPermissionsChangedListener mPermissionsChangedListener =
+            uid -> executeUiTask(() -> {
+                mNotificationStates.remove(uid);
+                cancelPendingNotificationStates();
+                onNotificationStatesInvalidated();
+            });
+
     public BaseNotificationsPreferenceController(Context context, String preferenceKey,
             FragmentController fragmentController, CarUxRestrictions uxRestrictions) {
         super(context, preferenceKey, fragmentController, uxRestrictions);
     }
 
+    @Override
+    protected void onDestroyInternal() {
+        super.onDestroyInternal();
+        if (mCacheListenersRegistered) {
+            getContext().unregisterReceiver(mPackageChangedReceiver);
+            getContext().getPackageManager()
+                    .removeOnPermissionsChangeListener(mPermissionsChangedListener);
+            mCacheListenersRegistered = false;
+        }
+        invalidateNotificationStates();
+    }
+
+    /**
+     * Resolves the notification state of each of {@code apps} that is neither cached nor being
+     * resolved by an earlier call on a background thread. Each time a batch of states is
+     * resolved, it is cached and passed to the {@code onResolved} of the call that requested it
+     * on the main thread. Nothing is resolved if the state of every app is already known or
+     * pending.
+     */
+    @MainThread
+    protected void prefetchNotificationStates(List<ApplicationInfo> apps,
+            Consumer<List<ApplicationInfo>> onResolved) {
+        List<ApplicationInfo> missing = new ArrayList<>();
+        for (ApplicationInfo appInfo : apps) {
+            if (getCachedNotificationState(appInfo) == null
+                    && addPendingNotificationState(appInfo)) {
+                missing.add(appInfo);
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        // Only controllers that cache state need to know when it becomes stale.
+        registerCacheListeners();
+        int generation = mNotificationStatesGeneration;
+        executeBackgroundTask(() -> {
+            for (int start = 0; start < missing.size(); start += PREFETCH_BATCH_SIZE) {
+                List<ApplicationInfo> batch = missing.subList(start,
+                        Math.min(start + PREFETCH_BATCH_SIZE, missing.size()));
+                List<NotificationState> states = new ArrayList<>(batch.size());
+                for (ApplicationInfo appInfo : batch) {
+                    states.add(new NotificationState(
+                            areNotificationsEnabled(appInfo.packageName, appInfo.uid),
+                            areNotificationsChangeable(appInfo)));
+                }
+                executeUiTask(() -> {
+                    if (generation != mNotificationStatesGeneration) {
+                        // Invalidated in the meantime, which also dropped the pending entries,
+                        // the state is prefetched again.
+                        return;
+                    }
+                    for (int i = 0; i < batch.size(); i++) {
+                        removePendingNotificationState(batch.get(i));
+                        putNotificationState(batch.get(i), states.get(i));
+                    }
+                    onResolved.accept(batch);
+                });
+            }
+        });
+    }
+
+    /**
+     * Returns the cached notification state of {@code appInfo}, or {@code null} if it has not
+     * been resolved by {@link #prefetchNotificationStates} or was invalidated since.
+     */
+    @Nullable
+    @MainThread
+    protected NotificationState getCachedNotificationState(ApplicationInfo appInfo) {
+        Map<String, NotificationState> states = mNotificationStates.get(appInfo.uid);
+        return states == null ? null : states.get(appInfo.packageName);
+    }
+
+    /**
+     * Called on the main thread when cached notification state was invalidated because a package
+     * or its permissions changed. Subclasses displaying cached state should prefetch it again.
+     */
+    protected void onNotificationStatesInvalidated() {
+    }
+
+    @VisibleForTesting
+    void executeBackgroundTask(Runnable r) {
+        ThreadUtils.postOnBackgroundThread(r);
+    }
+
+    @VisibleForTesting
+    void executeUiTask(Runnable r) {
+        ThreadUtils.postOnMainThread(r);
+    }
+
+    private void registerCacheListeners() {
+        if (mCacheListenersRegistered) {
+            return;
+        }
+        IntentFilter filter = new IntentFilter();
+        filter.addAction(Intent.ACTION_PACKAGE_ADDED);
+        filter.addAction(Intent.ACTION_PACKAGE_REMOVED);
+        filter.addAction(Intent.ACTION_PACKAGE_CHANGED);
+        filter.addDataScheme("package");
+        getContext().registerReceiver(mPackageChangedReceiver, filter);
+        getContext().getPackageManager()
+                .addOnPermissionsChangeListener(mPermissionsChangedListener);
+        mCacheListenersRegistered = true;
+    }
+
+    private void putNotificationState(ApplicationInfo appInfo, NotificationState state) {
+        Map<String, NotificationState> states = mNotificationStates.get(appInfo.uid);
+        if (states == null) {
+            states = new ArrayMap<>();
+            mNotificationStates.put(appInfo.uid, states);
+        }
+        states.put(appInfo.packageName, state);
+    }
+
+    // Returns false if the state of appInfo is already being resolved.
+    private boolean addPendingNotificationState(ApplicationInfo appInfo) {
+        Set<String> packages = mPendingNotificationStates.get(appInfo.uid);
+        if (packages == null) {
+            packages = new ArraySet<>();
+            mPendingNotificationStates.put(appInfo.uid, packages);
+        }
+        return packages.add(appInfo.packageName);
+    }
+
+    private void removePendingNotificationState(ApplicationInfo appInfo) {
+        Set<String> packages = mPendingNotificationStates.get(appInfo.uid);
+        if (packages != null) {
+            packages.remove(appInfo.packageName);
+        }
+    }
+
+    // Drops the results of every running prefetch, so the pending apps are resolved again.
+    private void cancelPendingNotificationStates() {
+        mPendingNotificationStates.clear();
+        mNotificationStatesGeneration++;
+    }
+
+    private void invalidateNotificationStates() {
+        mNotificationStates.clear();
+        cancelPendingNotificationStates();
+    }
+
     /**
      * Changes the notifications availability of the specified app
      *
@@ -85,6 +309,11 @@ public abstract class BaseNotificationsPreferenceController<T extends Preference
             LOG.w("Error querying notification setting for package");
             return false;
         }
+        Map<String, NotificationState> states = mNotificationStates.get(uid);
+        NotificationState state = states == null ? null : states.get(packageName);
+        if (state != null) {
+            states.put(packageName, new NotificationState(enabled, state.isChangeable()));
+        }
         return true;
     }
 
@@ -19,12 +19,11 @@ package com.android.car.settings.notifications;
 import android.car.drivingstate.CarUxRestrictions;
 import android.content.Context;
 import android.content.pm.ApplicationInfo;
-import android.graphics.drawable.Drawable;
 
 import androidx.annotation.VisibleForTesting;
-import androidx.preference.Preference;
 import androidx.preference.PreferenceCategory;
 
+import com.android.car.settings.applications.AppEntryPreferenceListUpdater;
 import com.android.car.settings.applications.ApplicationDetailsFragment;
 import com.android.car.settings.applications.ApplicationListItemManager;
 import com.android.car.settings.common.FragmentController;
@@ -32,6 +31,8 @@ import com.android.car.ui.preference.CarUiTwoActionSwitchPreference;
 import com.android.settingslib.applications.ApplicationsState;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Controller for of list of preferences that enable / disable showing notifications for an
@@ -42,6 +43,26 @@ public class NotificationsAppListPreferenceController extends
         ApplicationListItemManager.AppListItemListener {
 
     private NotificationsFragment.NotificationSwitchListener mNotificationSwitchListener;
+    private List<ApplicationsState.AppEntry> mApps = Collections.emptyList();
+
+    private final AppEntryPreferenceListUpdater<CarUiTwoActionSwitchPreference> mListUpdater =
+            new AppEntryPreferenceListUpdater<>(
+                    new AppEntryPreferenceListUpdater.PreferenceBinder<
+                            CarUiTwoActionSwitchPreference>() {
+                        @Override
+                        public CarUiTwoActionSwitchPreference createPreference(
+                                ApplicationsState.AppEntry appEntry) {
+                            return NotificationsAppListPreferenceController.this
+                                    .createPreference(appEntry.info);
+                        }
+
+                        @Override
+                        public void bindPreference(CarUiTwoActionSwitchPreference preference,
+                                ApplicationsState.AppEntry appEntry) {
+                            NotificationsAppListPreferenceController.this
+                                    .bindPreference(preference, appEntry);
+                        }
+                    });
 
     public NotificationsAppListPreferenceController(Context context, String preferenceKey,
             FragmentController fragmentController, CarUxRestrictions uxRestrictions) {
@@ -60,32 +81,71 @@ public class NotificationsAppListPreferenceController extends
 
     @Override
     public void onDataLoaded(ArrayList<ApplicationsState.AppEntry> apps) {
-        getPreference().removeAll();
+        List<ApplicationsState.AppEntry> appsCopy = new ArrayList<>(apps);
+        mApps = appsCopy;
+        mListUpdater.update(getPreference(), appsCopy);
+        prefetchNotificationStates(appsCopy);
+    }
+
+    @Override
+    protected void onNotificationStatesInvalidated() {
+        prefetchNotificationStates(mApps);
+    }
+
+    /**
+     * Resolves the notification state of {@code apps} off the main thread, and fills in the
+     * switch of each displayed row as its state arrives.
+     */
+    private void prefetchNotificationStates(List<ApplicationsState.AppEntry> apps) {
+        List<ApplicationInfo> appInfos = new ArrayList<>(apps.size());
         for (ApplicationsState.AppEntry appEntry : apps) {
-            getPreference().addPreference(
-                    createPreference(appEntry.label, appEntry.icon, appEntry.info));
+            appInfos.add(appEntry.info);
         }
+        prefetchNotificationStates(appInfos, resolved -> {
+            for (ApplicationInfo appInfo : resolved) {
+                CarUiTwoActionSwitchPreference preference =
+                        mListUpdater.getPreference(appInfo.packageName);
+                if (preference != null) {
+                    bindNotificationState(preference, appInfo);
+                }
+            }
+        });
     }
 
-    private Preference createPreference(String title, Drawable icon, ApplicationInfo appInfo) {
+    private CarUiTwoActionSwitchPreference createPreference(ApplicationInfo appInfo) {
         String packageName = appInfo.packageName;
         int uid = appInfo.uid;
 
         CarUiTwoActionSwitchPreference preference = createPreference();
-        preference.setTitle(title);
-        preference.setIcon(icon);
         preference.setKey(packageName);
         preference.setOnPreferenceClickListener(p -> onPrimaryActionClick(packageName));
 
         preference.setOnSecondaryActionClickListener((newValue) -> {
             onSecondaryActionClick(packageName, uid, newValue);
         });
-        preference.setSecondaryActionChecked(areNotificationsEnabled(packageName, uid));
-        preference.setSecondaryActionEnabled(areNotificationsChangeable(appInfo));
-
         return preference;
     }
 
+    private void bindPreference(CarUiTwoActionSwitchPreference preference,
+            ApplicationsState.AppEntry appEntry) {
+        preference.setTitle(appEntry.label);
+        preference.setIcon(appEntry.icon);
+        bindNotificationState(preference, appEntry.info);
+    }
+
+    private void bindNotificationState(CarUiTwoActionSwitchPreference preference,
+            ApplicationInfo appInfo) {
+        NotificationState state = getCachedNotificationState(appInfo);
+        if (state == null) {
+            // Hidden until the state is resolved, it is bound again then.
+            preference.setSecondaryActionVisible(false);
+            return;
+        }
+        preference.setSecondaryActionChecked(state.isEnabled());
+        preference.setSecondaryActionEnabled(state.isChangeable());
+        preference.setSecondaryActionVisible(true);
+    }
+
     @VisibleForTesting
     CarUiTwoActionSwitchPreference createPreference() {
         return new CarUiTwoActionSwitchPreference(getContext());
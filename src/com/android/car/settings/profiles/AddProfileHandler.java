@@ -35,6 +35,7 @@ import androidx.annotation.VisibleForTesting;
 import androidx.preference.Preference;
 
 import com.android.car.settings.R;
+import com.android.car.settings.common.CarServiceHub;
 import com.android.car.settings.common.ConfirmationDialogFragment;
 import com.android.car.settings.common.ErrorDialog;
 import com.android.car.settings.common.FragmentController;
@@ -62,9 +63,13 @@ public class AddProfileHandler implements AddNewProfileTask.AddNewProfileListene
     private final Context mContext;
     private final FragmentController mFragmentController;
     private final PreferenceController mPreferenceController;
-    private final Car mCar;
+    private final CarServiceHub mCarServiceHub;
     private CarUserManager mCarUserManager;
 
+    private final Car.CarServiceLifecycleListener mCarServiceLifecycleListener = (car, ready) ->
+            mCarUserManager = ready ? (CarUserManager) car.getCarManager(Car.CAR_USER_SERVICE)
+                    : null;
+
     @VisibleForTesting
     ConfirmationDialogFragment.ConfirmListener mConfirmCreateNewProfileListener;
 
@@ -73,8 +78,8 @@ public class AddProfileHandler implements AddNewProfileTask.AddNewProfileListene
         mContext = context;
         mFragmentController = fragmentController;
         mPreferenceController = preferenceController;
-        mCar = Car.createCar(context);
-        mCarUserManager = (CarUserManager) mCar.getCarManager(Car.CAR_USER_SERVICE);
+        mCarServiceHub = CarServiceHub.getInstance(context);
+        mCarServiceHub.acquire(mCarServiceLifecycleListener);
 
         mConfirmCreateNewProfileListener = arguments -> {
             mAddNewProfileTask = new AddNewProfileTask(mContext,
@@ -113,9 +118,7 @@ public class AddProfileHandler implements AddNewProfileTask.AddNewProfileListene
         if (mAddNewProfileTask != null) {
             mAddNewProfileTask.cancel(/* mayInterruptIfRunning= */ false);
         }
-        if (mCar != null) {
-            mCar.disconnect();
-        }
+        mCarServiceHub.release(mCarServiceLifecycleListener);
     }
 
     /**
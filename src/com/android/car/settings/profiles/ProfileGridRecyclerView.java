@@ -50,6 +50,7 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.android.car.admin.ui.UserAvatarView;
 import com.android.car.settings.R;
 import com.android.car.settings.common.BaseFragment;
+import com.android.car.settings.common.CarServiceHub;
 import com.android.car.settings.common.ConfirmationDialogFragment;
 import com.android.car.settings.common.ErrorDialog;
 import com.android.internal.util.UserIcons;
@@ -78,9 +79,13 @@ public class ProfileGridRecyclerView extends RecyclerView {
     private AddNewProfileTask mAddNewProfileTask;
     private boolean mEnableAddProfileButton;
     private ProfileIconProvider mProfileIconProvider;
-    private Car mCar;
+    private CarServiceHub mCarServiceHub;
     private CarUserManager mCarUserManager;
 
+    private final Car.CarServiceLifecycleListener mCarServiceLifecycleListener = (car, ready) ->
+            mCarUserManager = ready ? (CarUserManager) car.getCarManager(Car.CAR_USER_SERVICE)
+                    : null;
+
     private final BroadcastReceiver mProfileUpdateReceiver = new BroadcastReceiver() {
         @Override
         public void onReceive(Context context, Intent intent) {
@@ -94,8 +99,8 @@ public class ProfileGridRecyclerView extends RecyclerView {
         mUserManager = UserManager.get(mContext);
         mProfileIconProvider = new ProfileIconProvider();
         mEnableAddProfileButton = true;
-        mCar = Car.createCar(mContext);
-        mCarUserManager = (CarUserManager) mCar.getCarManager(Car.CAR_USER_SERVICE);
+        mCarServiceHub = CarServiceHub.getInstance(mContext);
+        mCarServiceHub.acquire(mCarServiceLifecycleListener);
 
         addItemDecoration(new ItemSpacingDecoration(context.getResources().getDimensionPixelSize(
                 R.dimen.profile_switcher_vertical_spacing_between_profiles)));
@@ -120,9 +125,7 @@ public class ProfileGridRecyclerView extends RecyclerView {
         if (mAddNewProfileTask != null) {
             mAddNewProfileTask.cancel(/* mayInterruptIfRunning= */ false);
         }
-        if (mCar != null) {
-            mCar.disconnect();
-        }
+        mCarServiceHub.release(mCarServiceLifecycleListener);
     }
 
     /**
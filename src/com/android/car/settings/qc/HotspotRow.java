@@ -18,7 +18,6 @@ package com.android.car.settings.qc;
 
 import static com.android.car.qc.QCItem.QC_ACTION_TOGGLE_STATE;
 import static com.android.car.qc.QCItem.QC_TYPE_ACTION_SWITCH;
-import static com.android.car.settings.qc.QCUtils.getActionDisabledDialogIntent;
 import static com.android.car.settings.qc.QCUtils.getAvailabilityStatusForZoneFromXml;
 import static com.android.car.settings.qc.SettingsQCRegistry.HOTSPOT_ROW_URI;
 
@@ -65,7 +64,7 @@ public class HotspotRow extends SettingsQCItem {
         if (isHiddenForZone()) {
             return null;
         }
-        Icon icon = Icon.createWithResource(getContext(), R.drawable.ic_qc_hotspot);
+        Icon icon = getCachedIcon(R.drawable.ic_qc_hotspot);
 
         String userRestriction = UserManager.DISALLOW_CONFIG_TETHERING;
         boolean hasDpmRestrictions = EnterpriseUtils.hasUserRestrictionByDpm(getContext(),
@@ -74,9 +73,7 @@ public class HotspotRow extends SettingsQCItem {
                 userRestriction);
 
         boolean isReadOnlyForZone = isReadOnlyForZone();
-        PendingIntent disabledPendingIntent = isReadOnlyForZone
-                ? QCUtils.getDisabledToastBroadcastIntent(getContext())
-                : getActionDisabledDialogIntent(getContext(), userRestriction);
+        PendingIntent disabledPendingIntent = getDisabledClickAction(userRestriction);
 
         QCActionItem hotpotToggle = new QCActionItem.Builder(QC_TYPE_ACTION_SWITCH)
                 .setChecked(HotspotQCUtils.isHotspotEnabled(mWifiManager))
@@ -18,7 +18,6 @@ package com.android.car.settings.qc;
 
 import static com.android.car.qc.QCItem.QC_ACTION_TOGGLE_STATE;
 import static com.android.car.qc.QCItem.QC_TYPE_ACTION_SWITCH;
-import static com.android.car.settings.qc.QCUtils.getActionDisabledDialogIntent;
 import static com.android.car.settings.qc.QCUtils.getAvailabilityStatusForZoneFromXml;
 import static com.android.car.settings.qc.SettingsQCRegistry.MOBILE_DATA_ROW_URI;
 
@@ -70,9 +69,7 @@ public class MobileDataRow extends SettingsQCItem {
                 userRestriction);
 
         boolean isReadOnlyForZone = isReadOnlyForZone();
-        PendingIntent disabledPendingIntent = isReadOnlyForZone
-                ? QCUtils.getDisabledToastBroadcastIntent(getContext())
-                : getActionDisabledDialogIntent(getContext(), userRestriction);
+        PendingIntent disabledPendingIntent = getDisabledClickAction(userRestriction);
 
         QCActionItem dataToggle = new QCActionItem.Builder(QC_TYPE_ACTION_SWITCH)
                 .setChecked(dataEnabled)
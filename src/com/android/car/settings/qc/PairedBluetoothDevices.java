@@ -21,7 +21,6 @@ import static android.os.UserManager.DISALLOW_CONFIG_BLUETOOTH;
 
 import static com.android.car.qc.QCItem.QC_ACTION_TOGGLE_STATE;
 import static com.android.car.qc.QCItem.QC_TYPE_ACTION_TOGGLE;
-import static com.android.car.settings.qc.QCUtils.getActionDisabledDialogIntent;
 import static com.android.car.settings.qc.QCUtils.getAvailabilityStatusForZoneFromXml;
 
 import android.app.PendingIntent;
@@ -36,6 +35,8 @@ import android.graphics.drawable.Icon;
 import android.net.Uri;
 import android.os.Bundle;
 import android.os.SystemProperties;
+import android.util.Pair;
+import android.util.SparseArray;
 
 import androidx.annotation.DrawableRes;
 import androidx.annotation.VisibleForTesting;
@@ -78,6 +79,8 @@ public class PairedBluetoothDevices extends SettingsQCItem {
     private final LocalBluetoothManager mBluetoothManager;
     private final int mDeviceLimit;
     private final boolean mShowDevicesWithoutNames;
+    // Toggle actions by request code, along with the device and button they were created for.
+    private final SparseArray<Pair<String, PendingIntent>> mToggleActions = new SparseArray<>();
 
     public PairedBluetoothDevices(Context context) {
         super(context);
@@ -102,8 +105,7 @@ public class PairedBluetoothDevices extends SettingsQCItem {
 
         if (!BluetoothAdapter.getDefaultAdapter().isEnabled()) {
             listBuilder.addRow(new QCRow.Builder()
-                    .setIcon(Icon.createWithResource(getContext(),
-                            R.drawable.ic_settings_bluetooth_disabled))
+                    .setIcon(getCachedIcon(R.drawable.ic_settings_bluetooth_disabled))
                     .setTitle(getContext().getString(R.string.qc_bluetooth_off_devices_info))
                     .build());
             return listBuilder.build();
@@ -126,8 +128,7 @@ public class PairedBluetoothDevices extends SettingsQCItem {
 
         if (filteredDevices.isEmpty()) {
             listBuilder.addRow(new QCRow.Builder()
-                    .setIcon(Icon.createWithResource(getContext(),
-                            R.drawable.ic_add))
+                    .setIcon(getCachedIcon(R.drawable.ic_add))
                     .setTitle(getContext().getString(R.string.qc_bluetooth_on_no_devices_info))
                     .build());
             return listBuilder.build();
@@ -142,7 +143,7 @@ public class PairedBluetoothDevices extends SettingsQCItem {
                 listBuilder.addRow(new QCRow.Builder()
                         .setTitle(cachedDevice.getName())
                         .setSubtitle(cachedDevice.getCarConnectionSummary(/* shortSummary= */ true))
-                        .setIcon(Icon.createWithResource(getContext(), getIconRes(cachedDevice)))
+                        .setIcon(getCachedIcon(getIconRes(cachedDevice)))
                         .addEndItem(createBluetoothButton(cachedDevice, i++))
                         .addEndItem(createPhoneButton(cachedDevice, i++))
                         .addEndItem(createMediaButton(cachedDevice, i++))
@@ -255,7 +256,7 @@ public class PairedBluetoothDevices extends SettingsQCItem {
 
     private QCActionItem createBluetoothButton(CachedBluetoothDevice device, int requestCode) {
         return createBluetoothDeviceToggle(device, requestCode, BLUETOOTH_BUTTON,
-                Icon.createWithResource(getContext(), R.drawable.ic_qc_bluetooth),
+                getCachedIcon(R.drawable.ic_qc_bluetooth),
                 getContext().getString(
                         R.string.bluetooth_bonded_bluetooth_toggle_content_description),
                 true, !device.isBusy(), false, device.isConnected());
@@ -267,7 +268,7 @@ public class PairedBluetoothDevices extends SettingsQCItem {
         int iconRes = phoneState.mIsAvailable ? R.drawable.ic_qc_bluetooth_phone
                 : R.drawable.ic_qc_bluetooth_phone_unavailable;
         return createBluetoothDeviceToggle(device, requestCode, PHONE_BUTTON,
-                Icon.createWithResource(getContext(), iconRes),
+                getCachedIcon(iconRes),
                 getContext().getString(R.string.bluetooth_bonded_phone_toggle_content_description),
                 phoneState.mIsAvailable, phoneState.mIsEnabled,
                 phoneState.mIsClickableWhileDisabled, phoneState.mIsChecked);
@@ -279,7 +280,7 @@ public class PairedBluetoothDevices extends SettingsQCItem {
         int iconRes = mediaState.mIsAvailable ? R.drawable.ic_qc_bluetooth_media
                 : R.drawable.ic_qc_bluetooth_media_unavailable;
         return createBluetoothDeviceToggle(device, requestCode, MEDIA_BUTTON,
-                Icon.createWithResource(getContext(), iconRes),
+                getCachedIcon(iconRes),
                 getContext().getString(R.string.bluetooth_bonded_media_toggle_content_description),
                 mediaState.mIsAvailable, mediaState.mIsEnabled,
                 mediaState.mIsClickableWhileDisabled, mediaState.mIsChecked);
@@ -289,15 +290,10 @@ public class PairedBluetoothDevices extends SettingsQCItem {
             String buttonType, Icon icon, String contentDescription, boolean available,
             boolean enabled,
             boolean clickableWhileDisabled, boolean checked) {
-        Bundle extras = new Bundle();
-        extras.putString(EXTRA_BUTTON_TYPE, buttonType);
-        extras.putString(EXTRA_DEVICE_KEY, device.getAddress());
-        PendingIntent action = getBroadcastIntent(extras, requestCode);
+        PendingIntent action = getToggleAction(device, requestCode, buttonType);
 
         boolean isReadOnlyForZone = isReadOnlyForZone();
-        PendingIntent disabledPendingIntent = isReadOnlyForZone
-                ? QCUtils.getDisabledToastBroadcastIntent(getContext())
-                : getActionDisabledDialogIntent(getContext(), DISALLOW_CONFIG_BLUETOOTH);
+        PendingIntent disabledPendingIntent = getDisabledClickAction(DISALLOW_CONFIG_BLUETOOTH);
 
         return new QCActionItem.Builder(QC_TYPE_ACTION_TOGGLE)
                 .setAvailable(available)
@@ -311,6 +307,28 @@ public class PairedBluetoothDevices extends SettingsQCItem {
                 .build();
     }
 
+    /**
+     * Returns the toggle action for {@code buttonType} of {@code device}. The broadcast intents are
+     * updated in place for a request code, so a cached intent is only reused if it was created for
+     * the same device and button.
+     */
+    private PendingIntent getToggleAction(CachedBluetoothDevice device, int requestCode,
+            String buttonType) {
+        String key = device.getAddress() + "/" + buttonType;
+        synchronized (mToggleActions) {
+            Pair<String, PendingIntent> cached = mToggleActions.get(requestCode);
+            if (cached != null && cached.first.equals(key)) {
+                return cached.second;
+            }
+            Bundle extras = new Bundle();
+            extras.putString(EXTRA_BUTTON_TYPE, buttonType);
+            extras.putString(EXTRA_DEVICE_KEY, device.getAddress());
+            PendingIntent action = getBroadcastIntent(extras, requestCode);
+            mToggleActions.put(requestCode, new Pair<>(key, action));
+            return action;
+        }
+    }
+
     private LocalBluetoothProfile getProfile(CachedBluetoothDevice device, int profileId) {
         for (LocalBluetoothProfile profile : device.getProfiles()) {
             if (profile.getProfileId() == profileId) {
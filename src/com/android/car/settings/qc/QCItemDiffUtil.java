@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2023 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.car.settings.qc;
+
+import android.graphics.Bitmap;
+import android.graphics.drawable.Icon;
+
+import androidx.annotation.Nullable;
+
+import com.android.car.qc.QCActionItem;
+import com.android.car.qc.QCItem;
+import com.android.car.qc.QCList;
+import com.android.car.qc.QCRow;
+import com.android.car.qc.QCSlider;
+import com.android.car.qc.QCTile;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Structural comparison of {@link QCItem} trees, used to detect whether a newly built item
+ * differs from the one last handed out to the remote view.
+ */
+final class QCItemDiffUtil {
+    private QCItemDiffUtil() {
+    }
+
+    /**
+     * Returns {@code true} if {@code first} and {@code second} would render identically and
+     * trigger the same actions. Unknown item types are never considered equal.
+     */
+    static boolean isSameContent(@Nullable QCItem first, @Nullable QCItem second) {
+        if (first == second) {
+            return true;
+        }
+        if (first == null || second == null || first.getClass() != second.getClass()) {
+            return false;
+        }
+        if (!Objects.equals(first.getType(), second.getType())
+                || first.isEnabled() != second.isEnabled()
+                || first.isClickableWhileDisabled() != second.isClickableWhileDisabled()
+                || !Objects.equals(first.getPrimaryAction(), second.getPrimaryAction())
+                || !Objects.equals(first.getDisabledClickAction(),
+                        second.getDisabledClickAction())) {
+            return false;
+        }
+        if (first instanceof QCList) {
+            return isSameItems(((QCList) first).getRows(), ((QCList) second).getRows());
+        }
+        if (first instanceof QCRow) {
+            QCRow firstRow = (QCRow) first;
+            QCRow secondRow = (QCRow) second;
+            return Objects.equals(firstRow.getTitle(), secondRow.getTitle())
+                    && Objects.equals(firstRow.getSubtitle(), secondRow.getSubtitle())
+                    && isSameIcon(firstRow.getStartIcon(), secondRow.getStartIcon())
+                    && isSameItems(firstRow.getStartItems(), secondRow.getStartItems())
+                    && isSameItems(firstRow.getEndItems(), secondRow.getEndItems())
+                    && isSameContent(firstRow.getSlider(), secondRow.getSlider());
+        }
+        if (first instanceof QCActionItem) {
+            QCActionItem firstAction = (QCActionItem) first;
+            QCActionItem secondAction = (QCActionItem) second;
+            return firstAction.isChecked() == secondAction.isChecked()
+                    && firstAction.isAvailable() == secondAction.isAvailable()
+                    && isSameIcon(firstAction.getIcon(), secondAction.getIcon())
+                    && Objects.equals(firstAction.getContentDescription(),
+                            secondAction.getContentDescription());
+        }
+        if (first instanceof QCTile) {
+            QCTile firstTile = (QCTile) first;
+            QCTile secondTile = (QCTile) second;
+            return firstTile.isChecked() == secondTile.isChecked()
+                    && firstTile.isAvailable() == secondTile.isAvailable()
+                    && Objects.equals(firstTile.getSubtitle(), secondTile.getSubtitle())
+                    && isSameIcon(firstTile.getIcon(), secondTile.getIcon());
+        }
+        if (first instanceof QCSlider) {
+            QCSlider firstSlider = (QCSlider) first;
+            QCSlider secondSlider = (QCSlider) second;
+            return firstSlider.getMin() == secondSlider.getMin()
+                    && firstSlider.getMax() == secondSlider.getMax()
+                    && firstSlider.getValue() == secondSlider.getValue();
+        }
+        return false;
+    }
+
+    private static boolean isSameItems(@Nullable List<? extends QCItem> first,
+            @Nullable List<? extends QCItem> second) {
+        if (first == second) {
+            return true;
+        }
+        if (first == null || second == null || first.size() != second.size()) {
+            return false;
+        }
+        for (int i = 0; i < first.size(); i++) {
+            if (!isSameContent(first.get(i), second.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isSameIcon(@Nullable Icon first, @Nullable Icon second) {
+        if (first == second) {
+            return true;
+        }
+        if (first == null || second == null || first.getType() != second.getType()) {
+            return false;
+        }
+        if (first.getType() == Icon.TYPE_BITMAP || first.getType() == Icon.TYPE_ADAPTIVE_BITMAP) {
+            // Bitmap icons are regenerated on each build (e.g. the signal strength icon), so
+            // compare their pixels rather than their identity.
+            Bitmap firstBitmap = first.getBitmap();
+            Bitmap secondBitmap = second.getBitmap();
+            return firstBitmap == secondBitmap
+                    || (firstBitmap != null && firstBitmap.sameAs(secondBitmap));
+        }
+        return first.sameAs(second);
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2023 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.car.settings.qc;
+
+/**
+ * Minimum interval between two change notifications of a Quick Control item.
+ *
+ * <p>A shorter interval applies while the user is interacting with the item, so that controls
+ * such as sliders reflect the new value quickly, and the regular interval applies otherwise.
+ */
+public final class QCUpdateThrottlePolicy {
+
+    /** Policy for items without a specific policy. */
+    public static final QCUpdateThrottlePolicy DEFAULT = new QCUpdateThrottlePolicy(
+            /* interactiveIntervalMs= */ 300L, /* idleIntervalMs= */ 300L,
+            /* interactionWindowMs= */ 0L);
+
+    /** Policy for sliders, which need fast feedback while they are being dragged. */
+    public static final QCUpdateThrottlePolicy SLIDER = new QCUpdateThrottlePolicy(
+            /* interactiveIntervalMs= */ 50L, /* idleIntervalMs= */ 300L,
+            /* interactionWindowMs= */ 2000L);
+
+    /** Policy for lists, whose content rarely changes and is expensive to rebind. */
+    public static final QCUpdateThrottlePolicy LIST = new QCUpdateThrottlePolicy(
+            /* interactiveIntervalMs= */ 300L, /* idleIntervalMs= */ 1000L,
+            /* interactionWindowMs= */ 2000L);
+
+    private final long mInteractiveIntervalMs;
+    private final long mIdleIntervalMs;
+    private final long mInteractionWindowMs;
+
+    public QCUpdateThrottlePolicy(long interactiveIntervalMs, long idleIntervalMs,
+            long interactionWindowMs) {
+        mInteractiveIntervalMs = interactiveIntervalMs;
+        mIdleIntervalMs = idleIntervalMs;
+        mInteractionWindowMs = interactionWindowMs;
+    }
+
+    /**
+     * Returns the minimum interval between two notifications at {@code now}, given the time of
+     * the last user interaction with the item, or {@code 0} if there was none. Both times use the
+     * {@link android.os.SystemClock#uptimeMillis()} time base.
+     */
+    public long getUpdateInterval(long lastInteractionTime, long now) {
+        if (lastInteractionTime > 0L && now - lastInteractionTime <= mInteractionWindowMs) {
+            return mInteractiveIntervalMs;
+        }
+        return mIdleIntervalMs;
+    }
+}
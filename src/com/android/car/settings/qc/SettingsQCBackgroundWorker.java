@@ -29,15 +29,18 @@ import android.os.Message;
 import android.os.Process;
 import android.os.SystemClock;
 import android.os.UserManager;
-import android.util.ArrayMap;
 
+import androidx.annotation.GuardedBy;
+import androidx.annotation.VisibleForTesting;
+
+import com.android.car.qc.QCItem;
 import com.android.car.settings.common.Logger;
 
 import java.io.Closeable;
 import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
-import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Base background worker class to allow for CarSetting Quick Control items to work with data that
@@ -48,17 +51,36 @@ public abstract class SettingsQCBackgroundWorker<E extends SettingsQCItem> imple
 
     private static final Logger LOG = new Logger(SettingsQCBackgroundWorker.class);
 
-    private static final long QC_UPDATE_THROTTLE_INTERVAL = 300L;
-
-    private static final Map<Uri, SettingsQCBackgroundWorker> LIVE_WORKERS = new ArrayMap<>();
+    // Accessed from the main thread, the provider binder threads and the notify handler thread.
+    private static final Map<Uri, SettingsQCBackgroundWorker> LIVE_WORKERS =
+            new ConcurrentHashMap<>();
 
     private final Context mContext;
     private final Uri mUri;
-    private SettingsQCItem mQCItem;
+    private final QCUpdateThrottlePolicy mThrottlePolicy;
+    private volatile SettingsQCItem mQCItem;
+    private volatile long mLastInteractionTime;
+    private final AtomicInteger mSentUpdateCount = new AtomicInteger();
+    private final AtomicInteger mCoalescedUpdateCount = new AtomicInteger();
+
+    // The QCItem last returned to the remote view, used to skip updates with no visible change.
+    private final Object mPublishedLock = new Object();
+    @GuardedBy("mPublishedLock")
+    private QCItem mPublishedQCItem;
+    @GuardedBy("mPublishedLock")
+    private boolean mHasPublishedQCItem;
+    // The QCItem built by hasVisibleChange() for the pending notification, reused by the next
+    // bind so that each change builds the item only once.
+    @GuardedBy("mPublishedLock")
+    private QCItem mPendingQCItem;
+    @GuardedBy("mPublishedLock")
+    private boolean mHasPendingQCItem;
+    private volatile int mSkippedUpdateCount;
 
     protected SettingsQCBackgroundWorker(Context context, Uri uri) {
         mContext = context;
         mUri = uri;
+        mThrottlePolicy = SettingsQCRegistry.getThrottlePolicy(uri);
     }
 
     protected Uri getUri() {
@@ -77,6 +99,92 @@ public abstract class SettingsQCBackgroundWorker<E extends SettingsQCItem> imple
         mQCItem = item;
     }
 
+    /**
+     * Returns the {@link QCItem} to bind for {@code item} and records it as the one last bound by
+     * the remote view. Reuses the item built when the pending change was detected, if no other
+     * change has been notified since.
+     */
+    @Nullable
+    QCItem bindQCItem(SettingsQCItem item) {
+        synchronized (mPublishedLock) {
+            if (mHasPendingQCItem) {
+                mPublishedQCItem = mPendingQCItem;
+                mHasPublishedQCItem = true;
+                clearPendingQCItemLocked();
+                return mPublishedQCItem;
+            }
+        }
+        QCItem qcItem = item.getQCItem();
+        synchronized (mPublishedLock) {
+            mPublishedQCItem = qcItem;
+            mHasPublishedQCItem = true;
+        }
+        return qcItem;
+    }
+
+    /**
+     * Returns whether the {@link QCItem} built from the current state differs from the one last
+     * bound by the remote view. Always returns {@code true} if nothing has been bound yet.
+     */
+    @VisibleForTesting
+    boolean hasVisibleChange() {
+        SettingsQCItem qcItem = mQCItem;
+        QCItem published;
+        synchronized (mPublishedLock) {
+            if (!mHasPublishedQCItem || qcItem == null) {
+                return true;
+            }
+            published = mPublishedQCItem;
+        }
+        QCItem current = qcItem.getQCItem();
+        if (QCItemDiffUtil.isSameContent(published, current)) {
+            return false;
+        }
+        synchronized (mPublishedLock) {
+            mPendingQCItem = current;
+            mHasPendingQCItem = true;
+        }
+        return true;
+    }
+
+    @GuardedBy("mPublishedLock")
+    private void clearPendingQCItemLocked() {
+        mPendingQCItem = null;
+        mHasPendingQCItem = false;
+    }
+
+    /** Returns the number of updates that were skipped because nothing visible changed. */
+    int getSkippedUpdateCount() {
+        return mSkippedUpdateCount;
+    }
+
+    /** Returns the number of change notifications sent for this item. */
+    int getSentUpdateCount() {
+        return mSentUpdateCount.get();
+    }
+
+    /**
+     * Returns the number of updates that did not result in a change notification, either
+     * because they were coalesced with a pending one or because nothing visible changed.
+     */
+    int getSuppressedUpdateCount() {
+        return mCoalescedUpdateCount.get() + mSkippedUpdateCount;
+    }
+
+    /**
+     * Records that the user interacted with the item, which shortens the update interval of
+     * items whose {@link QCUpdateThrottlePolicy} favors fast feedback.
+     */
+    void onUserInteraction() {
+        mLastInteractionTime = SystemClock.uptimeMillis();
+    }
+
+    /** Returns the minimum interval between two change notifications at {@code now}. */
+    @VisibleForTesting
+    long getUpdateInterval(long now) {
+        return mThrottlePolicy.getUpdateInterval(mLastInteractionTime, now);
+    }
+
     /**
      * Returns the singleton instance of {@link SettingsQCBackgroundWorker} for specified
      * {@link Uri} if exists
@@ -91,13 +199,9 @@ public abstract class SettingsQCBackgroundWorker<E extends SettingsQCItem> imple
      * SettingsQCItem}
      */
     static SettingsQCBackgroundWorker getInstance(Context context, SettingsQCItem qcItem, Uri uri) {
-        SettingsQCBackgroundWorker worker = getInstance(uri);
-        if (worker == null) {
-            Class<? extends SettingsQCBackgroundWorker> workerClass =
-                    qcItem.getBackgroundWorkerClass();
-            worker = createInstance(context.getApplicationContext(), uri, workerClass);
-            LIVE_WORKERS.put(uri, worker);
-        }
+        SettingsQCBackgroundWorker worker = LIVE_WORKERS.computeIfAbsent(uri,
+                key -> createInstance(context.getApplicationContext(), key,
+                        qcItem.getBackgroundWorkerClass()));
         worker.setQCItem(qcItem);
         return worker;
     }
@@ -105,35 +209,30 @@ public abstract class SettingsQCBackgroundWorker<E extends SettingsQCItem> imple
     private static SettingsQCBackgroundWorker createInstance(Context context, Uri uri,
             Class<? extends SettingsQCBackgroundWorker> clazz) {
         LOG.d("create instance: " + clazz);
-        try {
-            return clazz.getConstructor(Context.class, Uri.class).newInstance(context, uri);
-        } catch (NoSuchMethodException | IllegalAccessException | InstantiationException
-                | InvocationTargetException e) {
-            throw new IllegalStateException(
-                    "Invalid qc background worker: " + clazz, e);
+        SettingsQCRegistry.QCWorkerFactory factory = SettingsQCRegistry.getWorkerFactory(clazz);
+        if (factory == null) {
+            throw new IllegalStateException("Unregistered qc background worker: " + clazz);
         }
+        return factory.create(context, uri);
     }
 
     static void shutdown() {
-        for (SettingsQCBackgroundWorker worker : LIVE_WORKERS.values()) {
-            try {
-                worker.close();
-            } catch (IOException e) {
-                LOG.w("Shutting down worker failed", e);
-            }
+        for (Uri uri : LIVE_WORKERS.keySet()) {
+            shutdown(uri);
         }
-        LIVE_WORKERS.clear();
     }
 
     static void shutdown(Uri uri) {
-        SettingsQCBackgroundWorker worker = LIVE_WORKERS.get(uri);
+        SettingsQCBackgroundWorker worker = LIVE_WORKERS.remove(uri);
         if (worker != null) {
+            LOG.d("Shutting down worker " + uri + ", sent updates: "
+                    + worker.getSentUpdateCount() + ", suppressed updates: "
+                    + worker.getSuppressedUpdateCount());
             try {
                 worker.close();
             } catch (IOException e) {
                 LOG.w("Shutting down worker failed", e);
             }
-            LIVE_WORKERS.remove(uri);
         }
     }
 
@@ -155,6 +254,10 @@ public abstract class SettingsQCBackgroundWorker<E extends SettingsQCItem> imple
      * Notify that data was updated and attempt to sync changes to the QCItem.
      */
     protected final void notifyQCItemChange() {
+        // The state changed again, so a previously built item may be stale.
+        synchronized (mPublishedLock) {
+            clearPendingQCItemLocked();
+        }
         NotifyQCItemChangeHandler.getInstance().updateQCItem(this);
     }
 
@@ -165,16 +268,18 @@ public abstract class SettingsQCBackgroundWorker<E extends SettingsQCItem> imple
     void unsubscribe() {
         onQCItemUnsubscribe();
         NotifyQCItemChangeHandler.getInstance().cancelQCItemUpdate(this);
+        synchronized (mPublishedLock) {
+            clearPendingQCItemLocked();
+        }
     }
 
     private static class NotifyQCItemChangeHandler extends Handler {
 
         private static final int MSG_UPDATE_QCITEM = 1000;
         private static NotifyQCItemChangeHandler sHandler;
-        private final Map<Uri, Long> mLastUpdateTimeLookup = Collections.synchronizedMap(
-                new ArrayMap<>());
+        private final Map<Uri, Long> mLastUpdateTimeLookup = new ConcurrentHashMap<>();
 
-        private static NotifyQCItemChangeHandler getInstance() {
+        private static synchronized NotifyQCItemChangeHandler getInstance() {
             if (sHandler == null) {
                 HandlerThread workerThread = new HandlerThread("NotifyQCItemChangeHandler",
                         Process.THREAD_PRIORITY_BACKGROUND);
@@ -198,6 +303,13 @@ public abstract class SettingsQCBackgroundWorker<E extends SettingsQCItem> imple
             Uri uri = worker.getUri();
             Context context = worker.getContext();
             mLastUpdateTimeLookup.put(uri, SystemClock.uptimeMillis());
+            if (!worker.hasVisibleChange()) {
+                // Rebinding would produce the same item, avoid a round trip to the remote view.
+                worker.mSkippedUpdateCount++;
+                LOG.d("Skipping update with no visible change: " + uri);
+                return;
+            }
+            worker.mSentUpdateCount.incrementAndGet();
             if (UserManager.isVisibleBackgroundUsersEnabled()
                     && UserManager.get(context).isUserVisible()) {
                 context.getContentResolver().notifyChange(uri, /* observer= */ null,
@@ -207,26 +319,28 @@ public abstract class SettingsQCBackgroundWorker<E extends SettingsQCItem> imple
             }
         }
 
-        private void updateQCItem(SettingsQCBackgroundWorker worker) {
+        private synchronized void updateQCItem(SettingsQCBackgroundWorker worker) {
             if (hasMessages(MSG_UPDATE_QCITEM, worker)) {
+                worker.mCoalescedUpdateCount.incrementAndGet();
                 return;
             }
 
             Message message = obtainMessage(MSG_UPDATE_QCITEM, worker);
+            long now = SystemClock.uptimeMillis();
+            long interval = worker.getUpdateInterval(now);
             long lastUpdateTime = mLastUpdateTimeLookup.getOrDefault(worker.getUri(), 0L);
             if (lastUpdateTime == 0L) {
                 // Postpone the first update triggering by onQCItemSubscribe() to avoid being too
                 // close to the first QCItem bind.
-                sendMessageDelayed(message, QC_UPDATE_THROTTLE_INTERVAL);
-            } else if (SystemClock.uptimeMillis() - lastUpdateTime
-                    > QC_UPDATE_THROTTLE_INTERVAL) {
+                sendMessageDelayed(message, interval);
+            } else if (now - lastUpdateTime > interval) {
                 sendMessage(message);
             } else {
-                sendMessageAtTime(message, lastUpdateTime + QC_UPDATE_THROTTLE_INTERVAL);
+                sendMessageAtTime(message, lastUpdateTime + interval);
             }
         }
 
-        private void cancelQCItemUpdate(SettingsQCBackgroundWorker worker) {
+        private synchronized void cancelQCItemUpdate(SettingsQCBackgroundWorker worker) {
             removeMessages(MSG_UPDATE_QCITEM, worker);
             mLastUpdateTimeLookup.remove(worker.getUri());
         }
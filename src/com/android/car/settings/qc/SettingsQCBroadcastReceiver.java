@@ -33,14 +33,18 @@ public class SettingsQCBroadcastReceiver extends BroadcastReceiver {
     public void onReceive(Context context, Intent i) {
         String action = i.getAction();
         if (SettingsQCRegistry.isValidAction(action)) {
-            SettingsQCItem qcItem = createQCItemInstance(context,
-                    SettingsQCRegistry.getQCClassByUri(Uri.parse(action)));
+            Uri uri = Uri.parse(action);
+            SettingsQCBackgroundWorker worker = SettingsQCBackgroundWorker.getInstance(uri);
+            if (worker != null) {
+                worker.onUserInteraction();
+            }
+            SettingsQCItem qcItem = createQCItemInstance(context, uri);
             qcItem.onNotifyChange(i);
         }
     }
 
     @VisibleForTesting
-    SettingsQCItem createQCItemInstance(Context context, Class<? extends SettingsQCItem> qcItem) {
-        return SettingsQCItem.createInstance(context, qcItem);
+    SettingsQCItem createQCItemInstance(Context context, Uri uri) {
+        return SettingsQCRegistry.createQCItem(context, uri);
     }
 }
@@ -25,13 +25,18 @@ import static com.android.car.settings.common.PreferenceXmlParser.PREF_AVAILABIL
 import android.app.PendingIntent;
 import android.content.Context;
 import android.content.Intent;
+import android.graphics.drawable.Icon;
 import android.net.Uri;
 import android.os.Bundle;
+import android.util.ArrayMap;
+import android.util.SparseArray;
+
+import androidx.annotation.DrawableRes;
+import androidx.annotation.GuardedBy;
 
 import com.android.car.qc.QCItem;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
+import java.util.Map;
 
 /**
  * Base class for QCItems provided by CarSettings.
@@ -41,6 +46,15 @@ public abstract class SettingsQCItem {
     private final Context mContext;
     private int mAvailabilityStatusForZone;
 
+    // Immutable sub-items reused across builds. Items are built on binder and worker threads.
+    private final Object mLock = new Object();
+    @GuardedBy("mLock")
+    private final SparseArray<Icon> mIcons = new SparseArray<>();
+    @GuardedBy("mLock")
+    private final Map<String, PendingIntent> mDisabledClickActions = new ArrayMap<>();
+    @GuardedBy("mLock")
+    private PendingIntent mBroadcastIntent;
+
     public SettingsQCItem(Context context) {
         mContext = context;
     }
@@ -112,10 +126,53 @@ public abstract class SettingsQCItem {
     }
 
     /**
-     * See {@link #getBroadcastIntent(Bundle, int)}
+     * See {@link #getBroadcastIntent(Bundle, int)}. The intent is created once and reused across
+     * builds of the {@link QCItem}.
      */
     PendingIntent getBroadcastIntent() {
-        return getBroadcastIntent(/* extras= */ null);
+        synchronized (mLock) {
+            if (mBroadcastIntent == null) {
+                mBroadcastIntent = getBroadcastIntent(/* extras= */ null);
+            }
+            return mBroadcastIntent;
+        }
+    }
+
+    /**
+     * Returns an {@link Icon} for {@code resId}. Icons are immutable, so the same instance is
+     * reused across builds of the {@link QCItem}.
+     */
+    Icon getCachedIcon(@DrawableRes int resId) {
+        synchronized (mLock) {
+            Icon icon = mIcons.get(resId);
+            if (icon == null) {
+                icon = Icon.createWithResource(getContext(), resId);
+                mIcons.put(resId, icon);
+            }
+            return icon;
+        }
+    }
+
+    /**
+     * Returns the action triggered when a disabled control is clicked: a toast if the QCItem is
+     * read-only for the current zone, or the action disabled by admin dialog for
+     * {@code userRestriction} otherwise. The intents are reused across builds of the {@link
+     * QCItem}.
+     */
+    PendingIntent getDisabledClickAction(String userRestriction) {
+        boolean isReadOnlyForZone = isReadOnlyForZone();
+        // Restrictions are never empty, so an empty key denotes the zone toast.
+        String key = isReadOnlyForZone ? "" : userRestriction;
+        synchronized (mLock) {
+            PendingIntent intent = mDisabledClickActions.get(key);
+            if (intent == null) {
+                intent = isReadOnlyForZone
+                        ? QCUtils.getDisabledToastBroadcastIntent(getContext())
+                        : QCUtils.getActionDisabledDialogIntent(getContext(), userRestriction);
+                mDisabledClickActions.put(key, intent);
+            }
+            return intent;
+        }
     }
 
     /**
@@ -145,23 +202,6 @@ public abstract class SettingsQCItem {
                 PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_MUTABLE);
     }
 
-    /**
-     * Build an instance of a {@link SettingsQCItem} which has a {@link Context}-only constructor.
-     */
-    static SettingsQCItem createInstance(Context context,
-            Class<? extends SettingsQCItem> qcItem) {
-        try {
-            Constructor<? extends SettingsQCItem> constructor =
-                    qcItem.getConstructor(Context.class);
-            Object[] params = new Object[]{context.getApplicationContext()};
-            return constructor.newInstance(params);
-        } catch (NoSuchMethodException | InstantiationException | IllegalArgumentException
-                | InvocationTargetException | IllegalAccessException e) {
-            throw new IllegalStateException(
-                    "Invalid SettingsQCItem class: " + qcItem, e);
-        }
-    }
-
     /**
      * Settings QCItems which require background work, such as updating lists should implement a
      * {@link SettingsQCBackgroundWorker} and return it here. An example of background work is
@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2023 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.car.settings.qc;
+
+import android.content.Context;
+import android.net.Uri;
+
+import androidx.annotation.VisibleForTesting;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps one {@link SettingsQCItem} instance per {@link Uri}, so that repeated binds of the same
+ * uri do not construct the item again. Safe to use from any thread.
+ */
+class SettingsQCItemPool {
+
+    private final Map<Uri, SettingsQCItem> mItems = new ConcurrentHashMap<>();
+    private final AtomicInteger mCreatedCount = new AtomicInteger();
+
+    /**
+     * Returns the pooled {@link SettingsQCItem} for {@code uri}, creating it if needed.
+     *
+     * @throws IllegalArgumentException if {@code uri} is not registered in {@link
+     * SettingsQCRegistry}.
+     */
+    SettingsQCItem get(Context context, Uri uri) {
+        return mItems.computeIfAbsent(uri, key -> {
+            SettingsQCItem item = SettingsQCRegistry.createQCItem(context, key);
+            if (item == null) {
+                throw new IllegalArgumentException("No QCItem found for uri: " + key);
+            }
+            mCreatedCount.incrementAndGet();
+            return item;
+        });
+    }
+
+    /** Drops the pooled {@link SettingsQCItem} for {@code uri}, if any. */
+    void remove(Uri uri) {
+        mItems.remove(uri);
+    }
+
+    /** Drops all pooled items. */
+    void clear() {
+        mItems.clear();
+    }
+
+    /** Returns the number of items created by this pool. */
+    @VisibleForTesting
+    int getCreatedCount() {
+        return mCreatedCount.get();
+    }
+}
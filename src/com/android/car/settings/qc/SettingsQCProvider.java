@@ -38,6 +38,8 @@ public class SettingsQCProvider extends BaseQCProvider {
     private final Map<Uri, SettingsQCItem> mSubscribedItems = new ArrayMap<>();
     @VisibleForTesting
     final Map<Uri, SettingsQCBackgroundWorker> mSubscribedWorkers = new ArrayMap<>();
+    @VisibleForTesting
+    final SettingsQCItemPool mItemPool = new SettingsQCItemPool();
 
     private Set<String> mAllowListedPackages;
 
@@ -53,7 +55,12 @@ public class SettingsQCProvider extends BaseQCProvider {
     public QCItem onBind(Uri uri) {
         if (SettingsQCRegistry.isValidUri(uri)) {
             Context context = getContext();
-            return getQCItemFromUri(context, uri).getQCItem();
+            SettingsQCItem settingsQCItem = getQCItemFromUri(context, uri);
+            SettingsQCBackgroundWorker worker = SettingsQCBackgroundWorker.getInstance(uri);
+            if (worker != null) {
+                return worker.bindQCItem(settingsQCItem);
+            }
+            return settingsQCItem.getQCItem();
         }
         throw new IllegalArgumentException("Unrecognized uri: " + uri);
     }
@@ -74,11 +81,13 @@ public class SettingsQCProvider extends BaseQCProvider {
 
     @Override
     public void onDestroy(Uri uri) {
+        mItemPool.remove(uri);
         ThreadUtils.postOnMainThread(() -> SettingsQCBackgroundWorker.shutdown(uri));
     }
 
     @Override
     public void shutdown() {
+        mItemPool.clear();
         ThreadUtils.postOnMainThread(SettingsQCBackgroundWorker::shutdown);
     }
 
@@ -86,13 +95,8 @@ public class SettingsQCProvider extends BaseQCProvider {
         if (mSubscribedItems.containsKey(uri)) {
             return mSubscribedItems.get(uri);
         }
-        Uri newUri = SettingsQCRegistry.removeParameterFromUri(uri);
-        Class clazz = SettingsQCRegistry.getQCClassByUri(newUri);
-        if (clazz == null) {
-            throw new IllegalArgumentException("No QCItem found for uri: " + uri);
-        }
-
-        return SettingsQCItem.createInstance(context, clazz);
+        // Reuse the item across binds, constructing it is comparatively expensive.
+        return mItemPool.get(context, uri);
     }
 
     private void startBackgroundWorker(SettingsQCItem qcItem, Uri uri) {
@@ -17,9 +17,11 @@
 package com.android.car.settings.qc;
 
 import android.content.ContentResolver;
+import android.content.Context;
 import android.net.Uri;
 import android.util.ArrayMap;
 
+import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 
 import java.util.Map;
@@ -134,29 +136,108 @@ public class SettingsQCRegistry {
             .build();
     // End Uris
 
+    /** Creates a {@link SettingsQCItem} without reflection. */
+    interface QCItemFactory<T extends SettingsQCItem> {
+        /** Returns a new {@link SettingsQCItem}. */
+        T create(Context context);
+    }
+
+    /** Creates a {@link SettingsQCBackgroundWorker} without reflection. */
+    interface QCWorkerFactory {
+        /** Returns a new {@link SettingsQCBackgroundWorker} for {@code uri}. */
+        SettingsQCBackgroundWorker create(Context context, Uri uri);
+    }
+
+    /** A registered {@link SettingsQCItem} class and the factory creating its instances. */
+    static final class QCItemRegistration {
+        final Class<? extends SettingsQCItem> mItemClass;
+        final QCItemFactory<?> mFactory;
+
+        <T extends SettingsQCItem> QCItemRegistration(Class<T> itemClass,
+                QCItemFactory<T> factory) {
+            mItemClass = itemClass;
+            mFactory = factory;
+        }
+    }
+
+    @VisibleForTesting
+    static final Map<Uri, QCItemRegistration> sUriToQC = createUriToQCMap();
+
+    @VisibleForTesting
+    static Map<Uri, QCItemRegistration> createUriToQCMap() {
+        Map<Uri, QCItemRegistration> map = new ArrayMap<>();
+
+        register(map, BLUETOOTH_SWITCH_URI, BluetoothSwitch.class, BluetoothSwitch::new);
+        register(map, PAIRED_BLUETOOTH_DEVICES_URI, PairedBluetoothDevices.class,
+                PairedBluetoothDevices::new);
+        register(map, WIFI_TILE_URI, WifiTile.class, WifiTile::new);
+        register(map, HOTSPOT_TILE_URI, HotspotTile.class, HotspotTile::new);
+        register(map, MOBILE_DATA_TILE_URI, MobileDataTile.class, MobileDataTile::new);
+        register(map, WIFI_ROW_URI, WifiRow.class, WifiRow::new);
+        register(map, HOTSPOT_ROW_URI, HotspotRow.class, HotspotRow::new);
+        register(map, HOTSPOT_ROW_WITH_ACTION_URI, HotspotRowWithAction.class,
+                HotspotRowWithAction::new);
+        register(map, MOBILE_DATA_ROW_URI, MobileDataRow.class, MobileDataRow::new);
+        register(map, BRIGHTNESS_SLIDER_URI, BrightnessSlider.class, BrightnessSlider::new);
+        register(map, BRIGHTNESS_SLIDER_WITH_ICON_URI, BrightnessSliderWithIcon.class,
+                BrightnessSliderWithIcon::new);
+        register(map, ADAPTIVE_BRIGHTNESS_SWITCH_URI, AdaptiveBrightnessSwitch.class,
+                AdaptiveBrightnessSwitch::new);
+        register(map, THEME_TOGGLE_URI, ThemeToggle.class, ThemeToggle::new);
+        register(map, MEDIA_VOLUME_SLIDER_URI, MediaVolumeSlider.class, MediaVolumeSlider::new);
+        register(map, MEDIA_VOLUME_SLIDER_WITHOUT_ICON_URI, MediaVolumeSliderWithoutIcon.class,
+                MediaVolumeSliderWithoutIcon::new);
+        register(map, CALL_VOLUME_SLIDER_URI, CallVolumeSlider.class, CallVolumeSlider::new);
+        register(map, NAVIGATION_VOLUME_SLIDER_URI, NavigationVolumeSlider.class,
+                NavigationVolumeSlider::new);
+
+        return map;
+    }
+
+    /** Registers {@code itemClass}, created by {@code factory}, for {@code uri} in {@code map}. */
     @VisibleForTesting
-    static final Map<Uri, Class<? extends SettingsQCItem>> sUriToQC = createUriToQCMap();
-
-    private static Map<Uri, Class<? extends SettingsQCItem>> createUriToQCMap() {
-        Map<Uri, Class<? extends SettingsQCItem>> map = new ArrayMap<>();
-
-        map.put(BLUETOOTH_SWITCH_URI, BluetoothSwitch.class);
-        map.put(PAIRED_BLUETOOTH_DEVICES_URI, PairedBluetoothDevices.class);
-        map.put(WIFI_TILE_URI, WifiTile.class);
-        map.put(HOTSPOT_TILE_URI, HotspotTile.class);
-        map.put(MOBILE_DATA_TILE_URI, MobileDataTile.class);
-        map.put(WIFI_ROW_URI, WifiRow.class);
-        map.put(HOTSPOT_ROW_URI, HotspotRow.class);
-        map.put(HOTSPOT_ROW_WITH_ACTION_URI, HotspotRowWithAction.class);
-        map.put(MOBILE_DATA_ROW_URI, MobileDataRow.class);
-        map.put(BRIGHTNESS_SLIDER_URI, BrightnessSlider.class);
-        map.put(BRIGHTNESS_SLIDER_WITH_ICON_URI, BrightnessSliderWithIcon.class);
-        map.put(ADAPTIVE_BRIGHTNESS_SWITCH_URI, AdaptiveBrightnessSwitch.class);
-        map.put(THEME_TOGGLE_URI, ThemeToggle.class);
-        map.put(MEDIA_VOLUME_SLIDER_URI, MediaVolumeSlider.class);
-        map.put(MEDIA_VOLUME_SLIDER_WITHOUT_ICON_URI, MediaVolumeSliderWithoutIcon.class);
-        map.put(CALL_VOLUME_SLIDER_URI, CallVolumeSlider.class);
-        map.put(NAVIGATION_VOLUME_SLIDER_URI, NavigationVolumeSlider.class);
+    static <T extends SettingsQCItem> void register(Map<Uri, QCItemRegistration> map, Uri uri,
+            Class<T> itemClass, QCItemFactory<T> factory) {
+        map.put(uri, new QCItemRegistration(itemClass, factory));
+    }
+
+    @VisibleForTesting
+    static final Map<Class<? extends SettingsQCBackgroundWorker>, QCWorkerFactory>
+            sWorkerFactories = createWorkerFactoryMap();
+
+    private static Map<Class<? extends SettingsQCBackgroundWorker>, QCWorkerFactory>
+            createWorkerFactoryMap() {
+        Map<Class<? extends SettingsQCBackgroundWorker>, QCWorkerFactory> map = new ArrayMap<>();
+
+        map.put(BluetoothSwitchWorker.class, BluetoothSwitchWorker::new);
+        map.put(PairedBluetoothDevicesWorker.class, PairedBluetoothDevicesWorker::new);
+        map.put(WifiTileWorker.class, WifiTileWorker::new);
+        map.put(WifiRowWorker.class, WifiRowWorker::new);
+        map.put(HotspotTileWorker.class, HotspotTileWorker::new);
+        map.put(HotspotRowWorker.class, HotspotRowWorker::new);
+        map.put(MobileDataTileWorker.class, MobileDataTileWorker::new);
+        map.put(MobileDataRowWorker.class, MobileDataRowWorker::new);
+        map.put(ThemeToggleWorker.class, ThemeToggleWorker::new);
+        map.put(MediaVolumeSliderWorker.class, MediaVolumeSliderWorker::new);
+        map.put(CallVolumeSliderWorker.class, CallVolumeSliderWorker::new);
+        map.put(NavigationVolumeSliderWorker.class, NavigationVolumeSliderWorker::new);
+
+        return map;
+    }
+
+    @VisibleForTesting
+    static final Map<Uri, QCUpdateThrottlePolicy> sUriToThrottlePolicy =
+            createUriToThrottlePolicyMap();
+
+    // Only items with a background worker send change notifications, so only they are listed.
+    private static Map<Uri, QCUpdateThrottlePolicy> createUriToThrottlePolicyMap() {
+        Map<Uri, QCUpdateThrottlePolicy> map = new ArrayMap<>();
+
+        map.put(PAIRED_BLUETOOTH_DEVICES_URI, QCUpdateThrottlePolicy.LIST);
+        map.put(MEDIA_VOLUME_SLIDER_URI, QCUpdateThrottlePolicy.SLIDER);
+        map.put(MEDIA_VOLUME_SLIDER_WITHOUT_ICON_URI, QCUpdateThrottlePolicy.SLIDER);
+        map.put(CALL_VOLUME_SLIDER_URI, QCUpdateThrottlePolicy.SLIDER);
+        map.put(NAVIGATION_VOLUME_SLIDER_URI, QCUpdateThrottlePolicy.SLIDER);
 
         return map;
     }
@@ -165,7 +246,37 @@ public class SettingsQCRegistry {
      * Returns the relevant {@link SettingsQCItem} class that corresponds to the provided uri.
      */
     public static Class<? extends SettingsQCItem> getQCClassByUri(Uri uri) {
-        return sUriToQC.get(removeParameterFromUri(uri));
+        QCItemRegistration registration = sUriToQC.get(removeParameterFromUri(uri));
+        return registration != null ? registration.mItemClass : null;
+    }
+
+    /**
+     * Returns a new instance of the {@link SettingsQCItem} that corresponds to the provided uri,
+     * or {@code null} if the uri is not valid.
+     */
+    @Nullable
+    public static SettingsQCItem createQCItem(Context context, Uri uri) {
+        QCItemRegistration registration = sUriToQC.get(removeParameterFromUri(uri));
+        return registration != null
+                ? registration.mFactory.create(context.getApplicationContext()) : null;
+    }
+
+    /**
+     * Returns the {@link QCWorkerFactory} of the provided worker class, or {@code null} if it
+     * does not have one.
+     */
+    @Nullable
+    static QCWorkerFactory getWorkerFactory(Class<? extends SettingsQCBackgroundWorker> clazz) {
+        return sWorkerFactories.get(clazz);
+    }
+
+    /**
+     * Returns the {@link QCUpdateThrottlePolicy} of the provided uri, or {@link
+     * QCUpdateThrottlePolicy#DEFAULT} if it does not have a specific one.
+     */
+    public static QCUpdateThrottlePolicy getThrottlePolicy(Uri uri) {
+        return sUriToThrottlePolicy.getOrDefault(removeParameterFromUri(uri),
+                QCUpdateThrottlePolicy.DEFAULT);
     }
 
     /**
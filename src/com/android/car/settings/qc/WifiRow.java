@@ -18,7 +18,6 @@ package com.android.car.settings.qc;
 
 import static com.android.car.qc.QCItem.QC_ACTION_TOGGLE_STATE;
 import static com.android.car.qc.QCItem.QC_TYPE_ACTION_SWITCH;
-import static com.android.car.settings.qc.QCUtils.getActionDisabledDialogIntent;
 import static com.android.car.settings.qc.QCUtils.getAvailabilityStatusForZoneFromXml;
 import static com.android.car.settings.qc.SettingsQCRegistry.WIFI_ROW_URI;
 
@@ -62,7 +61,7 @@ public class WifiRow extends SettingsQCItem {
                 || wifiState == WifiManager.WIFI_STATE_ENABLING;
 
         // TODO(b/304694358): Use api that detects connected secondary networks
-        Icon icon = Icon.createWithResource(getContext(), WifiQCUtils.getIcon(mWifiManager));
+        Icon icon = getCachedIcon(WifiQCUtils.getIcon(mWifiManager));
 
         String userRestriction = UserManager.DISALLOW_CONFIG_WIFI;
         boolean hasDpmRestrictions = EnterpriseUtils.hasUserRestrictionByDpm(getContext(),
@@ -71,9 +70,7 @@ public class WifiRow extends SettingsQCItem {
                 userRestriction);
 
         boolean isReadOnlyForZone = isReadOnlyForZone();
-        PendingIntent disabledPendingIntent = isReadOnlyForZone
-                ? QCUtils.getDisabledToastBroadcastIntent(getContext())
-                : getActionDisabledDialogIntent(getContext(), userRestriction);
+        PendingIntent disabledPendingIntent = getDisabledClickAction(userRestriction);
 
         QCActionItem wifiToggle = new QCActionItem.Builder(QC_TYPE_ACTION_SWITCH)
                 .setChecked(wifiEnabled)
@@ -35,6 +35,7 @@ import android.widget.TextView;
 import androidx.annotation.DrawableRes;
 import androidx.annotation.LayoutRes;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.annotation.StringRes;
 import androidx.annotation.VisibleForTesting;
 
@@ -85,6 +86,7 @@ public class ChooseLockPinPasswordFragment extends BaseFragment {
     private TextViewInputDisabler mPasswordEntryInputDisabler;
     private SaveLockWorker mSaveLockWorker;
     private PasswordHelper mPasswordHelper;
+    private CredentialValidationPipeline mValidationPipeline;
 
     /**
      * Factory method for creating fragment in password mode
@@ -139,7 +141,8 @@ public class ChooseLockPinPasswordFragment extends BaseFragment {
             }
         }
 
-        mPasswordHelper = new PasswordHelper(getContext(), mUserId);
+        setPasswordHelper(new PasswordHelper(getContext(), mUserId));
+        mValidationPipeline.prepare(duplicateExistingCredential());
 
         if (savedInstanceState != null) {
             mUiStage = Stage.values()[savedInstanceState.getInt(STATE_UI_STAGE)];
@@ -249,6 +252,8 @@ public class ChooseLockPinPasswordFragment extends BaseFragment {
     @Override
     public void onDestroy() {
         super.onDestroy();
+        mTextChangedHandler.removeMessages(TextChangedHandler.ON_TEXT_CHANGED);
+        mValidationPipeline.cancel();
         mPasswordField.setText(null);
 
         PasswordHelper.zeroizeCredentials(mCurrentEntry, mExistingCredential, mFirstEntry);
@@ -301,13 +306,26 @@ public class ChooseLockPinPasswordFragment extends BaseFragment {
         mPinPad.setPinPadClickListener(pinPadClickListener);
     }
 
+    @Nullable
+    private LockscreenCredential duplicateExistingCredential() {
+        return mExistingCredential != null ? mExistingCredential.duplicate() : null;
+    }
+
     private boolean shouldEnableSubmit() {
-        return mPasswordHelper.validateCredential(getEnteredPassword(), mExistingCredential)
+        return shouldEnableSubmit(
+                mPasswordHelper.validateCredential(getEnteredPassword(), mExistingCredential));
+    }
+
+    private boolean shouldEnableSubmit(boolean isEnteredPasswordValid) {
+        return isEnteredPasswordValid
                 && (mSaveLockWorker == null || mSaveLockWorker.isFinished());
     }
 
     private void updateSubmitButtonsState() {
-        boolean enabled = shouldEnableSubmit();
+        updateSubmitButtonsState(shouldEnableSubmit());
+    }
+
+    private void updateSubmitButtonsState(boolean enabled) {
 
         mPrimaryButton.setEnabled(enabled);
         if (mIsPin) {
@@ -399,7 +417,23 @@ public class ChooseLockPinPasswordFragment extends BaseFragment {
 
     // Updates the hint message, error, button text and state
     private void updateUi() {
-        updateSubmitButtonsState();
+        boolean isValid =
+                mPasswordHelper.validateCredential(getEnteredPassword(), mExistingCredential);
+        updateUi(isValid, mPasswordHelper.getCredentialValidationErrorMessages());
+    }
+
+    // Validates the entered password off the main thread, then updates the UI with the result.
+    private void updateUiAsync() {
+        mValidationPipeline.validate(getEnteredPassword(), duplicateExistingCredential(),
+                result -> {
+                    if (getView() != null) {
+                        updateUi(result.isValid(), result.getErrorMessages());
+                    }
+                });
+    }
+
+    private void updateUi(boolean isEnteredPasswordValid, String validationErrorMessages) {
+        updateSubmitButtonsState(shouldEnableSubmit(isEnteredPasswordValid));
 
         boolean inputAllowed = mSaveLockWorker == null || mSaveLockWorker.isFinished();
 
@@ -407,8 +441,7 @@ public class ChooseLockPinPasswordFragment extends BaseFragment {
             mPinPad.setEnterKeyIcon(mUiStage.enterKeyIcon);
         }
 
-        mPasswordHelper.validateCredential(getEnteredPassword(), mExistingCredential);
-        mHintMessage.setText(mPasswordHelper.getCredentialValidationErrorMessages());
+        mHintMessage.setText(validationErrorMessages);
 
         setHintIfNeeded();
         setPrimaryButtonText(mUiStage.primaryButtonText);
@@ -432,6 +465,8 @@ public class ChooseLockPinPasswordFragment extends BaseFragment {
     @VisibleForTesting
     void updateStage(Stage stage) {
         mUiStage = stage;
+        // Results of validations started for the previous stage are stale.
+        mValidationPipeline.cancel();
         updateUi();
     }
 
@@ -458,6 +493,10 @@ public class ChooseLockPinPasswordFragment extends BaseFragment {
     @VisibleForTesting
     void setPasswordHelper(PasswordHelper passwordHelper) {
         mPasswordHelper = passwordHelper;
+        if (mValidationPipeline != null) {
+            mValidationPipeline.cancel();
+        }
+        mValidationPipeline = new CredentialValidationPipeline(passwordHelper);
     }
 
     @VisibleForTesting
@@ -507,7 +546,8 @@ public class ChooseLockPinPasswordFragment extends BaseFragment {
 
         /**
          * With the introduction of delay, we batch processing the text changed event to reduce
-         * unnecessary UI updates.
+         * unnecessary UI updates. Validation then runs off the main thread, and only the result
+         * for the newest text is applied.
          */
         private void notifyAfterTextChanged() {
             removeMessages(ON_TEXT_CHANGED);
@@ -517,7 +557,7 @@ public class ChooseLockPinPasswordFragment extends BaseFragment {
         @Override
         public void handleMessage(Message msg) {
             if (msg.what == ON_TEXT_CHANGED) {
-                updateUi();
+                updateUiAsync();
             }
         }
     }
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2023 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.car.settings.security;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import com.android.internal.widget.LockscreenCredential;
+import com.android.settingslib.utils.ThreadUtils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Validates credentials entered by the user off the main thread.
+ *
+ * <p>Validation includes the password history check, which hashes the credential and is too slow
+ * to run on the main thread for every keystroke. Only the newest request is delivered: requests
+ * superseded before they start are skipped, and results of superseded requests are dropped.
+ */
+class CredentialValidationPipeline {
+
+    /** Receives the outcome of the newest validation request, on the main thread. */
+    interface Callback {
+        /** Called with the outcome of the validation. */
+        void onCredentialValidated(PasswordHelper.ValidationResult result);
+    }
+
+    private final PasswordHelper mPasswordHelper;
+    private final AtomicInteger mGeneration = new AtomicInteger();
+
+    CredentialValidationPipeline(PasswordHelper passwordHelper) {
+        mPasswordHelper = passwordHelper;
+    }
+
+    /**
+     * Computes the password history hash factor in the background, so that the first history
+     * check does not pay for it. Takes ownership of {@code existingCredential}.
+     */
+    void prepare(@Nullable LockscreenCredential existingCredential) {
+        executeBackgroundTask(() -> {
+            mPasswordHelper.preparePasswordHistoryCheck(existingCredential);
+            if (existingCredential != null) {
+                existingCredential.zeroize();
+            }
+        });
+    }
+
+    /**
+     * Validates {@code enteredCredential} in the background and delivers the result to
+     * {@code callback} unless a newer request was made or {@link #cancel()} was called in the
+     * meantime. Takes ownership of both credentials.
+     */
+    @MainThread
+    void validate(LockscreenCredential enteredCredential,
+            @Nullable LockscreenCredential existingCredential, Callback callback) {
+        int generation = mGeneration.incrementAndGet();
+        executeBackgroundTask(() -> {
+            try {
+                if (generation != mGeneration.get()) {
+                    return;
+                }
+                PasswordHelper.ValidationResult result =
+                        mPasswordHelper.validate(enteredCredential, existingCredential);
+                executeUiTask(() -> {
+                    if (generation == mGeneration.get()) {
+                        callback.onCredentialValidated(result);
+                    }
+                });
+            } finally {
+                enteredCredential.zeroize();
+                if (existingCredential != null) {
+                    existingCredential.zeroize();
+                }
+            }
+        });
+    }
+
+    /** Drops the results of all pending requests. */
+    @MainThread
+    void cancel() {
+        mGeneration.incrementAndGet();
+    }
+
+    @VisibleForTesting
+    void executeBackgroundTask(Runnable runnable) {
+        ThreadUtils.postOnBackgroundThread(runnable);
+    }
+
+    @VisibleForTesting
+    void executeUiTask(Runnable runnable) {
+        ThreadUtils.postOnMainThread(runnable);
+    }
+}
@@ -34,6 +34,7 @@ import android.app.admin.DevicePolicyManager;
 import android.app.admin.PasswordMetrics;
 import android.content.Context;
 
+import androidx.annotation.GuardedBy;
 import androidx.annotation.VisibleForTesting;
 
 import com.android.car.settings.R;
@@ -63,6 +64,10 @@ public class PasswordHelper {
     private List<PasswordValidationError> mValidationErrors;
     private boolean mIsPin;
     private boolean mIsPattern;
+
+    // The history hash factor is memoized across threads, see validate().
+    private final Object mHashFactorLock = new Object();
+    @GuardedBy("mHashFactorLock")
     private byte[] mPasswordHistoryHashFactor;
 
     @UserIdInt
@@ -101,8 +106,7 @@ public class PasswordHelper {
      * @return whether the new credential is valid
      */
     public boolean validateCredential(LockscreenCredential credential) {
-        mValidationErrors = PasswordMetrics.validateCredential(mMinMetrics, mMinComplexity,
-                credential);
+        mValidationErrors = getValidationErrors(credential);
         mIsPin = credential.isPin();
         mIsPattern = credential.isPattern();
         return mValidationErrors.isEmpty();
@@ -119,13 +123,46 @@ public class PasswordHelper {
      */
     public boolean validateCredential(LockscreenCredential enteredCredential,
             LockscreenCredential existingCredential) {
-        if (validateCredential(enteredCredential)
+        mValidationErrors = getValidationErrors(enteredCredential, existingCredential);
+        mIsPin = enteredCredential.isPin();
+        mIsPattern = enteredCredential.isPattern();
+        return mValidationErrors.isEmpty();
+    }
+
+    /**
+     * Same as {@link #validateCredential(LockscreenCredential, LockscreenCredential)}, but
+     * returns the outcome instead of storing it, so that it can be called from any thread while
+     * the UI thread uses the other methods of this helper.
+     */
+    public ValidationResult validate(LockscreenCredential enteredCredential,
+            LockscreenCredential existingCredential) {
+        List<PasswordValidationError> errors =
+                getValidationErrors(enteredCredential, existingCredential);
+        return new ValidationResult(errors.isEmpty(), getErrorMessages(errors,
+                enteredCredential.isPin(), enteredCredential.isPattern()));
+    }
+
+    /**
+     * Computes the password history hash factor ahead of the first history check, which would
+     * otherwise compute it. Can be called from any thread.
+     */
+    public void preparePasswordHistoryCheck(LockscreenCredential existingCredential) {
+        getPasswordHistoryHashFactor(existingCredential);
+    }
+
+    private List<PasswordValidationError> getValidationErrors(LockscreenCredential credential) {
+        return PasswordMetrics.validateCredential(mMinMetrics, mMinComplexity, credential);
+    }
+
+    private List<PasswordValidationError> getValidationErrors(
+            LockscreenCredential enteredCredential, LockscreenCredential existingCredential) {
+        List<PasswordValidationError> errors = getValidationErrors(enteredCredential);
+        if (errors.isEmpty()
                 && mLockPatternUtils.checkPasswordHistory(enteredCredential.getCredential(),
                     getPasswordHistoryHashFactor(existingCredential), mUserId)) {
-            mValidationErrors =
-                    Collections.singletonList(new PasswordValidationError(RECENTLY_USED));
+            errors = Collections.singletonList(new PasswordValidationError(RECENTLY_USED));
         }
-        return mValidationErrors.isEmpty();
+        return errors;
     }
 
     /**
@@ -133,11 +170,14 @@ public class PasswordHelper {
      * {@code mUserId}, used for password history check.
      */
     private byte[] getPasswordHistoryHashFactor(LockscreenCredential credential) {
-        if (mPasswordHistoryHashFactor == null) {
-            mPasswordHistoryHashFactor = mLockPatternUtils.getPasswordHistoryHashFactor(
-                    credential != null ? credential : LockscreenCredential.createNone(), mUserId);
+        synchronized (mHashFactorLock) {
+            if (mPasswordHistoryHashFactor == null) {
+                mPasswordHistoryHashFactor = mLockPatternUtils.getPasswordHistoryHashFactor(
+                        credential != null ? credential : LockscreenCredential.createNone(),
+                        mUserId);
+            }
+            return mPasswordHistoryHashFactor;
         }
-        return mPasswordHistoryHashFactor;
     }
 
     /**
@@ -147,8 +187,13 @@ public class PasswordHelper {
      * Returns an empty string if there were no errors.
      */
     public String getCredentialValidationErrorMessages() {
+        return getErrorMessages(mValidationErrors, mIsPin, mIsPattern);
+    }
+
+    private String getErrorMessages(List<PasswordValidationError> validationErrors, boolean isPin,
+            boolean isPattern) {
         List<String> messages = new ArrayList<>();
-        for (PasswordValidationError error : mValidationErrors) {
+        for (PasswordValidationError error : validationErrors) {
             switch (error.errorCode) {
                 case CONTAINS_INVALID_CHARACTERS:
                     messages.add(mContext.getString(R.string.lockpassword_illegal_character));
@@ -183,15 +228,15 @@ public class PasswordHelper {
                     break;
                 case TOO_SHORT:
                     messages.add(StringUtil.getIcuPluralsString(mContext, error.requirement,
-                            mIsPin
+                            isPin
                                     ? R.string.lockpassword_pin_too_short
-                            : mIsPattern
+                            : isPattern
                                     ? R.string.lockpattern_recording_incorrect_too_short
                                     : R.string.lockpassword_password_too_short));
                     break;
                 case TOO_LONG:
                     messages.add(StringUtil.getIcuPluralsString(mContext, error.requirement + 1,
-                            mIsPin
+                            isPin
                                     ? R.string.lockpassword_pin_too_long
                                     : R.string.lockpassword_password_too_long));
                     break;
@@ -200,7 +245,7 @@ public class PasswordHelper {
                             R.string.lockpassword_pin_no_sequential_digits));
                     break;
                 case RECENTLY_USED:
-                    messages.add(mContext.getString(mIsPin
+                    messages.add(mContext.getString(isPin
                             ? R.string.lockpassword_pin_recently_used
                             : R.string.lockpassword_password_recently_used));
                     break;
@@ -208,7 +253,7 @@ public class PasswordHelper {
                     LOG.wtf("unknown error validating password: " + error);
             }
         }
-        if (messages.isEmpty() && !mValidationErrors.isEmpty()) {
+        if (messages.isEmpty() && !validationErrors.isEmpty()) {
             // All errors were unknown, so fall back to the default message. If you see this message
             // in the UI, something needs to be added to the switch statement above!
             messages.add(mContext.getString(R.string.lockpassword_invalid_password));
@@ -233,4 +278,28 @@ public class PasswordHelper {
         System.runFinalization();
         System.gc();
     }
+
+    /** Outcome of {@link #validate(LockscreenCredential, LockscreenCredential)}. */
+    public static final class ValidationResult {
+        private final boolean mIsValid;
+        private final String mErrorMessages;
+
+        ValidationResult(boolean isValid, String errorMessages) {
+            mIsValid = isValid;
+            mErrorMessages = errorMessages;
+        }
+
+        /** Returns whether the credential is valid. */
+        public boolean isValid() {
+            return mIsValid;
+        }
+
+        /**
+         * Returns a message describing the errors of the credential, or an empty string if it is
+         * valid.
+         */
+        public String getErrorMessages() {
+            return mErrorMessages;
+        }
+    }
 }
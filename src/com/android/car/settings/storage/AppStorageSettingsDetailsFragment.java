@@ -28,7 +28,6 @@ import androidx.annotation.XmlRes;
 import androidx.loader.app.LoaderManager;
 
 import com.android.car.settings.R;
-import com.android.car.settings.common.Logger;
 import com.android.car.settings.common.SettingsFragment;
 import com.android.settingslib.applications.ApplicationsState;
 import com.android.settingslib.applications.StorageStatsSource;
@@ -40,8 +39,6 @@ import java.util.List;
  * Fragment to display the applications storage information.
  */
 public class AppStorageSettingsDetailsFragment extends SettingsFragment {
-    private static final Logger LOG = new Logger(AppStorageSettingsDetailsFragment.class);
-
     public static final String EXTRA_PACKAGE_NAME = "extra_package_name";
 
     // Package information
@@ -79,16 +76,11 @@ public class AppStorageSettingsDetailsFragment extends SettingsFragment {
         mPackageName = getArguments().getString(EXTRA_PACKAGE_NAME);
         mAppState = ApplicationsState.getInstance(requireActivity().getApplication());
         mAppEntry = mAppState.getEntry(mPackageName, mUserId);
-        StorageStatsSource storageStatsSource = new StorageStatsSource(context);
-        StorageStatsSource.AppStorageStats stats = null;
         mPackageManager = context.getPackageManager();
-        try {
-            stats = storageStatsSource.getStatsForPackage(/* volumeUuid= */ null, mPackageName,
-                    UserHandle.of(mUserId));
-        } catch (Exception e) {
-            // This may happen if the package was removed during our calculation.
-            LOG.w("App unexpectedly not found", e);
-        }
+        // Renders the last known stats, if any, until the action buttons controller has loaded the
+        // current stats in the background.
+        StorageStatsSource.AppStorageStats stats = AppStorageStatsCache.getInstance(context)
+                .get(mPackageName, mUserId);
         mAppsStorageStatsManager = new AppsStorageStatsManager(context);
         use(StorageApplicationPreferenceController.class,
                 R.string.pk_storage_application_details)
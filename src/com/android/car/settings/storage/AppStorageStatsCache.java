@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2023 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.car.settings.storage;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.net.Uri;
+import android.util.ArrayMap;
+
+import androidx.annotation.GuardedBy;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import com.android.settingslib.applications.StorageStatsSource.AppStorageStats;
+
+import java.util.Map;
+
+/**
+ * Process-wide cache of the last storage stats loaded for each package and user.
+ *
+ * <p>Querying the storage stats of a package walks its directories, so screens render from the
+ * last known stats and refresh them in the background. Entries are dropped when their package is
+ * removed.
+ */
+public class AppStorageStatsCache {
+
+    private static AppStorageStatsCache sInstance;
+
+    private final Object mLock = new Object();
+    @GuardedBy("mLock")
+    private final Map<String, AppStorageStats> mStats = new ArrayMap<>();
+
+    private final BroadcastReceiver mPackageRemovedReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            Uri data = intent.getData();
+            if (data != null) {
+                removePackage(data.getSchemeSpecificPart());
+            }
+        }
+    };
+
+    /** Returns the process-wide instance of {@link AppStorageStatsCache}. */
+    public static AppStorageStatsCache getInstance(Context context) {
+        if (sInstance == null) {
+            sInstance = new AppStorageStatsCache();
+            sInstance.registerReceivers(context.getApplicationContext());
+        }
+        return sInstance;
+    }
+
+    @VisibleForTesting
+    AppStorageStatsCache() {
+    }
+
+    private void registerReceivers(Context context) {
+        IntentFilter packageFilter = new IntentFilter(Intent.ACTION_PACKAGE_REMOVED);
+        packageFilter.addDataScheme("package");
+        context.registerReceiverForAllUsers(mPackageRemovedReceiver, packageFilter,
+                /* broadcastPermission= */ null, /* scheduler= */ null);
+    }
+
+    /**
+     * Returns the last storage stats loaded for {@code packageName} and {@code userId}, or
+     * {@code null} if they were never loaded.
+     */
+    @Nullable
+    public AppStorageStats get(String packageName, int userId) {
+        synchronized (mLock) {
+            return mStats.get(getKey(packageName, userId));
+        }
+    }
+
+    /**
+     * Stores the storage stats loaded for {@code packageName} and {@code userId}, or drops them if
+     * {@code stats} is {@code null}.
+     */
+    public void put(String packageName, int userId, @Nullable AppStorageStats stats) {
+        String key = getKey(packageName, userId);
+        synchronized (mLock) {
+            if (stats == null) {
+                mStats.remove(key);
+            } else {
+                mStats.put(key, stats);
+            }
+        }
+    }
+
+    /** Drops the storage stats of {@code packageName} for all users. */
+    @VisibleForTesting
+    void removePackage(String packageName) {
+        String suffix = "|" + packageName;
+        synchronized (mLock) {
+            mStats.keySet().removeIf(key -> key.endsWith(suffix));
+        }
+    }
+
+    private static String getKey(String packageName, int userId) {
+        return userId + "|" + packageName;
+    }
+}
@@ -23,6 +23,8 @@ import android.content.pm.PackageManager.NameNotFoundException;
 import android.os.UserHandle;
 import android.util.Log;
 
+import androidx.annotation.VisibleForTesting;
+
 import com.android.car.settings.common.AsyncLoader;
 import com.android.internal.util.Preconditions;
 import com.android.settingslib.applications.StorageStatsSource;
@@ -41,13 +43,22 @@ public class FetchPackageStorageAsyncLoader extends AsyncLoader<AppStorageStats>
     private final StorageStatsSource mSource;
     private final ApplicationInfo mInfo;
     private final UserHandle mUser;
+    private final AppStorageStatsCache mStatsCache;
 
     public FetchPackageStorageAsyncLoader(Context context, @NonNull StorageStatsSource source,
             @NonNull ApplicationInfo info, @NonNull UserHandle user) {
+        this(context, source, info, user, AppStorageStatsCache.getInstance(context));
+    }
+
+    @VisibleForTesting
+    FetchPackageStorageAsyncLoader(Context context, @NonNull StorageStatsSource source,
+            @NonNull ApplicationInfo info, @NonNull UserHandle user,
+            @NonNull AppStorageStatsCache statsCache) {
         super(context);
         mSource = Preconditions.checkNotNull(source);
         mInfo = info;
         mUser = user;
+        mStatsCache = statsCache;
     }
 
     @Override
@@ -58,6 +69,7 @@ public class FetchPackageStorageAsyncLoader extends AsyncLoader<AppStorageStats>
         } catch (NameNotFoundException | IOException e) {
             Log.w(TAG, "Package may have been removed during query, failing gracefully", e);
         }
+        mStatsCache.put(mInfo.packageName, mUser.getIdentifier(), result);
         return result;
     }
 }
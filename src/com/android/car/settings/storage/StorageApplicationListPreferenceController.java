@@ -22,6 +22,7 @@ import android.graphics.drawable.Drawable;
 import androidx.preference.Preference;
 import androidx.preference.PreferenceGroup;
 
+import com.android.car.settings.applications.AppEntryPreferenceListUpdater;
 import com.android.car.settings.applications.ApplicationListItemManager;
 import com.android.car.settings.common.FragmentController;
 import com.android.car.settings.common.PreferenceController;
@@ -38,6 +39,26 @@ public class StorageApplicationListPreferenceController extends
         PreferenceController<PreferenceGroup> implements
         ApplicationListItemManager.AppListItemListener {
 
+    private final AppEntryPreferenceListUpdater<Preference> mListUpdater =
+            new AppEntryPreferenceListUpdater<>(
+                    new AppEntryPreferenceListUpdater.PreferenceBinder<Preference>() {
+                        @Override
+                        public Preference createPreference(
+                                ApplicationsState.AppEntry appEntry) {
+                            return StorageApplicationListPreferenceController.this
+                                    .createPreference(appEntry.label, appEntry.sizeStr,
+                                            appEntry.icon, appEntry.info.packageName);
+                        }
+
+                        @Override
+                        public void bindPreference(Preference preference,
+                                ApplicationsState.AppEntry appEntry) {
+                            preference.setTitle(appEntry.label);
+                            preference.setSummary(appEntry.sizeStr);
+                            preference.setIcon(appEntry.icon);
+                        }
+                    });
+
     public StorageApplicationListPreferenceController(Context context, String preferenceKey,
             FragmentController fragmentController, CarUxRestrictions uxRestrictions) {
         super(context, preferenceKey, fragmentController, uxRestrictions);
@@ -50,12 +71,7 @@ public class StorageApplicationListPreferenceController extends
 
     @Override
     public void onDataLoaded(ArrayList<ApplicationsState.AppEntry> apps) {
-        getPreference().removeAll();
-        for (ApplicationsState.AppEntry appEntry : apps) {
-            getPreference().addPreference(
-                    createPreference(appEntry.label, appEntry.sizeStr, appEntry.icon,
-                            appEntry.info.packageName));
-        }
+        mListUpdater.update(getPreference(), apps);
     }
 
     protected Preference createPreference(String title, String summary, Drawable icon,
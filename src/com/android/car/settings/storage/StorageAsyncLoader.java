@@ -23,7 +23,6 @@ import static android.content.pm.ApplicationInfo.CATEGORY_VIDEO;
 
 import android.content.Context;
 import android.content.pm.ApplicationInfo;
-import android.content.pm.PackageManager;
 import android.content.pm.PackageManager.NameNotFoundException;
 import android.content.pm.UserInfo;
 import android.os.UserHandle;
@@ -32,6 +31,7 @@ import android.util.SparseArray;
 
 import androidx.annotation.VisibleForTesting;
 
+import com.android.car.settings.applications.InstalledPackageIndex;
 import com.android.car.settings.common.AsyncLoader;
 import com.android.car.settings.common.Logger;
 import com.android.car.settings.profiles.ProfileHelper;
@@ -51,20 +51,24 @@ public class StorageAsyncLoader
     private static final Logger LOG = new Logger(StorageAsyncLoader.class);
 
     private final StorageStatsSource mStatsManager;
-    private final PackageManager mPackageManager;
+    private final InstalledPackageIndex mInstalledPackageIndex;
     private final ProfileHelper mProfileHelper;
+    private final AppStorageStatsCache mStatsCache;
 
     public StorageAsyncLoader(Context context, StorageStatsSource source) {
-        this(context, source, context.getPackageManager(), ProfileHelper.getInstance(context));
+        this(context, source, InstalledPackageIndex.getInstance(context),
+                ProfileHelper.getInstance(context), AppStorageStatsCache.getInstance(context));
     }
 
     @VisibleForTesting
     StorageAsyncLoader(Context context, StorageStatsSource source,
-            PackageManager packageManager, ProfileHelper profileHelper) {
+            InstalledPackageIndex installedPackageIndex, ProfileHelper profileHelper,
+            AppStorageStatsCache statsCache) {
         super(context);
         mStatsManager = source;
-        mPackageManager = packageManager;
+        mInstalledPackageIndex = installedPackageIndex;
         mProfileHelper = profileHelper;
+        mStatsCache = statsCache;
     }
 
     @Override
@@ -82,8 +86,7 @@ public class StorageAsyncLoader
     private AppsStorageResult getStorageResultForUser(int userId, ArraySet<String> seenPackages) {
         LOG.d("Loading apps");
         List<ApplicationInfo> applicationInfos =
-                mPackageManager.getInstalledApplicationsAsUser(/* getAllInstalledApplications= */ 0,
-                        userId);
+                mInstalledPackageIndex.getEnabledApplications(userId);
         UserHandle myUser = UserHandle.of(userId);
         long gameAppSize = 0;
         long musicAppsSize = 0;
@@ -101,6 +104,8 @@ public class StorageAsyncLoader
                 LOG.w("App unexpectedly not found", e);
                 continue;
             }
+            // Lets the app storage details render without querying the stats again.
+            mStatsCache.put(app.packageName, userId, stats);
 
             long dataSize = stats.getDataBytes();
             long cacheQuota = mStatsManager.getCacheQuotaBytes(/* volumeUuid= */ null, app.uid);
@@ -45,14 +45,23 @@ public class StorageMediaCategoryDetailPreferenceController extends
     @Override
     public void onDataLoaded(ArrayList<ApplicationsState.AppEntry> apps) {
         super.onDataLoaded(apps);
-        Preference preference = createPreference(
+        String key = getContext().getString(R.string.pk_storage_music_audio_files);
+        Preference preference = getPreference().findPreference(key);
+        if (preference != null) {
+            preference.setSummary(Long.toString(mExternalAudioBytes));
+            preference.setOrder(apps.size());
+            return;
+        }
+        preference = createPreference(
                 getContext().getString(R.string.storage_audio_files_title),
                 Long.toString(mExternalAudioBytes),
                 getContext().getDrawable(R.drawable.ic_headset),
-                getContext().getString(R.string.pk_storage_music_audio_files));
+                key);
         // remove the onClickListener which was set above with null key. This preference should
         // do nothing on click.
         preference.setOnPreferenceClickListener(null);
+        // Displayed after the applications.
+        preference.setOrder(apps.size());
         getPreference().addPreference(preference);
     }
 
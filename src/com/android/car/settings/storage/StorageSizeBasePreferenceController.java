@@ -119,6 +119,11 @@ public abstract class StorageSizeBasePreferenceController extends
         //  When the data is cleared, the directory are recreated. Directories have some size,
         //  but are empty. We zero this out to best match user expectations.
         mDataCleared = dataCleared;
+
+        // Keeps the last known stats if the package could not be queried.
+        if (data != null) {
+            mAppStorageStats = data;
+        }
         refreshUi();
     }
 }
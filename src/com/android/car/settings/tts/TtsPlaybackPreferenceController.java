@@ -147,6 +147,9 @@ public class TtsPlaybackPreferenceController extends
             mBackgroundHandler = null;
             mBackgroundHandlerThread = null;
         }
+        if (mTtsPlaybackManager != null) {
+            mTtsPlaybackManager.release();
+        }
         if (mTts != null) {
             mTts.shutdown();
             mTts = null;
@@ -407,6 +410,7 @@ public class TtsPlaybackPreferenceController extends
                 getContext().getString(R.string.pk_tts_speech_rate));
         speechRatePreference.setMin(TtsPlaybackSettingsManager.MIN_SPEECH_RATE);
         speechRatePreference.setMax(TtsPlaybackSettingsManager.MAX_SPEECH_RATE);
+        speechRatePreference.setSeekBarIncrement(TtsPlaybackSettingsManager.SPEECH_RATE_STEP);
         speechRatePreference.setShowSeekBarValue(false);
         speechRatePreference.setContinuousUpdate(false);
         speechRatePreference.setOnPreferenceChangeListener((preference, newValue) -> {
@@ -429,6 +433,7 @@ public class TtsPlaybackPreferenceController extends
                 getContext().getString(R.string.pk_tts_pitch));
         pitchPreference.setMin(TtsPlaybackSettingsManager.MIN_VOICE_PITCH);
         pitchPreference.setMax(TtsPlaybackSettingsManager.MAX_VOICE_PITCH);
+        pitchPreference.setSeekBarIncrement(TtsPlaybackSettingsManager.VOICE_PITCH_STEP);
         pitchPreference.setShowSeekBarValue(false);
         pitchPreference.setContinuousUpdate(false);
         pitchPreference.setOnPreferenceChangeListener((preference, newValue) -> {
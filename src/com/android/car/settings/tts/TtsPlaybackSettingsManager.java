@@ -21,6 +21,7 @@ import android.content.Context;
 import android.provider.Settings;
 import android.speech.tts.TextToSpeech;
 import android.speech.tts.TtsEngines;
+import android.speech.tts.UtteranceProgressListener;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -62,17 +63,69 @@ class TtsPlaybackSettingsManager {
      * and {@link TextToSpeech}.
      */
     public static final float SCALING_FACTOR = 100.0f;
+
+    /**
+     * Step between adjacent speech rate values of the speech rate seek bar.
+     */
+    public static final int SPEECH_RATE_STEP = 30;
+
+    /**
+     * Step between adjacent voice pitch values of the voice pitch seek bar.
+     */
+    public static final int VOICE_PITCH_STEP = 19;
+
     private static final String UTTERANCE_ID = "Sample";
 
     private final Context mContext;
     private final TextToSpeech mTts;
     private final TtsEngines mEnginesHelper;
+    private final TtsSampleAudioCache mSampleAudioCache;
+
+    private volatile boolean mSpeakingSample;
+
+    private final UtteranceProgressListener mUtteranceProgressListener =
+            new UtteranceProgressListener() {
+                @Override
+                public void onStart(String utteranceId) {
+                }
+
+                @Override
+                public void onDone(String utteranceId) {
+                    if (TtsSampleAudioCache.isCacheUtterance(utteranceId)) {
+                        mSampleAudioCache.onSynthesisDone(utteranceId);
+                    } else if (UTTERANCE_ID.equals(utteranceId)) {
+                        mSpeakingSample = false;
+                    }
+                }
+
+                @Override
+                public void onError(String utteranceId) {
+                    onStop(utteranceId, /* interrupted= */ false);
+                }
+
+                @Override
+                public void onStop(String utteranceId, boolean interrupted) {
+                    if (TtsSampleAudioCache.isCacheUtterance(utteranceId)) {
+                        mSampleAudioCache.onSynthesisFailed(utteranceId);
+                    } else if (UTTERANCE_ID.equals(utteranceId)) {
+                        mSpeakingSample = false;
+                    }
+                }
+            };
 
     TtsPlaybackSettingsManager(Context context, @NonNull TextToSpeech tts,
             @NonNull TtsEngines enginesHelper) {
+        this(context, tts, enginesHelper, new TtsSampleAudioCache(context, tts));
+    }
+
+    @VisibleForTesting
+    TtsPlaybackSettingsManager(Context context, @NonNull TextToSpeech tts,
+            @NonNull TtsEngines enginesHelper, TtsSampleAudioCache sampleAudioCache) {
         mContext = context;
         mTts = tts;
         mEnginesHelper = enginesHelper;
+        mSampleAudioCache = sampleAudioCache;
+        mTts.setOnUtteranceProgressListener(mUtteranceProgressListener);
     }
 
     void updateSpeechRate(int speechRate) {
@@ -148,17 +201,65 @@ class TtsPlaybackSettingsManager {
         return success;
     }
 
+    /**
+     * Speaks {@code text} with the current speech rate and voice pitch. Cached audio is played if
+     * available, and the samples of the neighbouring speech rate and voice pitch steps are
+     * prefetched for voices that do not require a network connection.
+     */
     void speakSampleText(String text) {
         boolean networkRequired = mTts.getVoice().isNetworkConnectionRequired();
         Locale defaultLocale = getEffectiveTtsLocale();
         if (!networkRequired || networkRequired && mTts.isLanguageAvailable(defaultLocale)
                 >= TextToSpeech.LANG_AVAILABLE) {
-            mTts.speak(text, TextToSpeech.QUEUE_FLUSH, /* params= */ null, UTTERANCE_ID);
+            int speechRate = getCurrentSpeechRate();
+            int voicePitch = getCurrentVoicePitch();
+            if (text != null && mSampleAudioCache.play(
+                    getSampleKey(defaultLocale, speechRate, voicePitch, text))) {
+                if (mSpeakingSample) {
+                    // Also flushes pending prefetches, which are requested again below.
+                    mTts.stop();
+                }
+            } else {
+                mSampleAudioCache.stopPlayback();
+                mSpeakingSample = true;
+                mTts.speak(text, TextToSpeech.QUEUE_FLUSH, /* params= */ null, UTTERANCE_ID);
+            }
+            if (!networkRequired && text != null) {
+                prefetchSamples(defaultLocale, speechRate, voicePitch, text);
+            }
         } else {
             displayNetworkAlert();
         }
     }
 
+    /** Stops sample playback and drops the cached samples. */
+    void release() {
+        mSampleAudioCache.release();
+    }
+
+    private void prefetchSamples(Locale locale, int speechRate, int voicePitch, String text) {
+        // The current values first, since the user is likely to come back to them.
+        prefetchSample(locale, speechRate, voicePitch, text);
+        prefetchSample(locale, speechRate - SPEECH_RATE_STEP, voicePitch, text);
+        prefetchSample(locale, speechRate + SPEECH_RATE_STEP, voicePitch, text);
+        prefetchSample(locale, speechRate, voicePitch - VOICE_PITCH_STEP, text);
+        prefetchSample(locale, speechRate, voicePitch + VOICE_PITCH_STEP, text);
+    }
+
+    private void prefetchSample(Locale locale, int speechRate, int voicePitch, String text) {
+        if (speechRate < MIN_SPEECH_RATE || speechRate > MAX_SPEECH_RATE
+                || voicePitch < MIN_VOICE_PITCH || voicePitch > MAX_VOICE_PITCH) {
+            return;
+        }
+        mSampleAudioCache.prefetch(getSampleKey(locale, speechRate, voicePitch, text), text,
+                speechRate, voicePitch);
+    }
+
+    private String getSampleKey(Locale locale, int speechRate, int voicePitch, String text) {
+        return TtsSampleAudioCache.getKey(mTts.getCurrentEngine(), locale, speechRate,
+                voicePitch, text);
+    }
+
     private void displayNetworkAlert() {
         AlertDialog dialog = createNetworkAlertDialog();
         dialog.show();
@@ -0,0 +1,261 @@
+/*
+ * Copyright (C) 2023 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.car.settings.tts;
+
+import android.content.Context;
+import android.media.AudioAttributes;
+import android.media.MediaPlayer;
+import android.os.Bundle;
+import android.speech.tts.TextToSpeech;
+import android.util.ArrayMap;
+
+import androidx.annotation.GuardedBy;
+import androidx.annotation.MainThread;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import com.android.car.settings.common.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Cache of synthesized TTS sample audio, keyed by (engine, locale, speech rate, voice pitch,
+ * sample text).
+ *
+ * <p>Samples are synthesized to files by the TTS engine with {@link
+ * TextToSpeech#synthesizeToFile}, which runs asynchronously in the engine. Cached samples are
+ * played back immediately with a {@link MediaPlayer} instead of waiting for the engine to
+ * synthesize them again. The cache is bounded by the total size of its files and evicts the
+ * least recently used samples first.
+ */
+class TtsSampleAudioCache {
+    private static final Logger LOG = new Logger(TtsSampleAudioCache.class);
+
+    @VisibleForTesting
+    static final long DEFAULT_MAX_BYTES = 4 * 1024 * 1024;
+    @VisibleForTesting
+    static final String UTTERANCE_ID_PREFIX = "SampleCache:";
+    private static final String CACHE_DIRECTORY = "tts_samples";
+
+    private final TextToSpeech mTts;
+    private final File mDirectory;
+    private final long mMaxBytes;
+
+    private final Object mLock = new Object();
+    // Access ordered, so that iteration starts with the least recently used sample.
+    @GuardedBy("mLock")
+    private final LinkedHashMap<String, File> mSamples =
+            new LinkedHashMap<>(/* initialCapacity= */ 16, /* loadFactor= */ 0.75f,
+                    /* accessOrder= */ true);
+    @GuardedBy("mLock")
+    private final Map<String, File> mPendingSamples = new ArrayMap<>();
+    @GuardedBy("mLock")
+    private long mTotalBytes;
+    @GuardedBy("mLock")
+    private int mFileIndex;
+
+    @Nullable
+    private MediaPlayer mMediaPlayer;
+    private int mHitCount;
+    private int mMissCount;
+
+    TtsSampleAudioCache(Context context, TextToSpeech tts) {
+        this(tts, new File(context.getCacheDir(), CACHE_DIRECTORY), DEFAULT_MAX_BYTES);
+    }
+
+    @VisibleForTesting
+    TtsSampleAudioCache(TextToSpeech tts, File directory, long maxBytes) {
+        mTts = tts;
+        mDirectory = directory;
+        mMaxBytes = maxBytes;
+        // Samples from a previous session are not indexed, drop them.
+        deleteFiles();
+    }
+
+    /** Returns the cache key of a sample. */
+    static String getKey(String engine, @Nullable Locale locale, int speechRate, int voicePitch,
+            String text) {
+        return engine + "|" + locale + "|" + speechRate + "|" + voicePitch + "|"
+                + text.hashCode();
+    }
+
+    /**
+     * Plays the sample for {@code key} if it is cached. Returns {@code false} if it is not, in
+     * which case the caller should speak the sample directly.
+     */
+    @MainThread
+    boolean play(String key) {
+        File file;
+        synchronized (mLock) {
+            file = mSamples.get(key);
+        }
+        if (file == null) {
+            mMissCount++;
+            return false;
+        }
+        mHitCount++;
+        stopPlayback();
+        return playFile(file);
+    }
+
+    /**
+     * Asks the engine to synthesize {@code text} with the given speech rate and voice pitch for
+     * {@code key}, unless it is already cached or being synthesized.
+     */
+    void prefetch(String key, String text, int speechRate, int voicePitch) {
+        File file;
+        synchronized (mLock) {
+            if (mSamples.containsKey(key) || mPendingSamples.containsKey(key)) {
+                return;
+            }
+            if (!mDirectory.exists() && !mDirectory.mkdirs()) {
+                LOG.w("Unable to create " + mDirectory);
+                return;
+            }
+            file = new File(mDirectory, "sample_" + mFileIndex++ + ".wav");
+            mPendingSamples.put(key, file);
+        }
+        Bundle params = new Bundle();
+        params.putInt(TextToSpeech.Engine.KEY_PARAM_RATE, speechRate);
+        params.putInt(TextToSpeech.Engine.KEY_PARAM_PITCH, voicePitch);
+        int result = mTts.synthesizeToFile(text, params, file, UTTERANCE_ID_PREFIX + key);
+        if (result != TextToSpeech.SUCCESS) {
+            onSynthesisFailed(UTTERANCE_ID_PREFIX + key);
+        }
+    }
+
+    /** Returns whether {@code utteranceId} is a synthesis request made by this cache. */
+    static boolean isCacheUtterance(@Nullable String utteranceId) {
+        return utteranceId != null && utteranceId.startsWith(UTTERANCE_ID_PREFIX);
+    }
+
+    /** Called when the synthesis of {@code utteranceId} completed. */
+    void onSynthesisDone(String utteranceId) {
+        String key = utteranceId.substring(UTTERANCE_ID_PREFIX.length());
+        synchronized (mLock) {
+            File file = mPendingSamples.remove(key);
+            if (file == null) {
+                return;
+            }
+            if (!file.exists() || file.length() == 0) {
+                file.delete();
+                return;
+            }
+            mSamples.put(key, file);
+            mTotalBytes += file.length();
+            evictLocked();
+        }
+    }
+
+    /** Called when the synthesis of {@code utteranceId} failed or was interrupted. */
+    void onSynthesisFailed(String utteranceId) {
+        String key = utteranceId.substring(UTTERANCE_ID_PREFIX.length());
+        synchronized (mLock) {
+            File file = mPendingSamples.remove(key);
+            if (file != null) {
+                file.delete();
+            }
+        }
+    }
+
+    /** Stops playing a cached sample, if any. */
+    @MainThread
+    void stopPlayback() {
+        if (mMediaPlayer != null) {
+            mMediaPlayer.release();
+            mMediaPlayer = null;
+        }
+    }
+
+    /** Stops playback and deletes all cached samples. */
+    @MainThread
+    void release() {
+        stopPlayback();
+        LOG.d("Sample cache hits: " + mHitCount + ", misses: " + mMissCount);
+        deleteFiles();
+    }
+
+    @VisibleForTesting
+    long getTotalBytes() {
+        synchronized (mLock) {
+            return mTotalBytes;
+        }
+    }
+
+    @VisibleForTesting
+    boolean contains(String key) {
+        synchronized (mLock) {
+            return mSamples.containsKey(key);
+        }
+    }
+
+    @VisibleForTesting
+    boolean playFile(File file) {
+        MediaPlayer mediaPlayer = new MediaPlayer();
+        mediaPlayer.setAudioAttributes(new AudioAttributes.Builder()
+                .setUsage(AudioAttributes.USAGE_MEDIA)
+                .setContentType(AudioAttributes.CONTENT_TYPE_SPEECH)
+                .build());
+        try {
+            mediaPlayer.setDataSource(file.getPath());
+            mediaPlayer.prepare();
+        } catch (IOException e) {
+            LOG.w("Unable to play cached sample " + file, e);
+            mediaPlayer.release();
+            return false;
+        }
+        mediaPlayer.setOnCompletionListener(mp -> {
+            if (mMediaPlayer == mp) {
+                stopPlayback();
+            }
+        });
+        mediaPlayer.start();
+        mMediaPlayer = mediaPlayer;
+        return true;
+    }
+
+    @GuardedBy("mLock")
+    private void evictLocked() {
+        Iterator<Map.Entry<String, File>> iterator = mSamples.entrySet().iterator();
+        while (mTotalBytes > mMaxBytes && iterator.hasNext()) {
+            File file = iterator.next().getValue();
+            mTotalBytes -= file.length();
+            file.delete();
+            iterator.remove();
+        }
+    }
+
+    private void deleteFiles() {
+        synchronized (mLock) {
+            mSamples.clear();
+            mPendingSamples.clear();
+            mTotalBytes = 0;
+            File[] files = mDirectory.listFiles();
+            if (files == null) {
+                return;
+            }
+            for (File file : files) {
+                file.delete();
+            }
+        }
+    }
+}
@@ -16,56 +16,95 @@
 
 package com.android.car.settings.units;
 
-import android.car.Car;
 import android.car.CarNotConnectedException;
 import android.car.VehiclePropertyIds;
 import android.car.VehicleUnit;
-import android.car.hardware.CarPropertyConfig;
 import android.car.hardware.property.CarPropertyManager;
 import android.content.Context;
-import android.util.ArraySet;
+import android.util.SparseArray;
 
-import com.android.car.settings.common.Logger;
+import androidx.annotation.VisibleForTesting;
 
-import java.util.ArrayList;
-import java.util.List;
+import com.android.car.settings.common.Logger;
 
-/** Utility to read and write {@link Unit}-related properties in {@link CarPropertyManager}. */
+/**
+ * Utility to read and write {@link Unit}-related properties in {@link CarPropertyManager}.
+ *
+ * <p>The car connection, property configs and property callbacks are shared with the other
+ * instances through {@link UnitsPropertyService}.
+ */
 public class CarUnitsManager {
     private static final Logger LOG = new Logger(CarUnitsManager.class);
     private static final int AREA_ID = 0;
 
-    private Context mContext;
-    private Car mCar;
-    private CarPropertyManager mCarPropertyManager;
+    private final UnitsPropertyService mUnitsPropertyService;
+    private final SparseArray<CarPropertyManager.CarPropertyEventCallback> mPropertyCallbacks =
+            new SparseArray<>();
     private OnCarServiceListener mCarServiceListener;
+    private CarPropertyManager mCarPropertyManager;
+
+    private final OnCarServiceListener mServiceListener = new OnCarServiceListener() {
+        @Override
+        public void handleServiceConnected(CarPropertyManager carPropertyManager) {
+            mCarPropertyManager = carPropertyManager;
+            if (mCarServiceListener != null) {
+                mCarServiceListener.handleServiceConnected(carPropertyManager);
+            }
+        }
+
+        @Override
+        public void handleServiceDisconnected() {
+            mCarPropertyManager = null;
+            if (mCarServiceListener != null) {
+                mCarServiceListener.handleServiceDisconnected();
+            }
+        }
+    };
 
     public CarUnitsManager(Context context) {
-        mContext = context;
-        mCar = Car.createCar(mContext);
-        mCarPropertyManager =
-                (CarPropertyManager) mCar.getCarManager(Car.PROPERTY_SERVICE);
+        this(UnitsPropertyService.getInstance(context));
+    }
+
+    @VisibleForTesting
+    CarUnitsManager(UnitsPropertyService unitsPropertyService) {
+        mUnitsPropertyService = unitsPropertyService;
     }
 
     /**
-     * Registers {@link OnCarServiceListener} as a Callback for when connection to {@link Car} has
-     * been established.
+     * Registers {@link OnCarServiceListener} as a Callback for when connection to {@link
+     * android.car.Car} has been established.
      */
     public void registerCarServiceListener(OnCarServiceListener listener) {
         mCarServiceListener = listener;
-        mCarServiceListener.handleServiceConnected(mCarPropertyManager);
+        mUnitsPropertyService.acquire(mServiceListener);
     }
 
     /**
-     * Unregisters {@link OnCarServiceListener} as a Callback for when connection to {@link Car} has
-     * been terminated.
+     * Unregisters {@link OnCarServiceListener} as a Callback for when connection to {@link
+     * android.car.Car} has been terminated.
      */
     public void unregisterCarServiceListener() {
         mCarServiceListener = null;
     }
 
+    /**
+     * Registers {@code callback} for changes of {@code propertyId}. Callbacks are unregistered
+     * when this manager is disconnected.
+     */
+    protected void registerPropertyCallback(int propertyId,
+            CarPropertyManager.CarPropertyEventCallback callback) {
+        mPropertyCallbacks.put(propertyId, callback);
+        mUnitsPropertyService.registerPropertyCallback(propertyId, callback);
+    }
+
     protected void disconnect() {
-        mCar.disconnect();
+        for (int i = 0; i < mPropertyCallbacks.size(); i++) {
+            mUnitsPropertyService.unregisterPropertyCallback(mPropertyCallbacks.keyAt(i),
+                    mPropertyCallbacks.valueAt(i));
+        }
+        mPropertyCallbacks.clear();
+        mUnitsPropertyService.release(mServiceListener);
+        mCarPropertyManager = null;
         if (mCarServiceListener != null) {
             mCarServiceListener.handleServiceDisconnected();
         }
@@ -84,39 +123,7 @@ public class CarUnitsManager {
     }
 
     protected Unit[] getUnitsSupportedByProperty(int propertyId) {
-        ArraySet<Integer> propertyIdSet = new ArraySet<Integer>();
-        propertyIdSet.add(propertyId);
-        List<CarPropertyConfig> configs = mCarPropertyManager.getPropertyList(propertyIdSet);
-        List<Integer> availableUnitsId = new ArrayList<Integer>();
-        List<Unit> units = new ArrayList<Unit>();
-
-        if (configs == null || configs.size() < 1 || configs.get(0) == null) {
-            return null;
-        }
-
-        // Checks if the property is read-write property
-        if (configs.get(0).getAccess()
-                != CarPropertyConfig.VEHICLE_PROPERTY_ACCESS_READ_WRITE) {
-            return null;
-        }
-
-        availableUnitsId = configs.get(0).getConfigArray();
-
-        Unit[] result = new Unit[availableUnitsId.size()];
-        for (int unitId : availableUnitsId) {
-            if (UnitsMap.MAP.get(unitId) != null) {
-                Unit unit = UnitsMap.MAP.get(unitId);
-                units.add(unit);
-            }
-        }
-        for (int i = 0; i < result.length; i++) {
-            int unitId = availableUnitsId.get(i);
-            if (UnitsMap.MAP.get(unitId) != null) {
-                Unit unit = UnitsMap.MAP.get(unitId);
-                result[i] = unit;
-            }
-        }
-        return result;
+        return mUnitsPropertyService.getUnitsSupportedByProperty(propertyId);
     }
 
     protected Unit getUnitUsedByProperty(int propertyId) {
@@ -155,15 +162,15 @@ public class CarUnitsManager {
         }
     }
 
-    /** Defines callbacks that listen to {@link Car} service-related events. */
+    /** Defines callbacks that listen to {@link android.car.Car} service-related events. */
     public interface OnCarServiceListener {
         /**
-         * Callback to be run when {@link Car} service is connected and {@link
+         * Callback to be run when {@link android.car.Car} service is connected and {@link
          * CarPropertyManager} becomes available.
          */
         void handleServiceConnected(CarPropertyManager carPropertyManager);
 
-        /** Callback to be run when {@link Car} service is disconnected. */
+        /** Callback to be run when {@link android.car.Car} service is disconnected. */
         void handleServiceDisconnected();
     }
 }
@@ -45,8 +45,8 @@ public abstract class UnitsBasePreferenceController extends PreferenceController
                 public void handleServiceConnected(CarPropertyManager carPropertyManager) {
                     try {
                         if (carPropertyManager != null) {
-                            carPropertyManager.registerCallback(mCarPropertyEventCallback,
-                                    getPropertyId(), CarPropertyManager.SENSOR_RATE_ONCHANGE);
+                            mCarUnitsManager.registerPropertyCallback(getPropertyId(),
+                                    mCarPropertyEventCallback);
                         }
                         mSupportedUnits = mCarUnitsManager.getUnitsSupportedByProperty(
                                 getPropertyId());
@@ -0,0 +1,286 @@
+/*
+ * Copyright (C) 2023 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.car.settings.units;
+
+import android.car.Car;
+import android.car.Car.CarServiceLifecycleListener;
+import android.car.VehiclePropertyIds;
+import android.car.hardware.CarPropertyConfig;
+import android.car.hardware.CarPropertyValue;
+import android.car.hardware.property.CarPropertyManager;
+import android.content.Context;
+import android.util.ArraySet;
+import android.util.SparseArray;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import com.android.car.settings.common.CarServiceHub;
+import com.android.car.settings.common.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Process-wide access to the unit properties shared by all {@link CarUnitsManager} instances.
+ *
+ * <p>The car connection is shared through {@link CarServiceHub}. The configs of all unit
+ * properties are fetched with a single {@link CarPropertyManager#getPropertyList} call and the
+ * supported units of each property are cached until the car service disconnects. A single
+ * {@link CarPropertyManager.CarPropertyEventCallback} is registered per property and multiplexed
+ * to all registered callbacks; the last value of each property is replayed to callbacks
+ * registered later, matching what {@link CarPropertyManager#registerCallback} delivers.
+ * Registered callbacks survive car service restarts and are registered again on connection.
+ *
+ * <p>All methods must be called on the main thread.
+ */
+public class UnitsPropertyService {
+    private static final Logger LOG = new Logger(UnitsPropertyService.class);
+
+    @VisibleForTesting
+    static final int[] UNIT_PROPERTY_IDS = {
+            VehiclePropertyIds.DISTANCE_DISPLAY_UNITS,
+            VehiclePropertyIds.EV_BATTERY_DISPLAY_UNITS,
+            VehiclePropertyIds.FUEL_VOLUME_DISPLAY_UNITS,
+            VehiclePropertyIds.HVAC_TEMPERATURE_DISPLAY_UNITS,
+            VehiclePropertyIds.TIRE_PRESSURE_DISPLAY_UNITS,
+            VehiclePropertyIds.VEHICLE_SPEED_DISPLAY_UNITS,
+    };
+
+    private static UnitsPropertyService sInstance;
+
+    private final CarServiceHub mCarServiceHub;
+    private final ArraySet<CarUnitsManager.OnCarServiceListener> mListeners = new ArraySet<>();
+    private final SparseArray<ArraySet<CarPropertyManager.CarPropertyEventCallback>> mCallbacks =
+            new SparseArray<>();
+    private final SparseArray<CarPropertyValue> mLastValues = new SparseArray<>();
+
+    @Nullable
+    private CarPropertyManager mCarPropertyManager;
+    // Supported units by property id, or null if the configs have not been fetched yet.
+    @Nullable
+    private SparseArray<Unit[]> mSupportedUnits;
+    private int mConfigQueryCount;
+
+    private final CarServiceLifecycleListener mCarServiceLifecycleListener = (car, ready) -> {
+        if (ready) {
+            mCarPropertyManager = (CarPropertyManager) car.getCarManager(Car.PROPERTY_SERVICE);
+            registerMultiplexingCallbacks();
+            for (CarUnitsManager.OnCarServiceListener listener : new ArrayList<>(mListeners)) {
+                listener.handleServiceConnected(mCarPropertyManager);
+            }
+        } else {
+            clearCarPropertyState();
+            for (CarUnitsManager.OnCarServiceListener listener : new ArrayList<>(mListeners)) {
+                listener.handleServiceDisconnected();
+            }
+        }
+    };
+
+    private final CarPropertyManager.CarPropertyEventCallback mCarPropertyEventCallback =
+            new CarPropertyManager.CarPropertyEventCallback() {
+                @Override
+                public void onChangeEvent(CarPropertyValue value) {
+                    if (value == null) {
+                        return;
+                    }
+                    mLastValues.put(value.getPropertyId(), value);
+                    ArraySet<CarPropertyManager.CarPropertyEventCallback> callbacks =
+                            mCallbacks.get(value.getPropertyId());
+                    if (callbacks == null) {
+                        return;
+                    }
+                    for (CarPropertyManager.CarPropertyEventCallback callback :
+                            new ArrayList<>(callbacks)) {
+                        callback.onChangeEvent(value);
+                    }
+                }
+
+                @Override
+                public void onErrorEvent(int propId, int zone) {
+                    ArraySet<CarPropertyManager.CarPropertyEventCallback> callbacks =
+                            mCallbacks.get(propId);
+                    if (callbacks == null) {
+                        return;
+                    }
+                    for (CarPropertyManager.CarPropertyEventCallback callback :
+                            new ArrayList<>(callbacks)) {
+                        callback.onErrorEvent(propId, zone);
+                    }
+                }
+            };
+
+    /** Returns the process-wide instance of {@link UnitsPropertyService}. */
+    public static UnitsPropertyService getInstance(Context context) {
+        if (sInstance == null) {
+            sInstance = new UnitsPropertyService(CarServiceHub.getInstance(context));
+        }
+        return sInstance;
+    }
+
+    @VisibleForTesting
+    UnitsPropertyService(CarServiceHub carServiceHub) {
+        mCarServiceHub = carServiceHub;
+    }
+
+    /**
+     * Registers {@code listener} and acquires the shared car connection if this is the first
+     * listener. {@code listener} is notified immediately if the car service is already connected.
+     */
+    @MainThread
+    public void acquire(CarUnitsManager.OnCarServiceListener listener) {
+        if (!mListeners.add(listener)) {
+            return;
+        }
+        if (mListeners.size() == 1) {
+            // Invokes the lifecycle listener, and thus this listener, if already connected.
+            mCarServiceHub.acquire(mCarServiceLifecycleListener);
+        } else if (mCarPropertyManager != null) {
+            listener.handleServiceConnected(mCarPropertyManager);
+        }
+    }
+
+    /**
+     * Unregisters {@code listener} and releases the shared car connection if this was the last
+     * listener.
+     */
+    @MainThread
+    public void release(CarUnitsManager.OnCarServiceListener listener) {
+        if (!mListeners.remove(listener) || !mListeners.isEmpty()) {
+            return;
+        }
+        mCarServiceHub.release(mCarServiceLifecycleListener);
+        clearCarPropertyState();
+    }
+
+    /** Returns the {@link CarPropertyManager}, or {@code null} if not connected. */
+    @Nullable
+    public CarPropertyManager getCarPropertyManager() {
+        return mCarPropertyManager;
+    }
+
+    /**
+     * Returns the units supported by {@code propertyId}, or {@code null} if the property is not
+     * supported or is not writable. The configs of all unit properties are fetched on the first
+     * call.
+     */
+    @Nullable
+    public Unit[] getUnitsSupportedByProperty(int propertyId) {
+        if (mSupportedUnits == null) {
+            if (mCarPropertyManager == null) {
+                return null;
+            }
+            mSupportedUnits = loadSupportedUnits();
+        }
+        return mSupportedUnits.get(propertyId);
+    }
+
+    /**
+     * Registers {@code callback} for changes of {@code propertyId}. The last known value of the
+     * property is delivered immediately if available.
+     */
+    @MainThread
+    public void registerPropertyCallback(int propertyId,
+            CarPropertyManager.CarPropertyEventCallback callback) {
+        ArraySet<CarPropertyManager.CarPropertyEventCallback> callbacks =
+                mCallbacks.get(propertyId);
+        if (callbacks == null) {
+            callbacks = new ArraySet<>();
+            mCallbacks.put(propertyId, callbacks);
+        }
+        if (!callbacks.add(callback)) {
+            return;
+        }
+        if (callbacks.size() == 1 && mCarPropertyManager != null) {
+            // Delivers the current value to the multiplexing callback.
+            mCarPropertyManager.registerCallback(mCarPropertyEventCallback, propertyId,
+                    CarPropertyManager.SENSOR_RATE_ONCHANGE);
+        } else if (mLastValues.get(propertyId) != null) {
+            callback.onChangeEvent(mLastValues.get(propertyId));
+        }
+    }
+
+    /** Unregisters a callback added with {@link #registerPropertyCallback}. */
+    @MainThread
+    public void unregisterPropertyCallback(int propertyId,
+            CarPropertyManager.CarPropertyEventCallback callback) {
+        ArraySet<CarPropertyManager.CarPropertyEventCallback> callbacks =
+                mCallbacks.get(propertyId);
+        if (callbacks == null || !callbacks.remove(callback) || !callbacks.isEmpty()) {
+            return;
+        }
+        mCallbacks.remove(propertyId);
+        mLastValues.remove(propertyId);
+        if (mCarPropertyManager != null) {
+            mCarPropertyManager.unregisterCallback(mCarPropertyEventCallback, propertyId);
+        }
+    }
+
+    /** Returns the number of {@link CarPropertyManager#getPropertyList} calls made. */
+    @VisibleForTesting
+    int getConfigQueryCount() {
+        return mConfigQueryCount;
+    }
+
+    private SparseArray<Unit[]> loadSupportedUnits() {
+        mConfigQueryCount++;
+        ArraySet<Integer> propertyIds = new ArraySet<>(UNIT_PROPERTY_IDS.length);
+        for (int propertyId : UNIT_PROPERTY_IDS) {
+            propertyIds.add(propertyId);
+        }
+        SparseArray<Unit[]> supportedUnits = new SparseArray<>();
+        List<CarPropertyConfig> configs = mCarPropertyManager.getPropertyList(propertyIds);
+        if (configs == null) {
+            LOG.w("Unable to get the unit property configs");
+            return supportedUnits;
+        }
+        for (CarPropertyConfig config : configs) {
+            // Only read-write properties can be changed by the user.
+            if (config == null
+                    || config.getAccess() != CarPropertyConfig.VEHICLE_PROPERTY_ACCESS_READ_WRITE) {
+                continue;
+            }
+            List<Integer> availableUnitsId = config.getConfigArray();
+            Unit[] units = new Unit[availableUnitsId.size()];
+            for (int i = 0; i < units.length; i++) {
+                units[i] = UnitsMap.MAP.get(availableUnitsId.get(i));
+            }
+            supportedUnits.put(config.getPropertyId(), units);
+        }
+        return supportedUnits;
+    }
+
+    // Registers the properties whose callbacks were added while disconnected, or kept across a
+    // reconnection. Delivers the current values to the multiplexing callback.
+    private void registerMultiplexingCallbacks() {
+        if (mCarPropertyManager == null) {
+            return;
+        }
+        for (int i = 0; i < mCallbacks.size(); i++) {
+            mCarPropertyManager.registerCallback(mCarPropertyEventCallback, mCallbacks.keyAt(i),
+                    CarPropertyManager.SENSOR_RATE_ONCHANGE);
+        }
+    }
+
+    // Registered callbacks are kept so that they are registered again on reconnection.
+    private void clearCarPropertyState() {
+        mCarPropertyManager = null;
+        mSupportedUnits = null;
+        mLastValues.clear();
+    }
+}
@@ -30,6 +30,7 @@ import androidx.preference.PreferenceGroup;
 import com.android.car.settings.R;
 import com.android.car.settings.common.FragmentController;
 import com.android.car.settings.common.Logger;
+import com.android.car.settings.common.PreferencePool;
 import com.android.car.settings.wifi.details.WifiDetailsFragment;
 import com.android.wifitrackerlib.WifiEntry;
 
@@ -75,6 +76,7 @@ public class WifiEntryListPreferenceController extends
                 }
             };
 
+    private final PreferencePool mPreferencePool = new PreferencePool();
     private List<WifiEntry> mWifiEntries = new ArrayList<>();
 
     public WifiEntryListPreferenceController(@NonNull Context context, String preferenceKey,
@@ -98,6 +100,7 @@ public class WifiEntryListPreferenceController extends
 
         preferenceGroup.setVisible(!mWifiEntries.isEmpty());
         preferenceGroup.removeAll();
+        mPreferencePool.releaseAll();
 
         List<WifiEntry> connectedWifiEntries = getCarWifiManager().getConnectedWifiEntries();
         for (int i = 0; i < mWifiEntries.size(); i++) {
@@ -106,10 +109,10 @@ public class WifiEntryListPreferenceController extends
             // fetchWifiEntries() sort the connected networks to the front
             if (i < connectedWifiEntries.size()) {
                 preferenceGroup.addPreference(
-                        createWifiEntryPreference(wifiEntry, /* connected= */  true));
+                        acquireWifiEntryPreference(wifiEntry, /* connected= */  true));
             } else {
                 preferenceGroup.addPreference(
-                        createWifiEntryPreference(wifiEntry, /* connected= */ false));
+                        acquireWifiEntryPreference(wifiEntry, /* connected= */ false));
             }
         }
     }
@@ -161,9 +164,13 @@ public class WifiEntryListPreferenceController extends
         return getContext().getSystemService(WifiManager.class);
     }
 
-    private WifiEntryPreference createWifiEntryPreference(WifiEntry wifiEntry, boolean connected) {
+    private WifiEntryPreference acquireWifiEntryPreference(WifiEntry wifiEntry, boolean connected) {
         LOG.d("Adding preference for " + WifiUtil.getKey(wifiEntry));
-        WifiEntryPreference wifiEntryPreference = new WifiEntryPreference(getContext(), wifiEntry);
+        // A preference reused for another instance of the same network is moved to the new entry.
+        WifiEntryPreference wifiEntryPreference = mPreferencePool.acquire(
+                WifiEntryPreference.class, wifiEntry.getKey(),
+                () -> new WifiEntryPreference(getContext(), wifiEntry));
+        wifiEntryPreference.setWifiEntry(wifiEntry);
         wifiEntryPreference.setOnPreferenceClickListener(pref -> {
             if (connected) {
                 if (wifiEntry.canSignIn()) {
@@ -187,6 +194,8 @@ public class WifiEntryListPreferenceController extends
             wifiEntryPreference.setOnSecondaryActionClickListener(
                     () -> wifiEntry.forget(/* callback= */ null));
             wifiEntryPreference.setSecondaryActionVisible(true);
+        } else {
+            wifiEntryPreference.setSecondaryActionVisible(false);
         }
 
         // Since this preference is dynamically created, it doesn't have the dpm behaviors set
@@ -37,7 +37,7 @@ public class WifiEntryPreference extends CarUiTwoActionIconPreference
     private static final int[] STATE_NONE = {};
     private static final int[] sWifiSignalAttributes = {com.android.settingslib.R.attr.wifi_signal};
 
-    private final WifiEntry mWifiEntry;
+    private WifiEntry mWifiEntry;
     @Nullable
     private final StateListDrawable mWifiSld;
 
@@ -64,6 +64,21 @@ public class WifiEntryPreference extends CarUiTwoActionIconPreference
         return mWifiEntry;
     }
 
+    /**
+     * Represents {@code wifiEntry} with this preference instead of the current entry, and listens
+     * to its updates instead.
+     */
+    public void setWifiEntry(WifiEntry wifiEntry) {
+        if (mWifiEntry == wifiEntry) {
+            return;
+        }
+        mWifiEntry.setListener(null);
+        mWifiEntry = wifiEntry;
+        mWifiEntry.setListener(this);
+        setKey(wifiEntry.getKey());
+        refresh();
+    }
+
     @Override
     public void onBindViewHolder(PreferenceViewHolder holder) {
         super.onBindViewHolder(holder);
@@ -24,6 +24,7 @@ import static org.robolectric.RuntimeEnvironment.application;
 import android.accounts.AccountManager;
 import android.accounts.AuthenticatorDescription;
 import android.content.SyncAdapterType;
+import android.os.UserHandle;
 
 import com.android.car.settings.R;
 import com.android.car.settings.testutils.ShadowAccountManager;
@@ -50,6 +51,7 @@ public class AccountTypesHelperTest {
     private static final String ACCOUNT_TYPE_2 = "com.acct2";
     private static final String ACCOUNT_TYPE_3 = "com.acct3";
 
+    private AuthenticatorMetadataCache mMetadataCache;
     private AccountTypesHelper mHelper;
 
     private AccountManager mAccountManager = AccountManager.get(application);
@@ -64,7 +66,8 @@ public class AccountTypesHelperTest {
         addAuthenticator(ACCOUNT_TYPE_1, /* label= */ R.string.account_type1_label);
         addAuthenticator(ACCOUNT_TYPE_2, /* label= */ R.string.account_type2_label);
 
-        mHelper = new AccountTypesHelper(application);
+        mMetadataCache = new AuthenticatorMetadataCache(application);
+        mHelper = new AccountTypesHelper(application, mMetadataCache);
         mHelper.setOnChangeListener(() -> mOnChangeListenerInvocations++);
     }
 
@@ -119,8 +122,6 @@ public class AccountTypesHelperTest {
 
         mHelper.setAuthorities(Collections.singletonList("someOtherAuthority"));
 
-        // Force an authenticator refresh so the authorities are refreshed.
-        mHelper.getAuthenticatorHelper().onReceive(application, null);
         mHelper.forceUpdate();
 
         assertThat(mHelper.getAuthorizedAccountTypes()).containsExactly(ACCOUNT_TYPE_2);
@@ -138,8 +139,6 @@ public class AccountTypesHelperTest {
 
         mHelper.setAuthorities(Collections.singletonList("someAuthority"));
 
-        // Force an authenticator refresh so the authorities are refreshed.
-        mHelper.getAuthenticatorHelper().onReceive(application, null);
         mHelper.forceUpdate();
 
         assertThat(mHelper.getAuthorizedAccountTypes()).containsExactly(
@@ -153,10 +152,9 @@ public class AccountTypesHelperTest {
 
         addAuthenticator(ACCOUNT_TYPE_3, /* label= */ R.string.account_type3_label);
 
-        // Trigger an account update via the authenticator helper while listening for account
-        // updates.
+        // Trigger an account update via the metadata cache while listening for account updates.
         mHelper.listenToAccountUpdates();
-        mHelper.getAuthenticatorHelper().onReceive(application, null);
+        mMetadataCache.invalidate(UserHandle.of(UserHandle.myUserId()));
         mHelper.stopListeningToAccountUpdates();
 
         assertThat(mHelper.getAuthorizedAccountTypes()).containsExactly(
@@ -16,6 +16,8 @@
 
 package com.android.car.settings.applications;
 
+import static com.google.common.truth.Truth.assertThat;
+
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
@@ -171,4 +173,48 @@ public class ApplicationListItemManagerTest {
 
         verify(mAppListItemListener1, times(2)).onDataLoaded(apps);
     }
+
+    @Test
+    public void onRebuildComplete_onlyLabelLoaded_shouldNotifyRegisteredListener() {
+        ArrayList<ApplicationsState.AppEntry> apps = new ArrayList<>();
+        ApplicationInfo appInfo = new ApplicationInfo();
+        appInfo.uid = UID;
+        appInfo.sourceDir = SOURCE;
+
+        ApplicationsState.AppEntry appEntry = new ApplicationsState.AppEntry(mContext, appInfo,
+                /* id= */ 1234L);
+        appEntry.label = LABEL;
+        apps.add(appEntry);
+
+        mApplicationListItemManager.registerListener(mAppListItemListener1);
+        mApplicationListItemManager.onRebuildComplete(apps);
+
+        verify(mAppListItemListener1).onDataLoaded(apps);
+    }
+
+    @Test
+    public void onRebuildComplete_recordsLoadingMetrics() {
+        ArrayList<ApplicationsState.AppEntry> apps = new ArrayList<>();
+        ApplicationInfo appInfo = new ApplicationInfo();
+        appInfo.uid = UID;
+        appInfo.sourceDir = SOURCE;
+
+        ApplicationsState.AppEntry appEntry = new ApplicationsState.AppEntry(mContext, appInfo,
+                /* id= */ 1234L);
+        appEntry.label = LABEL;
+        apps.add(appEntry);
+
+        mApplicationListItemManager.startLoading(mAppFilter, /* param= */ null);
+        mApplicationListItemManager.onRebuildComplete(apps);
+
+        assertThat(mApplicationListItemManager.getTimeToFirstRowMs()).isAtLeast(0);
+        assertThat(mApplicationListItemManager.getTimeToCompleteMs()).isEqualTo(-1);
+
+        appEntry.sizeStr = SIZE_STR;
+        appEntry.icon = mContext.getDrawable(R.drawable.test_icon);
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+        mApplicationListItemManager.onRebuildComplete(apps);
+
+        assertThat(mApplicationListItemManager.getTimeToCompleteMs()).isAtLeast(0);
+    }
 }
@@ -25,6 +25,7 @@ import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import android.car.drivingstate.CarUxRestrictions;
 import android.content.Context;
@@ -48,16 +49,23 @@ import org.robolectric.RobolectricTestRunner;
 import org.robolectric.RuntimeEnvironment;
 import org.robolectric.Shadows;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @RunWith(RobolectricTestRunner.class)
 public class DefaultAppsPickerEntryBasePreferenceControllerTest {
 
     private static final Intent TEST_INTENT = new Intent(Settings.ACTION_SETTINGS);
+    private static final String TEST_LABEL = "Test app";
 
     private static class TestDefaultAppsPickerEntryBasePreferenceController extends
             DefaultAppsPickerEntryBasePreferenceController {
 
         private final DefaultAppInfo mDefaultAppInfo;
+        private final List<Runnable> mBackgroundTasks = new ArrayList<>();
         private Intent mSettingIntent;
+        private boolean mDeferBackgroundTasks;
+        private int mDefaultAppInfoQueryCount;
 
         TestDefaultAppsPickerEntryBasePreferenceController(Context context,
                 String preferenceKey, FragmentController fragmentController,
@@ -79,8 +87,45 @@ public class DefaultAppsPickerEntryBasePreferenceControllerTest {
         @Nullable
         @Override
         protected DefaultAppInfo getCurrentDefaultAppInfo() {
+            mDefaultAppInfoQueryCount++;
             return mDefaultAppInfo;
         }
+
+        @Override
+        void executeBackgroundTask(Runnable r) {
+            if (mDeferBackgroundTasks) {
+                mBackgroundTasks.add(r);
+            } else {
+                r.run();
+            }
+        }
+
+        @Override
+        void executeUiTask(Runnable r) {
+            r.run();
+        }
+
+        DefaultAppInfo getDefaultAppInfo() {
+            return mDefaultAppInfo;
+        }
+
+        int getDefaultAppInfoQueryCount() {
+            return mDefaultAppInfoQueryCount;
+        }
+
+        void setDeferBackgroundTasks(boolean defer) {
+            mDeferBackgroundTasks = defer;
+        }
+
+        void runNextBackgroundTask() {
+            mBackgroundTasks.remove(0).run();
+        }
+
+        void runBackgroundTasks() {
+            List<Runnable> tasks = new ArrayList<>(mBackgroundTasks);
+            mBackgroundTasks.clear();
+            tasks.forEach(Runnable::run);
+        }
     }
 
     private Context mContext;
@@ -157,4 +202,47 @@ public class DefaultAppsPickerEntryBasePreferenceControllerTest {
         verify(mContext).startActivityForResult(
                 "android", TEST_INTENT, 0, null);
     }
+
+    @Test
+    public void refreshUi_bindsSecondaryActionWhenBackgroundLoadCompletes() {
+        mController.setSettingIntent(TEST_INTENT);
+        mController.setDeferBackgroundTasks(true);
+        mButtonPreference.setSecondaryActionVisible(false);
+        mControllerHelper.sendLifecycleEvent(Lifecycle.Event.ON_CREATE);
+        mController.refreshUi();
+        boolean visibleBeforeLoad = mButtonPreference.isSecondaryActionVisible();
+
+        mController.runBackgroundTasks();
+
+        assertThat(visibleBeforeLoad).isFalse();
+        assertThat(mButtonPreference.isSecondaryActionVisible()).isTrue();
+    }
+
+    @Test
+    public void refreshUi_bindsSummaryFromSingleDefaultAppQuery() {
+        when(mController.getDefaultAppInfo().loadLabel()).thenReturn(TEST_LABEL);
+        mControllerHelper.sendLifecycleEvent(Lifecycle.Event.ON_CREATE);
+        int queryCount = mController.getDefaultAppInfoQueryCount();
+
+        mController.refreshUi();
+
+        assertThat(mButtonPreference.getSummary().toString()).isEqualTo(TEST_LABEL);
+        assertThat(mController.getDefaultAppInfoQueryCount()).isEqualTo(queryCount + 1);
+    }
+
+    @Test
+    public void refreshUi_staleBackgroundLoad_isNotBound() {
+        mController.setSettingIntent(TEST_INTENT);
+        mController.setDeferBackgroundTasks(true);
+        mButtonPreference.setSecondaryActionVisible(false);
+        // Creating the controller queues the first load.
+        mControllerHelper.sendLifecycleEvent(Lifecycle.Event.ON_CREATE);
+        mController.refreshUi();
+
+        mController.runNextBackgroundTask();
+        assertThat(mButtonPreference.isSecondaryActionVisible()).isFalse();
+
+        mController.runNextBackgroundTask();
+        assertThat(mButtonPreference.isSecondaryActionVisible()).isTrue();
+    }
 }
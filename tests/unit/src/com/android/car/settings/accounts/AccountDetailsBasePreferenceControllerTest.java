@@ -18,12 +18,15 @@ package com.android.car.settings.accounts;
 
 import static com.google.common.truth.Truth.assertThat;
 
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.testng.Assert.assertThrows;
 
 import android.accounts.Account;
 import android.car.drivingstate.CarUxRestrictions;
 import android.content.Context;
+import android.graphics.drawable.Drawable;
 import android.os.UserHandle;
 
 import androidx.lifecycle.LifecycleOwner;
@@ -35,7 +38,6 @@ import com.android.car.settings.common.FragmentController;
 import com.android.car.settings.common.PreferenceControllerTestUtil;
 import com.android.car.settings.testutils.TestLifecycleOwner;
 import com.android.car.ui.preference.CarUiTwoActionIconPreference;
-import com.android.settingslib.accounts.AuthenticatorHelper;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -43,6 +45,8 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.util.function.Consumer;
+
 @RunWith(AndroidJUnit4.class)
 public class AccountDetailsBasePreferenceControllerTest {
     private static final String ACCOUNT_NAME = "Name";
@@ -59,7 +63,7 @@ public class AccountDetailsBasePreferenceControllerTest {
     @Mock
     private FragmentController mFragmentController;
     @Mock
-    private AuthenticatorHelper mAuthenticatorHelper;
+    private AuthenticatorMetadataCache mAuthenticatorMetadataCache;
 
     @Before
     public void setUp() {
@@ -113,8 +117,12 @@ public class AccountDetailsBasePreferenceControllerTest {
         mPreferenceController.setAccount(mAccount);
         mPreferenceController.setUserHandle(mUserHandle);
         PreferenceControllerTestUtil.assignPreference(mPreferenceController, mPreference);
-        when(mAuthenticatorHelper.getDrawableForType(mContext, mAccount.type)).thenReturn(
-                mContext.getDrawable(R.drawable.ic_add));
+        doAnswer(invocation -> {
+            Consumer<Drawable> callback = invocation.getArgument(2);
+            callback.accept(mContext.getDrawable(R.drawable.ic_add));
+            return null;
+        }).when(mAuthenticatorMetadataCache).loadDrawableForType(eq(mUserHandle),
+                eq(mAccount.type), any());
 
         mPreferenceController.onCreate(mLifecycleOwner);
 
@@ -131,8 +139,8 @@ public class AccountDetailsBasePreferenceControllerTest {
         }
 
         @Override
-        AuthenticatorHelper getAuthenticatorHelper() {
-            return mAuthenticatorHelper;
+        AuthenticatorMetadataCache getAuthenticatorMetadataCache() {
+            return mAuthenticatorMetadataCache;
         }
     }
 }
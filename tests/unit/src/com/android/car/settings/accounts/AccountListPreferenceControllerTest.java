@@ -54,7 +54,6 @@ import com.android.car.settings.testutils.EnterpriseTestUtils;
 import com.android.car.settings.testutils.ResourceTestUtils;
 import com.android.car.settings.testutils.TestLifecycleOwner;
 import com.android.dx.mockito.inline.extended.ExtendedMockito;
-import com.android.settingslib.accounts.AuthenticatorHelper;
 
 import org.junit.After;
 import org.junit.Before;
@@ -64,6 +63,7 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.MockitoSession;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -93,7 +93,7 @@ public class AccountListPreferenceControllerTest {
     @Mock
     private FragmentController mFragmentController;
     @Mock
-    private AuthenticatorHelper mMockAuthenticatorHelper;
+    private AuthenticatorMetadataCache mMockMetadataCache;
     @Mock
     private ProfileHelper mMockProfileHelper;
     @Mock
@@ -117,7 +117,7 @@ public class AccountListPreferenceControllerTest {
         mPreference = new PreferenceCategory(mContext);
         screen.addPreference(mPreference);
         initMocks();
-        mController = new TestAccountListPreferenceController(mContext,
+        mController = new AccountListPreferenceController(mContext,
                 /* preferenceKey= */ "key", mFragmentController, mCarUxRestrictions);
         PreferenceControllerTestUtil.assignPreference(mController, mPreference);
     }
@@ -191,7 +191,7 @@ public class AccountListPreferenceControllerTest {
     }
 
     @Test
-    public void onAccountsUpdate_isThisUser_shouldForceUpdate() {
+    public void onMetadataChanged_isThisUser_shouldForceUpdate() {
         addAccount(/* name= */ "Account1", /* type= */ "com.acct1");
         addAccount(/* name= */ "Account2", /* type= */ "com.acct2");
 
@@ -201,7 +201,7 @@ public class AccountListPreferenceControllerTest {
         removeAllAccounts();
         addAccount(/* name= */ "Account3", /* type= */ "com.acct1");
 
-        mController.onAccountsUpdate(new UserHandle(USER_ID));
+        mController.onMetadataChanged(new UserHandle(USER_ID));
 
         assertThat(mPreference.getPreferenceCount()).isEqualTo(1);
         Preference firstPref = mPreference.getPreference(0);
@@ -211,7 +211,33 @@ public class AccountListPreferenceControllerTest {
     }
 
     @Test
-    public void onAccountsUpdate_updatedUserIsNotCurrentUser_shouldNotForceUpdate() {
+    public void onMetadataChanged_allUsers_shouldForceUpdate() {
+        addAccount(/* name= */ "Account1", /* type= */ "com.acct1");
+
+        mController.onCreate(mLifecycleOwner);
+        assertThat(mPreference.getPreferenceCount()).isEqualTo(1);
+
+        addAccount(/* name= */ "Account2", /* type= */ "com.acct2");
+
+        mController.onMetadataChanged(UserHandle.ALL);
+
+        assertThat(mPreference.getPreferenceCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void onStart_listensToMetadataCache() {
+        mController.onCreate(mLifecycleOwner);
+        mController.onStart(mLifecycleOwner);
+
+        verify(mMockMetadataCache).addOnMetadataChangedListener(mController);
+
+        mController.onStop(mLifecycleOwner);
+
+        verify(mMockMetadataCache).removeOnMetadataChangedListener(mController);
+    }
+
+    @Test
+    public void onMetadataChanged_updatedUserIsNotCurrentUser_shouldNotForceUpdate() {
         addAccount(/* name= */ "Account1", /* type= */ "com.acct1");
         addAccount(/* name= */ "Account2", /* type= */ "com.acct2");
 
@@ -221,7 +247,7 @@ public class AccountListPreferenceControllerTest {
         removeAllAccounts();
         addAccount(/* name= */ "Account3", /* type= */ "com.acct1");
 
-        mController.onAccountsUpdate(new UserHandle(NOT_THIS_USER_ID));
+        mController.onMetadataChanged(new UserHandle(NOT_THIS_USER_ID));
 
         assertThat(mPreference.getPreferenceCount()).isEqualTo(2);
     }
@@ -265,12 +291,10 @@ public class AccountListPreferenceControllerTest {
         } else {
             mAccountTypeToNameMap.put(type, Collections.singletonList(name));
         }
-        updateEnabledAccountTypes();
     }
 
     private void removeAllAccounts() {
         mAccountTypeToNameMap.clear();
-        updateEnabledAccountTypes();
     }
 
     @Test
@@ -510,54 +534,35 @@ public class AccountListPreferenceControllerTest {
                 "com.acct3", mContext.getString(R.string.account_type3_label));
         mAuthenticatedAccountTypes = Set.of("com.acct1", "com.acct2");
         mAccountTypeToNameMap = new HashMap<>();
-        updateEnabledAccountTypes();
-        when(mMockAuthenticatorHelper.getLabelForType(any(), any())).then(invocation -> {
+        when(mMockMetadataCache.getLabelForType(any(), any())).then(invocation -> {
             Object[] args = invocation.getArguments();
             String type = (String) args[1];
             return mAuthenticatedAccountTypes.contains(type)
                     ? mAccountTypeToLabelMap.get(type)
                     : null;
         });
-        when(mMockAuthenticatorHelper.getDrawableForType(any(), any())).thenReturn(null);
 
         mSession = ExtendedMockito.mockitoSession()
                 .mockStatic(ProfileHelper.class, withSettings().lenient())
                 .mockStatic(AccountManager.class, withSettings().lenient())
+                .mockStatic(AuthenticatorMetadataCache.class, withSettings().lenient())
                 .startMocking();
 
+        when(AuthenticatorMetadataCache.getInstance(mContext)).thenReturn(mMockMetadataCache);
+
         when(ProfileHelper.getInstance(mContext)).thenReturn(mMockProfileHelper);
         UserInfo userInfo = new UserInfo(USER_ID, USER_NAME, 0);
         when(mMockProfileHelper.getCurrentProcessUserInfo()).thenReturn(userInfo);
 
         when(AccountManager.get(mContext)).thenReturn(mMockAccountManager);
-        when(mMockAccountManager.getAccountsByTypeAsUser(any(), any())).then(invocation -> {
-            Object[] args = invocation.getArguments();
-            String type = (String) args[0];
-            List<String> accountNames = mAccountTypeToNameMap.get(type);
-            Account[] accounts = new Account[accountNames.size()];
-            for (int i = 0; i < accountNames.size(); i++) {
-                accounts[i] = new Account(accountNames.get(i), type);
+        when(mMockAccountManager.getAccountsAsUser(USER_ID)).then(invocation -> {
+            List<Account> accounts = new ArrayList<>();
+            for (Map.Entry<String, List<String>> entry : mAccountTypeToNameMap.entrySet()) {
+                for (String name : entry.getValue()) {
+                    accounts.add(new Account(name, entry.getKey()));
+                }
             }
-            return accounts;
+            return accounts.toArray(new Account[0]);
         });
     }
-
-    private void updateEnabledAccountTypes() {
-        when(mMockAuthenticatorHelper.getEnabledAccountTypes()).thenReturn(
-                mAccountTypeToNameMap.keySet().toArray(new String[0]));
-    }
-
-    private class TestAccountListPreferenceController extends AccountListPreferenceController {
-
-        TestAccountListPreferenceController(Context context, String preferenceKey,
-                FragmentController fragmentController,
-                CarUxRestrictions uxRestrictions) {
-            super(context, preferenceKey, fragmentController, uxRestrictions);
-        }
-
-        @Override
-        AuthenticatorHelper createAuthenticatorHelper() {
-            return mMockAuthenticatorHelper;
-        }
-    }
 }
@@ -0,0 +1,193 @@
+/*
+ * Copyright (C) 2023 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.car.settings.accounts;
+
+import static com.android.dx.mockito.inline.extended.ExtendedMockito.verify;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import android.accounts.AccountManager;
+import android.accounts.AuthenticatorDescription;
+import android.content.ContentResolver;
+import android.content.Context;
+import android.content.SyncAdapterType;
+import android.os.UserHandle;
+
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.android.car.settings.R;
+import com.android.dx.mockito.inline.extended.ExtendedMockito;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.MockitoSession;
+
+@RunWith(AndroidJUnit4.class)
+public class AuthenticatorMetadataCacheTest {
+    private static final UserHandle USER = UserHandle.of(0);
+    private static final UserHandle OTHER_USER = UserHandle.of(10);
+    private static final String ACCOUNT_TYPE = "com.acct1";
+
+    private Context mContext = ApplicationProvider.getApplicationContext();
+    private MockitoSession mSession;
+    private AuthenticatorMetadataCache mCache;
+    private AuthenticatorDescription[] mAuthenticatorDescriptions;
+
+    @Mock
+    private AccountManager mMockAccountManager;
+    @Mock
+    private AuthenticatorMetadataCache.OnMetadataChangedListener mListener;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        mSession = ExtendedMockito.mockitoSession()
+                .mockStatic(AccountManager.class, withSettings().lenient())
+                .mockStatic(ContentResolver.class, withSettings().lenient())
+                .startMocking();
+        when(AccountManager.get(mContext)).thenReturn(mMockAccountManager);
+
+        mAuthenticatorDescriptions = new AuthenticatorDescription[]{
+                new AuthenticatorDescription(ACCOUNT_TYPE, "com.android.car.settings",
+                        R.string.account_type1_label, 0, 0, 0, false)
+        };
+        when(mMockAccountManager.getAuthenticatorTypesAsUser(anyInt()))
+                .thenReturn(mAuthenticatorDescriptions);
+
+        mCache = new AuthenticatorMetadataCache(mContext);
+    }
+
+    @After
+    public void tearDown() {
+        if (mSession != null) {
+            mSession.finishMocking();
+        }
+    }
+
+    @Test
+    public void getAuthenticatorTypes_queriesAccountManagerOnce() {
+        mCache.getAuthenticatorTypes(USER);
+        mCache.getAuthenticatorTypes(USER);
+
+        assertThat(mCache.getAuthenticatorTypes(USER)).isEqualTo(mAuthenticatorDescriptions);
+        verify(mMockAccountManager).getAuthenticatorTypesAsUser(USER.getIdentifier());
+    }
+
+    @Test
+    public void getAuthenticatorTypes_differentUsers_cachedSeparately() {
+        mCache.getAuthenticatorTypes(USER);
+        mCache.getAuthenticatorTypes(OTHER_USER);
+
+        verify(mMockAccountManager).getAuthenticatorTypesAsUser(USER.getIdentifier());
+        verify(mMockAccountManager).getAuthenticatorTypesAsUser(OTHER_USER.getIdentifier());
+    }
+
+    @Test
+    public void getAuthoritiesForAccountType_queriesSyncAdaptersOnce() {
+        when(ContentResolver.getSyncAdapterTypesAsUser(USER.getIdentifier())).thenReturn(
+                new SyncAdapterType[]{
+                        new SyncAdapterType("authority1", ACCOUNT_TYPE,
+                                /* userVisible= */ true, /* supportsUploading= */ true),
+                        new SyncAdapterType("authority2", ACCOUNT_TYPE,
+                                /* userVisible= */ true, /* supportsUploading= */ true)
+                });
+
+        mCache.getAuthoritiesForAccountType(USER, ACCOUNT_TYPE);
+
+        assertThat(mCache.getAuthoritiesForAccountType(USER, ACCOUNT_TYPE))
+                .containsExactly("authority1", "authority2");
+        assertThat(mCache.getAuthoritiesForAccountType(USER, "com.unknown")).isNull();
+        verify(() -> ContentResolver.getSyncAdapterTypesAsUser(USER.getIdentifier()));
+    }
+
+    @Test
+    public void getAccountTypeDescription_returnsMatchingDescription() {
+        assertThat(mCache.getAccountTypeDescription(USER, ACCOUNT_TYPE))
+                .isEqualTo(mAuthenticatorDescriptions[0]);
+        assertThat(mCache.getAccountTypeDescription(USER, "com.unknown")).isNull();
+    }
+
+    @Test
+    public void invalidate_user_requeriesAccountManager() {
+        mCache.getAuthenticatorTypes(USER);
+
+        mCache.invalidate(USER);
+        mCache.getAuthenticatorTypes(USER);
+
+        verify(mMockAccountManager, times(2)).getAuthenticatorTypesAsUser(USER.getIdentifier());
+    }
+
+    @Test
+    public void invalidate_otherUser_keepsCachedEntry() {
+        mCache.getAuthenticatorTypes(USER);
+
+        mCache.invalidate(OTHER_USER);
+        mCache.getAuthenticatorTypes(USER);
+
+        verify(mMockAccountManager).getAuthenticatorTypesAsUser(USER.getIdentifier());
+    }
+
+    @Test
+    public void invalidate_allUsers_requeriesAccountManager() {
+        mCache.getAuthenticatorTypes(USER);
+
+        mCache.invalidate(UserHandle.ALL);
+        mCache.getAuthenticatorTypes(USER);
+
+        verify(mMockAccountManager, times(2)).getAuthenticatorTypesAsUser(USER.getIdentifier());
+    }
+
+    @Test
+    public void invalidate_notifiesListener() {
+        mCache.addOnMetadataChangedListener(mListener);
+
+        mCache.invalidate(USER);
+
+        verify(mListener).onMetadataChanged(USER);
+    }
+
+    @Test
+    public void invalidate_removedListener_notNotified() {
+        mCache.addOnMetadataChangedListener(mListener);
+        mCache.removeOnMetadataChangedListener(mListener);
+
+        mCache.invalidate(USER);
+
+        verify(mListener, never()).onMetadataChanged(USER);
+    }
+
+    @Test
+    public void getLabelForType_unknownType_returnsNull() {
+        assertThat(mCache.getLabelForType(USER, "com.unknown")).isNull();
+    }
+
+    @Test
+    public void getCachedDrawableForType_notLoaded_returnsNull() {
+        assertThat(mCache.getCachedDrawableForType(USER, ACCOUNT_TYPE)).isNull();
+    }
+}
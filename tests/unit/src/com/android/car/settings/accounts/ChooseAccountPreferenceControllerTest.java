@@ -50,7 +50,6 @@ import com.android.car.settings.common.PreferenceControllerTestUtil;
 import com.android.car.settings.profiles.ProfileHelper;
 import com.android.car.settings.testutils.TestLifecycleOwner;
 import com.android.dx.mockito.inline.extended.ExtendedMockito;
-import com.android.settingslib.accounts.AuthenticatorHelper;
 
 import org.junit.After;
 import org.junit.Before;
@@ -82,7 +81,7 @@ public class ChooseAccountPreferenceControllerTest {
     @Mock
     private FragmentController mFragmentController;
     @Mock
-    private AuthenticatorHelper mMockAuthenticatorHelper;
+    private AuthenticatorMetadataCache mMockMetadataCache;
     @Mock
     private ProfileHelper mMockProfileHelper;
     @Mock
@@ -104,7 +103,6 @@ public class ChooseAccountPreferenceControllerTest {
         initMocks();
         mController = new ChooseAccountPreferenceController(mContext,
                 /* preferenceKey= */ "key", mFragmentController, mCarUxRestrictions);
-        mController.setAuthenticatorHelper(mMockAuthenticatorHelper);
         PreferenceControllerTestUtil.assignPreference(mController, mPreference);
     }
 
@@ -192,17 +190,21 @@ public class ChooseAccountPreferenceControllerTest {
                 "com.acct1", mContext.getString(R.string.account_type1_label),
                 "com.acct2", mContext.getString(R.string.account_type2_label),
                 "com.acct3", mContext.getString(R.string.account_type3_label));
-        when(mMockAuthenticatorHelper.getLabelForType(any(), any())).then(invocation -> {
+        when(mMockMetadataCache.getLabelForType(any(), any())).then(invocation -> {
             Object[] args = invocation.getArguments();
             return mAccountTypeToLabelMap.get((String) args[1]);
         });
-        when(mMockAuthenticatorHelper.getDrawableForType(any(), any())).thenReturn(null);
+        when(mMockMetadataCache.getAuthenticatorTypes(any()))
+                .then(invocation -> mAuthenticatorDescriptions);
 
         mSession = ExtendedMockito.mockitoSession()
                 .mockStatic(ProfileHelper.class, withSettings().lenient())
                 .mockStatic(AccountManager.class, withSettings().lenient())
+                .mockStatic(AuthenticatorMetadataCache.class, withSettings().lenient())
                 .startMocking();
 
+        when(AuthenticatorMetadataCache.getInstance(mContext)).thenReturn(mMockMetadataCache);
+
         when(ProfileHelper.getInstance(mContext)).thenReturn(mMockProfileHelper);
         UserInfo userInfo = new UserInfo(USER_ID, USER_NAME, 0);
         when(mMockProfileHelper.getCurrentProcessUserInfo()).thenReturn(userInfo);
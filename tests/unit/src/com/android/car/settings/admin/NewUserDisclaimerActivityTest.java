@@ -36,6 +36,7 @@ import androidx.test.ext.junit.runners.AndroidJUnit4;
 import androidx.test.platform.app.InstrumentationRegistry;
 import androidx.test.rule.ActivityTestRule;
 
+import com.android.car.settings.common.CarServiceHub;
 import com.android.car.settings.common.ConfirmationDialogFragment;
 
 import org.junit.Before;
@@ -48,7 +49,7 @@ import org.mockito.Mock;
 public final class NewUserDisclaimerActivityTest extends AbstractExtendedMockitoTestCase {
     private static final String TAG = NewUserDisclaimerActivityTest.class.getSimpleName();
 
-    // NOTE: Cannot launch activity automatically as we need to mock Car.createCar() first
+    // NOTE: Cannot launch activity automatically as we need to mock CarServiceHub first
     @Rule
     public ActivityTestRule<NewUserDisclaimerActivity> mActivityRule = new ActivityTestRule(
             NewUserDisclaimerActivity.class,  /* initialTouchMode= */ false,
@@ -60,7 +61,7 @@ public final class NewUserDisclaimerActivityTest extends AbstractExtendedMockito
     private CarDevicePolicyManager mCarDevicePolicyManager;
 
     @Mock
-    private Car mCar;
+    private CarServiceHub mCarServiceHub;
 
     public NewUserDisclaimerActivityTest() {
         super(NewUserDisclaimerActivity.LOG.getTag());
@@ -68,15 +69,15 @@ public final class NewUserDisclaimerActivityTest extends AbstractExtendedMockito
 
     @Override
     protected void onSessionBuilder(CustomMockitoSessionBuilder session) {
-        session.spyStatic(Car.class);
+        session.spyStatic(CarServiceHub.class);
     }
 
     @Before
     public void setFixtures() {
-        Log.v(TAG, "setFixtures(): mocking Car.createCar()");
-        doReturn(mCar).when(() -> Car.createCar(any()));
+        Log.v(TAG, "setFixtures(): mocking CarServiceHub.getInstance()");
+        doReturn(mCarServiceHub).when(() -> CarServiceHub.getInstance(any()));
 
-        when(mCar.getCarManager(Car.CAR_DEVICE_POLICY_SERVICE))
+        when(mCarServiceHub.getCarManager(Car.CAR_DEVICE_POLICY_SERVICE))
                 .thenReturn(mCarDevicePolicyManager);
 
         Log.v(TAG, "setFixtures(): launching activitiy");
@@ -24,6 +24,7 @@ import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.when;
 
 import android.content.Context;
+import android.content.pm.ActivityInfo;
 import android.content.pm.ApplicationInfo;
 import android.content.pm.PackageManager;
 import android.content.pm.ResolveInfo;
@@ -38,16 +39,21 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 @RunWith(AndroidJUnit4.class)
 public class InstalledAppCountItemManagerTest {
+    private static final int CALLBACK_TIMEOUT_MS = 1000;
+    private static final String PACKAGE_NAME = "com.android.test.package";
 
     private Context mContext = spy(ApplicationProvider.getApplicationContext());
     private InstalledAppCountItemManager mInstalledAppCountItemManager;
+    private final CountDownLatch mCountDownLatch = new CountDownLatch(1);
+    private int mAppCount = -1;
 
-    @Mock
-    private ApplicationInfo mMockApplicationInfo;
     @Mock
     private PackageManager mMockPm;
 
@@ -55,34 +61,54 @@ public class InstalledAppCountItemManagerTest {
     public void setUp() {
         MockitoAnnotations.initMocks(this);
 
-        mInstalledAppCountItemManager = new InstalledAppCountItemManager(mContext);
+        mInstalledAppCountItemManager = new InstalledAppCountItemManager(mContext,
+                new InstalledPackageIndex(mContext, mMockPm));
+        mInstalledAppCountItemManager.addListener(appCount -> {
+            mAppCount = appCount;
+            mCountDownLatch.countDown();
+        });
     }
 
     @Test
-    public void isUpdatedSystemApp_isCounted() {
-        mMockApplicationInfo.flags = ApplicationInfo.FLAG_UPDATED_SYSTEM_APP;
+    public void isUpdatedSystemApp_isCounted() throws Exception {
+        setInstalledApp(ApplicationInfo.FLAG_UPDATED_SYSTEM_APP);
 
-        assertThat(mInstalledAppCountItemManager.shouldCountApp(mMockApplicationInfo)).isTrue();
+        assertThat(loadAppCount()).isEqualTo(1);
     }
 
     @Test
-    public void isSystemApp_userCanOpen_isCounted() {
-        mMockApplicationInfo.flags = ApplicationInfo.FLAG_SYSTEM;
+    public void isSystemApp_userCanOpen_isCounted() throws Exception {
+        setInstalledApp(ApplicationInfo.FLAG_SYSTEM);
         List<ResolveInfo> intents = new ArrayList<>();
-        intents.add(new ResolveInfo());
-        when(mContext.getPackageManager()).thenReturn(mMockPm);
+        ResolveInfo resolveInfo = new ResolveInfo();
+        resolveInfo.activityInfo = new ActivityInfo();
+        resolveInfo.activityInfo.packageName = PACKAGE_NAME;
+        intents.add(resolveInfo);
         when(mMockPm.queryIntentActivitiesAsUser(any(), anyInt(), anyInt())).thenReturn(intents);
 
-        assertThat(mInstalledAppCountItemManager.shouldCountApp(mMockApplicationInfo)).isTrue();
+        assertThat(loadAppCount()).isEqualTo(1);
     }
 
     @Test
-    public void isSystemApp_userCannotOpen_isNotCounted() {
-        mMockApplicationInfo.flags = ApplicationInfo.FLAG_SYSTEM;
+    public void isSystemApp_userCannotOpen_isNotCounted() throws Exception {
+        setInstalledApp(ApplicationInfo.FLAG_SYSTEM);
         List<ResolveInfo> intents = new ArrayList<>();
-        when(mContext.getPackageManager()).thenReturn(mMockPm);
         when(mMockPm.queryIntentActivitiesAsUser(any(), anyInt(), anyInt())).thenReturn(intents);
 
-        assertThat(mInstalledAppCountItemManager.shouldCountApp(mMockApplicationInfo)).isFalse();
+        assertThat(loadAppCount()).isEqualTo(0);
+    }
+
+    private void setInstalledApp(int flags) {
+        ApplicationInfo applicationInfo = new ApplicationInfo();
+        applicationInfo.packageName = PACKAGE_NAME;
+        applicationInfo.flags = flags;
+        when(mMockPm.getInstalledApplicationsAsUser(anyInt(), anyInt())).thenReturn(
+                Collections.singletonList(applicationInfo));
+    }
+
+    private int loadAppCount() throws InterruptedException {
+        mInstalledAppCountItemManager.startLoading();
+        mCountDownLatch.await(CALLBACK_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        return mAppCount;
     }
 }
@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2023 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.car.settings.applications;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.content.Context;
+import android.content.pm.ActivityInfo;
+import android.content.pm.ApplicationInfo;
+import android.content.pm.PackageManager;
+import android.content.pm.ResolveInfo;
+
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+@RunWith(AndroidJUnit4.class)
+public class InstalledPackageIndexTest {
+    private static final int USER_ID = 10;
+    private static final String PACKAGE_NAME_1 = "com.android.test.package1";
+    private static final String PACKAGE_NAME_2 = "com.android.test.package2";
+    private static final String PACKAGE_NAME_3 = "com.android.test.package3";
+
+    private final Context mContext = ApplicationProvider.getApplicationContext();
+    private InstalledPackageIndex mIndex;
+
+    @Mock
+    private PackageManager mMockPm;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        ApplicationInfo systemApp = createAppInfo(PACKAGE_NAME_1, ApplicationInfo.FLAG_SYSTEM,
+                ApplicationInfo.CATEGORY_UNDEFINED);
+        ApplicationInfo userApp = createAppInfo(PACKAGE_NAME_2, /* flags= */ 0,
+                ApplicationInfo.CATEGORY_GAME);
+        when(mMockPm.getInstalledApplicationsAsUser(InstalledPackageIndex.APPLICATION_FLAGS,
+                USER_ID)).thenReturn(Arrays.asList(systemApp, userApp));
+        when(mMockPm.queryIntentActivitiesAsUser(
+                argThat(intent -> intent != null && intent.getPackage() == null),
+                eq(InstalledPackageIndex.LAUNCHER_FLAGS), eq(USER_ID)))
+                .thenReturn(Collections.singletonList(createResolveInfo(PACKAGE_NAME_2)));
+
+        mIndex = new InstalledPackageIndex(mContext, mMockPm);
+    }
+
+    @Test
+    public void getCounts_matchInstalledApps() {
+        assertThat(mIndex.getInstalledAppCount(USER_ID)).isEqualTo(1);
+        assertThat(mIndex.getLauncherAppCount(USER_ID)).isEqualTo(1);
+        assertThat(mIndex.getCategoryCount(USER_ID, ApplicationInfo.CATEGORY_GAME)).isEqualTo(1);
+        assertThat(mIndex.getCategoryCount(USER_ID, ApplicationInfo.CATEGORY_AUDIO)).isEqualTo(0);
+    }
+
+    @Test
+    public void getEnabledApplications_excludesDisabledUntilUsed() {
+        ApplicationInfo disabledApp = createAppInfo(PACKAGE_NAME_3, /* flags= */ 0,
+                ApplicationInfo.CATEGORY_UNDEFINED);
+        disabledApp.enabledSetting = PackageManager.COMPONENT_ENABLED_STATE_DISABLED_UNTIL_USED;
+        when(mMockPm.getInstalledApplicationsAsUser(InstalledPackageIndex.APPLICATION_FLAGS,
+                USER_ID)).thenReturn(Collections.singletonList(disabledApp));
+
+        assertThat(mIndex.getEnabledApplications(USER_ID)).isEmpty();
+    }
+
+    @Test
+    public void getCounts_calledRepeatedly_enumeratesOnce() {
+        mIndex.getInstalledAppCount(USER_ID);
+        mIndex.getLauncherAppCount(USER_ID);
+        mIndex.getEnabledApplications(USER_ID);
+
+        assertThat(mIndex.getBuildCount()).isEqualTo(1);
+        verify(mMockPm, times(1)).getInstalledApplicationsAsUser(anyInt(), anyInt());
+    }
+
+    @Test
+    public void onPackageChanged_packageAdded_updatesOnlyThatPackage() throws Exception {
+        mIndex.getInstalledAppCount(USER_ID);
+        when(mMockPm.getApplicationInfoAsUser(PACKAGE_NAME_3,
+                InstalledPackageIndex.APPLICATION_FLAGS, USER_ID)).thenReturn(
+                createAppInfo(PACKAGE_NAME_3, /* flags= */ 0, ApplicationInfo.CATEGORY_GAME));
+
+        mIndex.onPackageChanged(USER_ID, PACKAGE_NAME_3);
+
+        assertThat(mIndex.getInstalledAppCount(USER_ID)).isEqualTo(2);
+        assertThat(mIndex.getCategoryCount(USER_ID, ApplicationInfo.CATEGORY_GAME)).isEqualTo(2);
+        assertThat(mIndex.getBuildCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void onPackageChanged_packageRemoved_removesPackage() throws Exception {
+        mIndex.getInstalledAppCount(USER_ID);
+        when(mMockPm.getApplicationInfoAsUser(eq(PACKAGE_NAME_2), anyInt(), anyInt()))
+                .thenThrow(new PackageManager.NameNotFoundException());
+
+        mIndex.onPackageChanged(USER_ID, PACKAGE_NAME_2);
+
+        assertThat(mIndex.getInstalledAppCount(USER_ID)).isEqualTo(0);
+        assertThat(mIndex.getLauncherAppCount(USER_ID)).isEqualTo(0);
+        assertThat(mIndex.getEnabledApplications(USER_ID)).hasSize(1);
+    }
+
+    @Test
+    public void onPackageChanged_launcherActivityAdded_countsSystemApp() throws Exception {
+        mIndex.getInstalledAppCount(USER_ID);
+        when(mMockPm.getApplicationInfoAsUser(PACKAGE_NAME_1,
+                InstalledPackageIndex.APPLICATION_FLAGS, USER_ID)).thenReturn(
+                createAppInfo(PACKAGE_NAME_1, ApplicationInfo.FLAG_SYSTEM,
+                        ApplicationInfo.CATEGORY_UNDEFINED));
+        when(mMockPm.queryIntentActivitiesAsUser(
+                argThat(intent -> intent != null && PACKAGE_NAME_1.equals(intent.getPackage())),
+                anyInt(), anyInt()))
+                .thenReturn(Collections.singletonList(createResolveInfo(PACKAGE_NAME_1)));
+
+        mIndex.onPackageChanged(USER_ID, PACKAGE_NAME_1);
+
+        assertThat(mIndex.getInstalledAppCount(USER_ID)).isEqualTo(2);
+        assertThat(mIndex.getLauncherAppCount(USER_ID)).isEqualTo(2);
+        verify(mMockPm, times(1)).getInstalledApplicationsAsUser(anyInt(), anyInt());
+        verify(mMockPm, times(2)).queryIntentActivitiesAsUser(any(), anyInt(), anyInt());
+    }
+
+    private static ApplicationInfo createAppInfo(String packageName, int flags, int category) {
+        ApplicationInfo info = new ApplicationInfo();
+        info.packageName = packageName;
+        info.flags = flags;
+        info.category = category;
+        return info;
+    }
+
+    private static ResolveInfo createResolveInfo(String packageName) {
+        ResolveInfo resolveInfo = new ResolveInfo();
+        resolveInfo.activityInfo = new ActivityInfo();
+        resolveInfo.activityInfo.packageName = packageName;
+        return resolveInfo;
+    }
+}
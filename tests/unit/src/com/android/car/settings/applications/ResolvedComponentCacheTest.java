@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2023 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.car.settings.applications;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+import android.content.Intent;
+import android.content.pm.PackageManager;
+import android.content.pm.ResolveInfo;
+import android.content.pm.ServiceInfo;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Collections;
+import java.util.List;
+
+@RunWith(AndroidJUnit4.class)
+public class ResolvedComponentCacheTest {
+    private static final String TEST_ACTION = "com.android.test.ACTION";
+    private static final String TEST_PACKAGE = "com.android.test.package";
+    private static final int USER_ID = 10;
+
+    private ResolvedComponentCache mCache;
+
+    @Mock
+    private PackageManager mMockPm;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        ResolveInfo resolveInfo = new ResolveInfo();
+        resolveInfo.serviceInfo = new ServiceInfo();
+        resolveInfo.serviceInfo.packageName = TEST_PACKAGE;
+        when(mMockPm.queryIntentServices(any(), eq(PackageManager.GET_META_DATA)))
+                .thenReturn(Collections.singletonList(resolveInfo));
+
+        mCache = new ResolvedComponentCache(mMockPm);
+    }
+
+    @Test
+    public void queryIntentServices_sameIntent_queriesOnce() {
+        mCache.queryIntentServices(new Intent(TEST_ACTION), PackageManager.GET_META_DATA);
+        List<ResolveInfo> result = mCache.queryIntentServices(new Intent(TEST_ACTION),
+                PackageManager.GET_META_DATA);
+
+        assertThat(result).hasSize(1);
+        assertThat(mCache.getQueryCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void queryIntentServices_differentPackage_queriesAgain() {
+        mCache.queryIntentServices(new Intent(TEST_ACTION), PackageManager.GET_META_DATA);
+        mCache.queryIntentServices(new Intent(TEST_ACTION).setPackage(TEST_PACKAGE),
+                PackageManager.GET_META_DATA);
+
+        assertThat(mCache.getQueryCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void queryIntentActivitiesAsUser_differentUser_queriesAgain() {
+        when(mMockPm.queryIntentActivitiesAsUser(any(), anyInt(), anyInt()))
+                .thenReturn(Collections.emptyList());
+
+        mCache.queryIntentActivitiesAsUser(new Intent(TEST_ACTION), PackageManager.MATCH_ALL,
+                USER_ID);
+        mCache.queryIntentActivitiesAsUser(new Intent(TEST_ACTION), PackageManager.MATCH_ALL,
+                USER_ID + 1);
+        mCache.queryIntentActivitiesAsUser(new Intent(TEST_ACTION), PackageManager.MATCH_ALL,
+                USER_ID);
+
+        assertThat(mCache.getQueryCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void invalidate_queriesAgain() {
+        mCache.queryIntentServices(new Intent(TEST_ACTION), PackageManager.GET_META_DATA);
+        when(mMockPm.queryIntentServices(any(), eq(PackageManager.GET_META_DATA)))
+                .thenReturn(Collections.emptyList());
+
+        mCache.invalidate();
+        List<ResolveInfo> result = mCache.queryIntentServices(new Intent(TEST_ACTION),
+                PackageManager.GET_META_DATA);
+
+        assertThat(result).isEmpty();
+        assertThat(mCache.getQueryCount()).isEqualTo(2);
+    }
+}
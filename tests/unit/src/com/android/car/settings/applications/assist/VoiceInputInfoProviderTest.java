@@ -35,6 +35,8 @@ import android.service.voice.VoiceInteractionServiceInfo;
 import androidx.test.core.app.ApplicationProvider;
 import androidx.test.ext.junit.runners.AndroidJUnit4;
 
+import com.android.car.settings.applications.ResolvedComponentCache;
+
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -56,6 +58,8 @@ public class VoiceInputInfoProviderTest {
 
     @Mock
     private PackageManager mMockPackageManager;
+    @Mock
+    private ResolvedComponentCache mMockResolvedComponentCache;
 
     @Before
     public void setUp() {
@@ -74,10 +78,11 @@ public class VoiceInputInfoProviderTest {
         resolveInfoList.add(resolveInfo);
 
         when(mContext.getPackageManager()).thenReturn(mMockPackageManager);
-        when(mMockPackageManager.queryIntentServices(VOICE_INTERACTION_SERVICE_TAG,
+        when(mMockResolvedComponentCache.queryIntentServices(VOICE_INTERACTION_SERVICE_TAG,
                 PackageManager.GET_META_DATA)).thenReturn(resolveInfoList);
 
-        mVoiceInputInfoProvider = new TestVoiceInputInfoProvider(mContext);
+        mVoiceInputInfoProvider = new TestVoiceInputInfoProvider(mContext,
+                mMockResolvedComponentCache);
 
         assertThat(mVoiceInputInfoProvider.getVoiceInteractionInfoList()).hasSize(1);
     }
@@ -93,18 +98,20 @@ public class VoiceInputInfoProviderTest {
         resolveInfoList.add(otherInfo);
 
         when(mContext.getPackageManager()).thenReturn(mMockPackageManager);
-        when(mMockPackageManager.queryIntentServices(VOICE_RECOGNITION_SERVICE_TAG,
+        when(mMockResolvedComponentCache.queryIntentServices(VOICE_RECOGNITION_SERVICE_TAG,
                 PackageManager.GET_META_DATA)).thenReturn(resolveInfoList);
 
-        mVoiceInputInfoProvider = new TestVoiceInputInfoProvider(mContext);
+        mVoiceInputInfoProvider = new TestVoiceInputInfoProvider(mContext,
+                mMockResolvedComponentCache);
 
         assertThat(mVoiceInputInfoProvider.getVoiceRecognitionInfoList()).hasSize(1);
     }
 
     private static class TestVoiceInputInfoProvider extends VoiceInputInfoProvider {
 
-        TestVoiceInputInfoProvider(Context context) {
-            super(context);
+        TestVoiceInputInfoProvider(Context context,
+                ResolvedComponentCache resolvedComponentCache) {
+            super(context, resolvedComponentCache);
         }
 
         @Override
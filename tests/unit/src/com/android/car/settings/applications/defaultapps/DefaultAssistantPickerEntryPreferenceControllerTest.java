@@ -39,6 +39,7 @@ import androidx.lifecycle.LifecycleOwner;
 import androidx.test.core.app.ApplicationProvider;
 import androidx.test.ext.junit.runners.AndroidJUnit4;
 
+import com.android.car.settings.applications.ResolvedComponentCache;
 import com.android.car.settings.common.FragmentController;
 import com.android.car.settings.common.PreferenceControllerTestUtil;
 import com.android.car.settings.testutils.TestLifecycleOwner;
@@ -75,6 +76,8 @@ public class DefaultAssistantPickerEntryPreferenceControllerTest {
     private RoleManager mMockRoleManager;
     @Mock
     private PackageManager mMockPackageManager;
+    @Mock
+    private ResolvedComponentCache mMockResolvedComponentCache;
 
     @Before
     public void setUp() {
@@ -83,7 +86,8 @@ public class DefaultAssistantPickerEntryPreferenceControllerTest {
 
         when(mContext.getSystemService(RoleManager.class)).thenReturn(mMockRoleManager);
         when(mContext.getPackageManager()).thenReturn(mMockPackageManager);
-        when(mMockPackageManager.queryIntentServices(any(), eq(PackageManager.GET_META_DATA)))
+        when(mMockResolvedComponentCache.queryIntentServices(any(),
+                eq(PackageManager.GET_META_DATA)))
                 .thenReturn(Collections.emptyList());
         doNothing().when(mContext).startActivity(any());
 
@@ -91,7 +95,8 @@ public class DefaultAssistantPickerEntryPreferenceControllerTest {
                 CarUxRestrictions.UX_RESTRICTIONS_BASELINE, /* timestamp= */ 0).build();
         mPreference = new CarUiTwoActionIconPreference(mContext);
         mController = new TestDefaultAssistantPickerEntryPreferenceController(mContext,
-                /* preferenceKey= */ "key", mFragmentController, mCarUxRestrictions);
+                /* preferenceKey= */ "key", mFragmentController, mCarUxRestrictions,
+                mMockResolvedComponentCache);
         PreferenceControllerTestUtil.assignPreference(mController, mPreference);
         mController.onCreate(mLifecycleOwner);
     }
@@ -110,7 +115,8 @@ public class DefaultAssistantPickerEntryPreferenceControllerTest {
     public void getCurrentDefaultAppInfo_hasService_returnsDefaultAppInfo() {
         when(mMockRoleManager.getRoleHolders(RoleManager.ROLE_ASSISTANT))
                 .thenReturn(Collections.singletonList(TEST_PACKAGE));
-        when(mMockPackageManager.queryIntentServices(any(), eq(PackageManager.GET_META_DATA)))
+        when(mMockResolvedComponentCache.queryIntentServices(any(),
+                eq(PackageManager.GET_META_DATA)))
                 .thenReturn(Collections.singletonList(new ResolveInfo()));
         mController.setSettingsActivity(TEST_CLASS);
 
@@ -135,7 +141,8 @@ public class DefaultAssistantPickerEntryPreferenceControllerTest {
     public void getSettingIntent_hasAssistant_noAssistSupport_returnsNull() {
         when(mMockRoleManager.getRoleHolders(RoleManager.ROLE_ASSISTANT))
                 .thenReturn(Collections.singletonList(TEST_PACKAGE));
-        when(mMockPackageManager.queryIntentServices(any(), eq(PackageManager.GET_META_DATA)))
+        when(mMockResolvedComponentCache.queryIntentServices(any(),
+                eq(PackageManager.GET_META_DATA)))
                 .thenReturn(Collections.singletonList(new ResolveInfo()));
         DefaultAppInfo info = new DefaultAppInfo(mContext, mContext.getPackageManager(),
                 mUserId, ComponentName.unflattenFromString(TEST_COMPONENT));
@@ -149,7 +156,8 @@ public class DefaultAssistantPickerEntryPreferenceControllerTest {
     public void getSettingIntent_hasAssistant_supportsAssist_hasSettingsActivity_returnsIntent() {
         when(mMockRoleManager.getRoleHolders(RoleManager.ROLE_ASSISTANT))
                 .thenReturn(Collections.singletonList(TEST_PACKAGE));
-        when(mMockPackageManager.queryIntentServices(any(), eq(PackageManager.GET_META_DATA)))
+        when(mMockResolvedComponentCache.queryIntentServices(any(),
+                eq(PackageManager.GET_META_DATA)))
                 .thenReturn(Collections.singletonList(new ResolveInfo()));
         mController.setSettingsActivity(TEST_CLASS);
         DefaultAppInfo info = new DefaultAppInfo(mContext, mContext.getPackageManager(),
@@ -194,8 +202,9 @@ public class DefaultAssistantPickerEntryPreferenceControllerTest {
 
         TestDefaultAssistantPickerEntryPreferenceController(Context context,
                 String preferenceKey, FragmentController fragmentController,
-                CarUxRestrictions uxRestrictions) {
-            super(context, preferenceKey, fragmentController, uxRestrictions);
+                CarUxRestrictions uxRestrictions, ResolvedComponentCache resolvedComponentCache) {
+            super(context, preferenceKey, fragmentController, uxRestrictions,
+                    resolvedComponentCache);
         }
 
         public void setSettingsActivity(String activity) {
@@ -41,6 +41,7 @@ import androidx.test.core.app.ApplicationProvider;
 import androidx.test.ext.junit.runners.AndroidJUnit4;
 
 import com.android.car.settings.R;
+import com.android.car.settings.applications.ResolvedComponentCache;
 import com.android.car.settings.common.FragmentController;
 import com.android.car.settings.common.PreferenceControllerTestUtil;
 import com.android.car.settings.testutils.TestLifecycleOwner;
@@ -72,6 +73,8 @@ public class AppLinkStatePreferenceControllerTest {
     private FragmentController mMockFragmentController;
     @Mock
     private PackageManager mMockPackageManager;
+    @Mock
+    private ResolvedComponentCache mMockResolvedComponentCache;
 
     @Before
     public void setUp() {
@@ -83,7 +86,7 @@ public class AppLinkStatePreferenceControllerTest {
                 CarUxRestrictions.UX_RESTRICTIONS_BASELINE, /* timestamp= */ 0).build();
         mPreferenceController = new AppLinkStatePreferenceController(mContext,
                 /* preferenceKey= */ "key", mMockFragmentController,
-                mCarUxRestrictions, mMockPackageManager);
+                mCarUxRestrictions, mMockPackageManager, mMockResolvedComponentCache);
         PreferenceControllerTestUtil.assignPreference(mPreferenceController, mPreference);
     }
 
@@ -230,7 +233,7 @@ public class AppLinkStatePreferenceControllerTest {
         resolveInfo.handleAllWebDataURI = isBrowserApp;
         sBrowserIntent.setPackage(TEST_PACKAGE_NAME);
 
-        when(mMockPackageManager.queryIntentActivitiesAsUser(sBrowserIntent,
+        when(mMockResolvedComponentCache.queryIntentActivitiesAsUser(sBrowserIntent,
                 PackageManager.MATCH_ALL, mUserId)).thenReturn(
                 Collections.singletonList(resolveInfo));
     }
@@ -34,6 +34,7 @@ import androidx.lifecycle.LifecycleOwner;
 import androidx.test.core.app.ApplicationProvider;
 import androidx.test.ext.junit.runners.AndroidJUnit4;
 
+import com.android.car.settings.applications.ResolvedComponentCache;
 import com.android.car.settings.common.FragmentController;
 import com.android.car.settings.common.PreferenceControllerTestUtil;
 import com.android.car.settings.testutils.TestLifecycleOwner;
@@ -71,6 +72,8 @@ public class ClearDefaultsPreferenceControllerTest {
     @Mock
     private PackageManager mMockPackageManager;
     @Mock
+    private ResolvedComponentCache mMockResolvedComponentCache;
+    @Mock
     private IUsbManager mMockIUsbManager;
 
     @Before
@@ -83,7 +86,8 @@ public class ClearDefaultsPreferenceControllerTest {
                 CarUxRestrictions.UX_RESTRICTIONS_BASELINE, /* timestamp= */ 0).build();
         mPreferenceController = new ClearDefaultsPreferenceController(mContext,
                 /* preferenceKey= */ "key", mMockFragmentController,
-                mCarUxRestrictions, mMockPackageManager, mMockIUsbManager);
+                mCarUxRestrictions, mMockPackageManager, mMockResolvedComponentCache,
+                mMockIUsbManager);
         PreferenceControllerTestUtil.assignPreference(mPreferenceController, mPreference);
 
         mSession = ExtendedMockito.mockitoSession().mockStatic(
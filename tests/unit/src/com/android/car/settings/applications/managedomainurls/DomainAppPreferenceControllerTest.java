@@ -19,6 +19,8 @@ package com.android.car.settings.applications.managedomainurls;
 import static com.google.common.truth.Truth.assertThat;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertThrows;
@@ -37,6 +39,7 @@ import androidx.test.annotation.UiThreadTest;
 import androidx.test.core.app.ApplicationProvider;
 import androidx.test.ext.junit.runners.AndroidJUnit4;
 
+import com.android.car.settings.R;
 import com.android.car.settings.common.FragmentController;
 import com.android.car.settings.common.LogicalPreferenceGroup;
 import com.android.car.settings.common.PreferenceControllerTestUtil;
@@ -89,7 +92,8 @@ public class DomainAppPreferenceControllerTest {
                 CarUxRestrictions.UX_RESTRICTIONS_BASELINE, /* timestamp= */ 0).build();
         mPreferenceController = new DomainAppPreferenceController(mContext,
                 /* preferenceKey= */ "key", mMockFragmentController,
-                mCarUxRestrictions, mMockApplicationsState, mMockPackageManager);
+                mCarUxRestrictions, mMockApplicationsState,
+                new DomainUrlsCache(mMockPackageManager));
     }
 
     @Test
@@ -149,6 +153,44 @@ public class DomainAppPreferenceControllerTest {
         assertThat(pkgName).isEqualTo(TEST_PACKAGE_NAME);
     }
 
+    @Test
+    public void onRebuildComplete_domainsLoaded_bindsSummary() {
+        mPreferenceController = new DomainAppPreferenceController(mContext,
+                /* preferenceKey= */ "key", mMockFragmentController,
+                mCarUxRestrictions, mMockApplicationsState,
+                new DomainUrlsCache(mMockPackageManager)) {
+            @Override
+            void executeBackgroundTask(Runnable r) {
+                r.run();
+            }
+
+            @Override
+            void executeUiTask(Runnable r) {
+                r.run();
+            }
+        };
+        when(mMockPackageManager.getIntentVerificationStatusAsUser(eq(TEST_PACKAGE_NAME),
+                anyInt())).thenReturn(
+                PackageManager.INTENT_FILTER_DOMAIN_VERIFICATION_STATUS_NEVER);
+        setupPreferenceController();
+        mPreferenceController.onCreate(mLifecycleOwner);
+        mPreferenceController.onStart(mLifecycleOwner);
+
+        ArrayList<ApplicationsState.AppEntry> apps = new ArrayList<>();
+        ApplicationInfo info = new ApplicationInfo();
+        info.packageName = TEST_PACKAGE_NAME;
+        info.uid = TEST_PACKAGE_ID;
+        info.sourceDir = TEST_PATH;
+        ApplicationsState.AppEntry entry = new ApplicationsState.AppEntry(mContext, info,
+                TEST_PACKAGE_ID);
+        entry.label = TEST_LABEL;
+        apps.add(entry);
+        mPreferenceController.mApplicationStateCallbacks.onRebuildComplete(apps);
+
+        assertThat(mPreferenceGroup.getPreference(0).getSummary().toString()).isEqualTo(
+                mContext.getText(R.string.domain_urls_summary_none).toString());
+    }
+
     private void setupPreferenceController() {
         when(mMockApplicationsState.newSession(any(), any())).thenReturn(mMockSession);
         mPreferenceController.setLifecycle(mLifecycleOwner.getLifecycle());
@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2023 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.car.settings.applications.managedomainurls;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import static org.mockito.Mockito.when;
+
+import android.content.pm.ApplicationInfo;
+import android.content.pm.IntentFilterVerificationInfo;
+import android.content.pm.PackageManager;
+import android.util.ArraySet;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+@RunWith(AndroidJUnit4.class)
+public class DomainUrlsCacheTest {
+    private static final String TEST_PACKAGE = "com.test.android.Package";
+    private static final int USER_ID = 10;
+    private static final String TEST_DOMAIN = "test.domain";
+
+    private DomainUrlsCache mCache;
+    private ApplicationInfo mApplicationInfo;
+
+    @Mock
+    private PackageManager mMockPackageManager;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        ArraySet<String> domains = new ArraySet<>();
+        domains.add(TEST_DOMAIN);
+        IntentFilterVerificationInfo info = new IntentFilterVerificationInfo(TEST_PACKAGE,
+                domains);
+        when(mMockPackageManager.getIntentFilterVerifications(TEST_PACKAGE))
+                .thenReturn(Arrays.asList(info));
+        when(mMockPackageManager.getIntentVerificationStatusAsUser(TEST_PACKAGE, USER_ID))
+                .thenReturn(PackageManager.INTENT_FILTER_DOMAIN_VERIFICATION_STATUS_ALWAYS);
+        mApplicationInfo = new ApplicationInfo();
+        mApplicationInfo.packageName = TEST_PACKAGE;
+        mApplicationInfo.longVersionCode = 1;
+
+        mCache = new DomainUrlsCache(mMockPackageManager);
+    }
+
+    @Test
+    public void load_returnsDomainsAndStatus() {
+        Map<String, DomainUrlsCache.DomainUrls> result = mCache.load(
+                Collections.singletonList(mApplicationInfo), USER_ID);
+
+        DomainUrlsCache.DomainUrls domainUrls = result.get(TEST_PACKAGE);
+        assertThat(domainUrls.getDomains()).containsExactly(TEST_DOMAIN);
+        assertThat(domainUrls.getVerificationStatus()).isEqualTo(
+                PackageManager.INTENT_FILTER_DOMAIN_VERIFICATION_STATUS_ALWAYS);
+    }
+
+    @Test
+    public void getCached_notLoaded_returnsNull() {
+        assertThat(mCache.getCached(mApplicationInfo)).isNull();
+    }
+
+    @Test
+    public void load_sameVersion_queriesDomainsOnce_rereadsStatus() {
+        mCache.load(Collections.singletonList(mApplicationInfo), USER_ID);
+        when(mMockPackageManager.getIntentVerificationStatusAsUser(TEST_PACKAGE, USER_ID))
+                .thenReturn(PackageManager.INTENT_FILTER_DOMAIN_VERIFICATION_STATUS_NEVER);
+
+        Map<String, DomainUrlsCache.DomainUrls> result = mCache.load(
+                Collections.singletonList(mApplicationInfo), USER_ID);
+
+        assertThat(mCache.getDomainsQueryCount()).isEqualTo(1);
+        assertThat(result.get(TEST_PACKAGE).getVerificationStatus()).isEqualTo(
+                PackageManager.INTENT_FILTER_DOMAIN_VERIFICATION_STATUS_NEVER);
+        assertThat(mCache.getCached(mApplicationInfo).getVerificationStatus()).isEqualTo(
+                PackageManager.INTENT_FILTER_DOMAIN_VERIFICATION_STATUS_NEVER);
+    }
+
+    @Test
+    public void load_packageUpdated_queriesDomainsAgain() {
+        mCache.load(Collections.singletonList(mApplicationInfo), USER_ID);
+        mApplicationInfo.longVersionCode = 2;
+
+        assertThat(mCache.getCached(mApplicationInfo)).isNull();
+        mCache.load(Collections.singletonList(mApplicationInfo), USER_ID);
+
+        assertThat(mCache.getDomainsQueryCount()).isEqualTo(2);
+    }
+}
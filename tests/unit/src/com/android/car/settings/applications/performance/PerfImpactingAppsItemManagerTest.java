@@ -70,7 +70,8 @@ public class PerfImpactingAppsItemManagerTest {
         when(Settings.Secure.getString(any(), eq(KEY_PACKAGES_DISABLED_ON_RESOURCE_OVERUSE)))
                 .thenReturn(TEST_DISABLED_PACKAGES_SETTING_STRING);
 
-        mManager = new PerfImpactingAppsItemManager(mContext);
+        mManager = new PerfImpactingAppsItemManager(
+                new ResourceOveruseDisabledAppsTracker(mContext));
         mManager.addListener(mPerfImpactingAppsListener);
     }
 
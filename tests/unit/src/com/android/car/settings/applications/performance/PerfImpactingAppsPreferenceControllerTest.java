@@ -148,7 +148,8 @@ public final class PerfImpactingAppsPreferenceControllerTest {
         screen.addPreference(mPreferenceGroup);
 
         mController = new PerfImpactingAppsPreferenceController(mContext,
-                /* preferenceKey= */ "key", mMockFragmentController, restrictions);
+                /* preferenceKey= */ "key", mMockFragmentController, restrictions,
+                new ResourceOveruseDisabledAppsTracker(mContext));
 
         PreferenceControllerTestUtil.assignPreference(mController, mPreferenceGroup);
 
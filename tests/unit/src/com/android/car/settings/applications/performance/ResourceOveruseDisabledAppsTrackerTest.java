@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2023 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.car.settings.applications.performance;
+
+import static android.car.settings.CarSettings.Secure.KEY_PACKAGES_DISABLED_ON_RESOURCE_OVERUSE;
+
+import static com.android.dx.mockito.inline.extended.ExtendedMockito.mockitoSession;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.content.Context;
+import android.content.pm.ActivityInfo;
+import android.content.pm.ApplicationInfo;
+import android.content.pm.PackageManager;
+import android.content.pm.ResolveInfo;
+import android.provider.Settings;
+
+import androidx.test.annotation.UiThreadTest;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoSession;
+import org.mockito.quality.Strictness;
+
+import java.util.Collections;
+import java.util.List;
+
+@RunWith(AndroidJUnit4.class)
+public class ResourceOveruseDisabledAppsTrackerTest {
+    private static final String TEST_PKG_NAME_1 = "test.package.name1";
+    private static final String TEST_PKG_NAME_2 = "test.package.name2";
+    private static final String TEST_PKG_NAME_3 = "test.package.name3";
+
+    private final Context mContext = spy(ApplicationProvider.getApplicationContext());
+
+    private MockitoSession mMockingSession;
+    private ResourceOveruseDisabledAppsTracker mTracker;
+
+    @Mock
+    private PackageManager mMockPackageManager;
+
+    @Before
+    public void setUp() {
+        mMockingSession = mockitoSession()
+                .initMocks(this)
+                .mockStatic(Settings.Secure.class)
+                .strictness(Strictness.LENIENT)
+                .startMocking();
+
+        when(mContext.getPackageManager()).thenReturn(mMockPackageManager);
+        setDisabledPackages(TEST_PKG_NAME_2 + ";" + TEST_PKG_NAME_1);
+        mockLauncherActivity(TEST_PKG_NAME_1);
+        mockLauncherActivity(TEST_PKG_NAME_2);
+
+        mTracker = new ResourceOveruseDisabledAppsTracker(mContext);
+    }
+
+    @After
+    public void tearDown() {
+        mMockingSession.finishMocking();
+    }
+
+    @Test
+    public void getDisabledAppInfos_inSettingOrder() {
+        List<ApplicationInfo> appInfos = mTracker.getDisabledAppInfos();
+
+        assertThat(appInfos).hasSize(2);
+        assertThat(appInfos.get(0).packageName).isEqualTo(TEST_PKG_NAME_2);
+        assertThat(appInfos.get(1).packageName).isEqualTo(TEST_PKG_NAME_1);
+    }
+
+    @Test
+    public void getDisabledAppInfos_noLauncherActivity_excludesPackage() {
+        setDisabledPackages(TEST_PKG_NAME_1 + ";" + TEST_PKG_NAME_3);
+
+        List<ApplicationInfo> appInfos = mTracker.getDisabledAppInfos();
+
+        assertThat(appInfos).hasSize(1);
+        assertThat(appInfos.get(0).packageName).isEqualTo(TEST_PKG_NAME_1);
+    }
+
+    @Test
+    public void getDisabledPackageCount_noListeners_readsSettingEachTime() {
+        assertThat(mTracker.getDisabledPackageCount()).isEqualTo(2);
+
+        setDisabledPackages("");
+
+        assertThat(mTracker.getDisabledPackageCount()).isEqualTo(0);
+    }
+
+    @Test
+    @UiThreadTest
+    public void getDisabledAppInfos_calledRepeatedly_resolvesOnce() {
+        ResourceOveruseDisabledAppsTracker.DisabledAppsListener listener = mock(
+                ResourceOveruseDisabledAppsTracker.DisabledAppsListener.class);
+        mTracker.acquire(listener);
+
+        mTracker.getDisabledAppInfos();
+        mTracker.getDisabledAppInfos();
+
+        assertThat(mTracker.getResolveCount()).isEqualTo(2);
+
+        mTracker.release(listener);
+    }
+
+    @Test
+    @UiThreadTest
+    public void onSettingChanged_resolvesOnlyAddedPackages() {
+        ResourceOveruseDisabledAppsTracker.DisabledAppsListener listener = mock(
+                ResourceOveruseDisabledAppsTracker.DisabledAppsListener.class);
+        mTracker.acquire(listener);
+        mTracker.getDisabledAppInfos();
+        mockLauncherActivity(TEST_PKG_NAME_3);
+        setDisabledPackages(TEST_PKG_NAME_1 + ";" + TEST_PKG_NAME_3);
+
+        mTracker.onSettingChanged();
+        List<ApplicationInfo> appInfos = mTracker.getDisabledAppInfos();
+
+        verify(listener).onDisabledAppsChanged();
+        assertThat(appInfos).hasSize(2);
+        assertThat(appInfos.get(1).packageName).isEqualTo(TEST_PKG_NAME_3);
+        assertThat(mTracker.getResolveCount()).isEqualTo(3);
+
+        mTracker.release(listener);
+    }
+
+    private void setDisabledPackages(String settingString) {
+        when(Settings.Secure.getString(any(), eq(KEY_PACKAGES_DISABLED_ON_RESOURCE_OVERUSE)))
+                .thenReturn(settingString);
+    }
+
+    private void mockLauncherActivity(String packageName) {
+        ResolveInfo resolveInfo = new ResolveInfo();
+        resolveInfo.activityInfo = new ActivityInfo();
+        resolveInfo.activityInfo.applicationInfo = new ApplicationInfo();
+        resolveInfo.activityInfo.applicationInfo.packageName = packageName;
+        when(mMockPackageManager.queryIntentActivities(
+                argThat(intent -> intent != null && packageName.equals(intent.getPackage())),
+                any(PackageManager.ResolveInfoFlags.class)))
+                .thenReturn(Collections.singletonList(resolveInfo));
+    }
+}
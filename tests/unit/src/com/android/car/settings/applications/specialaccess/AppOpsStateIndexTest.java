@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2023 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.car.settings.applications.specialaccess;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.Manifest;
+import android.app.AppOpsManager;
+import android.content.Context;
+import android.content.pm.ApplicationInfo;
+import android.content.pm.IPackageManager;
+import android.content.pm.PackageInfo;
+import android.content.pm.ParceledListSlice;
+import android.os.RemoteException;
+import android.os.UserHandle;
+import android.util.SparseArray;
+
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.android.car.settings.applications.specialaccess.AppStateAppOpsBridge.PermissionState;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+@RunWith(AndroidJUnit4.class)
+public class AppOpsStateIndexTest {
+
+    private static final int APP_OP_CODE = AppOpsManager.OP_WRITE_SETTINGS;
+    private static final String PERMISSION = Manifest.permission.WRITE_SETTINGS;
+    private static final int USER_ID = 0;
+    private static final int UID = 10001;
+    private static final String PACKAGE_NAME = "test.package";
+    private static final List<UserHandle> PROFILES =
+            Collections.singletonList(UserHandle.of(USER_ID));
+
+    private final Context mContext = ApplicationProvider.getApplicationContext();
+    private AppOpsStateIndex mAppOpsStateIndex;
+
+    @Mock
+    private IPackageManager mMockIPackageManager;
+    @Mock
+    private AppOpsManager mMockAppOpsManager;
+
+    @Before
+    public void setUp() throws RemoteException {
+        MockitoAnnotations.initMocks(this);
+        ApplicationInfo applicationInfo = new ApplicationInfo();
+        applicationInfo.packageName = PACKAGE_NAME;
+        applicationInfo.uid = UID;
+        PackageInfo packageInfo = new PackageInfo();
+        packageInfo.packageName = PACKAGE_NAME;
+        packageInfo.applicationInfo = applicationInfo;
+        packageInfo.requestedPermissions = new String[]{PERMISSION};
+        when(mMockIPackageManager.getPackagesHoldingPermissions(any(), anyLong(), eq(USER_ID)))
+                .thenReturn(new ParceledListSlice<>(Collections.singletonList(packageInfo)));
+        when(mMockIPackageManager.isPackageAvailable(PACKAGE_NAME, USER_ID)).thenReturn(true);
+
+        mAppOpsStateIndex = new AppOpsStateIndex(mContext, mMockIPackageManager,
+                mMockAppOpsManager, /* watchChanges= */ false);
+    }
+
+    @Test
+    public void getPermissionStates_calledTwice_enumeratesPackagesOnce() throws RemoteException {
+        mAppOpsStateIndex.getPermissionStates(APP_OP_CODE, PERMISSION, PROFILES);
+        SparseArray<Map<String, PermissionState>> states =
+                mAppOpsStateIndex.getPermissionStates(APP_OP_CODE, PERMISSION, PROFILES);
+
+        assertThat(states.get(USER_ID)).containsKey(PACKAGE_NAME);
+        assertThat(mAppOpsStateIndex.getBuildCount()).isEqualTo(1);
+        verify(mMockIPackageManager, times(1))
+                .getPackagesHoldingPermissions(any(), anyLong(), anyInt());
+    }
+
+    @Test
+    public void invalidatePackage_requeriesAppOpModeOfPackageOnly() throws RemoteException {
+        mAppOpsStateIndex.getPermissionStates(APP_OP_CODE, PERMISSION, PROFILES);
+        mockOpsForPackage(AppOpsManager.MODE_IGNORED);
+
+        mAppOpsStateIndex.invalidatePackage(APP_OP_CODE, PERMISSION, USER_ID, PACKAGE_NAME);
+        SparseArray<Map<String, PermissionState>> states =
+                mAppOpsStateIndex.getPermissionStates(APP_OP_CODE, PERMISSION, PROFILES);
+
+        assertThat(states.get(USER_ID).get(PACKAGE_NAME).isPermissible()).isFalse();
+        assertThat(mAppOpsStateIndex.getBuildCount()).isEqualTo(1);
+    }
+
+    private void mockOpsForPackage(int mode) {
+        AppOpsManager.OpEntry opEntry = mock(AppOpsManager.OpEntry.class);
+        when(opEntry.getMode()).thenReturn(mode);
+        AppOpsManager.PackageOps packageOps = new AppOpsManager.PackageOps(PACKAGE_NAME, UID,
+                Collections.singletonList(opEntry));
+        when(mMockAppOpsManager.getOpsForPackage(eq(UID), eq(PACKAGE_NAME), (int[]) any()))
+                .thenReturn(Collections.singletonList(packageOps));
+    }
+}
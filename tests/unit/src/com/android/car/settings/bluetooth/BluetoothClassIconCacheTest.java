@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2023 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.car.settings.bluetooth;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import static org.mockito.Mockito.when;
+
+import android.bluetooth.BluetoothClass;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.graphics.drawable.Drawable;
+import android.os.Parcel;
+import android.util.Pair;
+
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.android.settingslib.bluetooth.CachedBluetoothDevice;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+@RunWith(AndroidJUnit4.class)
+public class BluetoothClassIconCacheTest {
+
+    private final Context mContext = ApplicationProvider.getApplicationContext();
+
+    @Mock
+    private CachedBluetoothDevice mCachedDevice1;
+    @Mock
+    private CachedBluetoothDevice mCachedDevice2;
+
+    @Rule
+    public final MockitoRule rule = MockitoJUnit.rule();
+
+    @Before
+    public void setUp() {
+        BluetoothClassIconCache.clear();
+    }
+
+    @Test
+    public void getBtClassDrawableWithDescription_cachesIcon() {
+        when(mCachedDevice1.getBtClass()).thenReturn(
+                createBtClass(BluetoothClass.Device.Major.PHONE));
+
+        Pair<Drawable, String> pair = BluetoothClassIconCache.getBtClassDrawableWithDescription(
+                mContext, mCachedDevice1);
+
+        assertThat(pair.first).isNotNull();
+        assertThat(BluetoothClassIconCache.getCached(mContext, mCachedDevice1))
+                .isNotNull();
+    }
+
+    @Test
+    public void getBtClassDrawableWithDescription_otherConfiguration_notCached() {
+        when(mCachedDevice1.getBtClass()).thenReturn(
+                createBtClass(BluetoothClass.Device.Major.PHONE));
+        Configuration configuration = new Configuration(
+                mContext.getResources().getConfiguration());
+        configuration.densityDpi *= 2;
+        Context otherContext = mContext.createConfigurationContext(configuration);
+
+        BluetoothClassIconCache.getBtClassDrawableWithDescription(mContext, mCachedDevice1);
+
+        assertThat(BluetoothClassIconCache.getCached(otherContext, mCachedDevice1)).isNull();
+    }
+
+    @Test
+    public void getBtClassDrawableWithDescription_sameClass_returnsSeparateIcons() {
+        when(mCachedDevice1.getBtClass()).thenReturn(
+                createBtClass(BluetoothClass.Device.Major.PHONE));
+        when(mCachedDevice2.getBtClass()).thenReturn(
+                createBtClass(BluetoothClass.Device.Major.PHONE));
+
+        Drawable icon1 = BluetoothClassIconCache.getBtClassDrawableWithDescription(mContext,
+                mCachedDevice1).first;
+        Drawable icon2 = BluetoothClassIconCache.getBtClassDrawableWithDescription(mContext,
+                mCachedDevice2).first;
+
+        assertThat(BluetoothClassIconCache.getIconKey(mCachedDevice1)).isEqualTo(
+                BluetoothClassIconCache.getIconKey(mCachedDevice2));
+        assertThat(icon2).isNotNull();
+        assertThat(icon2).isNotSameInstanceAs(icon1);
+    }
+
+    @Test
+    public void getIconKey_differentClass_notEqual() {
+        when(mCachedDevice1.getBtClass()).thenReturn(
+                createBtClass(BluetoothClass.Device.Major.PHONE));
+        when(mCachedDevice2.getBtClass()).thenReturn(
+                createBtClass(BluetoothClass.Device.Major.COMPUTER));
+
+        assertThat(BluetoothClassIconCache.getIconKey(mCachedDevice1)).isNotEqualTo(
+                BluetoothClassIconCache.getIconKey(mCachedDevice2));
+    }
+
+    private BluetoothClass createBtClass(int deviceClass) {
+        Parcel p = Parcel.obtain();
+        p.writeInt(deviceClass);
+        p.setDataPosition(0);
+
+        BluetoothClass bluetoothClass = BluetoothClass.CREATOR.createFromParcel(p);
+        p.recycle();
+        return bluetoothClass;
+    }
+}
@@ -27,6 +27,7 @@ import static org.mockito.Mockito.when;
 
 import android.bluetooth.BluetoothClass;
 import android.content.Context;
+import android.graphics.drawable.Drawable;
 import android.os.Parcel;
 import android.os.SystemProperties;
 
@@ -234,6 +235,38 @@ public class BluetoothDevicePreferenceTest {
         assertThat(mPreference.isEnabled()).isFalse();
     }
 
+    @Test
+    public void onDeviceAttributesChanged_sameClass_keepsIcon() {
+        when(mCachedDevice.getBtClass()).thenReturn(
+                createBtClass(BluetoothClass.Device.Major.PHONE));
+        ArgumentCaptor<CachedBluetoothDevice.Callback> callbackCaptor = ArgumentCaptor.forClass(
+                CachedBluetoothDevice.Callback.class);
+        mPreference.onAttached();
+        verify(mCachedDevice).registerCallback(callbackCaptor.capture());
+        Drawable icon = mPreference.getIcon();
+
+        callbackCaptor.getValue().onDeviceAttributesChanged();
+
+        assertThat(mPreference.getIcon()).isSameInstanceAs(icon);
+    }
+
+    @Test
+    public void onDeviceAttributesChanged_classChanged_updatesIcon() {
+        when(mCachedDevice.getBtClass()).thenReturn(
+                createBtClass(BluetoothClass.Device.Major.PHONE));
+        ArgumentCaptor<CachedBluetoothDevice.Callback> callbackCaptor = ArgumentCaptor.forClass(
+                CachedBluetoothDevice.Callback.class);
+        mPreference.onAttached();
+        verify(mCachedDevice).registerCallback(callbackCaptor.capture());
+        Drawable icon = mPreference.getIcon();
+        when(mCachedDevice.getBtClass()).thenReturn(
+                createBtClass(BluetoothClass.Device.Major.COMPUTER));
+
+        callbackCaptor.getValue().onDeviceAttributesChanged();
+
+        assertThat(mPreference.getIcon()).isNotSameInstanceAs(icon);
+    }
+
     @Test
     public void equals_devicesEqual_returnsTrue() {
         BluetoothDevicePreference otherPreference = new BluetoothDevicePreference(mContext,
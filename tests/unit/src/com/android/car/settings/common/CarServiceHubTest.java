@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2023 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.car.settings.common;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import android.car.Car;
+import android.car.drivingstate.CarUxRestrictions;
+import android.car.drivingstate.CarUxRestrictionsManager;
+import android.car.drivingstate.CarUxRestrictionsManager.OnUxRestrictionsChangedListener;
+import android.car.user.CarUserManager;
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.android.dx.mockito.inline.extended.ExtendedMockito;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.MockitoSession;
+
+@RunWith(AndroidJUnit4.class)
+public class CarServiceHubTest {
+    private final Context mContext = ApplicationProvider.getApplicationContext();
+    private final CarUxRestrictions mRestrictions = new CarUxRestrictions.Builder(
+            /* reqOpt= */ true, CarUxRestrictions.UX_RESTRICTIONS_BASELINE, /* timestamp= */ 0)
+            .build();
+
+    private MockitoSession mSession;
+    private CarServiceHub mCarServiceHub;
+    private Car.CarServiceLifecycleListener mHubListener;
+    private int mCreateCarCount;
+
+    @Mock
+    private Car mCar;
+    @Mock
+    private CarUserManager mCarUserManager;
+    @Mock
+    private CarUxRestrictionsManager mCarUxRestrictionsManager;
+    @Mock
+    private Car.CarServiceLifecycleListener mListener1;
+    @Mock
+    private Car.CarServiceLifecycleListener mListener2;
+    @Mock
+    private OnUxRestrictionsChangedListener mUxListener1;
+    @Mock
+    private OnUxRestrictionsChangedListener mUxListener2;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        mSession = ExtendedMockito.mockitoSession()
+                .mockStatic(Car.class, withSettings().lenient())
+                .startMocking();
+        when(Car.createCar(any(), any(), anyLong(), any())).then(invocation -> {
+            mCreateCarCount++;
+            mHubListener = invocation.getArgument(3);
+            return mCar;
+        });
+        when(mCar.isConnected()).thenReturn(true);
+        when(mCar.getCarManager(Car.CAR_USER_SERVICE)).thenReturn(mCarUserManager);
+        when(mCar.getCarManager(Car.CAR_UX_RESTRICTION_SERVICE))
+                .thenReturn(mCarUxRestrictionsManager);
+        when(mCarUxRestrictionsManager.getCurrentCarUxRestrictions()).thenReturn(mRestrictions);
+
+        mCarServiceHub = new CarServiceHub(mContext);
+    }
+
+    @After
+    public void tearDown() {
+        if (mSession != null) {
+            mSession.finishMocking();
+        }
+    }
+
+    @Test
+    public void acquire_firstReference_connects() {
+        mCarServiceHub.acquire(mListener1);
+        mHubListener.onLifecycleChanged(mCar, /* ready= */ true);
+
+        assertThat(mCreateCarCount).isEqualTo(1);
+        verify(mListener1).onLifecycleChanged(mCar, /* ready= */ true);
+        assertThat(mCarServiceHub.isConnected()).isTrue();
+        assertThat(mCarServiceHub.getLastConnectLatencyMs()).isAtLeast(0);
+    }
+
+    @Test
+    public void acquire_secondReference_reusesConnection() {
+        mCarServiceHub.acquire(mListener1);
+        mHubListener.onLifecycleChanged(mCar, /* ready= */ true);
+
+        mCarServiceHub.acquire(mListener2);
+
+        assertThat(mCreateCarCount).isEqualTo(1);
+        assertThat(mCarServiceHub.getReusedAcquireCount()).isEqualTo(1);
+        verify(mListener2).onLifecycleChanged(mCar, /* ready= */ true);
+    }
+
+    @Test
+    public void release_lastReference_disconnects() {
+        mCarServiceHub.acquire(mListener1);
+        mCarServiceHub.acquire(mListener2);
+        mHubListener.onLifecycleChanged(mCar, /* ready= */ true);
+
+        mCarServiceHub.release(mListener1);
+        verify(mCar, never()).disconnect();
+
+        mCarServiceHub.release(mListener2);
+        verify(mCar).disconnect();
+        assertThat(mCarServiceHub.isConnected()).isFalse();
+    }
+
+    @Test
+    public void carServiceCrash_notifiesListeners() {
+        mCarServiceHub.acquire(mListener1);
+        mHubListener.onLifecycleChanged(mCar, /* ready= */ true);
+
+        mHubListener.onLifecycleChanged(mCar, /* ready= */ false);
+
+        verify(mListener1).onLifecycleChanged(mCar, /* ready= */ false);
+        assertThat(mCarServiceHub.getCarUserManager()).isNull();
+    }
+
+    @Test
+    public void getCarUserManager_connected_returnsManager() {
+        mCarServiceHub.acquire(mListener1);
+        mHubListener.onLifecycleChanged(mCar, /* ready= */ true);
+
+        assertThat(mCarServiceHub.getCarUserManager()).isEqualTo(mCarUserManager);
+    }
+
+    @Test
+    public void registerUxRestrictionsListener_multiplexesSingleManagerListener() {
+        mCarServiceHub.registerUxRestrictionsListener(mUxListener1);
+        mHubListener.onLifecycleChanged(mCar, /* ready= */ true);
+        mCarServiceHub.registerUxRestrictionsListener(mUxListener2);
+
+        verify(mCarUxRestrictionsManager, times(1)).registerListener(any());
+        verify(mUxListener1).onUxRestrictionsChanged(mRestrictions);
+        verify(mUxListener2).onUxRestrictionsChanged(mRestrictions);
+    }
+
+    @Test
+    public void unregisterUxRestrictionsListener_lastListener_unregistersManagerListener() {
+        mCarServiceHub.registerUxRestrictionsListener(mUxListener1);
+        mHubListener.onLifecycleChanged(mCar, /* ready= */ true);
+
+        mCarServiceHub.unregisterUxRestrictionsListener(mUxListener1);
+
+        verify(mCarUxRestrictionsManager).unregisterListener();
+        verify(mCar).disconnect();
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2023 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.car.settings.common;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+
+import android.app.Activity;
+import android.car.drivingstate.CarUxRestrictions;
+import android.content.Context;
+import android.os.Bundle;
+import android.util.Log;
+
+import androidx.test.annotation.UiThreadTest;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.android.car.settings.R;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+/**
+ * Measures the time to create the preference controllers of the most used screens from their
+ * xml, which is the part of a cold open that {@link SettingsFragment#onAttach} spends on the
+ * main thread, and checks it against a per screen budget. Results are logged and reported as
+ * instrumentation status.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ColdStartBudgetBenchmarkTest {
+    private static final String TAG = "ColdStartBudgetBenchmark";
+    // Generous, so that the check catches regressions such as blocking calls in controller
+    // constructors rather than device to device variations.
+    private static final long BUDGET_MS = 500;
+
+    private static final int[] TOP_SCREENS = {
+            R.xml.homepage_fragment,
+            R.xml.bluetooth_settings_fragment,
+            R.xml.network_and_internet_fragment,
+            R.xml.notifications_fragment,
+            R.xml.sound_settings_fragment,
+            R.xml.display_settings_fragment,
+            R.xml.location_settings_fragment,
+            R.xml.privacy_settings_fragment,
+            R.xml.accessibility_settings_fragment,
+            R.xml.security_settings_fragment,
+            R.xml.apps_fragment,
+            R.xml.assistant_and_voice_fragment,
+            R.xml.system_settings_fragment,
+            R.xml.wifi_list_fragment,
+            R.xml.units_fragment,
+            R.xml.languages_and_input_fragment,
+            R.xml.datetime_settings_fragment,
+            R.xml.storage_settings_fragment,
+            R.xml.profiles_list_fragment,
+            R.xml.about_settings_fragment,
+    };
+
+    private static final CarUxRestrictions UX_RESTRICTIONS =
+            new CarUxRestrictions.Builder(/* reqOpt= */ false,
+                    CarUxRestrictions.UX_RESTRICTIONS_BASELINE, /* timestamp= */ 0).build();
+
+    private final Context mContext = ApplicationProvider.getApplicationContext();
+
+    @Mock
+    private FragmentController mFragmentController;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        SettingsTracer.reset();
+    }
+
+    @Test
+    @UiThreadTest
+    public void createControllers_topScreens_withinBudget() {
+        Bundle results = new Bundle();
+        for (int xmlResId : TOP_SCREENS) {
+            String name = mContext.getResources().getResourceEntryName(xmlResId);
+            String section = name + "#createControllers";
+
+            long start = SettingsTracer.begin(section);
+            PreferenceControllerListHelper.getPreferenceControllersFromXml(mContext, xmlResId,
+                    mFragmentController, UX_RESTRICTIONS);
+            SettingsTracer.end(section, start);
+
+            long durationMs = SettingsTracer.getHistogram(section).getMaxNanos() / 1_000_000;
+            Log.i(TAG, name + ": " + durationMs + "ms");
+            results.putLong(name + "_ms", durationMs);
+            assertWithMessage("Controllers of " + name + " created in " + durationMs + "ms")
+                    .that(durationMs).isAtMost(BUDGET_MS);
+        }
+        InstrumentationRegistry.getInstrumentation().sendStatus(Activity.RESULT_OK, results);
+    }
+}
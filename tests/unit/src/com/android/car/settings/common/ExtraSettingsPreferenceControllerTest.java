@@ -24,15 +24,21 @@ import static com.android.settingslib.drawer.TileUtils.META_DATA_PREFERENCE_TITL
 import static com.google.common.truth.Truth.assertThat;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import android.car.drivingstate.CarUxRestrictions;
+import android.content.ContentResolver;
 import android.content.Context;
 import android.content.Intent;
+import android.database.ContentObserver;
 import android.graphics.drawable.Drawable;
+import android.net.Uri;
 import android.os.Bundle;
 
 import androidx.lifecycle.LifecycleOwner;
@@ -58,7 +64,9 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RunWith(AndroidJUnit4.class)
@@ -310,10 +318,160 @@ public class ExtraSettingsPreferenceControllerTest {
         assertThat(mPreferenceController.mObservers.size()).isEqualTo(1);
     }
 
+    @Test
+    public void onDynamicDataChanged_sameProvider_refreshesInOneBatch() {
+        mMetaData.putString(META_DATA_PREFERENCE_TITLE_URI, TEST_PROVIDER + "/getText/textKey");
+        mMetaData.putString(META_DATA_PREFERENCE_SUMMARY_URI,
+                TEST_PROVIDER + "/getText/textKey");
+        mPreferenceBundleMap.put(mPreference, mMetaData);
+        when(mExtraSettingsLoaderMock.loadPreferences(FAKE_INTENT)).thenReturn(
+                mPreferenceBundleMap);
+        mPreferenceController.setExtraSettingsLoader(mExtraSettingsLoaderMock);
+        mPreferenceController.onCreate(mLifecycleOwner);
+        mPreference.setTitle("");
+        mPreference.setSummary("");
+
+        for (ContentObserver observer : mPreferenceController.mObservers) {
+            observer.onChange(/* selfChange= */ false);
+            observer.onChange(/* selfChange= */ false);
+        }
+
+        assertThat(mPreferenceController.mDelayedUiTasks).hasSize(1);
+        assertThat(mPreference.getTitle().toString()).isEmpty();
+
+        mPreferenceController.runDelayedUiTasks();
+
+        assertThat(mPreference.getTitle()).isEqualTo(TestContentProvider.TEST_TEXT_CONTENT);
+        assertThat(mPreference.getSummary()).isEqualTo(TestContentProvider.TEST_TEXT_CONTENT);
+    }
+
+    @Test
+    public void onStop_dynamicDataChangePending_refreshCancelled() {
+        mMetaData.putString(META_DATA_PREFERENCE_TITLE_URI, TEST_PROVIDER + "/getText/textKey");
+        mPreferenceBundleMap.put(mPreference, mMetaData);
+        when(mExtraSettingsLoaderMock.loadPreferences(FAKE_INTENT)).thenReturn(
+                mPreferenceBundleMap);
+        mPreferenceController.setExtraSettingsLoader(mExtraSettingsLoaderMock);
+        mPreferenceController.onCreate(mLifecycleOwner);
+        mPreferenceController.onStart(mLifecycleOwner);
+        mPreference.setTitle("");
+
+        for (ContentObserver observer : mPreferenceController.mObservers) {
+            observer.onChange(/* selfChange= */ false);
+        }
+        mPreferenceController.onStop(mLifecycleOwner);
+
+        assertThat(mPreferenceController.mDelayedUiTasks).isEmpty();
+        assertThat(mPreference.getTitle().toString()).isEmpty();
+    }
+
+    @Test
+    public void onStart_afterStopWithPendingChange_refreshesDynamicData() {
+        mMetaData.putString(META_DATA_PREFERENCE_TITLE_URI, TEST_PROVIDER + "/getText/textKey");
+        mPreferenceBundleMap.put(mPreference, mMetaData);
+        when(mExtraSettingsLoaderMock.loadPreferences(FAKE_INTENT)).thenReturn(
+                mPreferenceBundleMap);
+        mPreferenceController.setExtraSettingsLoader(mExtraSettingsLoaderMock);
+        mPreferenceController.onCreate(mLifecycleOwner);
+        mPreferenceController.onStart(mLifecycleOwner);
+        mPreference.setTitle("");
+        for (ContentObserver observer : mPreferenceController.mObservers) {
+            observer.onChange(/* selfChange= */ false);
+        }
+        mPreferenceController.onStop(mLifecycleOwner);
+
+        mPreferenceController.onStart(mLifecycleOwner);
+
+        assertThat(mPreference.getTitle()).isEqualTo(TestContentProvider.TEST_TEXT_CONTENT);
+    }
+
+    @Test
+    @UiThreadTest
+    public void onCreate_hasCachedSettings_showsCachedSettingsUntilLoaded() {
+        mPreferenceBundleMap.put(mPreference, mMetaData);
+        when(mExtraSettingsLoaderMock.loadPreferences(any(Intent.class))).thenReturn(
+                mPreferenceBundleMap);
+        mPreferenceController.setExtraSettingsLoader(mExtraSettingsLoaderMock);
+        mPreferenceController.setCachedExtraSettings(List.of(createCachedEntry()));
+        mPreferenceController.mDeferBackgroundTasks = true;
+
+        mPreferenceController.onCreate(mLifecycleOwner);
+
+        assertThat(mScreen.getPreferenceCount()).isEqualTo(1);
+        assertThat(mScreen.getPreference(0).getTitle().toString()).isEqualTo("Cached title");
+        assertThat(mScreen.isVisible()).isTrue();
+
+        mPreferenceController.runBackgroundTasks();
+
+        assertThat(mScreen.getPreferenceCount()).isEqualTo(1);
+        assertThat(mScreen.getPreference(0)).isEqualTo(mPreference);
+    }
+
+    @Test
+    @UiThreadTest
+    public void onCreate_hasCachedSettings_keepsCachedTitleUntilDynamicTitleLoaded() {
+        mMetaData.putString(META_DATA_PREFERENCE_TITLE_URI, TEST_PROVIDER + "/getText/textKey");
+        mPreference.setKey("cached_key");
+        mPreferenceBundleMap.put(mPreference, mMetaData);
+        when(mExtraSettingsLoaderMock.loadPreferences(any(Intent.class))).thenReturn(
+                mPreferenceBundleMap);
+        mPreferenceController.setExtraSettingsLoader(mExtraSettingsLoaderMock);
+        mPreferenceController.setCachedExtraSettings(List.of(createCachedEntry()));
+        mPreferenceController.mDeferBackgroundTasks = true;
+        mPreferenceController.onCreate(mLifecycleOwner);
+
+        mPreferenceController.runBackgroundTasks();
+
+        assertThat(mScreen.getPreference(0)).isEqualTo(mPreference);
+        assertThat(mPreference.getTitle().toString()).isEqualTo("Cached title");
+
+        mPreferenceController.runBackgroundTasks();
+
+        assertThat(mPreference.getTitle()).isEqualTo(TestContentProvider.TEST_TEXT_CONTENT);
+    }
+
+    @Test
+    @UiThreadTest
+    public void onStart_hasCachedSettings_registersObserversOfLoadedSettings() {
+        Context context = spy(mContext);
+        ContentResolver contentResolver = mock(ContentResolver.class);
+        doReturn(contentResolver).when(context).getContentResolver();
+        FakeExtraSettingsPreferenceController controller =
+                new FakeExtraSettingsPreferenceController(context, /* preferenceKey= */ "key",
+                        mFragmentController, BASELINE_UX_RESTRICTIONS);
+        controller.setPreference(mScreen);
+        mMetaData.putString(META_DATA_PREFERENCE_TITLE_URI, TEST_PROVIDER);
+        mPreferenceBundleMap.put(mPreference, mMetaData);
+        when(mExtraSettingsLoaderMock.loadPreferences(any(Intent.class))).thenReturn(
+                mPreferenceBundleMap);
+        controller.setExtraSettingsLoader(mExtraSettingsLoaderMock);
+        controller.setCachedExtraSettings(List.of(createCachedEntry()));
+        controller.mDeferBackgroundTasks = true;
+        controller.onCreate(mLifecycleOwner);
+        controller.onStart(mLifecycleOwner);
+
+        controller.runBackgroundTasks();
+
+        assertThat(controller.mObservers).hasSize(1);
+        verify(contentResolver).registerContentObserver(any(Uri.class), anyBoolean(),
+                any(ContentObserver.class));
+    }
+
+    private static TopLevelMenuSnapshotStore.Entry createCachedEntry() {
+        return new TopLevelMenuSnapshotStore.Entry("cached_key", /* parentKey= */ "key",
+                "Cached title", /* summary= */ null, /* visible= */ true,
+                new Intent().setPackage("com.android.car.settings")
+                        .toUri(Intent.URI_INTENT_SCHEME), /* icon= */ null,
+                /* distractionOptimized= */ true);
+    }
+
     private static class FakeExtraSettingsPreferenceController extends
             ExtraSettingsPreferenceController {
 
         private int mAvailabilityStatus;
+        private final List<Runnable> mBackgroundTasks = new ArrayList<>();
+        final List<Runnable> mDelayedUiTasks = new ArrayList<>();
+        boolean mDeferBackgroundTasks;
 
         FakeExtraSettingsPreferenceController(Context context, String preferenceKey,
                 FragmentController fragmentController, CarUxRestrictions uxRestrictions) {
@@ -323,16 +481,42 @@ public class ExtraSettingsPreferenceControllerTest {
 
         @Override
         void executeBackgroundTask(Runnable r) {
+            if (mDeferBackgroundTasks) {
+                mBackgroundTasks.add(r);
+                return;
+            }
             // run task immediately on main thread
             r.run();
         }
 
+        void runBackgroundTasks() {
+            List<Runnable> tasks = new ArrayList<>(mBackgroundTasks);
+            mBackgroundTasks.clear();
+            tasks.forEach(Runnable::run);
+        }
+
         @Override
         void executeUiTask(Runnable r) {
             // run task immediately on main thread
             r.run();
         }
 
+        @Override
+        void executeDelayedUiTask(Runnable r, long delayMillis) {
+            mDelayedUiTasks.add(r);
+        }
+
+        @Override
+        void removeDelayedUiTask(Runnable r) {
+            mDelayedUiTasks.remove(r);
+        }
+
+        void runDelayedUiTasks() {
+            List<Runnable> tasks = new ArrayList<>(mDelayedUiTasks);
+            mDelayedUiTasks.clear();
+            tasks.forEach(Runnable::run);
+        }
+
         @Override
         protected int getDefaultAvailabilityStatus() {
             return mAvailabilityStatus;
@@ -26,6 +26,7 @@ import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertThrows;
 
 import android.car.drivingstate.CarUxRestrictions;
 import android.content.Context;
@@ -321,14 +322,79 @@ public class PreferenceControllerTest {
                 mPreferenceController.getAvailabilityStatus(), CONDITIONALLY_UNAVAILABLE);
     }
 
+    @Test
+    public void onCreate_evaluatesDefaultAvailabilityStatusOncePerPass() {
+        mPreferenceController.setPreference(mPreference);
+        mPreferenceController.onUxRestrictionsChanged(NO_SETUP_UX_RESTRICTIONS);
+        mPreferenceController.onCreate(mLifecycleOwner);
+
+        // Once for the unsupported check and once for refreshUi() after onCreateInternal().
+        assertThat(mPreferenceController.getDefaultAvailabilityStatusCallCount()).isEqualTo(2);
+        assertThat(mPreferenceController.getAvoidedAvailabilityEvaluationCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void getAvailabilityStatus_outsidePass_reevaluates() {
+        mPreferenceController.setPreference(mPreference);
+        mPreferenceController.onCreate(mLifecycleOwner);
+
+        mPreferenceController.setAvailabilityStatus(CONDITIONALLY_UNAVAILABLE);
+
+        PreferenceControllerTestUtil.assertAvailability(
+                mPreferenceController.getAvailabilityStatus(), CONDITIONALLY_UNAVAILABLE);
+    }
+
+    @Test
+    public void refreshUi_availabilityChangedSinceLastPass_preferenceHidden() {
+        mPreferenceController.setPreference(mPreference);
+        mPreferenceController.onCreate(mLifecycleOwner);
+
+        mPreferenceController.setAvailabilityStatus(CONDITIONALLY_UNAVAILABLE);
+        mPreferenceController.refreshUi();
+
+        verify(mPreference).setVisible(false);
+    }
+
+    @Test
+    public void setAvailabilityStatusForZone_invalidatesMemoizedStatus() {
+        mPreferenceController.setPreference(mPreference);
+        mPreferenceController.onCreate(mLifecycleOwner);
+        int callCount = mPreferenceController.getDefaultAvailabilityStatusCallCount();
+
+        mPreferenceController.setAvailabilityStatusForZone("read");
+        mPreferenceController.refreshUi();
+
+        assertThat(mPreferenceController.getDefaultAvailabilityStatusCallCount())
+                .isEqualTo(callCount + 1);
+        verify(mPreference).setEnabled(false);
+    }
+
+    @Test
+    public void onStop_internalThrows_endsTraceSection() {
+        SettingsTracer.reset();
+        mPreferenceController.setPreference(mPreference);
+        mPreferenceController.onCreate(mLifecycleOwner);
+        mPreferenceController.onStart(mLifecycleOwner);
+        mPreferenceController.setStopException(new IllegalStateException());
+
+        assertThrows(IllegalStateException.class,
+                () -> mPreferenceController.onStop(mLifecycleOwner));
+
+        String section = SettingsTracer.getSectionName(mPreferenceController, "onStop");
+        assertThat(SettingsTracer.getHistogram(section).getCount()).isEqualTo(1);
+        SettingsTracer.reset();
+    }
+
     private static class FakePreferenceController extends
             PreferenceController<Preference> {
 
         private int mAvailabilityStatus;
         private int mUpdateStateCallCount;
+        private int mDefaultAvailabilityStatusCallCount;
         private Preference mUpdateStateArg;
         private boolean mAllIgnoresUxRestrictions = false;
         private Set<String> mPreferencesIgnoringUxRestrictions = new HashSet<>();
+        private RuntimeException mStopException;
 
         FakePreferenceController(Context context, String preferenceKey,
                 FragmentController fragmentController, CarUxRestrictions uxRestrictions) {
@@ -343,15 +409,31 @@ public class PreferenceControllerTest {
 
         @Override
         protected int getDefaultAvailabilityStatus() {
+            mDefaultAvailabilityStatusCallCount++;
             return mAvailabilityStatus;
         }
 
+        public int getDefaultAvailabilityStatusCallCount() {
+            return mDefaultAvailabilityStatusCallCount;
+        }
+
         @Override
         protected void updateState(Preference preference) {
             mUpdateStateArg = preference;
             mUpdateStateCallCount++;
         }
 
+        @Override
+        protected void onStopInternal() {
+            if (mStopException != null) {
+                throw mStopException;
+            }
+        }
+
+        void setStopException(RuntimeException exception) {
+            mStopException = exception;
+        }
+
         public void setAvailabilityStatus(int availabilityStatus) {
             mAvailabilityStatus = availabilityStatus;
         }
@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2023 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.car.settings.common;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.content.Context;
+
+import androidx.preference.Preference;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.android.car.ui.preference.CarUiPreference;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(AndroidJUnit4.class)
+public class PreferencePoolTest {
+    private static final String KEY_1 = "key1";
+    private static final String KEY_2 = "key2";
+    private static final int LIST_SIZE = 50;
+    private static final int REFRESH_COUNT = 20;
+
+    private final Context mContext = ApplicationProvider.getApplicationContext();
+    private final PreferencePool mPool = new PreferencePool();
+
+    @Test
+    public void acquire_releasedWithSameKey_reusesPreference() {
+        CarUiPreference preference = acquire(KEY_1);
+
+        mPool.releaseAll();
+
+        assertThat(acquire(KEY_1)).isSameInstanceAs(preference);
+        assertThat(mPool.getCreatedCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void acquire_releasedWithOtherKey_createsPreference() {
+        CarUiPreference preference = acquire(KEY_1);
+
+        mPool.releaseAll();
+
+        assertThat(acquire(KEY_2)).isNotSameInstanceAs(preference);
+        assertThat(mPool.getCreatedCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void acquire_releasedWithOtherType_createsPreference() {
+        Preference preference = acquire(KEY_1);
+
+        mPool.releaseAll();
+        Preference other = mPool.acquire(Preference.class, KEY_1, () -> new Preference(mContext));
+
+        assertThat(other).isNotSameInstanceAs(preference);
+    }
+
+    @Test
+    public void acquire_notReleased_createsPreference() {
+        CarUiPreference preference = acquire(KEY_1);
+
+        mPool.release(CarUiPreference.class, KEY_2);
+
+        assertThat(acquire(KEY_1)).isNotSameInstanceAs(preference);
+    }
+
+    @Test
+    public void acquire_released_resetsPreference() {
+        CarUiPreference preference = acquire(KEY_1);
+        preference.setOnPreferenceClickListener(p -> true);
+        preference.setOrder(3);
+        preference.setEnabled(false);
+        preference.setSelectable(false);
+
+        mPool.release(CarUiPreference.class, KEY_1);
+        acquire(KEY_1);
+
+        assertThat(preference.getOnPreferenceClickListener()).isNull();
+        assertThat(preference.getOrder()).isEqualTo(Preference.DEFAULT_ORDER);
+        assertThat(preference.isEnabled()).isTrue();
+        assertThat(preference.isSelectable()).isTrue();
+    }
+
+    @Test
+    public void releaseAll_twiceWithoutAcquire_dropsPreference() {
+        CarUiPreference preference = acquire(KEY_1);
+
+        mPool.releaseAll();
+        mPool.releaseAll();
+
+        assertThat(acquire(KEY_1)).isNotSameInstanceAs(preference);
+    }
+
+    @Test
+    public void repeatedRefreshes_sameKeys_onlyCreateInitialPreferences() {
+        for (int refresh = 0; refresh < REFRESH_COUNT; refresh++) {
+            mPool.releaseAll();
+            for (int i = 0; i < LIST_SIZE; i++) {
+                acquire(String.valueOf(i));
+            }
+        }
+
+        // Without the pool, each refresh would create LIST_SIZE preferences.
+        assertThat(mPool.getCreatedCount()).isEqualTo(LIST_SIZE);
+    }
+
+    private CarUiPreference acquire(String key) {
+        return mPool.acquire(CarUiPreference.class, key, () -> new CarUiPreference(mContext));
+    }
+}
@@ -111,6 +111,72 @@ public abstract class SettingsFragmentTestCase<T extends BaseCarSettingsTestActi
         assertThat(controller.getUxRestrictions()).isEqualTo(uxRestrictions);
     }
 
+    @Test
+    @UiThreadTest
+    public void onUxRestrictionsChanged_multipleChangesInFrame_refreshesOncePerController() {
+        mFragment.onCreate(null);
+        FakePreferenceController controller = mFragment.use(FakePreferenceController.class,
+                R.string.tpk_fake_controller);
+        mFragment.onUxRestrictionsChanged(new CarUxRestrictions.Builder(/* reqOpt= */ true,
+                CarUxRestrictions.UX_RESTRICTIONS_NO_KEYBOARD, /* timestamp= */ 0).build());
+        int updateStateCallCount = controller.getUpdateStateCallCount();
+
+        mFragment.onUxRestrictionsChanged(new CarUxRestrictions.Builder(/* reqOpt= */ true,
+                CarUxRestrictions.UX_RESTRICTIONS_NO_SETUP, /* timestamp= */ 0).build());
+        CarUxRestrictions lastUxRestrictions = new CarUxRestrictions.Builder(/* reqOpt= */ true,
+                CarUxRestrictions.UX_RESTRICTIONS_LIMIT_STRING_LENGTH, /* timestamp= */ 0).build();
+        mFragment.onUxRestrictionsChanged(lastUxRestrictions);
+
+        assertThat(controller.getUxRestrictions()).isEqualTo(lastUxRestrictions);
+        assertThat(controller.getUpdateStateCallCount()).isEqualTo(updateStateCallCount);
+        assertThat(mFragment.getCollapsedRefreshCount()).isAtLeast(1);
+
+        mFragment.flushPendingRefreshes();
+
+        assertThat(controller.getUpdateStateCallCount()).isEqualTo(updateStateCallCount + 1);
+    }
+
+    @Test
+    @UiThreadTest
+    public void onStart_uxRestrictionsChangedWhileStopped_refreshesControllers() {
+        mFragment.onCreate(null);
+        FakePreferenceController controller = mFragment.use(FakePreferenceController.class,
+                R.string.tpk_fake_controller);
+        mFragment.onStop();
+        int updateStateCallCount = controller.getUpdateStateCallCount();
+
+        mFragment.onUxRestrictionsChanged(new CarUxRestrictions.Builder(/* reqOpt= */ true,
+                CarUxRestrictions.UX_RESTRICTIONS_NO_KEYBOARD, /* timestamp= */ 0).build());
+
+        assertThat(controller.getUpdateStateCallCount()).isEqualTo(updateStateCallCount);
+
+        mFragment.onStart();
+
+        assertThat(controller.getUpdateStateCallCount()).isEqualTo(updateStateCallCount + 1);
+    }
+
+    @Test
+    @UiThreadTest
+    public void onStart_refreshPendingWhenStopped_refreshesControllers() {
+        mFragment.onCreate(null);
+        FakePreferenceController controller = mFragment.use(FakePreferenceController.class,
+                R.string.tpk_fake_controller);
+        mFragment.onUxRestrictionsChanged(new CarUxRestrictions.Builder(/* reqOpt= */ true,
+                CarUxRestrictions.UX_RESTRICTIONS_NO_KEYBOARD, /* timestamp= */ 0).build());
+        mFragment.onUxRestrictionsChanged(new CarUxRestrictions.Builder(/* reqOpt= */ true,
+                CarUxRestrictions.UX_RESTRICTIONS_NO_SETUP, /* timestamp= */ 0).build());
+        int updateStateCallCount = controller.getUpdateStateCallCount();
+
+        mFragment.onStop();
+        mFragment.flushPendingRefreshes();
+
+        assertThat(controller.getUpdateStateCallCount()).isEqualTo(updateStateCallCount);
+
+        mFragment.onStart();
+
+        assertThat(controller.getUpdateStateCallCount()).isEqualTo(updateStateCallCount + 1);
+    }
+
     @Test
     @UiThreadTest
     public void onUxRestrictedPreferenceTapped_showToast() {
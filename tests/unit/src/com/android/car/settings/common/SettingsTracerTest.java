@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2023 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.car.settings.common;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.Collections;
+
+@RunWith(AndroidJUnit4.class)
+public class SettingsTracerTest {
+    private static final String SECTION = "TestSection#onCreate";
+    private static final String OTHER_SECTION = "TestSection#onStart";
+
+    @Before
+    public void setUp() {
+        SettingsTracer.reset();
+    }
+
+    @After
+    public void tearDown() {
+        SettingsTracer.reset();
+    }
+
+    @Test
+    public void end_recordsDuration() {
+        long start = SettingsTracer.begin(SECTION);
+        SettingsTracer.end(SECTION, start);
+        start = SettingsTracer.begin(SECTION);
+        SettingsTracer.end(SECTION, start);
+
+        SettingsTracer.Histogram histogram = SettingsTracer.getHistogram(SECTION);
+        assertThat(histogram.getCount()).isEqualTo(2);
+        assertThat(histogram.getTotalNanos()).isAtLeast(histogram.getMaxNanos());
+    }
+
+    @Test
+    public void begin_longSectionName_doesNotThrow() {
+        String section = String.join("", Collections.nCopies(200, "a"));
+
+        long start = SettingsTracer.begin(section);
+        SettingsTracer.end(section, start);
+
+        assertThat(SettingsTracer.getHistogram(section).getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void histogram_record_bucketsByPowersOfTwoMillis() {
+        SettingsTracer.Histogram histogram = new SettingsTracer.Histogram();
+
+        histogram.record(/* durationNanos= */ 500_000L);
+        histogram.record(/* durationNanos= */ 3_000_000L);
+        histogram.record(/* durationNanos= */ 3_500_000L);
+        histogram.record(/* durationNanos= */ 2_000_000_000L);
+
+        assertThat(histogram.getBucketCount(0)).isEqualTo(1);
+        assertThat(histogram.getBucketCount(2)).isEqualTo(2);
+        assertThat(histogram.getBucketCount(
+                SettingsTracer.Histogram.BUCKET_UPPER_BOUNDS_MS.length)).isEqualTo(1);
+        assertThat(histogram.getMaxNanos()).isEqualTo(2_000_000_000L);
+    }
+
+    @Test
+    public void dump_printsSectionsByTotalTime() throws InterruptedException {
+        long start = SettingsTracer.begin(OTHER_SECTION);
+        SettingsTracer.end(OTHER_SECTION, start);
+        start = SettingsTracer.begin(SECTION);
+        Thread.sleep(/* millis= */ 5);
+        SettingsTracer.end(SECTION, start);
+        StringWriter output = new StringWriter();
+
+        SettingsTracer.dump(new PrintWriter(output));
+
+        String dump = output.toString();
+        assertThat(dump).contains(SECTION + ": count=1");
+        assertThat(dump.indexOf(SECTION)).isLessThan(dump.indexOf(OTHER_SECTION));
+    }
+
+    @Test
+    public void getSectionName_usesSimpleClassName() {
+        assertThat(SettingsTracer.getSectionName(this, "onCreate"))
+                .isEqualTo("SettingsTracerTest#onCreate");
+    }
+
+    @Test
+    public void getSectionName_calledTwice_reusesName() {
+        String name = SettingsTracer.getSectionName(this, "onStart");
+
+        assertThat(SettingsTracer.getSectionName(this, "onStart")).isSameInstanceAs(name);
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright (C) 2023 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.car.settings.common;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Color;
+
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.android.car.settings.R;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@RunWith(AndroidJUnit4.class)
+public class TopLevelMenuSnapshotStoreTest {
+    private static final int XML_RES_ID = R.xml.homepage_fragment;
+    private static final int ZONE_TYPE = 0;
+
+    private final Context mContext = ApplicationProvider.getApplicationContext();
+    private File mDirectory;
+    private static final long TIMEOUT_MS = 5000;
+
+    private final List<Runnable> mDeferredTasks = new ArrayList<>();
+    private String mStamp = "stamp";
+    private TopLevelMenuSnapshotStore mStore;
+
+    @Before
+    public void setUp() {
+        mDirectory = new File(mContext.getCacheDir(), "top_level_menu_test");
+        mStore = new TopLevelMenuSnapshotStore(mContext, mDirectory) {
+            @Override
+            void executeBackgroundTask(Runnable runnable) {
+                runnable.run();
+            }
+
+            @Override
+            String getStamp() {
+                return mStamp;
+            }
+        };
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = mDirectory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        mDirectory.delete();
+    }
+
+    @Test
+    public void load_noSnapshot_returnsNull() {
+        assertThat(mStore.load(XML_RES_ID, ZONE_TYPE)).isNull();
+    }
+
+    @Test
+    public void load_afterSave_readsSnapshotFromDisk() {
+        List<TopLevelMenuSnapshotStore.Entry> snapshot = createSnapshot();
+        mStore.save(XML_RES_ID, ZONE_TYPE, snapshot);
+        mStore.clearMemoryCache();
+
+        assertThat(mStore.load(XML_RES_ID, ZONE_TYPE)).isEqualTo(snapshot);
+    }
+
+    @Test
+    public void load_otherZoneType_returnsNull() {
+        mStore.save(XML_RES_ID, ZONE_TYPE, createSnapshot());
+        mStore.clearMemoryCache();
+
+        assertThat(mStore.load(XML_RES_ID, ZONE_TYPE + 1)).isNull();
+    }
+
+    @Test
+    public void load_stampChanged_returnsNull() {
+        mStore.save(XML_RES_ID, ZONE_TYPE, createSnapshot());
+        mStore.clearMemoryCache();
+        mStamp = "other_stamp";
+
+        assertThat(mStore.load(XML_RES_ID, ZONE_TYPE)).isNull();
+    }
+
+    @Test
+    public void peek_notPreloaded_returnsNull() {
+        mStore.save(XML_RES_ID, ZONE_TYPE, createSnapshot());
+        mStore.clearMemoryCache();
+
+        assertThat(mStore.peek(XML_RES_ID, ZONE_TYPE)).isNull();
+    }
+
+    @Test
+    public void peek_afterPreload_returnsSnapshotFromDisk() {
+        List<TopLevelMenuSnapshotStore.Entry> snapshot = createSnapshot();
+        mStore.save(XML_RES_ID, ZONE_TYPE, snapshot);
+        mStore.clearMemoryCache();
+
+        mStore.preload();
+
+        assertThat(mStore.peek(XML_RES_ID, ZONE_TYPE)).isEqualTo(snapshot);
+    }
+
+    @Test
+    public void peek_afterPreload_stampChanged_returnsNull() {
+        mStore.save(XML_RES_ID, ZONE_TYPE, createSnapshot());
+        mStore.clearMemoryCache();
+        mStamp = "other_stamp";
+
+        mStore.preload();
+
+        assertThat(mStore.peek(XML_RES_ID, ZONE_TYPE)).isNull();
+    }
+
+    @Test
+    public void peekWithTimeout_preloadRunning_waitsForPreload() {
+        List<TopLevelMenuSnapshotStore.Entry> snapshot = createSnapshot();
+        mStore.save(XML_RES_ID, ZONE_TYPE, snapshot);
+        TopLevelMenuSnapshotStore store = new TopLevelMenuSnapshotStore(mContext, mDirectory) {
+            @Override
+            void executeBackgroundTask(Runnable runnable) {
+                new Thread(runnable).start();
+            }
+
+            @Override
+            String getStamp() {
+                return mStamp;
+            }
+        };
+
+        store.preload();
+
+        assertThat(store.peek(XML_RES_ID, ZONE_TYPE, TIMEOUT_MS)).isEqualTo(snapshot);
+        assertThat(store.getMissCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void peekWithTimeout_preloadNotFinished_countsMiss() {
+        mStore.save(XML_RES_ID, ZONE_TYPE, createSnapshot());
+        TopLevelMenuSnapshotStore store = createDeferredStore();
+
+        store.preload();
+
+        assertThat(store.peek(XML_RES_ID, ZONE_TYPE, /* timeoutMs= */ 0)).isNull();
+        assertThat(store.getMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void save_comparesAndStoresSnapshotInBackground() {
+        List<TopLevelMenuSnapshotStore.Entry> snapshot = createSnapshot();
+        TopLevelMenuSnapshotStore store = createDeferredStore();
+
+        store.save(XML_RES_ID, ZONE_TYPE, snapshot);
+
+        assertThat(store.peek(XML_RES_ID, ZONE_TYPE)).isNull();
+        mDeferredTasks.forEach(Runnable::run);
+        assertThat(store.peek(XML_RES_ID, ZONE_TYPE)).isEqualTo(snapshot);
+    }
+
+    @Test
+    public void save_twiceBeforeBackgroundTask_storesLatestSnapshot() {
+        List<TopLevelMenuSnapshotStore.Entry> latest = Arrays.asList(
+                new TopLevelMenuSnapshotStore.Entry("network", "Network", /* summary= */ null,
+                        /* visible= */ false));
+        TopLevelMenuSnapshotStore store = createDeferredStore();
+
+        store.save(XML_RES_ID, ZONE_TYPE, createSnapshot());
+        store.save(XML_RES_ID, ZONE_TYPE, latest);
+        mDeferredTasks.forEach(Runnable::run);
+
+        assertThat(store.peek(XML_RES_ID, ZONE_TYPE)).isEqualTo(latest);
+    }
+
+    private TopLevelMenuSnapshotStore createDeferredStore() {
+        return new TopLevelMenuSnapshotStore(mContext, mDirectory) {
+            @Override
+            void executeBackgroundTask(Runnable runnable) {
+                mDeferredTasks.add(runnable);
+            }
+
+            @Override
+            String getStamp() {
+                return mStamp;
+            }
+        };
+    }
+
+    private static List<TopLevelMenuSnapshotStore.Entry> createSnapshot() {
+        Bitmap icon = Bitmap.createBitmap(/* width= */ 4, /* height= */ 4,
+                Bitmap.Config.ARGB_8888);
+        icon.eraseColor(Color.RED);
+        return Arrays.asList(
+                new TopLevelMenuSnapshotStore.Entry("network", "Network", /* summary= */ null,
+                        /* visible= */ true),
+                new TopLevelMenuSnapshotStore.Entry("extra", /* title= */ null,
+                        /* summary= */ null, /* visible= */ true),
+                new TopLevelMenuSnapshotStore.Entry("injected", /* parentKey= */ "extra",
+                        "Injected", "Summary", /* visible= */ true,
+                        "#Intent;component=com.example/.Settings;end", icon,
+                        /* distractionOptimized= */ true));
+    }
+}
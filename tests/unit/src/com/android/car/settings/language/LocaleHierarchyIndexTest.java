@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2023 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.car.settings.language;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.android.internal.app.LocaleStore;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+@RunWith(AndroidJUnit4.class)
+public class LocaleHierarchyIndexTest {
+    private static final Set<String> IGNORABLES = Collections.emptySet();
+
+    private final Context mContext = ApplicationProvider.getApplicationContext();
+    private Locale mDefaultLocale;
+    private LocaleHierarchyIndex mIndex;
+
+    @Before
+    public void setUp() {
+        mDefaultLocale = Locale.getDefault();
+        mIndex = new LocaleHierarchyIndex(mContext) {
+            @Override
+            void executeBackgroundTask(Runnable runnable) {
+                runnable.run();
+            }
+        };
+    }
+
+    @After
+    public void tearDown() {
+        Locale.setDefault(mDefaultLocale);
+    }
+
+    @Test
+    public void getLocales_topLevel_matchesLocaleStoreSorted() {
+        List<LocaleStore.LocaleInfo> expected = new ArrayList<>(LocaleStore.getLevelLocales(
+                mContext, IGNORABLES, /* parent= */ null, /* translatedOnly= */ true));
+        expected.sort(mIndex.getComparator(IGNORABLES, /* parent= */ null));
+
+        assertThat(mIndex.getLocales(IGNORABLES, /* parent= */ null))
+                .containsExactlyElementsIn(expected).inOrder();
+    }
+
+    @Test
+    public void getChildCount_matchesLocaleStore() {
+        for (LocaleStore.LocaleInfo parent : mIndex.getLocales(IGNORABLES, /* parent= */ null)) {
+            assertThat(mIndex.getChildCount(IGNORABLES, parent)).isEqualTo(
+                    LocaleStore.getLevelLocales(mContext, IGNORABLES, parent,
+                            /* translatedOnly= */ true).size());
+        }
+    }
+
+    @Test
+    public void getLocales_calledRepeatedly_buildsOnce() {
+        mIndex.prefetch(IGNORABLES);
+        Set<LocaleStore.LocaleInfo> topLevel = mIndex.getLocales(IGNORABLES, /* parent= */ null);
+        for (LocaleStore.LocaleInfo parent : topLevel) {
+            mIndex.getLocales(IGNORABLES, parent);
+        }
+
+        assertThat(mIndex.getBuildCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void getLocales_returnedSetModified_indexUnchanged() {
+        Set<LocaleStore.LocaleInfo> topLevel = mIndex.getLocales(IGNORABLES, /* parent= */ null);
+        int size = topLevel.size();
+
+        topLevel.add(LocaleStore.getLocaleInfo(new Locale("en", "XA")));
+
+        assertThat(mIndex.getLocales(IGNORABLES, /* parent= */ null)).hasSize(size);
+    }
+
+    @Test
+    public void getLocales_defaultLocaleChanged_rebuilds() {
+        mIndex.getLocales(IGNORABLES, /* parent= */ null);
+        Locale.setDefault(mDefaultLocale.equals(Locale.FRANCE) ? Locale.GERMANY : Locale.FRANCE);
+
+        mIndex.getLocales(IGNORABLES, /* parent= */ null);
+
+        assertThat(mIndex.getBuildCount()).isEqualTo(2);
+    }
+}
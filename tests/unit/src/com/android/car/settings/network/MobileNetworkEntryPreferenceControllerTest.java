@@ -143,7 +143,8 @@ public class MobileNetworkEntryPreferenceControllerTest {
                 CarUxRestrictions.UX_RESTRICTIONS_BASELINE, /* timestamp= */ 0).build();
 
         mPreferenceController = new MobileNetworkEntryPreferenceController(mContext,
-                "key", mFragmentController, mCarUxRestrictions);
+                "key", mFragmentController, mCarUxRestrictions,
+                new SubscriptionSnapshotService(mContext));
         PreferenceControllerTestUtil.assignPreference(mPreferenceController, mMockPreference);
     }
 
@@ -83,7 +83,8 @@ public class MobileNetworkListPreferenceControllerTest {
         mPreferenceGroup = new LogicalPreferenceGroup(mContext);
         screen.addPreference(mPreferenceGroup);
         mPreferenceController = new MobileNetworkListPreferenceController(mContext,
-                "key", mFragmentController, mCarUxRestrictions);
+                "key", mFragmentController, mCarUxRestrictions,
+                new SubscriptionSnapshotService(mContext));
         PreferenceControllerTestUtil.assignPreference(mPreferenceController, mPreferenceGroup);
     }
 
@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2023 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.car.settings.network;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.content.Context;
+import android.telephony.SubscriptionInfo;
+import android.telephony.SubscriptionManager;
+import android.telephony.TelephonyManager;
+import android.telephony.UiccSlotInfo;
+
+import androidx.test.annotation.UiThreadTest;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.google.android.collect.Lists;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+@RunWith(AndroidJUnit4.class)
+public class SubscriptionSnapshotServiceTest {
+    private static final int SUB_ID = 1;
+
+    private Context mContext = spy(ApplicationProvider.getApplicationContext());
+    private SubscriptionSnapshotService mService;
+
+    @Mock
+    private SubscriptionManager mSubscriptionManager;
+    @Mock
+    private TelephonyManager mTelephonyManager;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        when(mContext.getSystemService(SubscriptionManager.class)).thenReturn(mSubscriptionManager);
+        doReturn(mTelephonyManager).when(mContext).getSystemService(TelephonyManager.class);
+        when(mTelephonyManager.getUiccSlotsInfo()).thenReturn(new UiccSlotInfo[0]);
+        SubscriptionInfo info = createSubscriptionInfo(SUB_ID);
+        when(mSubscriptionManager.getSelectableSubscriptionInfoList()).thenReturn(
+                Lists.newArrayList(info));
+        when(mSubscriptionManager.getActiveSubscriptionInfoList()).thenReturn(
+                Lists.newArrayList(info));
+
+        mService = new SubscriptionSnapshotService(mContext);
+    }
+
+    @Test
+    public void getSnapshot_containsSubscriptions() {
+        SubscriptionSnapshotService.SubscriptionSnapshot snapshot = mService.getSnapshot();
+
+        assertThat(snapshot.getAvailableSubscriptions()).hasSize(1);
+        assertThat(snapshot.isActiveSubscriptionId(SUB_ID)).isTrue();
+        assertThat(snapshot.isActiveSubscriptionId(SUB_ID + 1)).isFalse();
+    }
+
+    @Test
+    public void getSnapshot_noListeners_queriesEachTime() {
+        mService.getSnapshot();
+        mService.getSnapshot();
+
+        assertThat(mService.getBuildCount()).isEqualTo(2);
+    }
+
+    @Test
+    @UiThreadTest
+    public void getSnapshot_multipleListeners_queriesOncePerChange() {
+        SubscriptionsChangeListener.SubscriptionsChangeAction listener1 = mock(
+                SubscriptionsChangeListener.SubscriptionsChangeAction.class);
+        SubscriptionsChangeListener.SubscriptionsChangeAction listener2 = mock(
+                SubscriptionsChangeListener.SubscriptionsChangeAction.class);
+        mService.acquire(listener1);
+        mService.acquire(listener2);
+        ArgumentCaptor<SubscriptionManager.OnSubscriptionsChangedListener> captor =
+                ArgumentCaptor.forClass(SubscriptionManager.OnSubscriptionsChangedListener.class);
+        verify(mSubscriptionManager).addOnSubscriptionsChangedListener(captor.capture());
+
+        captor.getValue().onSubscriptionsChanged();
+        mService.getSnapshot();
+        mService.getSnapshot();
+
+        verify(listener1).onSubscriptionsChanged();
+        verify(listener2).onSubscriptionsChanged();
+        assertThat(mService.getBuildCount()).isEqualTo(1);
+
+        mService.release(listener1);
+        mService.release(listener2);
+    }
+
+    @Test
+    @UiThreadTest
+    public void release_lastListener_stopsTracking() {
+        SubscriptionsChangeListener.SubscriptionsChangeAction listener = mock(
+                SubscriptionsChangeListener.SubscriptionsChangeAction.class);
+        mService.acquire(listener);
+
+        mService.release(listener);
+        mService.getSnapshot();
+        mService.getSnapshot();
+
+        verify(mSubscriptionManager).removeOnSubscriptionsChangedListener(any());
+        assertThat(mService.getBuildCount()).isEqualTo(2);
+    }
+
+    @Test
+    @UiThreadTest
+    public void snapshot_afterChange_isNotModified() {
+        SubscriptionsChangeListener.SubscriptionsChangeAction listener = mock(
+                SubscriptionsChangeListener.SubscriptionsChangeAction.class);
+        mService.acquire(listener);
+        SubscriptionSnapshotService.SubscriptionSnapshot snapshot = mService.getSnapshot();
+        ArgumentCaptor<SubscriptionManager.OnSubscriptionsChangedListener> captor =
+                ArgumentCaptor.forClass(SubscriptionManager.OnSubscriptionsChangedListener.class);
+        verify(mSubscriptionManager, times(1)).addOnSubscriptionsChangedListener(
+                captor.capture());
+        when(mSubscriptionManager.getSelectableSubscriptionInfoList()).thenReturn(
+                Lists.newArrayList(createSubscriptionInfo(SUB_ID),
+                        createSubscriptionInfo(SUB_ID + 1)));
+
+        captor.getValue().onSubscriptionsChanged();
+
+        assertThat(snapshot.getAvailableSubscriptions()).hasSize(1);
+        assertThat(mService.getSnapshot().getAvailableSubscriptions()).hasSize(2);
+
+        mService.release(listener);
+    }
+
+    private SubscriptionInfo createSubscriptionInfo(int subId) {
+        return new SubscriptionInfo(subId, /* iccId= */ "",
+                /* simSlotIndex= */ subId, /* displayName= */ "", /* carrierName= */ "",
+                /* nameSource= */ 0, /* iconTint= */ 0, /* number= */ "",
+                /* roaming= */ 0, /* icon= */ null, /* mcc= */ "", /* mncString= */ "mncString",
+                /* countryIso= */ "", /* isEmbedded= */ false,
+                /* accessRules= */ null, /* cardString= */ "");
+    }
+}
@@ -19,9 +19,12 @@ package com.android.car.settings.notifications;
 import static com.google.common.truth.Truth.assertThat;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -30,6 +33,7 @@ import android.app.INotificationManager;
 import android.app.NotificationChannel;
 import android.car.drivingstate.CarUxRestrictions;
 import android.content.Context;
+import android.content.IntentFilter;
 import android.content.pm.ApplicationInfo;
 import android.content.pm.PackageInfo;
 import android.content.pm.PackageManager;
@@ -56,10 +60,12 @@ import com.android.settingslib.applications.ApplicationsState;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.util.ArrayList;
+import java.util.List;
 
 @RunWith(AndroidJUnit4.class)
 public class NotificationsAppListPreferenceControllerTest {
@@ -71,7 +77,7 @@ public class NotificationsAppListPreferenceControllerTest {
     private Context mContext = spy(ApplicationProvider.getApplicationContext());
     private LifecycleOwner mLifecycleOwner;
     private PreferenceGroup mPreferenceCategory;
-    private NotificationsAppListPreferenceController mPreferenceController;
+    private TestNotificationsAppListPreferenceController mPreferenceController;
     private CarUxRestrictions mCarUxRestrictions;
     private ArrayList<ApplicationsState.AppEntry> mAppEntryList;
     private ApplicationInfo mApplicationInfo;
@@ -347,6 +353,86 @@ public class NotificationsAppListPreferenceControllerTest {
                 .updateNotificationChannelForPackage(PKG_NAME, UID, mMockChannel);
     }
 
+    @Test
+    public void onDataLoaded_calledTwice_queriesNotificationStateOnce() throws Exception {
+        when(mMockNotificationManager.areNotificationsEnabledForPackage(PKG_NAME, UID))
+                .thenReturn(true);
+        setupNotificationsEnabledPermissions();
+
+        mPreferenceController.onCreate(mLifecycleOwner);
+        mPreferenceController.onDataLoaded(mAppEntryList);
+        mPreferenceController.onDataLoaded(mAppEntryList);
+
+        verify(mMockNotificationManager, times(1)).areNotificationsEnabledForPackage(PKG_NAME, UID);
+        verify(mMockNotificationManager, times(1)).isImportanceLocked(PKG_NAME, UID);
+    }
+
+    @Test
+    public void onPermissionsChanged_requeriesNotificationState() throws Exception {
+        when(mMockNotificationManager.areNotificationsEnabledForPackage(PKG_NAME, UID))
+                .thenReturn(true);
+        setupNotificationsEnabledPermissions();
+        ArgumentCaptor<PackageManager.OnPermissionsChangedListener> captor =
+                ArgumentCaptor.forClass(PackageManager.OnPermissionsChangedListener.class);
+
+        mPreferenceController.onCreate(mLifecycleOwner);
+        mPreferenceController.onDataLoaded(mAppEntryList);
+        verify(mMockPackageManager).addOnPermissionsChangeListener(captor.capture());
+
+        when(mMockNotificationManager.areNotificationsEnabledForPackage(PKG_NAME, UID))
+                .thenReturn(false);
+        captor.getValue().onPermissionsChanged(UID);
+
+        verify(mMockNotificationManager, times(2)).areNotificationsEnabledForPackage(PKG_NAME, UID);
+        verify(mMockPreference).setSecondaryActionChecked(false);
+    }
+
+    @Test
+    public void onCreate_doesNotRegisterCacheListeners() {
+        mPreferenceController.onCreate(mLifecycleOwner);
+
+        verify(mMockPackageManager, never()).addOnPermissionsChangeListener(any());
+        verify(mContext, never()).registerReceiver(any(), any(IntentFilter.class));
+    }
+
+    @Test
+    public void onDataLoaded_bindsRowBeforeNotificationStateIsResolved() throws Exception {
+        when(mMockNotificationManager.areNotificationsEnabledForPackage(PKG_NAME, UID))
+                .thenReturn(true);
+        setupNotificationsEnabledPermissions();
+        mPreferenceController.mDeferBackgroundTasks = true;
+
+        mPreferenceController.onCreate(mLifecycleOwner);
+        mPreferenceController.onDataLoaded(mAppEntryList);
+
+        assertThat(mPreferenceCategory.getPreferenceCount()).isEqualTo(1);
+        verify(mMockPreference).setTitle(LABEL);
+        verify(mMockPreference).setSecondaryActionVisible(false);
+        verify(mMockPreference, never()).setSecondaryActionChecked(anyBoolean());
+
+        mPreferenceController.runBackgroundTasks();
+
+        verify(mMockPreference).setSecondaryActionChecked(true);
+        verify(mMockPreference).setSecondaryActionVisible(true);
+    }
+
+    @Test
+    public void onDataLoaded_calledTwiceBeforeResolved_resolvesEachAppOnce() throws Exception {
+        when(mMockNotificationManager.areNotificationsEnabledForPackage(PKG_NAME, UID))
+                .thenReturn(true);
+        setupNotificationsEnabledPermissions();
+        mPreferenceController.mDeferBackgroundTasks = true;
+
+        mPreferenceController.onCreate(mLifecycleOwner);
+        mPreferenceController.onDataLoaded(mAppEntryList);
+        mPreferenceController.onDataLoaded(mAppEntryList);
+        mPreferenceController.runBackgroundTasks();
+
+        verify(mMockNotificationManager, times(1)).areNotificationsEnabledForPackage(PKG_NAME, UID);
+        verify(mMockNotificationManager, times(1)).isImportanceLocked(PKG_NAME, UID);
+        verify(mMockPreference).setSecondaryActionChecked(true);
+    }
+
     @Test
     @UiThreadTest
     public void clickPreference_shouldOpenApplicationDetailsFragment() throws Exception {
@@ -385,5 +471,28 @@ public class NotificationsAppListPreferenceControllerTest {
         CarUiTwoActionSwitchPreference createPreference() {
             return mMockPreference;
         }
+
+        private final List<Runnable> mBackgroundTasks = new ArrayList<>();
+        boolean mDeferBackgroundTasks;
+
+        @Override
+        void executeBackgroundTask(Runnable r) {
+            if (mDeferBackgroundTasks) {
+                mBackgroundTasks.add(r);
+                return;
+            }
+            r.run();
+        }
+
+        void runBackgroundTasks() {
+            List<Runnable> tasks = new ArrayList<>(mBackgroundTasks);
+            mBackgroundTasks.clear();
+            tasks.forEach(Runnable::run);
+        }
+
+        @Override
+        void executeUiTask(Runnable r) {
+            r.run();
+        }
     }
 }
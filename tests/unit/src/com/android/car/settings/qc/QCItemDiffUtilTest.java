@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2023 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.car.settings.qc;
+
+import static com.android.car.qc.QCItem.QC_TYPE_ACTION_SWITCH;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.content.Context;
+import android.graphics.drawable.Icon;
+
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.android.car.qc.QCActionItem;
+import com.android.car.qc.QCItem;
+import com.android.car.qc.QCList;
+import com.android.car.qc.QCRow;
+import com.android.car.settings.R;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(AndroidJUnit4.class)
+public class QCItemDiffUtilTest {
+    private final Context mContext = ApplicationProvider.getApplicationContext();
+
+    @Test
+    public void isSameContent_sameState_returnsTrue() {
+        QCItem first = buildList("title", R.drawable.ic_add, /* checked= */ true);
+        QCItem second = buildList("title", R.drawable.ic_add, /* checked= */ true);
+
+        assertThat(QCItemDiffUtil.isSameContent(first, second)).isTrue();
+    }
+
+    @Test
+    public void isSameContent_differentTitle_returnsFalse() {
+        QCItem first = buildList("title", R.drawable.ic_add, /* checked= */ true);
+        QCItem second = buildList("other title", R.drawable.ic_add, /* checked= */ true);
+
+        assertThat(QCItemDiffUtil.isSameContent(first, second)).isFalse();
+    }
+
+    @Test
+    public void isSameContent_differentIcon_returnsFalse() {
+        QCItem first = buildList("title", R.drawable.ic_add, /* checked= */ true);
+        QCItem second = buildList("title", R.drawable.ic_qc_hotspot, /* checked= */ true);
+
+        assertThat(QCItemDiffUtil.isSameContent(first, second)).isFalse();
+    }
+
+    @Test
+    public void isSameContent_differentActionState_returnsFalse() {
+        QCItem first = buildList("title", R.drawable.ic_add, /* checked= */ true);
+        QCItem second = buildList("title", R.drawable.ic_add, /* checked= */ false);
+
+        assertThat(QCItemDiffUtil.isSameContent(first, second)).isFalse();
+    }
+
+    @Test
+    public void isSameContent_null_returnsFalse() {
+        QCItem item = buildList("title", R.drawable.ic_add, /* checked= */ true);
+
+        assertThat(QCItemDiffUtil.isSameContent(item, /* second= */ null)).isFalse();
+        assertThat(QCItemDiffUtil.isSameContent(/* first= */ null, /* second= */ null)).isTrue();
+    }
+
+    private QCItem buildList(String title, int iconRes, boolean checked) {
+        QCActionItem toggle = new QCActionItem.Builder(QC_TYPE_ACTION_SWITCH)
+                .setChecked(checked)
+                .build();
+        QCRow row = new QCRow.Builder()
+                .setTitle(title)
+                .setIcon(Icon.createWithResource(mContext, iconRes))
+                .addEndItem(toggle)
+                .build();
+        return new QCList.Builder()
+                .addRow(row)
+                .build();
+    }
+}
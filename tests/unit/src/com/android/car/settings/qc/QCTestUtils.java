@@ -24,4 +24,16 @@ public class QCTestUtils {
     public static final Uri URI = new Uri.Builder().scheme(ContentResolver.SCHEME_CONTENT)
             .authority(AUTHORITY).appendPath("SettingsQCProviderTest")
             .build();
+
+    /**
+     * Replaces the registered items with {@link TestSettingsQCItem} for {@link #URI} and
+     * registers the factory of {@link TestSettingsQCBackgroundWorker}.
+     */
+    public static void registerTestItem() {
+        SettingsQCRegistry.sUriToQC.clear();
+        SettingsQCRegistry.register(SettingsQCRegistry.sUriToQC, URI, TestSettingsQCItem.class,
+                TestSettingsQCItem::new);
+        SettingsQCRegistry.sWorkerFactories.put(TestSettingsQCBackgroundWorker.class,
+                TestSettingsQCBackgroundWorker::new);
+    }
 }
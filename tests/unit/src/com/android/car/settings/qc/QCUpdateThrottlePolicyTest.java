@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2023 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.car.settings.qc;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(AndroidJUnit4.class)
+public class QCUpdateThrottlePolicyTest {
+    private static final long INTERACTIVE_INTERVAL_MS = 50L;
+    private static final long IDLE_INTERVAL_MS = 500L;
+    private static final long INTERACTION_WINDOW_MS = 1000L;
+    private static final long NOW = 10000L;
+
+    private final QCUpdateThrottlePolicy mPolicy = new QCUpdateThrottlePolicy(
+            INTERACTIVE_INTERVAL_MS, IDLE_INTERVAL_MS, INTERACTION_WINDOW_MS);
+
+    @Test
+    public void getUpdateInterval_noInteraction_returnsIdleInterval() {
+        assertThat(mPolicy.getUpdateInterval(/* lastInteractionTime= */ 0L, NOW))
+                .isEqualTo(IDLE_INTERVAL_MS);
+    }
+
+    @Test
+    public void getUpdateInterval_recentInteraction_returnsInteractiveInterval() {
+        assertThat(mPolicy.getUpdateInterval(NOW - INTERACTION_WINDOW_MS, NOW))
+                .isEqualTo(INTERACTIVE_INTERVAL_MS);
+    }
+
+    @Test
+    public void getUpdateInterval_oldInteraction_returnsIdleInterval() {
+        assertThat(mPolicy.getUpdateInterval(NOW - INTERACTION_WINDOW_MS - 1, NOW))
+                .isEqualTo(IDLE_INTERVAL_MS);
+    }
+}
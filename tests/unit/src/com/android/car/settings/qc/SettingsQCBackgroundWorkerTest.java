@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2023 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.car.settings.qc;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(AndroidJUnit4.class)
+public class SettingsQCBackgroundWorkerTest {
+    private final Context mContext = ApplicationProvider.getApplicationContext();
+    private TestSettingsQCBackgroundWorker mWorker;
+
+    @Before
+    public void setUp() {
+        SettingsQCRegistry.sUriToThrottlePolicy.put(QCTestUtils.URI,
+                QCUpdateThrottlePolicy.SLIDER);
+        mWorker = new TestSettingsQCBackgroundWorker(mContext, QCTestUtils.URI);
+        mWorker.subscribe();
+    }
+
+    @After
+    public void tearDown() {
+        mWorker.unsubscribe();
+        SettingsQCRegistry.sUriToThrottlePolicy.remove(QCTestUtils.URI);
+    }
+
+    @Test
+    public void notifyQCItemChange_sliderUpdatesWithinInterval_areCoalesced() {
+        mWorker.notifyQCItemChange();
+        mWorker.notifyQCItemChange();
+        mWorker.notifyQCItemChange();
+
+        // The first change is delayed by the slider interval, the next ones are folded into it.
+        assertThat(mWorker.getSuppressedUpdateCount()).isEqualTo(2);
+    }
+}
@@ -21,6 +21,7 @@ import static org.mockito.Mockito.verify;
 
 import android.content.Context;
 import android.content.Intent;
+import android.net.Uri;
 
 import androidx.test.core.app.ApplicationProvider;
 import androidx.test.ext.junit.runners.AndroidJUnit4;
@@ -37,8 +38,7 @@ public class SettingsQCBroadcastReceiverTest {
 
     @Before
     public void setUp() {
-        SettingsQCRegistry.sUriToQC.clear();
-        SettingsQCRegistry.sUriToQC.put(QCTestUtils.URI, TestSettingsQCItem.class);
+        QCTestUtils.registerTestItem();
         mReceiver = new TestSettingsQCBroadcastReceiver();
         mQCItem = spy(new TestSettingsQCItem(mContext));
     }
@@ -53,8 +53,7 @@ public class SettingsQCBroadcastReceiverTest {
 
     private class TestSettingsQCBroadcastReceiver extends SettingsQCBroadcastReceiver {
         @Override
-        SettingsQCItem createQCItemInstance(Context context,
-                Class<? extends SettingsQCItem> qcItem) {
+        SettingsQCItem createQCItemInstance(Context context, Uri uri) {
             return mQCItem;
         }
     }
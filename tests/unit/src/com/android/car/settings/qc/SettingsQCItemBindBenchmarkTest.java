@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2023 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.car.settings.qc;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import static org.junit.Assume.assumeTrue;
+
+import android.app.Activity;
+import android.content.Context;
+import android.content.pm.PackageManager;
+import android.net.Uri;
+import android.os.Bundle;
+import android.os.SystemClock;
+import android.util.ArrayMap;
+import android.util.Log;
+
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.android.car.qc.QCItem;
+import com.android.dx.mockito.inline.extended.ExtendedMockito;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Map;
+
+/**
+ * Measures the latency of {@link SettingsQCProvider#onBind} for every uri in
+ * {@link SettingsQCRegistry} on a cold bind, which constructs the {@link SettingsQCItem}, and on
+ * a pooled bind, which reuses the instance held by the provider. Results are logged and reported
+ * as instrumentation status.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SettingsQCItemBindBenchmarkTest {
+    private static final String TAG = "SettingsQCBindBenchmark";
+    private static final int POOLED_ITERATIONS = 20;
+
+    private final Context mContext = ApplicationProvider.getApplicationContext();
+    private final Map<Uri, String> mRequiredFeatures = new ArrayMap<>();
+    private SettingsQCProvider mProvider;
+
+    @Before
+    public void setUp() {
+        // Other tests replace the registry with a test uri, so restore the production one.
+        SettingsQCRegistry.sUriToQC.clear();
+        SettingsQCRegistry.sUriToQC.putAll(SettingsQCRegistry.createUriToQCMap());
+
+        mRequiredFeatures.put(SettingsQCRegistry.BLUETOOTH_SWITCH_URI,
+                PackageManager.FEATURE_BLUETOOTH);
+        mRequiredFeatures.put(SettingsQCRegistry.PAIRED_BLUETOOTH_DEVICES_URI,
+                PackageManager.FEATURE_BLUETOOTH);
+        mRequiredFeatures.put(SettingsQCRegistry.WIFI_TILE_URI, PackageManager.FEATURE_WIFI);
+        mRequiredFeatures.put(SettingsQCRegistry.WIFI_ROW_URI, PackageManager.FEATURE_WIFI);
+        mRequiredFeatures.put(SettingsQCRegistry.HOTSPOT_TILE_URI, PackageManager.FEATURE_WIFI);
+        mRequiredFeatures.put(SettingsQCRegistry.HOTSPOT_ROW_URI, PackageManager.FEATURE_WIFI);
+        mRequiredFeatures.put(SettingsQCRegistry.HOTSPOT_ROW_WITH_ACTION_URI,
+                PackageManager.FEATURE_WIFI);
+        mRequiredFeatures.put(SettingsQCRegistry.MOBILE_DATA_TILE_URI,
+                PackageManager.FEATURE_TELEPHONY);
+        mRequiredFeatures.put(SettingsQCRegistry.MOBILE_DATA_ROW_URI,
+                PackageManager.FEATURE_TELEPHONY);
+
+        mProvider = new SettingsQCProvider();
+        ExtendedMockito.spyOn(mProvider);
+        ExtendedMockito.doReturn(mContext).when(mProvider).getContext();
+        ExtendedMockito.doReturn(mContext.getPackageName()).when(mProvider).getCallingPackage();
+        mProvider.onCreate();
+    }
+
+    @Test
+    public void onBind_allUris_reportsColdAndPooledLatency() {
+        Bundle results = new Bundle();
+        for (Uri uri : SettingsQCRegistry.sUriToQC.keySet()) {
+            if (!hasRequiredFeature(uri)) {
+                Log.i(TAG, uri + ": skipped, missing " + mRequiredFeatures.get(uri));
+                continue;
+            }
+            String name = uri.getLastPathSegment();
+            int createdBefore = mProvider.mItemPool.getCreatedCount();
+
+            long start = SystemClock.elapsedRealtimeNanos();
+            QCItem coldItem = mProvider.onBind(uri);
+            long coldNanos = SystemClock.elapsedRealtimeNanos() - start;
+
+            assertThat(mProvider.mItemPool.getCreatedCount()).isEqualTo(createdBefore + 1);
+            if (!mProvider.mItemPool.get(mContext, uri).isHiddenForZone()) {
+                assertThat(coldItem).isNotNull();
+            }
+
+            start = SystemClock.elapsedRealtimeNanos();
+            for (int i = 0; i < POOLED_ITERATIONS; i++) {
+                QCItem pooledItem = mProvider.onBind(uri);
+                assertThat(pooledItem == null).isEqualTo(coldItem == null);
+            }
+            long pooledNanos = (SystemClock.elapsedRealtimeNanos() - start) / POOLED_ITERATIONS;
+
+            assertThat(mProvider.mItemPool.getCreatedCount()).isEqualTo(createdBefore + 1);
+
+            Log.i(TAG, name + ": cold " + coldNanos / 1000 + "us, pooled " + pooledNanos / 1000
+                    + "us");
+            results.putLong(name + "_cold_us", coldNanos / 1000);
+            results.putLong(name + "_pooled_us", pooledNanos / 1000);
+        }
+        assumeTrue("No uri could be bound on this device", !results.isEmpty());
+        InstrumentationRegistry.getInstrumentation().sendStatus(Activity.RESULT_OK, results);
+    }
+
+    private boolean hasRequiredFeature(Uri uri) {
+        String feature = mRequiredFeatures.get(uri);
+        return feature == null || mContext.getPackageManager().hasSystemFeature(feature);
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2023 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.car.settings.qc;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import static org.testng.Assert.assertThrows;
+
+import android.content.Context;
+import android.net.Uri;
+
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(AndroidJUnit4.class)
+public class SettingsQCItemPoolTest {
+    private final Context mContext = ApplicationProvider.getApplicationContext();
+    private SettingsQCItemPool mItemPool;
+
+    @Before
+    public void setUp() {
+        QCTestUtils.registerTestItem();
+        mItemPool = new SettingsQCItemPool();
+    }
+
+    @Test
+    public void get_calledTwice_createsItemOnce() {
+        SettingsQCItem first = mItemPool.get(mContext, QCTestUtils.URI);
+        SettingsQCItem second = mItemPool.get(mContext, QCTestUtils.URI);
+
+        assertThat(first).isInstanceOf(TestSettingsQCItem.class);
+        assertThat(second).isSameInstanceAs(first);
+        assertThat(mItemPool.getCreatedCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void get_afterRemove_createsNewItem() {
+        SettingsQCItem first = mItemPool.get(mContext, QCTestUtils.URI);
+
+        mItemPool.remove(QCTestUtils.URI);
+
+        assertThat(mItemPool.get(mContext, QCTestUtils.URI)).isNotSameInstanceAs(first);
+        assertThat(mItemPool.getCreatedCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void get_invalidUri_throwsException() {
+        assertThrows(IllegalArgumentException.class, () -> mItemPool.get(mContext, Uri.EMPTY));
+    }
+}
@@ -27,6 +27,8 @@ import androidx.test.core.app.ApplicationProvider;
 import androidx.test.ext.junit.runners.AndroidJUnit4;
 import androidx.test.platform.app.InstrumentationRegistry;
 
+import com.android.car.qc.QCItem;
+import com.android.car.qc.QCTile;
 import com.android.dx.mockito.inline.extended.ExtendedMockito;
 
 import org.junit.Before;
@@ -42,8 +44,7 @@ public class SettingsQCProviderTest {
 
     @Before
     public void setUp() {
-        SettingsQCRegistry.sUriToQC.clear();
-        SettingsQCRegistry.sUriToQC.put(QCTestUtils.URI, TestSettingsQCItem.class);
+        QCTestUtils.registerTestItem();
         mProvider = new SettingsQCProvider();
         ExtendedMockito.spyOn(mProvider);
         ExtendedMockito.doReturn(mContext).when(mProvider).getContext();
@@ -96,4 +97,47 @@ public class SettingsQCProviderTest {
         assertThat(testWorker.isSubscribed()).isFalse();
         assertThat(mProvider.mSubscribedWorkers.containsKey(QCTestUtils.URI)).isFalse();
     }
+
+    @Test
+    public void onBind_subscribed_workerHasNoVisibleChange() {
+        mProvider.onCreate();
+        mProvider.onSubscribed(QCTestUtils.URI);
+        InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+        SettingsQCBackgroundWorker worker = mProvider.mSubscribedWorkers.get(QCTestUtils.URI);
+        assertThat(worker).isNotNull();
+
+        mProvider.onBind(QCTestUtils.URI);
+
+        assertThat(worker.hasVisibleChange()).isFalse();
+    }
+
+    @Test
+    public void onBind_calledTwice_reusesQCItem() {
+        mProvider.onCreate();
+
+        mProvider.onBind(QCTestUtils.URI);
+        mProvider.onBind(QCTestUtils.URI);
+
+        assertThat(mProvider.mItemPool.getCreatedCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void onBind_afterVisibleChange_reusesItemBuiltForComparison() {
+        mProvider.onCreate();
+        mProvider.onSubscribed(QCTestUtils.URI);
+        InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+        SettingsQCBackgroundWorker worker = mProvider.mSubscribedWorkers.get(QCTestUtils.URI);
+        mProvider.onBind(QCTestUtils.URI);
+        SettingsQCItem item = mProvider.mItemPool.get(mContext, QCTestUtils.URI);
+        ExtendedMockito.spyOn(item);
+        QCItem changed = new QCTile.Builder().setChecked(true).build();
+        ExtendedMockito.doReturn(changed).when(item).getQCItem();
+
+        assertThat(worker.hasVisibleChange()).isTrue();
+        QCItem bound = mProvider.onBind(QCTestUtils.URI);
+
+        assertThat(bound).isSameInstanceAs(changed);
+        ExtendedMockito.verify(item).getQCItem();
+        assertThat(worker.hasVisibleChange()).isFalse();
+    }
 }
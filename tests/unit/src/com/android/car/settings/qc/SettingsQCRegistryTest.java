@@ -18,20 +18,25 @@ package com.android.car.settings.qc;
 
 import static com.google.common.truth.Truth.assertThat;
 
+import android.content.Context;
 import android.net.Uri;
 
+import androidx.test.core.app.ApplicationProvider;
 import androidx.test.ext.junit.runners.AndroidJUnit4;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import java.util.Map;
+
 @RunWith(AndroidJUnit4.class)
 public class SettingsQCRegistryTest {
+    private final Context mContext = ApplicationProvider.getApplicationContext();
+
     @Before
     public void setUp() {
-        SettingsQCRegistry.sUriToQC.clear();
-        SettingsQCRegistry.sUriToQC.put(QCTestUtils.URI, TestSettingsQCItem.class);
+        QCTestUtils.registerTestItem();
     }
 
     @Test
@@ -71,4 +76,54 @@ public class SettingsQCRegistryTest {
     public void isValidAction_invalidAction_returnsFalse() {
         assertThat(SettingsQCRegistry.isValidAction(Uri.EMPTY.toString())).isFalse();
     }
+
+    @Test
+    public void getThrottlePolicy_withPolicy_returnsPolicy() {
+        SettingsQCRegistry.sUriToThrottlePolicy.put(QCTestUtils.URI,
+                QCUpdateThrottlePolicy.SLIDER);
+
+        assertThat(SettingsQCRegistry.getThrottlePolicy(QCTestUtils.URI))
+                .isEqualTo(QCUpdateThrottlePolicy.SLIDER);
+        SettingsQCRegistry.sUriToThrottlePolicy.remove(QCTestUtils.URI);
+    }
+
+    @Test
+    public void getThrottlePolicy_withoutPolicy_returnsDefault() {
+        assertThat(SettingsQCRegistry.getThrottlePolicy(Uri.EMPTY))
+                .isEqualTo(QCUpdateThrottlePolicy.DEFAULT);
+    }
+
+    @Test
+    public void createUriToQCMap_everyFactory_createsRegisteredClass() {
+        // sUriToQC is replaced by setUp, so check against a fresh copy of the production map.
+        for (SettingsQCRegistry.QCItemRegistration registration :
+                SettingsQCRegistry.createUriToQCMap().values()) {
+            assertThat(registration.mFactory.create(mContext).getClass())
+                    .isEqualTo(registration.mItemClass);
+        }
+    }
+
+    @Test
+    public void workerFactories_everyItemWithWorker_hasWorkerFactory() {
+        for (SettingsQCRegistry.QCItemRegistration registration :
+                SettingsQCRegistry.createUriToQCMap().values()) {
+            Class<? extends SettingsQCBackgroundWorker> workerClass =
+                    registration.mFactory.create(mContext).getBackgroundWorkerClass();
+            if (workerClass != null) {
+                assertThat(SettingsQCRegistry.getWorkerFactory(workerClass)).isNotNull();
+            }
+        }
+    }
+
+    @Test
+    public void throttlePolicies_everyUri_hasBackgroundWorker() {
+        Map<Uri, SettingsQCRegistry.QCItemRegistration> registrations =
+                SettingsQCRegistry.createUriToQCMap();
+        for (Uri uri : SettingsQCRegistry.sUriToThrottlePolicy.keySet()) {
+            SettingsQCRegistry.QCItemRegistration registration = registrations.get(uri);
+            assertThat(registration).isNotNull();
+            assertThat(registration.mFactory.create(mContext).getBackgroundWorkerClass())
+                    .isNotNull();
+        }
+    }
 }
@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2023 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.car.settings.security;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertThrows;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.android.internal.widget.LockscreenCredential;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RunWith(AndroidJUnit4.class)
+public class CredentialValidationPipelineTest {
+    private static final String PASSWORD = "a11r1t131";
+
+    private final List<Runnable> mBackgroundTasks = new ArrayList<>();
+    private final List<PasswordHelper.ValidationResult> mResults = new ArrayList<>();
+    private final PasswordHelper.ValidationResult mResult =
+            new PasswordHelper.ValidationResult(/* isValid= */ true, /* errorMessages= */ "");
+    private CredentialValidationPipeline mPipeline;
+
+    @Mock
+    private PasswordHelper mPasswordHelper;
+    @Rule
+    public final MockitoRule rule = MockitoJUnit.rule();
+
+    @Before
+    public void setUp() {
+        when(mPasswordHelper.validate(any(), any())).thenReturn(mResult);
+        mPipeline = new CredentialValidationPipeline(mPasswordHelper) {
+            @Override
+            void executeBackgroundTask(Runnable runnable) {
+                mBackgroundTasks.add(runnable);
+            }
+
+            @Override
+            void executeUiTask(Runnable runnable) {
+                runnable.run();
+            }
+        };
+    }
+
+    @Test
+    public void validate_deliversResult() {
+        mPipeline.validate(createPassword(), /* existingCredential= */ null, mResults::add);
+        runBackgroundTasks();
+
+        assertThat(mResults).containsExactly(mResult);
+    }
+
+    @Test
+    public void validate_newerRequest_skipsSupersededRequest() {
+        mPipeline.validate(createPassword(), /* existingCredential= */ null, mResults::add);
+        mPipeline.validate(createPassword(), /* existingCredential= */ null, mResults::add);
+        runBackgroundTasks();
+
+        verify(mPasswordHelper, times(1)).validate(any(), any());
+        assertThat(mResults).hasSize(1);
+    }
+
+    @Test
+    public void cancel_dropsPendingRequest() {
+        mPipeline.validate(createPassword(), /* existingCredential= */ null, mResults::add);
+        mPipeline.cancel();
+        runBackgroundTasks();
+
+        verify(mPasswordHelper, never()).validate(any(), any());
+        assertThat(mResults).isEmpty();
+    }
+
+    @Test
+    public void validate_zeroizesCredentials() {
+        LockscreenCredential entered = createPassword();
+        LockscreenCredential existing = createPassword();
+
+        mPipeline.validate(entered, existing, mResults::add);
+        runBackgroundTasks();
+
+        // Zeroized credentials can no longer be read.
+        assertThrows(IllegalStateException.class, entered::getCredential);
+        assertThrows(IllegalStateException.class, existing::getCredential);
+    }
+
+    private void runBackgroundTasks() {
+        List<Runnable> tasks = new ArrayList<>(mBackgroundTasks);
+        mBackgroundTasks.clear();
+        for (Runnable task : tasks) {
+            task.run();
+        }
+    }
+
+    private static LockscreenCredential createPassword() {
+        return LockscreenCredential.createPassword(PASSWORD);
+    }
+}
@@ -27,6 +27,8 @@ import static com.google.common.truth.Truth.assertThat;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import android.app.admin.DevicePolicyManager;
@@ -131,6 +133,10 @@ public final class PasswordHelperTest {
         assertThat(helper.validateCredential(credential, mExistingCredential)).isTrue();
         assertThat(helper.getCredentialValidationErrorMessages()).isEqualTo("");
 
+        // Test validate(), which returns the outcome instead of storing it.
+        PasswordHelper.ValidationResult result = helper.validate(credential, mExistingCredential);
+        assertThat(result.isValid()).isTrue();
+        assertThat(result.getErrorMessages()).isEqualTo("");
     }
 
     private void assertCredentialInvalid(@DevicePolicyManager.PasswordComplexity int minComplexity,
@@ -144,6 +150,22 @@ public final class PasswordHelperTest {
         // Test the overload of validateCredential() that requires the existing credential.
         assertThat(helper.validateCredential(credential, mExistingCredential)).isFalse();
         assertThat(helper.getCredentialValidationErrorMessages()).isEqualTo(expectedError);
+
+        // Test validate(), which returns the outcome instead of storing it.
+        PasswordHelper.ValidationResult result = helper.validate(credential, mExistingCredential);
+        assertThat(result.isValid()).isFalse();
+        assertThat(result.getErrorMessages()).isEqualTo(expectedError);
+    }
+
+    @Test
+    public void preparePasswordHistoryCheck_computesHashFactorOnce() {
+        PasswordHelper helper = newPasswordHelper(PASSWORD_COMPLEXITY_NONE);
+
+        helper.preparePasswordHistoryCheck(mExistingCredential);
+        helper.validateCredential(createPassword(LONG_ALPHANUMERIC_PASSWORD), mExistingCredential);
+        helper.validate(createPassword(LONG_ALPHANUMERIC_PASSWORD), mExistingCredential);
+
+        verify(mLockPatternUtils, times(1)).getPasswordHistoryHashFactor(any(), anyInt());
     }
 
     @Test
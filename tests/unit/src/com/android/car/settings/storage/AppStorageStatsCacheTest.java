@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2023 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.car.settings.storage;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.app.usage.StorageStats;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.android.settingslib.applications.StorageStatsSource;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(AndroidJUnit4.class)
+public class AppStorageStatsCacheTest {
+    private static final String TEST_PACKAGE = "com.android.test.package";
+    private static final int USER_ID = 10;
+
+    private AppStorageStatsCache mCache;
+    private StorageStatsSource.AppStorageStats mStats;
+
+    @Before
+    public void setUp() {
+        mCache = new AppStorageStatsCache();
+        mStats = new StorageStatsSource.AppStorageStatsImpl(new StorageStats());
+    }
+
+    @Test
+    public void get_notLoaded_returnsNull() {
+        assertThat(mCache.get(TEST_PACKAGE, USER_ID)).isNull();
+    }
+
+    @Test
+    public void put_returnsStatsForSameUserOnly() {
+        mCache.put(TEST_PACKAGE, USER_ID, mStats);
+
+        assertThat(mCache.get(TEST_PACKAGE, USER_ID)).isSameInstanceAs(mStats);
+        assertThat(mCache.get(TEST_PACKAGE, USER_ID + 1)).isNull();
+    }
+
+    @Test
+    public void put_nullStats_dropsStats() {
+        mCache.put(TEST_PACKAGE, USER_ID, mStats);
+
+        mCache.put(TEST_PACKAGE, USER_ID, /* stats= */ null);
+
+        assertThat(mCache.get(TEST_PACKAGE, USER_ID)).isNull();
+    }
+
+    @Test
+    public void removePackage_dropsStatsForAllUsers() {
+        mCache.put(TEST_PACKAGE, USER_ID, mStats);
+        mCache.put(TEST_PACKAGE, USER_ID + 1, mStats);
+        mCache.put(TEST_PACKAGE + ".other", USER_ID, mStats);
+
+        mCache.removePackage(TEST_PACKAGE);
+
+        assertThat(mCache.get(TEST_PACKAGE, USER_ID)).isNull();
+        assertThat(mCache.get(TEST_PACKAGE, USER_ID + 1)).isNull();
+        assertThat(mCache.get(TEST_PACKAGE + ".other", USER_ID)).isSameInstanceAs(mStats);
+    }
+}
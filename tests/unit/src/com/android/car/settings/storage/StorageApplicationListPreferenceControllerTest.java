@@ -23,6 +23,7 @@ import android.content.Context;
 import android.content.pm.ApplicationInfo;
 
 import androidx.lifecycle.LifecycleOwner;
+import androidx.preference.Preference;
 import androidx.preference.PreferenceManager;
 import androidx.preference.PreferenceScreen;
 import androidx.test.annotation.UiThreadTest;
@@ -142,4 +143,48 @@ public class StorageApplicationListPreferenceControllerTest {
         assertThat(mLogicalPreferenceGroup.getPreference(0).getSummary()).isEqualTo(
                 UPDATED_SIZE_STR);
     }
+
+    @Test
+    public void onDataLoaded_sameApp_reusesPreference() {
+        ArrayList<ApplicationsState.AppEntry> apps = new ArrayList<>();
+        ApplicationInfo appInfo = new ApplicationInfo();
+        appInfo.uid = UID;
+        appInfo.sourceDir = SOURCE;
+
+        ApplicationsState.AppEntry appEntry = new ApplicationsState.AppEntry(mContext, appInfo,
+                1234L);
+        appEntry.label = LABEL;
+        appEntry.info.packageName = PACKAGE_NAME;
+        apps.add(appEntry);
+
+        mPreferenceController.onDataLoaded(apps);
+        Preference preference = mLogicalPreferenceGroup.getPreference(0);
+
+        appEntry.sizeStr = SIZE_STR;
+        mPreferenceController.onDataLoaded(apps);
+
+        assertThat(mLogicalPreferenceGroup.getPreferenceCount()).isEqualTo(1);
+        assertThat(mLogicalPreferenceGroup.getPreference(0)).isSameInstanceAs(preference);
+        assertThat(preference.getSummary()).isEqualTo(SIZE_STR);
+    }
+
+    @Test
+    public void onDataLoaded_appRemoved_removesPreference() {
+        ArrayList<ApplicationsState.AppEntry> apps = new ArrayList<>();
+        ApplicationInfo appInfo = new ApplicationInfo();
+        appInfo.uid = UID;
+        appInfo.sourceDir = SOURCE;
+
+        ApplicationsState.AppEntry appEntry = new ApplicationsState.AppEntry(mContext, appInfo,
+                1234L);
+        appEntry.label = LABEL;
+        appEntry.info.packageName = PACKAGE_NAME;
+        apps.add(appEntry);
+        mPreferenceController.onDataLoaded(apps);
+
+        apps.clear();
+        mPreferenceController.onDataLoaded(apps);
+
+        assertThat(mLogicalPreferenceGroup.getPreferenceCount()).isEqualTo(0);
+    }
 }
@@ -37,6 +37,7 @@ import android.util.SparseArray;
 import androidx.test.core.app.ApplicationProvider;
 import androidx.test.ext.junit.runners.AndroidJUnit4;
 
+import com.android.car.settings.applications.InstalledPackageIndex;
 import com.android.car.settings.profiles.ProfileHelper;
 import com.android.settingslib.applications.StorageStatsSource;
 
@@ -63,12 +64,13 @@ public class StorageAsyncLoaderTest {
     private Context mContext = ApplicationProvider.getApplicationContext();
     private List<UserInfo> mUsers;
 
+    private AppStorageStatsCache mStatsCache;
     private StorageAsyncLoader mLoader;
 
     @Mock
     private StorageStatsSource mMockSource;
     @Mock
-    private PackageManager mMockPackageManager;
+    private InstalledPackageIndex mMockInstalledPackageIndex;
     @Mock
     private ProfileHelper mMockProfileHelper;
 
@@ -76,8 +78,9 @@ public class StorageAsyncLoaderTest {
     public void setUp() throws Exception {
         MockitoAnnotations.initMocks(this);
 
-        mLoader = new StorageAsyncLoader(mContext, mMockSource, mMockPackageManager,
-                mMockProfileHelper);
+        mStatsCache = new AppStorageStatsCache();
+        mLoader = new StorageAsyncLoader(mContext, mMockSource, mMockInstalledPackageIndex,
+                mMockProfileHelper, mStatsCache);
         UserInfo info = new UserInfo();
         info.id = PRIMARY_USER_ID;
         mUsers = new ArrayList<>();
@@ -92,8 +95,7 @@ public class StorageAsyncLoaderTest {
                 ApplicationInfo.CATEGORY_UNDEFINED);
         ApplicationInfo appInfo2 = createAppInfo(PACKAGE_NAME_2, 0, 100, 1000,
                 ApplicationInfo.CATEGORY_UNDEFINED);
-        when(mMockPackageManager.getInstalledApplicationsAsUser(
-                /* getAllInstalledApplications= */ 0, PRIMARY_USER_ID))
+        when(mMockInstalledPackageIndex.getEnabledApplications(PRIMARY_USER_ID))
                 .thenReturn(Arrays.asList(appInfo1, appInfo2));
 
         SparseArray<StorageAsyncLoader.AppsStorageResult> result = mLoader.loadInBackground();
@@ -107,8 +109,7 @@ public class StorageAsyncLoaderTest {
     public void testGamesAreFiltered() throws Exception {
         ApplicationInfo appInfo = createAppInfo(PACKAGE_NAME_1, 0, 1, 10,
                 ApplicationInfo.CATEGORY_GAME);
-        when(mMockPackageManager.getInstalledApplicationsAsUser(
-                /* getAllInstalledApplications= */ 0, PRIMARY_USER_ID))
+        when(mMockInstalledPackageIndex.getEnabledApplications(PRIMARY_USER_ID))
                 .thenReturn(Collections.singletonList(appInfo));
 
         SparseArray<StorageAsyncLoader.AppsStorageResult> result = mLoader.loadInBackground();
@@ -123,8 +124,7 @@ public class StorageAsyncLoaderTest {
         ApplicationInfo appInfo = createAppInfo(PACKAGE_NAME_1, 0, 1, 10,
                 ApplicationInfo.CATEGORY_UNDEFINED);
         appInfo.flags = ApplicationInfo.FLAG_IS_GAME;
-        when(mMockPackageManager.getInstalledApplicationsAsUser(
-                /* getAllInstalledApplications= */ 0, PRIMARY_USER_ID))
+        when(mMockInstalledPackageIndex.getEnabledApplications(PRIMARY_USER_ID))
                 .thenReturn(Collections.singletonList(appInfo));
 
         SparseArray<StorageAsyncLoader.AppsStorageResult> result = mLoader.loadInBackground();
@@ -138,8 +138,7 @@ public class StorageAsyncLoaderTest {
     public void testCacheIsNotIgnored() throws Exception {
         ApplicationInfo appInfo = createAppInfo(PACKAGE_NAME_1, 100, 1, 10,
                 ApplicationInfo.CATEGORY_UNDEFINED);
-        when(mMockPackageManager.getInstalledApplicationsAsUser(
-                /* getAllInstalledApplications= */ 0, PRIMARY_USER_ID))
+        when(mMockInstalledPackageIndex.getEnabledApplications(PRIMARY_USER_ID))
                 .thenReturn(Collections.singletonList(appInfo));
 
         SparseArray<StorageAsyncLoader.AppsStorageResult> result = mLoader.loadInBackground();
@@ -155,8 +154,7 @@ public class StorageAsyncLoaderTest {
         mUsers.add(info);
         ApplicationInfo appInfo = createAppInfo(PACKAGE_NAME_1, 100, 1, 10,
                 ApplicationInfo.CATEGORY_UNDEFINED);
-        when(mMockPackageManager.getInstalledApplicationsAsUser(
-                /* getAllInstalledApplications= */ eq(0), anyInt()))
+        when(mMockInstalledPackageIndex.getEnabledApplications(anyInt()))
                 .thenReturn(Collections.singletonList(appInfo));
         when(mMockSource.getExternalStorageStats(any(), eq(UserHandle.SYSTEM)))
                 .thenReturn(new StorageStatsSource.ExternalStorageStats(9, 2, 3, 4, 0));
@@ -174,8 +172,7 @@ public class StorageAsyncLoaderTest {
         ApplicationInfo appInfo = createAppInfo(PACKAGE_NAME_1, 100, 1, 10,
                 ApplicationInfo.CATEGORY_UNDEFINED);
         appInfo.flags = ApplicationInfo.FLAG_SYSTEM & ApplicationInfo.FLAG_UPDATED_SYSTEM_APP;
-        when(mMockPackageManager.getInstalledApplicationsAsUser(
-                /* getAllInstalledApplications= */ 0, PRIMARY_USER_ID))
+        when(mMockInstalledPackageIndex.getEnabledApplications(PRIMARY_USER_ID))
                 .thenReturn(Collections.singletonList(appInfo));
 
         SparseArray<StorageAsyncLoader.AppsStorageResult> result = mLoader.loadInBackground();
@@ -188,8 +185,7 @@ public class StorageAsyncLoaderTest {
     public void testVideoAppsAreFiltered() throws Exception {
         ApplicationInfo appInfo = createAppInfo(PACKAGE_NAME_1, 0, 1, 10,
                 ApplicationInfo.CATEGORY_VIDEO);
-        when(mMockPackageManager.getInstalledApplicationsAsUser(
-                /* getAllInstalledApplications= */ 0, PRIMARY_USER_ID))
+        when(mMockInstalledPackageIndex.getEnabledApplications(PRIMARY_USER_ID))
                 .thenReturn(Collections.singletonList(appInfo));
 
         SparseArray<StorageAsyncLoader.AppsStorageResult> result = mLoader.loadInBackground();
@@ -203,8 +199,7 @@ public class StorageAsyncLoaderTest {
     public void testRemovedPackageDoesNotCrash() throws Exception {
         ApplicationInfo appInfo = createAppInfo(PACKAGE_NAME_1, 0, 1, 10,
                 ApplicationInfo.CATEGORY_UNDEFINED);
-        when(mMockPackageManager.getInstalledApplicationsAsUser(
-                /* getAllInstalledApplications= */ 0, PRIMARY_USER_ID))
+        when(mMockInstalledPackageIndex.getEnabledApplications(PRIMARY_USER_ID))
                 .thenReturn(Collections.singletonList(appInfo));
         when(mMockSource.getStatsForPackage(any(), anyString(), any(UserHandle.class)))
                 .thenThrow(new PackageManager.NameNotFoundException());
@@ -229,8 +224,7 @@ public class StorageAsyncLoaderTest {
 
         ApplicationInfo appInfo = createAppInfo(PACKAGE_NAME_1, 0, 1, 10,
                 ApplicationInfo.CATEGORY_VIDEO);
-        when(mMockPackageManager.getInstalledApplicationsAsUser(
-                /* getAllInstalledApplications= */ eq(0), anyInt()))
+        when(mMockInstalledPackageIndex.getEnabledApplications(anyInt()))
                 .thenReturn(Collections.singletonList(appInfo));
 
         SparseArray<StorageAsyncLoader.AppsStorageResult> result = mLoader.loadInBackground();
@@ -246,8 +240,7 @@ public class StorageAsyncLoaderTest {
         ApplicationInfo appInfo = createAppInfo(PACKAGE_NAME_1, DEFAULT_QUOTA + 100, 1, 10,
                 ApplicationInfo.CATEGORY_UNDEFINED);
 
-        when(mMockPackageManager.getInstalledApplicationsAsUser(
-                /* getAllInstalledApplications= */ 0, PRIMARY_USER_ID))
+        when(mMockInstalledPackageIndex.getEnabledApplications(PRIMARY_USER_ID))
                 .thenReturn(Collections.singletonList(appInfo));
 
         SparseArray<StorageAsyncLoader.AppsStorageResult> result = mLoader.loadInBackground();
@@ -256,6 +249,18 @@ public class StorageAsyncLoaderTest {
         assertThat(result.get(PRIMARY_USER_ID).getOtherAppsSize()).isEqualTo(DEFAULT_QUOTA + 11);
     }
 
+    @Test
+    public void testLoadingApps_storesStatsInCache() throws Exception {
+        ApplicationInfo appInfo = createAppInfo(PACKAGE_NAME_1, 0, 1, 10,
+                ApplicationInfo.CATEGORY_UNDEFINED);
+        when(mMockInstalledPackageIndex.getEnabledApplications(PRIMARY_USER_ID))
+                .thenReturn(Collections.singletonList(appInfo));
+
+        mLoader.loadInBackground();
+
+        assertThat(mStatsCache.get(PACKAGE_NAME_1, PRIMARY_USER_ID)).isNotNull();
+    }
+
     private ApplicationInfo createAppInfo(String packageName, long cacheSize, long codeSize,
             long dataSize, int category) throws Exception {
         StorageStats stats = new StorageStats();
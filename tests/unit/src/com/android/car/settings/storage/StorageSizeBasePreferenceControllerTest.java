@@ -127,4 +127,17 @@ public class StorageSizeBasePreferenceControllerTest {
         assertThat(mPreferenceController.getAppStorageStats()).isNotNull();
         assertThat(mStorageAppDetailPreference.getDetailText()).isEqualTo("1.00 GB");
     }
+
+    @Test
+    public void onDataLoaded_withData_shouldUpdateAppStorageStatsAndDetailText() {
+        mPreferenceController.onCreate(mLifecycleOwner);
+
+        StorageStats stats = new StorageStats();
+        StorageStatsSource.AppStorageStats storageStats =
+                new StorageStatsSource.AppStorageStatsImpl(stats);
+        mPreferenceController.onDataLoaded(storageStats, false, false);
+
+        assertThat(mPreferenceController.getAppStorageStats()).isSameInstanceAs(storageStats);
+        assertThat(mStorageAppDetailPreference.getDetailText()).isEqualTo("1.00 GB");
+    }
 }
@@ -19,6 +19,9 @@ package com.android.car.settings.tts;
 import static com.google.common.truth.Truth.assertThat;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
@@ -56,6 +59,8 @@ public class TtsPlaybackSettingsManagerTest {
     private TextToSpeech mTts;
     @Mock
     private TtsEngines mEnginesHelper;
+    @Mock
+    private TtsSampleAudioCache mSampleAudioCache;
 
     @Before
     public void setUp() {
@@ -226,4 +231,43 @@ public class TtsPlaybackSettingsManagerTest {
 
         verify(mTts).speak(SAMPLE_TEXT, TextToSpeech.QUEUE_FLUSH, null, "Sample");
     }
+
+    @Test
+    public void speakSampleText_cached_playsCachedSample() {
+        Voice voice = new Voice("Test Name", Locale.FRENCH, /* quality= */ 0,
+                /* latency= */ 0, /* requiresNetworkConnection= */ false, /* features= */ null);
+        when(mTts.getVoice()).thenReturn(voice);
+        when(mEnginesHelper.parseLocaleString(Locale.FRENCH.toString())).thenReturn(Locale.FRENCH);
+        when(mSampleAudioCache.play(TtsSampleAudioCache.getKey(ENGINE_NAME, Locale.FRENCH,
+                TextToSpeech.Engine.DEFAULT_RATE, TextToSpeech.Engine.DEFAULT_PITCH,
+                SAMPLE_TEXT))).thenReturn(true);
+        TtsPlaybackSettingsManager manager = new TtsPlaybackSettingsManager(mContext, mTts,
+                mEnginesHelper, mSampleAudioCache);
+
+        manager.speakSampleText(SAMPLE_TEXT);
+
+        verify(mTts, never()).speak(any(), anyInt(), any(), any());
+    }
+
+    @Test
+    public void speakSampleText_doesNotRequireNetworkConnection_prefetchesNeighbouringSteps() {
+        Voice voice = new Voice("Test Name", Locale.FRENCH, /* quality= */ 0,
+                /* latency= */ 0, /* requiresNetworkConnection= */ false, /* features= */ null);
+        when(mTts.getVoice()).thenReturn(voice);
+        TtsPlaybackSettingsManager manager = new TtsPlaybackSettingsManager(mContext, mTts,
+                mEnginesHelper, mSampleAudioCache);
+
+        manager.speakSampleText(SAMPLE_TEXT);
+
+        int rate = TextToSpeech.Engine.DEFAULT_RATE;
+        int pitch = TextToSpeech.Engine.DEFAULT_PITCH;
+        verify(mSampleAudioCache).prefetch(anyString(), eq(SAMPLE_TEXT),
+                eq(rate - TtsPlaybackSettingsManager.SPEECH_RATE_STEP), eq(pitch));
+        verify(mSampleAudioCache).prefetch(anyString(), eq(SAMPLE_TEXT),
+                eq(rate + TtsPlaybackSettingsManager.SPEECH_RATE_STEP), eq(pitch));
+        verify(mSampleAudioCache).prefetch(anyString(), eq(SAMPLE_TEXT), eq(rate),
+                eq(pitch - TtsPlaybackSettingsManager.VOICE_PITCH_STEP));
+        verify(mSampleAudioCache).prefetch(anyString(), eq(SAMPLE_TEXT), eq(rate),
+                eq(pitch + TtsPlaybackSettingsManager.VOICE_PITCH_STEP));
+    }
 }
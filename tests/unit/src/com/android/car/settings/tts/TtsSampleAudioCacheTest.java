@@ -0,0 +1,185 @@
+/*
+ * Copyright (C) 2023 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.car.settings.tts;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import android.content.Context;
+import android.os.Bundle;
+import android.speech.tts.TextToSpeech;
+
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+@RunWith(AndroidJUnit4.class)
+public class TtsSampleAudioCacheTest {
+    private static final String ENGINE_NAME = "com.android.car.settings.tts.test";
+    private static final String SAMPLE_TEXT = "Sample text";
+    private static final int SAMPLE_BYTES = 100;
+
+    private final Context mContext = ApplicationProvider.getApplicationContext();
+    private final List<File> mPlayedFiles = new ArrayList<>();
+    private final List<String> mUtteranceIds = new ArrayList<>();
+    private File mDirectory;
+    private TtsSampleAudioCache mSampleAudioCache;
+
+    @Mock
+    private TextToSpeech mTts;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        doAnswer(invocation -> {
+            File file = invocation.getArgument(2);
+            try (FileOutputStream out = new FileOutputStream(file)) {
+                out.write(new byte[SAMPLE_BYTES]);
+            }
+            mUtteranceIds.add(invocation.getArgument(3));
+            return TextToSpeech.SUCCESS;
+        }).when(mTts).synthesizeToFile(any(CharSequence.class), any(), any(File.class),
+                anyString());
+
+        mDirectory = new File(mContext.getCacheDir(), "tts_samples_test");
+        mSampleAudioCache = createCache(/* maxBytes= */ 2 * SAMPLE_BYTES);
+    }
+
+    @After
+    public void tearDown() {
+        mSampleAudioCache.release();
+        mDirectory.delete();
+    }
+
+    @Test
+    public void play_notCached_returnsFalse() {
+        assertThat(mSampleAudioCache.play(getKey(/* speechRate= */ 100))).isFalse();
+        assertThat(mPlayedFiles).isEmpty();
+    }
+
+    @Test
+    public void prefetch_synthesizesWithRateAndPitch() {
+        ArgumentCaptor<Bundle> captor = ArgumentCaptor.forClass(Bundle.class);
+
+        mSampleAudioCache.prefetch(getKey(/* speechRate= */ 130), SAMPLE_TEXT,
+                /* speechRate= */ 130, /* voicePitch= */ 100);
+
+        verify(mTts).synthesizeToFile(eq(SAMPLE_TEXT), captor.capture(), any(File.class),
+                anyString());
+        assertThat(captor.getValue().getInt(TextToSpeech.Engine.KEY_PARAM_RATE)).isEqualTo(130);
+        assertThat(captor.getValue().getInt(TextToSpeech.Engine.KEY_PARAM_PITCH)).isEqualTo(100);
+    }
+
+    @Test
+    public void prefetch_calledTwiceBeforeDone_synthesizesOnce() {
+        prefetch(/* speechRate= */ 100);
+        prefetch(/* speechRate= */ 100);
+
+        verify(mTts, times(1)).synthesizeToFile(any(CharSequence.class), any(), any(File.class),
+                anyString());
+    }
+
+    @Test
+    public void onSynthesisDone_playsCachedFile() {
+        prefetch(/* speechRate= */ 100);
+        mSampleAudioCache.onSynthesisDone(mUtteranceIds.get(0));
+
+        assertThat(mSampleAudioCache.play(getKey(/* speechRate= */ 100))).isTrue();
+        assertThat(mPlayedFiles).hasSize(1);
+        assertThat(mSampleAudioCache.getTotalBytes()).isEqualTo(SAMPLE_BYTES);
+    }
+
+    @Test
+    public void onSynthesisFailed_deletesFile() {
+        prefetch(/* speechRate= */ 100);
+        mSampleAudioCache.onSynthesisFailed(mUtteranceIds.get(0));
+
+        assertThat(mSampleAudioCache.contains(getKey(/* speechRate= */ 100))).isFalse();
+        assertThat(mDirectory.listFiles()).isEmpty();
+    }
+
+    @Test
+    public void onSynthesisDone_overMaxBytes_evictsLeastRecentlyUsed() {
+        prefetchAndComplete(/* speechRate= */ 100);
+        prefetchAndComplete(/* speechRate= */ 130);
+        // Uses the first sample, so that the second one is the least recently used.
+        mSampleAudioCache.play(getKey(/* speechRate= */ 100));
+
+        prefetchAndComplete(/* speechRate= */ 160);
+
+        assertThat(mSampleAudioCache.contains(getKey(/* speechRate= */ 100))).isTrue();
+        assertThat(mSampleAudioCache.contains(getKey(/* speechRate= */ 130))).isFalse();
+        assertThat(mSampleAudioCache.contains(getKey(/* speechRate= */ 160))).isTrue();
+        assertThat(mSampleAudioCache.getTotalBytes()).isEqualTo(2 * SAMPLE_BYTES);
+        assertThat(mDirectory.listFiles()).hasLength(2);
+    }
+
+    @Test
+    public void release_deletesFiles() {
+        prefetchAndComplete(/* speechRate= */ 100);
+
+        mSampleAudioCache.release();
+
+        assertThat(mSampleAudioCache.contains(getKey(/* speechRate= */ 100))).isFalse();
+        assertThat(mSampleAudioCache.getTotalBytes()).isEqualTo(0);
+        assertThat(mDirectory.listFiles()).isEmpty();
+    }
+
+    private TtsSampleAudioCache createCache(long maxBytes) {
+        return new TtsSampleAudioCache(mTts, mDirectory, maxBytes) {
+            @Override
+            boolean playFile(File file) {
+                mPlayedFiles.add(file);
+                return true;
+            }
+        };
+    }
+
+    private void prefetch(int speechRate) {
+        mSampleAudioCache.prefetch(getKey(speechRate), SAMPLE_TEXT, speechRate,
+                /* voicePitch= */ 100);
+    }
+
+    private void prefetchAndComplete(int speechRate) {
+        prefetch(speechRate);
+        mSampleAudioCache.onSynthesisDone(mUtteranceIds.get(mUtteranceIds.size() - 1));
+    }
+
+    private static String getKey(int speechRate) {
+        return TtsSampleAudioCache.getKey(ENGINE_NAME, Locale.US, speechRate,
+                /* voicePitch= */ 100, SAMPLE_TEXT);
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright (C) 2023 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.car.settings.units;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyFloat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.car.Car;
+import android.car.VehiclePropertyIds;
+import android.car.VehicleUnit;
+import android.car.hardware.CarPropertyConfig;
+import android.car.hardware.CarPropertyValue;
+import android.car.hardware.property.CarPropertyManager;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.android.car.settings.common.CarServiceHub;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+@RunWith(AndroidJUnit4.class)
+public class UnitsPropertyServiceTest {
+    private static final int PROPERTY_ID = VehiclePropertyIds.DISTANCE_DISPLAY_UNITS;
+
+    private UnitsPropertyService mUnitsPropertyService;
+
+    @Mock
+    private CarServiceHub mCarServiceHub;
+    @Mock
+    private Car mCar;
+    @Mock
+    private CarPropertyManager mCarPropertyManager;
+    @Mock
+    private CarPropertyConfig mCarPropertyConfig;
+    @Mock
+    private CarPropertyValue mCarPropertyValue;
+    @Mock
+    private CarUnitsManager.OnCarServiceListener mListener1;
+    @Mock
+    private CarUnitsManager.OnCarServiceListener mListener2;
+    @Mock
+    private CarPropertyManager.CarPropertyEventCallback mCallback1;
+    @Mock
+    private CarPropertyManager.CarPropertyEventCallback mCallback2;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        when(mCar.getCarManager(Car.PROPERTY_SERVICE)).thenReturn(mCarPropertyManager);
+        doAnswer(invocation -> {
+            Car.CarServiceLifecycleListener listener = invocation.getArgument(0);
+            listener.onLifecycleChanged(mCar, /* ready= */ true);
+            return null;
+        }).when(mCarServiceHub).acquire(any(Car.CarServiceLifecycleListener.class));
+
+        when(mCarPropertyConfig.getPropertyId()).thenReturn(PROPERTY_ID);
+        when(mCarPropertyConfig.getAccess())
+                .thenReturn(CarPropertyConfig.VEHICLE_PROPERTY_ACCESS_READ_WRITE);
+        when(mCarPropertyConfig.getConfigArray())
+                .thenReturn(Arrays.asList(VehicleUnit.KILOMETER, VehicleUnit.MILE));
+        when(mCarPropertyManager.getPropertyList(any()))
+                .thenReturn(Collections.singletonList(mCarPropertyConfig));
+        when(mCarPropertyValue.getPropertyId()).thenReturn(PROPERTY_ID);
+
+        mUnitsPropertyService = new UnitsPropertyService(mCarServiceHub);
+    }
+
+    @Test
+    public void acquire_multipleListeners_sharesConnection() {
+        mUnitsPropertyService.acquire(mListener1);
+        mUnitsPropertyService.acquire(mListener2);
+
+        verify(mCarServiceHub, times(1)).acquire(any(Car.CarServiceLifecycleListener.class));
+        verify(mListener1).handleServiceConnected(mCarPropertyManager);
+        verify(mListener2).handleServiceConnected(mCarPropertyManager);
+    }
+
+    @Test
+    public void getUnitsSupportedByProperty_fetchesAllConfigsOnce() {
+        mUnitsPropertyService.acquire(mListener1);
+
+        Unit[] units = mUnitsPropertyService.getUnitsSupportedByProperty(PROPERTY_ID);
+        mUnitsPropertyService.getUnitsSupportedByProperty(
+                VehiclePropertyIds.VEHICLE_SPEED_DISPLAY_UNITS);
+
+        assertThat(units).asList().containsExactly(UnitsMap.KILOMETER, UnitsMap.MILE).inOrder();
+        assertThat(mUnitsPropertyService.getUnitsSupportedByProperty(
+                VehiclePropertyIds.VEHICLE_SPEED_DISPLAY_UNITS)).isNull();
+        assertThat(mUnitsPropertyService.getConfigQueryCount()).isEqualTo(1);
+        verify(mCarPropertyManager, times(1)).getPropertyList(any());
+    }
+
+    @Test
+    public void registerPropertyCallback_multipleCallbacks_registersOnceAndMultiplexes() {
+        mUnitsPropertyService.acquire(mListener1);
+        ArgumentCaptor<CarPropertyManager.CarPropertyEventCallback> captor =
+                ArgumentCaptor.forClass(CarPropertyManager.CarPropertyEventCallback.class);
+
+        mUnitsPropertyService.registerPropertyCallback(PROPERTY_ID, mCallback1);
+        verify(mCarPropertyManager).registerCallback(captor.capture(), eq(PROPERTY_ID),
+                anyFloat());
+        captor.getValue().onChangeEvent(mCarPropertyValue);
+        mUnitsPropertyService.registerPropertyCallback(PROPERTY_ID, mCallback2);
+
+        verify(mCarPropertyManager, times(1)).registerCallback(any(), anyInt(), anyFloat());
+        verify(mCallback1).onChangeEvent(mCarPropertyValue);
+        // The last value is replayed to callbacks registered later.
+        verify(mCallback2).onChangeEvent(mCarPropertyValue);
+    }
+
+    @Test
+    public void release_lastListener_releasesConnection() {
+        mUnitsPropertyService.acquire(mListener1);
+        mUnitsPropertyService.acquire(mListener2);
+
+        mUnitsPropertyService.release(mListener1);
+        verify(mCarServiceHub, never()).release(any(Car.CarServiceLifecycleListener.class));
+
+        mUnitsPropertyService.release(mListener2);
+        verify(mCarServiceHub).release(any(Car.CarServiceLifecycleListener.class));
+        assertThat(mUnitsPropertyService.getCarPropertyManager()).isNull();
+    }
+
+    @Test
+    public void registerPropertyCallback_whileDisconnected_registersOnConnection() {
+        mUnitsPropertyService.acquire(mListener1);
+        Car.CarServiceLifecycleListener lifecycleListener = captureLifecycleListener();
+        lifecycleListener.onLifecycleChanged(mCar, /* ready= */ false);
+
+        mUnitsPropertyService.registerPropertyCallback(PROPERTY_ID, mCallback1);
+        verify(mCarPropertyManager, never()).registerCallback(any(), anyInt(), anyFloat());
+        lifecycleListener.onLifecycleChanged(mCar, /* ready= */ true);
+
+        verify(mCarPropertyManager).registerCallback(any(), eq(PROPERTY_ID), anyFloat());
+    }
+
+    @Test
+    public void serviceReconnected_registeredCallback_stillReceivesChanges() {
+        mUnitsPropertyService.acquire(mListener1);
+        Car.CarServiceLifecycleListener lifecycleListener = captureLifecycleListener();
+        mUnitsPropertyService.registerPropertyCallback(PROPERTY_ID, mCallback1);
+
+        lifecycleListener.onLifecycleChanged(mCar, /* ready= */ false);
+        lifecycleListener.onLifecycleChanged(mCar, /* ready= */ true);
+
+        ArgumentCaptor<CarPropertyManager.CarPropertyEventCallback> captor =
+                ArgumentCaptor.forClass(CarPropertyManager.CarPropertyEventCallback.class);
+        verify(mCarPropertyManager, times(2)).registerCallback(captor.capture(),
+                eq(PROPERTY_ID), anyFloat());
+        captor.getValue().onChangeEvent(mCarPropertyValue);
+        verify(mCallback1).onChangeEvent(mCarPropertyValue);
+    }
+
+    private Car.CarServiceLifecycleListener captureLifecycleListener() {
+        ArgumentCaptor<Car.CarServiceLifecycleListener> captor =
+                ArgumentCaptor.forClass(Car.CarServiceLifecycleListener.class);
+        verify(mCarServiceHub).acquire(captor.capture());
+        return captor.getValue();
+    }
+}
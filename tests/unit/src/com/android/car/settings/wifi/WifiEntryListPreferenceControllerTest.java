@@ -38,6 +38,7 @@ import android.os.UserManager;
 
 import androidx.lifecycle.Lifecycle;
 import androidx.lifecycle.LifecycleOwner;
+import androidx.preference.Preference;
 import androidx.preference.PreferenceGroup;
 import androidx.preference.PreferenceManager;
 import androidx.preference.PreferenceScreen;
@@ -69,6 +70,8 @@ import java.util.Set;
 @RunWith(AndroidJUnit4.class)
 public class WifiEntryListPreferenceControllerTest {
     private static final int SIGNAL_LEVEL = 1;
+    private static final String TEST_KEY = "test_key";
+    private static final String TEST_TITLE = "test_title";
 
     // Use a spied context to be able to mock UserManager.
     private Context mSpiedContext = spy(ApplicationProvider.getApplicationContext());
@@ -143,6 +146,38 @@ public class WifiEntryListPreferenceControllerTest {
         assertThat(mPreferenceGroup.getPreferenceCount()).isEqualTo(wifiEntryList.size());
     }
 
+    @Test
+    public void refreshUi_sameWifiEntry_reusesPreference() {
+        List<WifiEntry> wifiEntryList = Arrays.asList(mMockWifiEntry1);
+        when(mMockCarWifiManager.getAllWifiEntries()).thenReturn(wifiEntryList);
+        mPreferenceController.onCreate(mLifecycleOwner);
+        Preference preference = mPreferenceGroup.getPreference(0);
+
+        mPreferenceController.refreshUi();
+
+        assertThat(mPreferenceGroup.getPreferenceCount()).isEqualTo(1);
+        assertThat(mPreferenceGroup.getPreference(0)).isSameInstanceAs(preference);
+    }
+
+    @Test
+    public void refreshUi_newWifiEntryInstanceWithSameKey_rebindsPreference() {
+        when(mMockWifiEntry1.getKey()).thenReturn(TEST_KEY);
+        when(mMockWifiEntry2.getKey()).thenReturn(TEST_KEY);
+        when(mMockWifiEntry2.getTitle()).thenReturn(TEST_TITLE);
+        when(mMockCarWifiManager.getAllWifiEntries()).thenReturn(Arrays.asList(mMockWifiEntry1));
+        mPreferenceController.onCreate(mLifecycleOwner);
+        WifiEntryPreference preference = (WifiEntryPreference) mPreferenceGroup.getPreference(0);
+
+        when(mMockCarWifiManager.getAllWifiEntries()).thenReturn(Arrays.asList(mMockWifiEntry2));
+        mPreferenceController.refreshUi();
+
+        assertThat(mPreferenceGroup.getPreference(0)).isSameInstanceAs(preference);
+        assertThat(preference.getWifiEntry()).isSameInstanceAs(mMockWifiEntry2);
+        assertThat(preference.getTitle().toString()).isEqualTo(TEST_TITLE);
+        verify(mMockWifiEntry1).setListener(null);
+        verify(mMockWifiEntry2).setListener(preference);
+    }
+
     @Test
     public void refreshUi_notSavedWifiEntry_noForgetButton() {
         when(mMockWifiEntry1.isSaved()).thenReturn(false);